@@ -219,6 +219,33 @@ public class Config extends ConfigBase {
             "The log roll size of BDBJE. When the number of log entries exceeds this value, the log will be rolled"})
     public static int edit_log_roll_num = 50000;
 
+    @ConfField(description = {"是否将并发写入的元数据日志合并为一个批次写入 BDBJE，每个批次只提交一次事务",
+            "Whether to merge the concurrently written edit logs into one batch, "
+                    + "and commit one BDBJE transaction for each batch"})
+    public static boolean enable_batch_editlog = false;
+
+    @ConfField(mutable = true, masterOnly = true, description = {"合并写入元数据日志时，一个批次的最大日志条数",
+            "The max number of edit logs in one batch when enable_batch_editlog is true"})
+    public static int batch_edit_log_max_item_num = 32;
+
+    @ConfField(mutable = true, masterOnly = true, description = {"合并写入元数据日志时，一个批次的最大字节数",
+            "The max bytes of edit logs in one batch when enable_batch_editlog is true"})
+    public static long batch_edit_log_max_byte_size = 640 * 1024L;
+
+    @ConfField(mutable = true, masterOnly = true, description = {
+            "以紧凑的二进制格式（而不是 JSON）写入元数据日志的操作类型，例如 OP_UPSERT_TRANSACTION_STATE。"
+                    + "目前支持 OP_UPSERT_TRANSACTION_STATE, OP_DELETE_TRANSACTION_STATE, OP_BATCH_REMOVE_TXNS, "
+                    + "OP_BATCH_REMOVE_TXNS_V2, OP_ADD_REPLICA, OP_UPDATE_REPLICA, OP_DELETE_REPLICA 和 "
+                    + "OP_CLEAR_ROLLUP_INFO。两种格式的日志可以同时回放，但旧版本的 FE 无法回放二进制格式的日志，"
+                    + "因此需要在所有 FE 升级完成后再开启。",
+            "The operation types whose edit logs are written in the compact binary format instead of JSON, "
+                    + "eg. OP_UPSERT_TRANSACTION_STATE. Supported: OP_UPSERT_TRANSACTION_STATE, "
+                    + "OP_DELETE_TRANSACTION_STATE, OP_BATCH_REMOVE_TXNS, OP_BATCH_REMOVE_TXNS_V2, OP_ADD_REPLICA, "
+                    + "OP_UPDATE_REPLICA, OP_DELETE_REPLICA and OP_CLEAR_ROLLUP_INFO. The logs of both formats "
+                    + "can be replayed, but the old FE can not replay the binary logs, "
+                    + "so only enable it after all the FEs are upgraded."})
+    public static String[] binary_journal_op_types = {};
+
     @ConfField(description = {"元数据同步的容忍延迟时间，单位为秒。如果元数据的延迟超过这个值，非主 FE 会停止提供服务",
             "The toleration delay time of meta data synchronization, in seconds. "
                     + "If the delay of meta data exceeds this value, non-master FE will stop offering service"})
@@ -443,6 +470,28 @@ public class Config extends ConfigBase {
     @ConfField(description = {"MySQL 服务的最大任务线程数", "The max number of task threads in MySQL service"})
     public static int max_mysql_service_task_threads_num = 4096;
 
+    @ConfField(description = {"是否在虚拟线程中处理 MySQL 连接的任务。处理查询的任务在等待 BE 的 RPC 时不会占用平台线程，"
+            + "适合大量并发连接的场景。需要 JDK 21 及以上版本，否则仍然使用平台线程。"
+            + "max_mysql_service_task_threads_num 仍然限制并发任务的数量。",
+            "Whether to handle the tasks of MySQL connections in virtual threads. The tasks blocked on the rpc "
+                    + "to BE don't hold the platform threads, which is suitable for a large number of concurrent "
+                    + "connections. It needs JDK 21 or later, otherwise the platform threads are still used. "
+                    + "The number of concurrent tasks is still limited by max_mysql_service_task_threads_num."})
+    public static boolean enable_mysql_service_virtual_thread = false;
+
+    @ConfField(mutable = true, description = {"是否批量发送查询结果的行。不能缓存在发送缓冲区中的一批行会和包头一起编码到池化的"
+            + "堆外内存中（较大的行直接发送，不做拷贝），并通过一次 gathering write 发送，以降低大结果集的 CPU 开销。",
+            "Whether to send the rows of the query result in batch. A batch of rows which can't be buffered in the "
+                    + "send buffer are encoded with their packet headers into the pooled direct buffers (the large "
+                    + "rows are sent without copy), and sent by gathering writes, to reduce the CPU cost of "
+                    + "large results."})
+    public static boolean enable_mysql_batch_send_rows = false;
+
+    @ConfField(description = {"在后台解码预取的查询结果的线程数，参见会话变量 fetch_result_lookahead_num。",
+            "The number of threads to decode the prefetched query results in background, "
+                    + "see the session variable fetch_result_lookahead_num."})
+    public static int fetch_result_decode_thread_num = 4;
+
     @ConfField(description = {"BackendServiceProxy数量, 用于池化GRPC channel",
             "BackendServiceProxy pool size for pooling GRPC channels."})
     public static int backend_proxy_num = 48;
@@ -506,6 +555,16 @@ public class Config extends ConfigBase {
             "The interval of publish task trigger thread, in milliseconds"})
     public static int publish_version_interval_ms = 10;
 
+    @ConfField(mutable = true, masterOnly = true, description = {"是否开启批量 publish。开启后，每一轮 publish 中"
+            + "同一个数据库内可以完成的事务会一起完成，并在一个 edit log batch 中持久化。",
+            "Whether to enable batch publish. If enabled, the transactions of a db which can be finished in a "
+                    + "round of publish are finished together, and persisted in one edit log batch."})
+    public static boolean enable_batch_publish_version = false;
+
+    @ConfField(mutable = true, masterOnly = true, description = {"批量 publish 时，一个批次中最多完成的事务数。",
+            "The max number of the transactions finished in a batch of batch publish."})
+    public static int batch_publish_version_max_txn_num = 200;
+
     @ConfField(description = {"thrift server 的最大 worker 线程数", "The max worker threads of thrift server"})
     public static int thrift_server_max_worker_threads = 4096;
 
@@ -675,6 +734,12 @@ public class Config extends ConfigBase {
             "Txn manager will reject coming txns."})
     public static int max_running_txn_num_per_db = 1000;
 
+    @ConfField(masterOnly = true, description = {"单个数据库事务管理器中按事务 id 和 label 划分的锁分段数。"
+            + "不同分段上的事务的 begin/commit/abort 可以并发执行。",
+            "The lock stripe num by transaction id and by label in the transaction manager of a single db. "
+                    + "The begin/commit/abort of the transactions in different stripes can run concurrently."})
+    public static int txn_lock_stripe_num = 64;
+
     @ConfField(masterOnly = true, description = {"pending load task 执行线程数。这个配置可以限制当前等待的导入作业数。"
             + "并且应小于 `max_running_txn_num_per_db`。",
             "The pending load task executor pool size. "
@@ -955,6 +1020,13 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int max_point_query_retry_time = 2;
 
+    @ConfField(mutable = true, description = {"主键点查短路径一次最多查询的主键个数，"
+            + "例如 `k1 in (...) and k2 in (...)` 的各个 IN 列表长度的乘积，超过后使用普通的查询计划执行。",
+            "The max number of primary keys looked up by a short circuit point query, "
+            + "eg. the product of the IN list sizes of `k1 in (...) and k2 in (...)`. "
+            + "The query with more keys is executed by the normal query plan."})
+    public static int max_point_query_batch_keys = 1024;
+
     /**
      * The tryLock timeout configuration of catalog lock.
      * Normally it does not need to change, unless you need to test something.
@@ -1178,6 +1250,24 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true, masterOnly = true)
     public static int report_queue_size = 100;
 
+    @ConfField(masterOnly = true, description = {"并行处理 BE 汇报的线程数。同一个 BE 的汇报总是由同一个线程按顺序处理。",
+            "The number of threads to handle the reports of backends in parallel. "
+                    + "The reports of one backend are always handled by the same thread in order."})
+    public static int report_handler_shard_num = 4;
+
+    @ConfField(mutable = true, masterOnly = true, description = {"tablet 汇报按 tablet id 范围分片并行比对，"
+            + "每个分片包含的 tablet 数。比对每个分片时才持有 TabletInvertedIndex 的读锁。",
+            "The tablet report is split by tablet id range and diffed in parallel, this is the tablet number "
+                    + "of a shard. The read lock of TabletInvertedIndex is only held while diffing a shard."})
+    public static int tablet_report_shard_tablet_num = 10000;
+
+    @ConfField(mutable = true, masterOnly = true, description = {"是否接受 BE 的增量 tablet 汇报。"
+            + "增量汇报只包含上次汇报后变化的 tablet，若其基于的汇报版本与 FE 记录的不一致，会要求 BE 进行全量汇报。",
+            "Whether to accept the delta tablet reports of backends. A delta report only contains the tablets "
+                    + "changed since the last report. If it is not based on the last report accepted by FE, "
+                    + "the backend is asked to send a full report."})
+    public static boolean enable_delta_tablet_report = true;
+
     /**
      * If set to true, metric collector will be run as a daemon timer to collect metrics at fix interval
      */
@@ -1386,6 +1476,10 @@ public class Config extends ConfigBase {
         "Maximum data size of rows that can be cached in SQL/Partition Cache, is 3000 by default."})
     public static int cache_result_max_data_size = 31457280; // 30M
 
+    @ConfField(description = {"Nereids Partition Cache在FE内存中缓存的各分区结果的最大数据大小。",
+        "Maximum data size of the partition results cached in FE memory by the Nereids partition cache."})
+    public static long partition_cache_max_data_size_in_fe = 268435456; // 256M
+
     /**
      * Used to limit element num of InPredicate in delete statement.
      */
@@ -1836,6 +1930,11 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static long remote_fragment_exec_timeout_ms = 30000; // 30 sec
 
+    @ConfField(description = {"Coordinator 并行序列化和发送各个 BE 的 fragment 参数的线程数。",
+            "The number of threads to serialize and send the fragment params of the backends in parallel "
+            + "by the coordinator."})
+    public static int fragment_dispatch_thread_num = 32;
+
     /**
      * Max data version of backends serialize block.
      */
@@ -1999,6 +2098,26 @@ public class Config extends ConfigBase {
             "Max number of hive partition values to return while list partitions, -1 means no limitation."})
     public static short max_hive_list_partition_num = -1;
 
+    @ConfField(description = {"并行加载Hive分区的线程池大小，所有Catalog共享该线程池",
+            "The thread pool size for loading hive partitions from metastore in parallel, shared by all catalogs."})
+    public static int hive_partition_loading_thread_num = 32;
+
+    @ConfField(description = {"每个Hive Catalog并行加载分区时，同时访问Hive Metastore的最大请求数",
+            "The max number of concurrent requests to hive metastore when loading partitions of a catalog."})
+    public static int max_hive_partition_loading_concurrency_per_catalog = 8;
+
+    @ConfField(mutable = true, masterOnly = false, description = {"加载Hive分区时，单次请求获取的最大分区数量。"
+            + "实际的批大小会根据请求耗时在16和该值之间自动调整",
+            "The max number of partitions to get in one request when loading hive partitions. "
+                    + "The actual batch size is adjusted between 16 and this value by the request latency."})
+    public static int hive_partition_loading_max_batch_size = 2000;
+
+    @ConfField(mutable = true, masterOnly = false, description = {"加载Hive分区时，单次请求的目标耗时。"
+            + "请求耗时超过该值时减小批大小，远小于该值时增大批大小",
+            "The target latency of one request when loading hive partitions. The batch size shrinks if a request "
+                    + "is slower than it, and grows if a request is much faster than it."})
+    public static long hive_partition_loading_target_rpc_latency_ms = 1000;
+
     @ConfField(mutable = false, masterOnly = false, description = {"远程文件系统缓存的最大数量",
             "Max cache number of remote file system."})
     public static long max_remote_file_system_cache_num = 100;
@@ -2014,6 +2133,32 @@ public class Config extends ConfigBase {
     @ConfField(mutable = false, masterOnly = false)
     public static int max_external_cache_loader_thread_pool_size = 64;
 
+    @ConfField(description = {"读取Iceberg manifest文件的线程池大小，所有查询共享该线程池",
+            "The thread pool size for reading iceberg manifest files in parallel, shared by all queries."})
+    public static int iceberg_manifest_reading_thread_num = 16;
+
+    @ConfField(description = {"是否在本地磁盘缓存外表的manifest文件，缓存在FE重启后仍然有效，目前仅对Iceberg表生效",
+            "Whether to cache the manifest files of external tables on local disk. The cache survives FE restart. "
+                    + "Only works for iceberg table now."})
+    public static boolean enable_external_manifest_disk_cache = false;
+
+    @ConfField(description = {"外表manifest磁盘缓存的目录", "The directory of the manifest disk cache of external tables."})
+    public static String external_manifest_disk_cache_dir = System.getenv("DORIS_HOME") + "/manifest_cache";
+
+    @ConfField(description = {"外表manifest磁盘缓存的最大字节数，超过后按LRU淘汰",
+            "The max bytes of the manifest disk cache of external tables, the least recently used manifests "
+                    + "are evicted when exceeded."})
+    public static long external_manifest_disk_cache_max_bytes = 10L * 1024 * 1024 * 1024;
+
+    @ConfField(description = {"是否使用Iceberg manifest级别的min/max裁剪索引，在读取manifest前根据谓词跳过不可能命中的manifest",
+            "Whether to use the manifest level min/max pruning index of iceberg, which skips the manifests "
+                    + "that can not match the predicates before reading them."})
+    public static boolean enable_iceberg_manifest_pruning_index = false;
+
+    @ConfField(description = {"Iceberg manifest裁剪索引占用的最大内存字节数",
+            "The max memory bytes of the manifest pruning index of iceberg."})
+    public static long iceberg_manifest_pruning_index_max_bytes = 256L * 1024 * 1024;
+
     /**
      * Max cache num of external catalog's file
      * Decrease this value if FE's memory is small
@@ -2096,6 +2241,12 @@ public class Config extends ConfigBase {
                     + "the old load statement will be degraded."})
     public static boolean enable_nereids_load = false;
 
+    @ConfField(description = {"Nereids 优化器并行推导统计信息的线程池大小，所有查询共享该线程池。"
+            + "设置为 0 时禁用并行推导，忽略会话变量 enable_parallel_derive_stats",
+            "The thread pool size for deriving the statistics of Nereids optimizer in parallel, shared by all "
+                    + "queries. 0 disables the parallel derivation, and enable_parallel_derive_stats is ignored."})
+    public static int nereids_parallel_derive_stats_thread_num = 8;
+
     /**
      * the plan cache num which can be reused for the next query
      */
@@ -2111,6 +2262,25 @@ public class Config extends ConfigBase {
     )
     public static int sql_cache_manage_num = 100;
 
+    @ConfField(
+            description = {"解析后语法树缓存的最大内存（估算值），单位字节，0 表示关闭缓存",
+                    "The max estimated memory of the parsed statement cache in bytes, 0 means disable the cache"}
+    )
+    public static long parsed_statement_cache_max_bytes = 64L * 1024 * 1024;
+
+    @ConfField(
+            mutable = true,
+            description = {"长度超过该值的 SQL 不进入解析后语法树缓存",
+                    "The sql longer than this length is not cached by the parsed statement cache"}
+    )
+    public static int parsed_statement_cache_max_sql_length = 16384;
+
+    @ConfField(
+            description = {"FE 启动时是否预先解析常见语句，以预热语法解析器的 DFA 缓存",
+                    "Whether to parse the common statements when FE starts, to warm up the DFA cache of the parser"}
+    )
+    public static boolean enable_parser_warmup = true;
+
     /**
      * Maximum number of events to poll in each RPC.
      */
@@ -2519,6 +2689,32 @@ public class Config extends ConfigBase {
     })
     public static boolean ignore_unknown_metadata_module = false;
 
+    @ConfField(mutable = true, masterOnly = true, description = {
+            "是否以分段格式保存 image 文件。分段格式中每个元数据模块（以及 db、transactionState 的每个 database）"
+                    + "都是一个独立压缩、可按索引定位的段，可以并行地保存和加载，以缩短 checkpoint 和 FE 启动的时间。"
+                    + "注意旧版本的 FE 无法加载分段格式的 image，降级前需要关闭此参数并重新生成 image。",
+            "Whether to save the image in the sectioned format. In the sectioned format, each meta module "
+                    + "(and each database of the db and transactionState modules) is an independently compressed "
+                    + "section addressed by the footer index, so the sections can be saved and loaded in parallel "
+                    + "to reduce the checkpoint and FE startup time. "
+                    + "Note that an older FE can not load a sectioned image, so disable it and make a new image "
+                    + "before downgrading."
+    })
+    public static boolean enable_sectioned_image = false;
+
+    @ConfField(description = {"并行保存和加载分段格式 image 的线程数。",
+            "The number of threads to save and load the sectioned image in parallel."})
+    public static int sectioned_image_thread_num = 8;
+
+    @ConfField(description = {"非 checkpoint 加载分段格式的 image 时（例如 follower 和 observer 启动时），"
+            + "是否延迟反序列化 database：database 从内存映射的 image 中，在第一次被访问时或由后台线程反序列化，"
+            + "加载 image 和回放元数据日志不等待所有 database 加载完成。",
+            "When loading a sectioned image not for checkpoint (eg. the startup of follower and observer), "
+                    + "whether to deserialize the databases lazily. A database is deserialized from the memory "
+                    + "mapped image on its first access or by the background threads. Loading the image and "
+                    + "replaying the journals do not wait for all the databases."})
+    public static boolean enable_lazy_image_load = true;
+
     @ConfField(mutable = true, masterOnly = true, description = {
             "从主节点同步image文件的超时时间，用户可根据${meta_dir}/image文件夹下面的image文件大小和节点间的网络环境调整，"
                     + "单位为秒，默认值300",
@@ -2737,6 +2933,18 @@ public class Config extends ConfigBase {
     @ConfField
     public static long spilled_profile_storage_limit_bytes = 1 * 1024 * 1024 * 1024; // 1GB
 
+    @ConfField(mutable = true, description = {
+            "已结束查询的 Profile 以压缩形式保存在内存中的总大小上限，超过后最早的 Profile 会被追加到磁盘上的 Profile 段文件中",
+            "The max total size of the compressed profiles of finished queries kept in memory, "
+                    + "the oldest ones are appended to the profile segments on storage when it is exceeded"})
+    public static long max_in_memory_compressed_profile_bytes = 64 * 1024 * 1024; // 64MB
+
+    @ConfField(description = {
+            "磁盘上单个 Profile 段文件的大小，写满后会创建新的段文件，过期的 Profile 按段删除",
+            "The size of a profile segment on storage, a new segment is created when it is full, "
+                    + "and the outdated profiles are deleted by segments"})
+    public static long profile_segment_size_bytes = 64 * 1024 * 1024; // 64MB
+
     @ConfField(mutable = true, description = {
             "是否通过检测协调者BE心跳来 abort 事务",
             "SHould abort txn by checking coorinator be heartbeat"})
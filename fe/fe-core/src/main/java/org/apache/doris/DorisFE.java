@@ -34,6 +34,7 @@ import org.apache.doris.httpv2.HttpServer;
 import org.apache.doris.journal.bdbje.BDBDebugger;
 import org.apache.doris.journal.bdbje.BDBTool;
 import org.apache.doris.journal.bdbje.BDBToolOptions;
+import org.apache.doris.nereids.parser.NereidsParser;
 import org.apache.doris.persist.meta.MetaReader;
 import org.apache.doris.qe.QeService;
 import org.apache.doris.qe.SimpleScheduler;
@@ -217,6 +218,9 @@ public class DorisFE {
             SimpleScheduler.init();
 
             if (options.enableQeService) {
+                if (Config.enable_parser_warmup) {
+                    NereidsParser.warmup();
+                }
                 QeService qeService = new QeService(Config.query_port, Config.arrow_flight_sql_port,
                                                     ExecuteEnv.getInstance().getScheduler());
                 qeService.start();
@@ -106,6 +106,7 @@ import org.apache.doris.common.FeConstants;
 import org.apache.doris.common.FeMetaVersion;
 import org.apache.doris.common.LogUtils;
 import org.apache.doris.common.MetaNotFoundException;
+import org.apache.doris.common.NereidsPartitionCacheManager;
 import org.apache.doris.common.NereidsSqlCacheManager;
 import org.apache.doris.common.Pair;
 import org.apache.doris.common.ThreadPoolManager;
@@ -436,6 +437,8 @@ public class Env {
 
     private static Env CHECKPOINT = null;
     private static long checkpointThreadId = -1;
+    // the threads which save or load the image sections for the checkpoint thread in parallel
+    private static final Set<Long> checkpointWorkerThreadIds = ConcurrentHashMap.newKeySet();
     private Checkpoint checkpointer;
     protected List<HostInfo> helperNodes = Lists.newArrayList();
     protected HostInfo selfNode = null;
@@ -562,6 +565,8 @@ public class Env {
 
     private final NereidsSqlCacheManager sqlCacheManager;
 
+    private final NereidsPartitionCacheManager partitionCacheManager;
+
     private final SplitSourceManager splitSourceManager;
 
     private final List<String> forceSkipJournalIds = Arrays.asList(Config.force_skip_journal_ids);
@@ -807,6 +812,7 @@ public class Env {
         this.insertOverwriteManager = new InsertOverwriteManager();
         this.dnsCache = new DNSCache();
         this.sqlCacheManager = new NereidsSqlCacheManager();
+        this.partitionCacheManager = new NereidsPartitionCacheManager();
         this.splitSourceManager = new SplitSourceManager();
     }
 
@@ -955,7 +961,20 @@ public class Env {
     }
 
     public static final boolean isCheckpointThread() {
-        return Thread.currentThread().getId() == checkpointThreadId;
+        long threadId = Thread.currentThread().getId();
+        return threadId == checkpointThreadId
+                || (!checkpointWorkerThreadIds.isEmpty() && checkpointWorkerThreadIds.contains(threadId));
+    }
+
+    /**
+     * Mark the current thread as a worker of the checkpoint thread, so that it sees the checkpoint env.
+     */
+    public static void registerCheckpointWorkerThread() {
+        checkpointWorkerThreadIds.add(Thread.currentThread().getId());
+    }
+
+    public static void unregisterCheckpointWorkerThread() {
+        checkpointWorkerThreadIds.remove(Thread.currentThread().getId());
     }
 
     public static PluginMgr getCurrentPluginMgr() {
@@ -1542,6 +1561,9 @@ public class Env {
 
             checkBeExecVersion();
 
+            // only the master writes journals
+            editLog.startBatchWriter();
+
             toMasterProgress = "roll editlog";
             editLog.rollEditLog();
 
@@ -1714,6 +1736,8 @@ public class Env {
             }
         }
 
+        // the daemons rely on the complete catalog and tablet inverted index
+        getInternalCatalog().waitLazyLoadDbs();
         auth.rectifyPrivs();
         catalogMgr.registerCatalogRefreshListener(this);
         return true;
@@ -2864,6 +2888,8 @@ public class Env {
                             String msg = "transfer FE type from MASTER to " + newType.name() + ". exit";
                             LOG.error(msg);
                             LogUtils.stdout(msg);
+                            // finish the writing journal batch, a non-master must not write journals
+                            editLog.stopBatchWriter();
                             System.exit(-1);
                             break;
                         }
@@ -5737,6 +5763,9 @@ public class Env {
     public void replayBackendReplicasInfo(BackendReplicasInfo backendReplicasInfo) {
         long backendId = backendReplicasInfo.getBackendId();
         List<BackendReplicasInfo.ReplicaReportInfo> replicaInfos = backendReplicasInfo.getReplicaReportInfos();
+        // the tablets of the databases not loaded yet are not in the inverted index, and the database of
+        // a tablet is unknown before it is loaded, so wait for all the databases of image to be loaded
+        getInternalCatalog().waitLazyLoadDbs();
 
         for (BackendReplicasInfo.ReplicaReportInfo info : replicaInfos) {
             if (tabletInvertedIndex.getTabletMeta(info.tabletId) == null) {
@@ -6044,6 +6073,8 @@ public class Env {
             boolean isReplay)
             throws MetaNotFoundException {
         try {
+            // the tablet may belong to a database of image which is not loaded yet
+            getInternalCatalog().waitLazyLoadDbs();
             TabletMeta meta = tabletInvertedIndex.getTabletMeta(tabletId);
             if (meta == null) {
                 throw new MetaNotFoundException("tablet does not exist");
@@ -6107,6 +6138,8 @@ public class Env {
             if (Config.isCloudMode()) {
                 throw new MetaNotFoundException("not support modify replica version in cloud mode");
             }
+            // the tablet may belong to a database of image which is not loaded yet
+            getInternalCatalog().waitLazyLoadDbs();
             TabletMeta meta = tabletInvertedIndex.getTabletMeta(tabletId);
             if (meta == null) {
                 throw new MetaNotFoundException("tablet does not exist");
@@ -6454,6 +6487,10 @@ public class Env {
         return sqlCacheManager;
     }
 
+    public NereidsPartitionCacheManager getPartitionCacheManager() {
+        return partitionCacheManager;
+    }
+
     public SplitSourceManager getSplitSourceManager() {
         return splitSourceManager;
     }
@@ -21,6 +21,8 @@ import org.apache.doris.catalog.Replica.ReplicaState;
 import org.apache.doris.common.Config;
 import org.apache.doris.common.FeConstants;
 import org.apache.doris.common.Pair;
+import org.apache.doris.common.util.LongLongHashMap;
+import org.apache.doris.common.util.LongObjectHashMap;
 import org.apache.doris.cooldown.CooldownConf;
 import org.apache.doris.master.PartitionInfoCollector.PartitionCollectInfo;
 import org.apache.doris.task.PublishVersionTask;
@@ -50,6 +52,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -57,6 +61,8 @@ import java.util.Set;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.locks.StampedLock;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /*
  * this class stores a inverted index
@@ -74,11 +80,15 @@ public class TabletInvertedIndex {
 
     private StampedLock lock = new StampedLock();
 
+    // The indexes below hold an entry for every tablet and replica, there may be tens of millions of them.
+    // So they are keyed by primitive long instead of boxed Long, which saves the boxed keys and the
+    // HashMap entries, see LongObjectHashMap.
+
     // tablet id -> tablet meta
-    private Map<Long, TabletMeta> tabletMetaMap = Maps.newHashMap();
+    private LongObjectHashMap<TabletMeta> tabletMetaMap = new LongObjectHashMap<>();
 
     // replica id -> tablet id
-    private Map<Long, Long> replicaToTabletMap = Maps.newHashMap();
+    private LongLongHashMap replicaToTabletMap = new LongLongHashMap();
 
     /*
      *  we use this to save memory.
@@ -93,11 +103,11 @@ public class TabletInvertedIndex {
 
     // tablet id -> (backend id -> replica)
     // for cloud mode, no need to known the replica's backend, so use backend id = -1 in cloud mode.
-    private Table<Long, Long, Replica> replicaMetaTable = HashBasedTable.create();
+    private LongObjectHashMap<TabletReplicas> replicaMetaTable = new LongObjectHashMap<>();
 
     // backing replica table, for visiting backend replicas faster.
     // backend id -> (tablet id -> replica)
-    private Table<Long, Long, Replica> backingReplicaMetaTable = HashBasedTable.create();
+    private Map<Long, LongObjectHashMap<Replica>> backingReplicaMetaTable = Maps.newHashMap();
 
     // partition id -> partition info.
     // notice partition info update every Config.partition_info_update_interval_secs seconds,
@@ -126,7 +136,15 @@ public class TabletInvertedIndex {
         this.lock.unlockWrite(stamp);
     }
 
+    /**
+     * Diff the reported tablets of the backend with the meta.
+     *
+     * @param deletedTabletIds null for a full report. Otherwise it is a delta report, the backendTablets only
+     *                         contain the changed tablets, and these are the tablets deleted in the backend.
+     *                         Only the changed and deleted tablets are diffed.
+     */
     public void tabletReport(long backendId, Map<Long, TTablet> backendTablets,
+                             Collection<Long> deletedTabletIds,
                              Map<Long, Long> backendPartitionsVersion,
                              final HashMap<Long, TStorageMedium> storageMediumMap,
                              ListMultimap<Long, Long> tabletSyncMap,
@@ -141,175 +159,233 @@ public class TabletInvertedIndex {
                              List<CooldownConf> cooldownConfToPush,
                              List<CooldownConf> cooldownConfToUpdate) {
         List<Pair<TabletMeta, TTabletInfo>> cooldownTablets = new ArrayList<>();
-        long feTabletNum = 0;
-        long stamp = readLock();
         long start = System.currentTimeMillis();
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("begin to do tablet diff with backend[{}]. num: {}", backendId, backendTablets.size());
+        }
+        // The lock is only held to take the tablet ids of this backend and then the replicas of each shard,
+        // so the metadata modification is not blocked by the diff of a large report.
+        long[] tabletIds;
+        long feTabletNum;
+        long stamp = readLock();
         try {
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("begin to do tablet diff with backend[{}]. num: {}", backendId, backendTablets.size());
+            LongObjectHashMap<Replica> replicaMetaWithBackend = backingReplicaMetaTable.get(backendId);
+            feTabletNum = replicaMetaWithBackend == null ? 0 : replicaMetaWithBackend.size();
+            if (deletedTabletIds == null) {
+                tabletIds = replicaMetaWithBackend == null ? new long[0] : replicaMetaWithBackend.keys();
+            } else {
+                tabletIds = Stream.concat(backendTablets.keySet().stream(), deletedTabletIds.stream())
+                        .mapToLong(Long::longValue).distinct().toArray();
             }
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            if (replicaMetaWithBackend != null) {
-                feTabletNum = replicaMetaWithBackend.size();
-                taskPool.submit(() -> {
-                    // traverse replicas in meta with this backend
-                    replicaMetaWithBackend.entrySet().parallelStream().forEach(entry -> {
-                        long tabletId = entry.getKey();
-                        Preconditions.checkState(tabletMetaMap.containsKey(tabletId),
-                                "tablet " + tabletId + " not exists, backend " + backendId);
-                        TabletMeta tabletMeta = tabletMetaMap.get(tabletId);
-
-                        if (backendTablets.containsKey(tabletId)) {
-                            TTablet backendTablet = backendTablets.get(tabletId);
-                            Replica replica = entry.getValue();
-                            tabletFoundInMeta.add(tabletId);
-                            TTabletInfo backendTabletInfo = backendTablet.getTabletInfos().get(0);
-                            TTabletMetaInfo tabletMetaInfo = null;
-                            if (backendTabletInfo.getReplicaId() != replica.getId()
-                                    && replica.getState() != ReplicaState.CLONE) {
-                                // Need to update replica id in BE
-                                tabletMetaInfo = new TTabletMetaInfo();
-                                tabletMetaInfo.setReplicaId(replica.getId());
-                            }
-                            PartitionCollectInfo partitionCollectInfo =
-                                    partitionCollectInfoMap.get(backendTabletInfo.getPartitionId());
-                            boolean isInMemory = partitionCollectInfo != null && partitionCollectInfo.isInMemory();
-                            if (isInMemory != backendTabletInfo.isIsInMemory()) {
-                                if (tabletMetaInfo == null) {
-                                    tabletMetaInfo = new TTabletMetaInfo();
-                                    tabletMetaInfo.setIsInMemory(isInMemory);
-                                }
-                            }
-                            if (Config.fix_tablet_partition_id_eq_0
-                                    && tabletMeta.getPartitionId() > 0
-                                    && backendTabletInfo.getPartitionId() == 0) {
-                                LOG.warn("be report tablet partition id not eq fe, in be {} but in fe {}",
-                                        backendTabletInfo, tabletMeta);
-                                // Need to update partition id in BE
-                                tabletMetaInfo = new TTabletMetaInfo();
-                                tabletMetaInfo.setPartitionId(tabletMeta.getPartitionId());
-                            }
-                            // 1. (intersection)
-                            if (needSync(replica, backendTabletInfo)) {
-                                // need sync
-                                synchronized (tabletSyncMap) {
-                                    tabletSyncMap.put(tabletMeta.getDbId(), tabletId);
-                                }
-                            }
+        } finally {
+            readUnlock(stamp);
+        }
+        // split by tablet id range
+        Arrays.sort(tabletIds);
+        int shardSize = Math.max(1, Config.tablet_report_shard_tablet_num);
+        int shardNum = (tabletIds.length + shardSize - 1) / shardSize;
+        taskPool.submit(() -> {
+            IntStream.range(0, shardNum).parallel().forEach(shard -> {
+                int from = shard * shardSize;
+                int to = Math.min(tabletIds.length, from + shardSize);
+                tabletReportShard(backendId, Arrays.copyOfRange(tabletIds, from, to), backendTablets,
+                        storageMediumMap, tabletSyncMap, tabletDeleteFromMeta, tabletFoundInMeta,
+                        tabletMigrationMap, transactionsToPublish, transactionsToClear, tabletRecoveryMap,
+                        tabletToUpdate, cooldownTablets);
+            });
+
+            backendPartitionsVersion.entrySet().parallelStream().forEach(entry -> {
+                long partitionId = entry.getKey();
+                long backendVersion = entry.getValue();
+                PartitionCollectInfo partitionInfo = partitionCollectInfoMap.get(partitionId);
+                if (partitionInfo != null && partitionInfo.getVisibleVersion() > backendVersion) {
+                    partitionVersionSyncMap.put(partitionId, partitionInfo.getVisibleVersion());
+                }
+            });
+        }).join();
+        cooldownTablets.forEach(p -> handleCooldownConf(p.first, p.second, cooldownConfToPush, cooldownConfToUpdate));
 
-                            // check and set path
-                            // path info of replica is only saved in Master FE
-                            if (backendTabletInfo.isSetPathHash()
-                                    && replica.getPathHash() != backendTabletInfo.getPathHash()) {
-                                replica.setPathHash(backendTabletInfo.getPathHash());
-                            }
+        long end = System.currentTimeMillis();
+        LOG.info("finished to do {} tablet diff with backend[{}]. fe tablet num: {}, backend tablet num: {}."
+                        + " sync: {}. metaDel: {}. foundInMeta: {}. migration: {}. backend partition num: {},"
+                        + " backend need update: {}. found invalid transactions {}. found republish "
+                        + "transactions {}. tabletToUpdate: {}. need recovery: {}. cost: {} ms",
+                deletedTabletIds == null ? "full" : "delta", backendId, feTabletNum, backendTablets.size(),
+                tabletSyncMap.size(), tabletDeleteFromMeta.size(), tabletFoundInMeta.size(), tabletMigrationMap.size(),
+                backendPartitionsVersion.size(), partitionVersionSyncMap.size(),
+                transactionsToClear.size(), transactionsToPublish.size(), tabletToUpdate.size(),
+                tabletRecoveryMap.size(), (end - start));
+    }
 
-                            if (backendTabletInfo.isSetSchemaHash() && replica.getState() == ReplicaState.NORMAL
-                                    && replica.getSchemaHash() != backendTabletInfo.getSchemaHash()) {
-                                // update the schema hash only when replica is normal
-                                replica.setSchemaHash(backendTabletInfo.getSchemaHash());
-                            }
+    // Diff the replicas of the sorted tablet ids on the backend. The replicas and tablet metas of the shard are
+    // taken under the read lock, and the diff is done without the lock, so the writers of the index are only
+    // blocked by the lookups. The replicas deleted during the diff may still be reported to sync or to delete,
+    // which are checked again by ReportHandler under the table lock.
+    private void tabletReportShard(long backendId, long[] tabletIds, Map<Long, TTablet> backendTablets,
+            Map<Long, TStorageMedium> storageMediumMap,
+            ListMultimap<Long, Long> tabletSyncMap,
+            ListMultimap<Long, Long> tabletDeleteFromMeta,
+            Set<Long> tabletFoundInMeta,
+            ListMultimap<TStorageMedium, Long> tabletMigrationMap,
+            Map<Long, ListMultimap<Long, TPartitionVersionInfo>> transactionsToPublish,
+            ListMultimap<Long, Long> transactionsToClear,
+            ListMultimap<Long, Long> tabletRecoveryMap,
+            List<TTabletMetaInfo> tabletToUpdate,
+            List<Pair<TabletMeta, TTabletInfo>> cooldownTablets) {
+        Replica[] replicas = new Replica[tabletIds.length];
+        TabletMeta[] tabletMetas = new TabletMeta[tabletIds.length];
+        long stamp = readLock();
+        try {
+            LongObjectHashMap<Replica> replicaMetaWithBackend = backingReplicaMetaTable.get(backendId);
+            if (replicaMetaWithBackend == null) {
+                return;
+            }
+            for (int i = 0; i < tabletIds.length; i++) {
+                // the replica is null if it is deleted after taking the tablet ids,
+                // or the tablet of a delta report is not in meta, it is handled by the caller.
+                replicas[i] = replicaMetaWithBackend.get(tabletIds[i]);
+                if (replicas[i] != null) {
+                    Preconditions.checkState(tabletMetaMap.containsKey(tabletIds[i]),
+                            "tablet " + tabletIds[i] + " not exists, backend " + backendId);
+                    tabletMetas[i] = tabletMetaMap.get(tabletIds[i]);
+                }
+            }
+        } finally {
+            readUnlock(stamp);
+        }
 
-                            if (needRecover(replica, tabletMeta.getOldSchemaHash(), backendTabletInfo)) {
-                                LOG.warn("replica {} of tablet {} on backend {} need recovery. "
-                                                + "replica in FE: {}, report version {}, report schema hash: {},"
-                                                + " is bad: {}, is version missing: {}",
-                                        replica.getId(), tabletId, backendId, replica,
-                                        backendTabletInfo.getVersion(),
-                                        backendTabletInfo.getSchemaHash(),
-                                        backendTabletInfo.isSetUsed() ? !backendTabletInfo.isUsed() : "false",
-                                        backendTabletInfo.isSetVersionMiss() ? backendTabletInfo.isVersionMiss() :
-                                                "unset");
-                                synchronized (tabletRecoveryMap) {
-                                    tabletRecoveryMap.put(tabletMeta.getDbId(), tabletId);
-                                }
-                            }
+        for (int i = 0; i < tabletIds.length; i++) {
+            Replica replica = replicas[i];
+            if (replica == null) {
+                continue;
+            }
+            long tabletId = tabletIds[i];
+            TabletMeta tabletMeta = tabletMetas[i];
+
+            if (backendTablets.containsKey(tabletId)) {
+                TTablet backendTablet = backendTablets.get(tabletId);
+                tabletFoundInMeta.add(tabletId);
+                TTabletInfo backendTabletInfo = backendTablet.getTabletInfos().get(0);
+                TTabletMetaInfo tabletMetaInfo = null;
+                if (backendTabletInfo.getReplicaId() != replica.getId()
+                        && replica.getState() != ReplicaState.CLONE) {
+                    // Need to update replica id in BE
+                    tabletMetaInfo = new TTabletMetaInfo();
+                    tabletMetaInfo.setReplicaId(replica.getId());
+                }
+                PartitionCollectInfo partitionCollectInfo =
+                        partitionCollectInfoMap.get(backendTabletInfo.getPartitionId());
+                boolean isInMemory = partitionCollectInfo != null && partitionCollectInfo.isInMemory();
+                if (isInMemory != backendTabletInfo.isIsInMemory()) {
+                    if (tabletMetaInfo == null) {
+                        tabletMetaInfo = new TTabletMetaInfo();
+                        tabletMetaInfo.setIsInMemory(isInMemory);
+                    }
+                }
+                if (Config.fix_tablet_partition_id_eq_0
+                        && tabletMeta.getPartitionId() > 0
+                        && backendTabletInfo.getPartitionId() == 0) {
+                    LOG.warn("be report tablet partition id not eq fe, in be {} but in fe {}",
+                            backendTabletInfo, tabletMeta);
+                    // Need to update partition id in BE
+                    tabletMetaInfo = new TTabletMetaInfo();
+                    tabletMetaInfo.setPartitionId(tabletMeta.getPartitionId());
+                }
+                // 1. (intersection)
+                if (needSync(replica, backendTabletInfo)) {
+                    // need sync
+                    synchronized (tabletSyncMap) {
+                        tabletSyncMap.put(tabletMeta.getDbId(), tabletId);
+                    }
+                }
 
-                            if (Config.enable_storage_policy && backendTabletInfo.isSetCooldownTerm()) {
-                                // Place tablet info in a container and process it outside of read lock to avoid
-                                // deadlock with OlapTable lock
-                                synchronized (cooldownTablets) {
-                                    cooldownTablets.add(Pair.of(tabletMeta, backendTabletInfo));
-                                }
-                                replica.setCooldownMetaId(backendTabletInfo.getCooldownMetaId());
-                                replica.setCooldownTerm(backendTabletInfo.getCooldownTerm());
-                            }
+                // check and set path
+                // path info of replica is only saved in Master FE
+                if (backendTabletInfo.isSetPathHash()
+                        && replica.getPathHash() != backendTabletInfo.getPathHash()) {
+                    replica.setPathHash(backendTabletInfo.getPathHash());
+                }
 
-                            long partitionId = tabletMeta.getPartitionId();
-                            if (!Config.disable_storage_medium_check) {
-                                // check if need migration
-                                TStorageMedium storageMedium = storageMediumMap.get(partitionId);
-                                if (storageMedium != null && backendTabletInfo.isSetStorageMedium()
-                                        && isLocal(storageMedium) && isLocal(backendTabletInfo.getStorageMedium())
-                                        && isLocal(tabletMeta.getStorageMedium())) {
-                                    if (storageMedium != backendTabletInfo.getStorageMedium()) {
-                                        synchronized (tabletMigrationMap) {
-                                            tabletMigrationMap.put(storageMedium, tabletId);
-                                        }
-                                    }
-                                    if (storageMedium != tabletMeta.getStorageMedium()) {
-                                        tabletMeta.setStorageMedium(storageMedium);
-                                    }
-                                }
-                            }
+                if (backendTabletInfo.isSetSchemaHash() && replica.getState() == ReplicaState.NORMAL
+                        && replica.getSchemaHash() != backendTabletInfo.getSchemaHash()) {
+                    // update the schema hash only when replica is normal
+                    replica.setSchemaHash(backendTabletInfo.getSchemaHash());
+                }
 
-                            // check if should clear transactions
-                            if (backendTabletInfo.isSetTransactionIds()) {
-                                handleBackendTransactions(backendId, backendTabletInfo.getTransactionIds(), tabletId,
-                                        tabletMeta, transactionsToPublish, transactionsToClear);
-                            } // end for txn id
-
-                            // update replicase's version count
-                            // no need to write log, and no need to get db lock.
-                            if (backendTabletInfo.isSetTotalVersionCount()) {
-                                replica.setTotalVersionCount(backendTabletInfo.getTotalVersionCount());
-                                replica.setVisibleVersionCount(backendTabletInfo.isSetVisibleVersionCount()
-                                        ? backendTabletInfo.getVisibleVersionCount()
-                                                : backendTabletInfo.getTotalVersionCount());
-                            }
-                            if (tabletMetaInfo != null) {
-                                tabletMetaInfo.setTabletId(tabletId);
-                                synchronized (tabletToUpdate) {
-                                    tabletToUpdate.add(tabletMetaInfo);
-                                }
-                            }
-                        } else {
-                            // 2. (meta - be)
-                            // may need delete from meta
-                            if (LOG.isDebugEnabled()) {
-                                LOG.debug("backend[{}] does not report tablet[{}-{}]", backendId, tabletId, tabletMeta);
-                            }
-                            synchronized (tabletDeleteFromMeta) {
-                                tabletDeleteFromMeta.put(tabletMeta.getDbId(), tabletId);
+                if (needRecover(replica, tabletMeta.getOldSchemaHash(), backendTabletInfo)) {
+                    LOG.warn("replica {} of tablet {} on backend {} need recovery. "
+                                    + "replica in FE: {}, report version {}, report schema hash: {},"
+                                    + " is bad: {}, is version missing: {}",
+                            replica.getId(), tabletId, backendId, replica,
+                            backendTabletInfo.getVersion(),
+                            backendTabletInfo.getSchemaHash(),
+                            backendTabletInfo.isSetUsed() ? !backendTabletInfo.isUsed() : "false",
+                            backendTabletInfo.isSetVersionMiss() ? backendTabletInfo.isVersionMiss() :
+                                    "unset");
+                    synchronized (tabletRecoveryMap) {
+                        tabletRecoveryMap.put(tabletMeta.getDbId(), tabletId);
+                    }
+                }
+
+                if (Config.enable_storage_policy && backendTabletInfo.isSetCooldownTerm()) {
+                    // Place tablet info in a container and process it outside of read lock to avoid
+                    // deadlock with OlapTable lock
+                    synchronized (cooldownTablets) {
+                        cooldownTablets.add(Pair.of(tabletMeta, backendTabletInfo));
+                    }
+                    replica.setCooldownMetaId(backendTabletInfo.getCooldownMetaId());
+                    replica.setCooldownTerm(backendTabletInfo.getCooldownTerm());
+                }
+
+                long partitionId = tabletMeta.getPartitionId();
+                if (!Config.disable_storage_medium_check) {
+                    // check if need migration
+                    TStorageMedium storageMedium = storageMediumMap.get(partitionId);
+                    if (storageMedium != null && backendTabletInfo.isSetStorageMedium()
+                            && isLocal(storageMedium) && isLocal(backendTabletInfo.getStorageMedium())
+                            && isLocal(tabletMeta.getStorageMedium())) {
+                        if (storageMedium != backendTabletInfo.getStorageMedium()) {
+                            synchronized (tabletMigrationMap) {
+                                tabletMigrationMap.put(storageMedium, tabletId);
                             }
                         }
-                    });
-
-                    backendPartitionsVersion.entrySet().parallelStream().forEach(entry -> {
-                        long partitionId = entry.getKey();
-                        long backendVersion = entry.getValue();
-                        PartitionCollectInfo partitionInfo = partitionCollectInfoMap.get(partitionId);
-                        if (partitionInfo != null && partitionInfo.getVisibleVersion() > backendVersion) {
-                            partitionVersionSyncMap.put(partitionId, partitionInfo.getVisibleVersion());
+                        if (storageMedium != tabletMeta.getStorageMedium()) {
+                            tabletMeta.setStorageMedium(storageMedium);
                         }
-                    });
-                }).join();
+                    }
+                }
+
+                // check if should clear transactions
+                if (backendTabletInfo.isSetTransactionIds()) {
+                    handleBackendTransactions(backendId, backendTabletInfo.getTransactionIds(), tabletId,
+                            tabletMeta, transactionsToPublish, transactionsToClear);
+                } // end for txn id
+
+                // update replicase's version count
+                // no need to write log, and no need to get db lock.
+                if (backendTabletInfo.isSetTotalVersionCount()) {
+                    replica.setTotalVersionCount(backendTabletInfo.getTotalVersionCount());
+                    replica.setVisibleVersionCount(backendTabletInfo.isSetVisibleVersionCount()
+                            ? backendTabletInfo.getVisibleVersionCount()
+                                    : backendTabletInfo.getTotalVersionCount());
+                }
+                if (tabletMetaInfo != null) {
+                    tabletMetaInfo.setTabletId(tabletId);
+                    synchronized (tabletToUpdate) {
+                        tabletToUpdate.add(tabletMetaInfo);
+                    }
+                }
+            } else {
+                // 2. (meta - be)
+                // may need delete from meta
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("backend[{}] does not report tablet[{}-{}]", backendId, tabletId, tabletMeta);
+                }
+                synchronized (tabletDeleteFromMeta) {
+                    tabletDeleteFromMeta.put(tabletMeta.getDbId(), tabletId);
+                }
             }
-        } finally {
-            readUnlock(stamp);
         }
-        cooldownTablets.forEach(p -> handleCooldownConf(p.first, p.second, cooldownConfToPush, cooldownConfToUpdate));
-
-        long end = System.currentTimeMillis();
-        LOG.info("finished to do tablet diff with backend[{}]. fe tablet num: {}, backend tablet num: {}. sync: {}."
-                        + " metaDel: {}. foundInMeta: {}. migration: {}. backend partition num: {}, backend need "
-                        + "update: {}. found invalid transactions {}. found republish "
-                        + "transactions {}. tabletToUpdate: {}. need recovery: {}. cost: {} ms",
-                backendId, feTabletNum, backendTablets.size(), tabletSyncMap.size(),
-                tabletDeleteFromMeta.size(), tabletFoundInMeta.size(), tabletMigrationMap.size(),
-                backendPartitionsVersion.size(), partitionVersionSyncMap.size(),
-                transactionsToClear.size(), transactionsToPublish.size(), tabletToUpdate.size(),
-                tabletRecoveryMap.size(), (end - start));
     }
 
     private void handleBackendTransactions(long backendId, List<Long> transactionIds, long tabletId,
@@ -394,7 +470,8 @@ public class TabletInvertedIndex {
     public Long getTabletIdByReplica(long replicaId) {
         long stamp = readLock();
         try {
-            return replicaToTabletMap.get(replicaId);
+            long tabletId = replicaToTabletMap.get(replicaId, NOT_EXIST_VALUE);
+            return tabletId == NOT_EXIST_VALUE ? null : tabletId;
         } finally {
             readUnlock(stamp);
         }
@@ -493,12 +570,12 @@ public class TabletInvertedIndex {
         }
 
         // check cooldown replica is alive
-        Map<Long, Replica> replicaMap = replicaMetaTable.row(beTabletInfo.getTabletId());
-        if (replicaMap.isEmpty()) {
+        TabletReplicas tabletReplicas = replicaMetaTable.get(beTabletInfo.getTabletId());
+        if (tabletReplicas == null) {
             return;
         }
         boolean replicaAlive = false;
-        for (Replica replica : replicaMap.values()) {
+        for (Replica replica : tabletReplicas.replicas) {
             if (replica.getId() == cooldownConf.first) {
                 if (replica.isAlive()) {
                     replicaAlive = true;
@@ -523,8 +600,8 @@ public class TabletInvertedIndex {
     public List<Replica> getReplicas(Long tabletId) {
         long stamp = readLock();
         try {
-            Map<Long, Replica> replicaMap = replicaMetaTable.row(tabletId);
-            return replicaMap.values().stream().collect(Collectors.toList());
+            TabletReplicas tabletReplicas = replicaMetaTable.get(tabletId);
+            return tabletReplicas == null ? new ArrayList<>() : tabletReplicas.toList();
         } finally {
             readUnlock(stamp);
         }
@@ -597,14 +674,14 @@ public class TabletInvertedIndex {
     public void deleteTablet(long tabletId) {
         long stamp = writeLock();
         try {
-            Map<Long, Replica> replicas = replicaMetaTable.rowMap().remove(tabletId);
+            TabletReplicas replicas = replicaMetaTable.remove(tabletId);
             if (replicas != null) {
-                for (Replica replica : replicas.values()) {
+                for (Replica replica : replicas.replicas) {
                     replicaToTabletMap.remove(replica.getId());
                 }
 
-                for (long backendId : replicas.keySet()) {
-                    backingReplicaMetaTable.remove(backendId, tabletId);
+                for (long backendId : replicas.backendIds) {
+                    removeBackingReplica(backendId, tabletId);
                 }
             }
             TabletMeta tabletMeta = tabletMetaMap.remove(tabletId);
@@ -631,9 +708,14 @@ public class TabletInvertedIndex {
                     + ", backend " + replica.getBackendId());
             // cloud mode, create table not need backendId, represent with -1.
             long backendId = Config.isCloudMode() ? -1 : replica.getBackendId();
-            replicaMetaTable.put(tabletId, backendId, replica);
+            TabletReplicas replicas = replicaMetaTable.get(tabletId);
+            if (replicas == null) {
+                replicaMetaTable.put(tabletId, new TabletReplicas(backendId, replica));
+            } else {
+                replicas.put(backendId, replica);
+            }
             replicaToTabletMap.put(replica.getId(), tabletId);
-            backingReplicaMetaTable.put(backendId, tabletId, replica);
+            backingReplicaMetaTable.computeIfAbsent(backendId, k -> new LongObjectHashMap<>()).put(tabletId, replica);
             if (LOG.isDebugEnabled()) {
                 LOG.debug("add replica {} of tablet {} in backend {}",
                         replica.getId(), tabletId, replica.getBackendId());
@@ -651,22 +733,20 @@ public class TabletInvertedIndex {
             if (Config.isCloudMode()) {
                 backendId = -1;
             }
-            if (replicaMetaTable.containsRow(tabletId)) {
-                Replica replica = replicaMetaTable.remove(tabletId, backendId);
+            TabletReplicas replicas = replicaMetaTable.get(tabletId);
+            if (replicas != null) {
+                Replica replica = replicas.remove(backendId);
 
                 // sometimes, replicas may have same replica id in different backend
                 // we need to cover this situation to avoid some "replica not found" issue
-                if (replicaMetaTable.containsRow(tabletId)) {
-                    long replicaNum = replicaMetaTable.row(tabletId).values().stream()
-                            .filter(c -> c.getId() == replica.getId()).count();
-                    if (replicaNum == 0) {
-                        replicaToTabletMap.remove(replica.getId());
-                    }
-                } else {
+                if (replicas.isEmpty()) {
+                    replicaMetaTable.remove(tabletId);
+                    replicaToTabletMap.remove(replica.getId());
+                } else if (!replicas.containsReplicaId(replica.getId())) {
                     replicaToTabletMap.remove(replica.getId());
                 }
 
-                backingReplicaMetaTable.remove(backendId, tabletId);
+                removeBackingReplica(backendId, tabletId);
                 if (LOG.isDebugEnabled()) {
                     LOG.debug("delete replica {} of tablet {} in backend {}",
                             replica.getId(), tabletId, backendId);
@@ -689,7 +769,8 @@ public class TabletInvertedIndex {
             if (Config.isCloudMode()) {
                 backendId = -1;
             }
-            return replicaMetaTable.get(tabletId, backendId);
+            TabletReplicas replicas = replicaMetaTable.get(tabletId);
+            return replicas == null ? null : replicas.get(backendId);
         } finally {
             readUnlock(stamp);
         }
@@ -698,8 +779,9 @@ public class TabletInvertedIndex {
     public List<Replica> getReplicasByTabletId(long tabletId) {
         long stamp = readLock();
         try {
-            if (replicaMetaTable.containsRow(tabletId)) {
-                return Lists.newArrayList(replicaMetaTable.row(tabletId).values());
+            TabletReplicas replicas = replicaMetaTable.get(tabletId);
+            if (replicas != null) {
+                return replicas.toList();
             }
             return Lists.newArrayList();
         } finally {
@@ -711,9 +793,11 @@ public class TabletInvertedIndex {
         List<Long> tabletIds = Lists.newArrayList();
         long stamp = readLock();
         try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
+            LongObjectHashMap<Replica> replicaMetaWithBackend = backingReplicaMetaTable.get(backendId);
             if (replicaMetaWithBackend != null) {
-                tabletIds.addAll(replicaMetaWithBackend.keySet());
+                for (long tabletId : replicaMetaWithBackend.keys()) {
+                    tabletIds.add(tabletId);
+                }
             }
         } finally {
             readUnlock(stamp);
@@ -726,12 +810,14 @@ public class TabletInvertedIndex {
         List<Pair<Long, Long>> tabletIdSizes = Lists.newArrayList();
         long stamp = readLock();
         try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
+            LongObjectHashMap<Replica> replicaMetaWithBackend = backingReplicaMetaTable.get(backendId);
             if (replicaMetaWithBackend != null) {
-                tabletIdSizes = replicaMetaWithBackend.entrySet().stream()
-                        .filter(entry -> tabletMetaMap.get(entry.getKey()).getStorageMedium() == storageMedium)
-                        .map(entry -> Pair.of(entry.getKey(), entry.getValue().getDataSize()))
-                        .collect(Collectors.toList());
+                List<Pair<Long, Long>> result = tabletIdSizes;
+                replicaMetaWithBackend.forEach((tabletId, replica) -> {
+                    if (tabletMetaMap.get(tabletId).getStorageMedium() == storageMedium) {
+                        result.add(Pair.of(tabletId, replica.getDataSize()));
+                    }
+                });
             }
         } finally {
             readUnlock(stamp);
@@ -748,7 +834,7 @@ public class TabletInvertedIndex {
     public int getTabletNumByBackendId(long backendId) {
         long stamp = readLock();
         try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
+            LongObjectHashMap<Replica> replicaMetaWithBackend = backingReplicaMetaTable.get(backendId);
             if (replicaMetaWithBackend != null) {
                 return replicaMetaWithBackend.size();
             }
@@ -764,9 +850,9 @@ public class TabletInvertedIndex {
         long ssdNum = 0;
         long stamp = readLock();
         try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
+            LongObjectHashMap<Replica> replicaMetaWithBackend = backingReplicaMetaTable.get(backendId);
             if (replicaMetaWithBackend != null) {
-                for (long tabletId : replicaMetaWithBackend.keySet()) {
+                for (long tabletId : replicaMetaWithBackend.keys()) {
                     if (tabletMetaMap.get(tabletId).getStorageMedium() == TStorageMedium.HDD) {
                         hddNum++;
                     } else {
@@ -800,8 +886,38 @@ public class TabletInvertedIndex {
         this.partitionCollectInfoMap = partitionCollectInfoMap;
     }
 
+    /**
+     * Return a copy of the replica id -> tablet id mappings.
+     *
+     * @deprecated the whole index is boxed into a new map, use {@link #forEachReplicaToTablet} instead.
+     */
+    @Deprecated
     public Map<Long, Long> getReplicaToTabletMap() {
-        return replicaToTabletMap;
+        Map<Long, Long> replicaToTablet = Maps.newHashMap();
+        forEachReplicaToTablet(replicaToTablet::put);
+        return replicaToTablet;
+    }
+
+    /**
+     * Visit each replica id -> tablet id mapping under the read lock, without copying the index.
+     */
+    public void forEachReplicaToTablet(LongLongHashMap.EntryConsumer action) {
+        long stamp = readLock();
+        try {
+            replicaToTabletMap.forEach(action);
+        } finally {
+            readUnlock(stamp);
+        }
+    }
+
+    private void removeBackingReplica(long backendId, long tabletId) {
+        LongObjectHashMap<Replica> replicaMetaWithBackend = backingReplicaMetaTable.get(backendId);
+        if (replicaMetaWithBackend != null) {
+            replicaMetaWithBackend.remove(tabletId);
+            if (replicaMetaWithBackend.isEmpty()) {
+                backingReplicaMetaTable.remove(backendId);
+            }
+        }
     }
 
     // Only build from available bes, exclude colocate tables
@@ -826,8 +942,7 @@ public class TabletInvertedIndex {
         try {
             // Changes to the returned set will update the underlying table
             // tablet id -> (backend id -> replica)
-            Set<Table.Cell<Long, Long, Replica>> cells = replicaMetaTable.cellSet();
-            for (Table.Cell<Long, Long, Replica> cell : cells) {
+            for (Table.Cell<Long, Long, Replica> cell : toTable(replicaMetaTable).cellSet()) {
                 Long tabletId = cell.getRowKey();
                 Long beId = cell.getColumnKey();
                 try {
@@ -917,7 +1032,7 @@ public class TabletInvertedIndex {
     public Table<Long, Long, Replica> getReplicaMetaTable() {
         long stamp = readLock();
         try {
-            return HashBasedTable.create(replicaMetaTable);
+            return toTable(replicaMetaTable);
         } finally {
             readUnlock(stamp);
         }
@@ -927,7 +1042,10 @@ public class TabletInvertedIndex {
     public Table<Long, Long, Replica> getBackingReplicaMetaTable() {
         long stamp = readLock();
         try {
-            return HashBasedTable.create(backingReplicaMetaTable);
+            Table<Long, Long, Replica> table = HashBasedTable.create();
+            backingReplicaMetaTable.forEach((backendId, replicas) ->
+                    replicas.forEach((tabletId, replica) -> table.put(backendId, tabletId, replica)));
+            return table;
         } finally {
             readUnlock(stamp);
         }
@@ -947,7 +1065,9 @@ public class TabletInvertedIndex {
     public Map<Long, TabletMeta> getTabletMetaMap() {
         long stamp = readLock();
         try {
-            return new HashMap(tabletMetaMap);
+            Map<Long, TabletMeta> map = new HashMap<>(tabletMetaMap.size());
+            tabletMetaMap.forEach(map::put);
+            return map;
         } finally {
             readUnlock(stamp);
         }
@@ -957,4 +1077,91 @@ public class TabletInvertedIndex {
         return storageMedium == TStorageMedium.HDD || storageMedium == TStorageMedium.SSD;
     }
 
+    // tablet id -> backend id -> replica
+    private static Table<Long, Long, Replica> toTable(LongObjectHashMap<TabletReplicas> replicaMetaTable) {
+        Table<Long, Long, Replica> table = HashBasedTable.create();
+        replicaMetaTable.forEach((tabletId, replicas) -> {
+            for (int i = 0; i < replicas.backendIds.length; i++) {
+                table.put(tabletId, replicas.backendIds[i], replicas.replicas[i]);
+            }
+        });
+        return table;
+    }
+
+    /**
+     * The replicas of one tablet, the backend ids and replicas are saved in two arrays of the exact size.
+     * A tablet only has a few replicas, so it is much smaller and faster than a map.
+     */
+    private static class TabletReplicas {
+        private long[] backendIds;
+        private Replica[] replicas;
+
+        TabletReplicas(long backendId, Replica replica) {
+            this.backendIds = new long[] {backendId};
+            this.replicas = new Replica[] {replica};
+        }
+
+        Replica get(long backendId) {
+            int index = indexOf(backendId);
+            return index < 0 ? null : replicas[index];
+        }
+
+        void put(long backendId, Replica replica) {
+            int index = indexOf(backendId);
+            if (index >= 0) {
+                replicas[index] = replica;
+                return;
+            }
+            int size = backendIds.length;
+            backendIds = Arrays.copyOf(backendIds, size + 1);
+            replicas = Arrays.copyOf(replicas, size + 1);
+            backendIds[size] = backendId;
+            replicas[size] = replica;
+        }
+
+        Replica remove(long backendId) {
+            int index = indexOf(backendId);
+            if (index < 0) {
+                return null;
+            }
+            Replica replica = replicas[index];
+            int size = backendIds.length;
+            long[] newBackendIds = new long[size - 1];
+            Replica[] newReplicas = new Replica[size - 1];
+            System.arraycopy(backendIds, 0, newBackendIds, 0, index);
+            System.arraycopy(backendIds, index + 1, newBackendIds, index, size - index - 1);
+            System.arraycopy(replicas, 0, newReplicas, 0, index);
+            System.arraycopy(replicas, index + 1, newReplicas, index, size - index - 1);
+            backendIds = newBackendIds;
+            replicas = newReplicas;
+            return replica;
+        }
+
+        boolean isEmpty() {
+            return backendIds.length == 0;
+        }
+
+        boolean containsReplicaId(long replicaId) {
+            for (Replica replica : replicas) {
+                if (replica.getId() == replicaId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        List<Replica> toList() {
+            return Lists.newArrayList(replicas);
+        }
+
+        private int indexOf(long backendId) {
+            for (int i = 0; i < backendIds.length; i++) {
+                if (backendIds[i] == backendId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
 }
@@ -0,0 +1,106 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.common;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.collect.ImmutableList;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * NereidsPartitionCacheManager
+ *
+ * Keep the result rows of each partition for the queries which use the nereids partition cache in fe memory,
+ * see {@link org.apache.doris.qe.cache.NereidsPartitionCache}.
+ * The rows of a partition can only be used by the queries read the same visible version of the partition,
+ * so the rows of the changed partitions will not be hit again, and they are evicted by the size limit or expired.
+ */
+public class NereidsPartitionCacheManager {
+    // key: <cache key of the query>:<partition id>
+    // value: the result rows of the partition
+    private final Cache<String, PartitionResult> partitionResults;
+
+    public NereidsPartitionCacheManager() {
+        this(Config.partition_cache_max_data_size_in_fe, Config.expire_sql_cache_in_fe_second);
+    }
+
+    public NereidsPartitionCacheManager(long maxDataSize, long expireAfterAccessSeconds) {
+        Caffeine<String, PartitionResult> cacheBuilder = Caffeine.newBuilder()
+                .maximumWeight(maxDataSize)
+                .weigher((String key, PartitionResult result) -> key.length() + result.getDataSize());
+        if (expireAfterAccessSeconds > 0) {
+            cacheBuilder = cacheBuilder.expireAfterAccess(Duration.ofSeconds(expireAfterAccessSeconds));
+        }
+        partitionResults = cacheBuilder.build();
+    }
+
+    /**
+     * Get the result rows of the partition, return null if the partition is not cached
+     * or the cached rows are computed from another version of the partition.
+     */
+    public PartitionResult get(String cacheKey, long partitionId, long visibleVersion) {
+        PartitionResult result = partitionResults.getIfPresent(buildKey(cacheKey, partitionId));
+        if (result == null || result.getVersion() != visibleVersion) {
+            return null;
+        }
+        return result;
+    }
+
+    public void put(String cacheKey, long partitionId, PartitionResult result) {
+        partitionResults.put(buildKey(cacheKey, partitionId), result);
+    }
+
+    public long size() {
+        return partitionResults.estimatedSize();
+    }
+
+    private static String buildKey(String cacheKey, long partitionId) {
+        return cacheKey + ":" + partitionId;
+    }
+
+    /** the result rows computed from a visible version of a partition */
+    public static class PartitionResult {
+        private final long version;
+        private final List<byte[]> rows;
+        private final int dataSize;
+
+        public PartitionResult(long version, List<byte[]> rows) {
+            this.version = version;
+            this.rows = ImmutableList.copyOf(rows);
+            int dataSize = 0;
+            for (byte[] row : rows) {
+                dataSize += row.length;
+            }
+            this.dataSize = dataSize;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public List<byte[]> getRows() {
+            return rows;
+        }
+
+        public int getDataSize() {
+            return dataSize;
+        }
+    }
+}
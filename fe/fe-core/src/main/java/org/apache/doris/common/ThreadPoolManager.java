@@ -33,6 +33,8 @@ import java.util.Comparator;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.PriorityBlockingQueue;
@@ -68,6 +70,7 @@ import java.util.function.Supplier;
  */
 
 public class ThreadPoolManager {
+    private static final Logger LOG = LogManager.getLogger(ThreadPoolManager.class);
 
     private static Map<String, ThreadPoolExecutor> nameToThreadPoolMap = Maps.newConcurrentMap();
 
@@ -222,6 +225,57 @@ public class ThreadPoolManager {
         return scheduledThreadPoolExecutor;
     }
 
+    /**
+     * Same as newDaemonCacheThreadPoolThrowException, but each task runs in a new virtual thread, so the tasks
+     * blocked on rpc or network io don't hold the platform threads. The pool only limits the number of the
+     * concurrent tasks and keeps the metrics, the idle virtual threads are not cached.
+     * Virtual thread needs JDK 21 or later, the platform threads are used if it is not supported.
+     */
+    public static ThreadPoolExecutor newDaemonVirtualCacheThreadPoolThrowException(int maxNumThread,
+            String poolName, boolean needRegisterMetric) {
+        ThreadFactory threadFactory = virtualThreadFactory(poolName);
+        if (threadFactory == null) {
+            LOG.warn("virtual thread is not supported by the current JVM {}, use platform threads for {}",
+                    System.getProperty("java.version"), poolName);
+            return newDaemonCacheThreadPoolThrowException(maxNumThread, poolName, needRegisterMetric);
+        }
+        ThreadPoolExecutor threadPool = new ThreadPoolExecutor(0, maxNumThread, 0, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), threadFactory, new LogDiscardPolicyThrowException(poolName));
+        if (needRegisterMetric) {
+            nameToThreadPoolMap.put(poolName, threadPool);
+        }
+        return threadPool;
+    }
+
+    /**
+     * Create a work-stealing pool whose daemon worker threads are named as poolName-ID.
+     * It is for the tasks which fork and join their subtasks, the other tasks should use a ThreadPoolExecutor.
+     */
+    public static ForkJoinPool newDaemonForkJoinPool(int parallelism, String poolName) {
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setDaemon(true);
+            thread.setName(poolName + "-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Create a thread factory of the virtual threads named as poolName-ID,
+     * return null if virtual thread is not supported.
+     * FE is compiled for JDK 8, so the virtual thread builder of JDK 21 is called by reflection.
+     */
+    public static ThreadFactory virtualThreadFactory(String poolName) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, poolName + "-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
     /**
      * Create a thread factory that names threads with a prefix and also sets the threads to daemon.
      */
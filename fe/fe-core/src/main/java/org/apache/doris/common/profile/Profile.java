@@ -27,22 +27,18 @@ import org.apache.doris.nereids.trees.plans.distribute.FragmentIdMapping;
 import org.apache.doris.nereids.trees.plans.physical.PhysicalRelation;
 import org.apache.doris.planner.Planner;
 
-import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.ByteArrayOutputStream;
 import java.io.DataInput;
 import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
@@ -87,10 +83,6 @@ public class Profile {
     // executionProfiles will be stored to storage as text, when geting profile content, we will read
     // from storage directly.
     private List<ExecutionProfile> executionProfiles = Lists.newArrayList();
-    // profileStoragePath will only be assigned when:
-    // 1. profile is stored to storage
-    // 2. or profile is loaded from storage
-    private String profileStoragePath = "";
     // isQueryFinished means the coordinator or stmtexecutor is finished.
     // does not mean the profile report has finished, since the report is async.
     // finish of collection of profile is marked by isCompleted of ExecutionProfiles.
@@ -104,8 +96,6 @@ public class Profile {
     private Map<Integer, String> planNodeMap = Maps.newHashMap();
     private int profileLevel = MergedProfileLevel;
     private long autoProfileDurationMs = 500;
-    // Profile size is the size of profile file
-    private long profileSize = 0;
 
     // Need default constructor for read from storage
     public Profile() {}
@@ -176,16 +166,12 @@ public class Profile {
             if (profileFileInputStream == null) {
                 return null;
             }
-            File profileFile = new File(path);
-            long fileSize = profileFile.length();
             // read method will move the cursor to the end of the summary profile
             DataInput dataInput = new DataInputStream(profileFileInputStream);
             Profile res = new Profile();
             res.summaryProfile = SummaryProfile.read(dataInput);
             res.setId(res.summaryProfile.getProfileId());
-            res.profileStoragePath = path;
             res.isQueryFinished = true;
-            res.profileSize = fileSize;
             String[] parts = path.split(File.separator);
             String queryFinishTimeStr = parseProfileFileName(parts[parts.length - 1])[0];
             // queryFinishTime is used for sorting profile by finish time.
@@ -208,6 +194,25 @@ public class Profile {
         }
     }
 
+    // Read the text of the execution profiles after the summary profile in the profile file.
+    // File structure of profile, written by older versions:
+    /*
+     * Integer: n(size of summary profile)
+     * String: json of summary profile
+     * Integer: m(size of compressed execution profile)
+     * String: compressed binary of execution profile
+    */
+    public static String readExecutionProfileContent(String path) throws IOException {
+        try (DataInputStream dataInput = new DataInputStream(new FileInputStream(path))) {
+            // skip summary profile
+            Text.readString(dataInput);
+            int binarySize = dataInput.readInt();
+            byte[] binaryExecutionProfile = new byte[binarySize];
+            dataInput.readFully(binaryExecutionProfile, 0, binarySize);
+            return decompressExecutionProfile(binaryExecutionProfile);
+        }
+    }
+
     // Method to compress a string using Deflater
     public static byte[] compressExecutionProfile(String str) throws IOException {
         byte[] data = str.getBytes(StandardCharsets.UTF_8);
@@ -366,52 +371,11 @@ public class Profile {
         return gson.toJson(rootProfile.toBrief());
     }
 
-    // Read file if profile has been stored to storage.
     public void getExecutionProfileContent(StringBuilder builder) {
         if (builder == null) {
             builder = new StringBuilder();
         }
 
-        if (profileHasBeenStored()) {
-            LOG.info("Profile {} has been stored to storage, reading it from storage", id);
-
-            FileInputStream fileInputStream = null;
-
-            try {
-                fileInputStream = createPorfileFileInputStream(profileStoragePath);
-                if (fileInputStream == null) {
-                    builder.append("Failed to read execution profile from " + profileStoragePath);
-                    return;
-                }
-
-                DataInputStream dataInput = new DataInputStream(fileInputStream);
-                // skip summary profile
-                Text.readString(dataInput);
-                // read compressed execution profile
-                int binarySize = dataInput.readInt();
-                byte[] binaryExecutionProfile = new byte[binarySize];
-                dataInput.readFully(binaryExecutionProfile, 0, binarySize);
-                // decompress binary execution profile
-                String textExecutionProfile = decompressExecutionProfile(binaryExecutionProfile);
-                builder.append(textExecutionProfile);
-                return;
-            } catch (Exception e) {
-                LOG.error("An error occurred while reading execution profile from storage, profile storage path: {}",
-                        profileStoragePath, e);
-                builder.append("Failed to read execution profile from " + profileStoragePath);
-            } finally {
-                if (fileInputStream != null) {
-                    try {
-                        fileInputStream.close();
-                    } catch (Exception e) {
-                        LOG.warn("Close profile {} failed", profileStoragePath, e);
-                    }
-                }
-            }
-
-            return;
-        }
-
         // Only generate merged profile for select, insert into select.
         // Not support broker load now.
         if (this.profileLevel == MergedProfileLevel && this.executionProfiles.size() == 1) {
@@ -453,10 +417,6 @@ public class Profile {
     }
 
     public boolean shouldStoreToStorage() {
-        if (profileHasBeenStored()) {
-            return false;
-        }
-
         if (!isQueryFinished) {
             return false;
         }
@@ -510,22 +470,9 @@ public class Profile {
         return false;
     }
 
-    public String getProfileStoragePath() {
-        return this.profileStoragePath;
-    }
-
-    public boolean profileHasBeenStored() {
-        return !Strings.isNullOrEmpty(profileStoragePath);
-    }
-
     // Profile IO threads races with Coordinator threads.
     public void markQueryFinished(long queryFinishTime) {
         try {
-            if (this.profileHasBeenStored()) {
-                LOG.error("Logical error, profile {} has already been stored to storage", this.id);
-                return;
-            }
-
             this.isQueryFinished = true;
             this.queryFinishTimestamp = System.currentTimeMillis();
         } catch (Throwable t) {
@@ -533,96 +480,4 @@ public class Profile {
             throw t;
         }
     }
-
-    public void writeToStorage(String systemProfileStorageDir) {
-        if (Strings.isNullOrEmpty(id)) {
-            LOG.warn("store profile failed, name is empty");
-            return;
-        }
-
-        if (!Strings.isNullOrEmpty(profileStoragePath)) {
-            LOG.error("Logical error, profile {} has already been stored to storage", id);
-            return;
-        }
-
-        final String profileId = this.summaryProfile.getProfileId();
-
-        // queryFinishTimeStamp_ProfileId
-        final String profileFilePath = systemProfileStorageDir + File.separator
-                                    + String.valueOf(this.queryFinishTimestamp)
-                                    + SEPERATOR + profileId;
-
-        File profileFile = new File(profileFilePath);
-        if (profileFile.exists()) {
-            LOG.warn("profile directory {} already exists, remove it", profileFile.getAbsolutePath());
-            profileFile.delete();
-        }
-
-        // File structure of profile:
-        /*
-         * Integer: n(size of summary profile)
-         * String: json of summary profile
-         * Integer: m(size of compressed execution profile)
-         * String: compressed binary of execution profile
-        */
-        FileOutputStream fileOutputStream = null;
-        try {
-            fileOutputStream = new FileOutputStream(profileFilePath);
-            DataOutputStream dataOutputStream = new DataOutputStream(fileOutputStream);
-            this.summaryProfile.write(dataOutputStream);
-
-            // store execution profiles as string
-            StringBuilder build = new StringBuilder();
-            getExecutionProfileContent(build);
-            byte[] buf = compressExecutionProfile(build.toString());
-            dataOutputStream.writeInt(buf.length);
-            dataOutputStream.write(buf);
-            build = null;
-            dataOutputStream.flush();
-            this.profileSize = profileFile.length();
-        } catch (Exception e) {
-            LOG.error("write {} summary profile failed", id, e);
-            return;
-        } finally {
-            try {
-                if (fileOutputStream != null) {
-                    fileOutputStream.close();
-                }
-            } catch (Exception e) {
-                LOG.warn("close profile file {} failed", profileFilePath, e);
-            }
-        }
-
-        this.profileStoragePath = profileFilePath;
-    }
-
-    // remove profile from storage
-    public void deleteFromStorage() {
-        if (!profileHasBeenStored()) {
-            return;
-        }
-
-        String storagePath = getProfileStoragePath();
-        if (Strings.isNullOrEmpty(storagePath)) {
-            LOG.warn("remove profile failed, storage path is empty");
-            return;
-        }
-
-        File profileFile = new File(storagePath);
-        if (!profileFile.exists()) {
-            LOG.warn("Profile {} does not exist", profileFile.getAbsolutePath());
-            return;
-        }
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("Remove profile: {}", getProfileStoragePath());
-        }
-
-        if (!FileUtils.deleteQuietly(profileFile)) {
-            LOG.warn("remove profile {} failed", profileFile.getAbsolutePath());
-        }
-    }
-
-    public long getProfileSize() {
-        return this.profileSize;
-    }
 }
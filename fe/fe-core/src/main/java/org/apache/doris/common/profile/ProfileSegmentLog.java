@@ -0,0 +1,392 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+package org.apache.doris.common.profile;
+
+import org.apache.doris.common.io.Text;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of archived profiles on local storage.
+ *
+ * The log is a sequence of segment files named profile_segment_{id}, only the last segment is appended,
+ * and it is sealed and a new segment is created when its size reaches the segment size.
+ * Every record is framed by its payload length and the CRC32 of the payload, so a torn record at the
+ * tail of a segment is detected and truncated when the log is recovered.
+ *
+ * The log doesn't keep an index of records, the caller keeps the {@link Location} returned by
+ * {@link #append} and reads the record by it. Reading doesn't take any lock. The caller releases the
+ * location when the record is not needed anymore, and a sealed segment is deleted when all of its records
+ * are released. Besides, {@link #retain} deletes the oldest segments to limit the total size of the log.
+ */
+public class ProfileSegmentLog {
+    private static final Logger LOG = LogManager.getLogger(ProfileSegmentLog.class);
+    private static final String SEGMENT_FILE_PREFIX = "profile_segment_";
+    // payload length and checksum
+    private static final int RECORD_HEADER_SIZE = 4 + 8;
+
+    // The archived profile. The profile id, finish time and info strings are kept in memory as the index,
+    // the compressed profile content and brief are only read when the profile is fetched.
+    public static class Record {
+        public final String profileId;
+        public final long queryFinishTimestamp;
+        public final Map<String, String> infoStrings;
+        public final byte[] compressedProfile;
+        public final byte[] compressedBrief;
+
+        public Record(String profileId, long queryFinishTimestamp, Map<String, String> infoStrings,
+                byte[] compressedProfile, byte[] compressedBrief) {
+            this.profileId = profileId;
+            this.queryFinishTimestamp = queryFinishTimestamp;
+            this.infoStrings = infoStrings;
+            this.compressedProfile = compressedProfile;
+            this.compressedBrief = compressedBrief;
+        }
+    }
+
+    public static class Location {
+        public final long segmentId;
+        public final long offset;
+        public final int length;
+
+        public Location(long segmentId, long offset, int length) {
+            this.segmentId = segmentId;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public String toString() {
+            return "segment " + segmentId + ", offset " + offset + ", length " + length;
+        }
+    }
+
+    private static class Segment {
+        private final long id;
+        private final File file;
+        private long size;
+        // number of records which are not released
+        private int liveRecords;
+
+        private Segment(long id, File file, long size) {
+            this.id = id;
+            this.file = file;
+            this.size = size;
+        }
+    }
+
+    private final File dir;
+    private final long segmentSizeBytes;
+    // segment id -> segment, only modified with the lock of this object
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    // segment ids are never reused, so a stale location never points to a newer segment
+    private long nextSegmentId = 0;
+    private RandomAccessFile activeFile = null;
+    private volatile long totalSize = 0;
+
+    public ProfileSegmentLog(String dir, long segmentSizeBytes) {
+        Preconditions.checkArgument(segmentSizeBytes > 0, "invalid segment size " + segmentSizeBytes);
+        this.dir = new File(dir);
+        this.segmentSizeBytes = segmentSizeBytes;
+    }
+
+    /**
+     * Load the segments on storage, the consumer is called with every valid record and its location
+     * in the order of appending. The torn record at the tail of a segment and the records after it are
+     * truncated. Must be called before appending.
+     */
+    public synchronized void recover(BiConsumer<Record, Location> consumer) throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("create profile segment directory " + dir.getAbsolutePath() + " failed");
+        }
+        File[] files = dir.listFiles();
+        if (files == null) {
+            throw new IOException("list profile segment directory " + dir.getAbsolutePath() + " failed");
+        }
+        // the previous failed recovery may leave some segments
+        closeActiveFile();
+        segments.clear();
+        totalSize = 0;
+        Map<Long, File> segmentFiles = Maps.newTreeMap();
+        for (File file : files) {
+            long segmentId = parseSegmentId(file.getName());
+            if (file.isFile() && segmentId >= 0) {
+                segmentFiles.put(segmentId, file);
+            }
+        }
+        for (Map.Entry<Long, File> entry : segmentFiles.entrySet()) {
+            Segment segment = new Segment(entry.getKey(), entry.getValue(), 0);
+            recoverSegment(segment, consumer);
+            segments.put(segment.id, segment);
+            totalSize += segment.size;
+            nextSegmentId = segment.id + 1;
+        }
+        LOG.info("Recovered {} profile segments of {} bytes from {}", segments.size(), totalSize,
+                dir.getAbsolutePath());
+    }
+
+    private void recoverSegment(Segment segment, BiConsumer<Record, Location> consumer) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(segment.file, "rw")) {
+            long fileLength = file.length();
+            long offset = 0;
+            while (offset + RECORD_HEADER_SIZE <= fileLength) {
+                file.seek(offset);
+                int payloadLength = file.readInt();
+                long checksum = file.readLong();
+                if (payloadLength <= 0 || offset + RECORD_HEADER_SIZE + payloadLength > fileLength) {
+                    break;
+                }
+                byte[] payload = new byte[payloadLength];
+                file.readFully(payload);
+                if (checksum(payload) != checksum) {
+                    break;
+                }
+                Location location = new Location(segment.id, offset, RECORD_HEADER_SIZE + payloadLength);
+                segment.liveRecords++;
+                consumer.accept(decode(payload), location);
+                offset += location.length;
+            }
+            if (offset != fileLength) {
+                LOG.warn("Truncate profile segment {} from {} to {} bytes, the tail record is broken",
+                        segment.file.getAbsolutePath(), fileLength, offset);
+                file.setLength(offset);
+            }
+            segment.size = offset;
+        }
+    }
+
+    public synchronized Location append(Record record) throws IOException {
+        byte[] payload = encode(record);
+        Segment segment = segments.isEmpty() ? null : segments.lastEntry().getValue();
+        if (segment == null || segment.size >= segmentSizeBytes) {
+            segment = rollSegment();
+        } else if (activeFile == null) {
+            activeFile = new RandomAccessFile(segment.file, "rw");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length);
+        buffer.putInt(payload.length);
+        buffer.putLong(checksum(payload));
+        buffer.put(payload);
+        buffer.flip();
+        FileChannel channel = activeFile.getChannel();
+        long offset = segment.size;
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, offset + buffer.position());
+            }
+        } catch (IOException e) {
+            // drop the partial record, the next append will overwrite it
+            LOG.warn("Append profile {} to segment {} failed", record.profileId, segment.file.getAbsolutePath(), e);
+            throw e;
+        }
+        Location location = new Location(segment.id, offset, buffer.limit());
+        segment.size += location.length;
+        segment.liveRecords++;
+        totalSize += location.length;
+        return location;
+    }
+
+    private Segment rollSegment() throws IOException {
+        closeActiveFile();
+        long segmentId = nextSegmentId++;
+        File file = new File(dir, SEGMENT_FILE_PREFIX + segmentId);
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("create profile segment directory " + dir.getAbsolutePath() + " failed");
+        }
+        activeFile = new RandomAccessFile(file, "rw");
+        activeFile.setLength(0);
+        Segment segment = new Segment(segmentId, file, 0);
+        segments.put(segmentId, segment);
+        // the sealed segment may have no live record
+        Map.Entry<Long, Segment> sealed = segments.lowerEntry(segmentId);
+        if (sealed != null && sealed.getValue().liveRecords == 0) {
+            deleteSegment(sealed.getValue());
+        }
+        return segment;
+    }
+
+    public Record read(Location location) throws IOException {
+        File file = new File(dir, SEGMENT_FILE_PREFIX + location.segmentId);
+        // the segment may be deleted by retention, then opening it fails
+        try (RandomAccessFile segmentFile = new RandomAccessFile(file, "r")) {
+            ByteBuffer buffer = ByteBuffer.allocate(location.length);
+            FileChannel channel = segmentFile.getChannel();
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, location.offset + buffer.position()) < 0) {
+                    throw new IOException("unexpected end of profile segment " + file.getAbsolutePath()
+                            + " when reading " + location);
+                }
+            }
+            buffer.flip();
+            int payloadLength = buffer.getInt();
+            long checksum = buffer.getLong();
+            if (payloadLength != location.length - RECORD_HEADER_SIZE) {
+                throw new IOException("invalid profile record at " + location + " of " + file.getAbsolutePath());
+            }
+            byte[] payload = new byte[payloadLength];
+            buffer.get(payload);
+            if (checksum(payload) != checksum) {
+                throw new IOException("checksum mismatch of profile record at " + location + " of "
+                        + file.getAbsolutePath());
+            }
+            return decode(payload);
+        }
+    }
+
+    /**
+     * Release the record, the sealed segment is deleted when all of its records are released.
+     */
+    public synchronized void release(Location location) {
+        Segment segment = segments.get(location.segmentId);
+        if (segment == null) {
+            return;
+        }
+        segment.liveRecords--;
+        if (segment.liveRecords <= 0 && segment.id != segments.lastKey()) {
+            deleteSegment(segment);
+        }
+    }
+
+    /**
+     * Delete the oldest segments until the total size of the log is not larger than limitBytes.
+     * The active segment is sealed first if it alone exceeds the limit.
+     *
+     * @return the ids of the deleted segments, the records in them can not be read anymore.
+     */
+    public synchronized Set<Long> retain(long limitBytes) {
+        Set<Long> deletedSegmentIds = Sets.newHashSet();
+        while (totalSize > limitBytes && !segments.isEmpty()) {
+            Segment oldest = segments.firstEntry().getValue();
+            if (oldest.id == segments.lastKey()) {
+                closeActiveFile();
+            }
+            deleteSegment(oldest);
+            deletedSegmentIds.add(oldest.id);
+        }
+        return deletedSegmentIds;
+    }
+
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    public int getSegmentNum() {
+        return segments.size();
+    }
+
+    public synchronized void close() {
+        closeActiveFile();
+    }
+
+    private void deleteSegment(Segment segment) {
+        segments.remove(segment.id);
+        totalSize -= segment.size;
+        if (!FileUtils.deleteQuietly(segment.file)) {
+            LOG.warn("Delete profile segment {} failed", segment.file.getAbsolutePath());
+        } else if (LOG.isDebugEnabled()) {
+            LOG.debug("Delete profile segment {}, size {}", segment.file.getAbsolutePath(), segment.size);
+        }
+    }
+
+    private void closeActiveFile() {
+        if (activeFile == null) {
+            return;
+        }
+        try {
+            activeFile.close();
+        } catch (IOException e) {
+            LOG.warn("Close profile segment failed", e);
+        }
+        activeFile = null;
+    }
+
+    private static long parseSegmentId(String fileName) {
+        if (!fileName.startsWith(SEGMENT_FILE_PREFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(fileName.substring(SEGMENT_FILE_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static long checksum(byte[] payload) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload, 0, payload.length);
+        return crc32.getValue();
+    }
+
+    private static byte[] encode(Record record) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(
+                record.compressedProfile.length + record.compressedBrief.length + 1024);
+        DataOutputStream output = new DataOutputStream(outputStream);
+        Text.writeString(output, record.profileId);
+        output.writeLong(record.queryFinishTimestamp);
+        output.writeInt(record.infoStrings.size());
+        for (Map.Entry<String, String> entry : record.infoStrings.entrySet()) {
+            Text.writeString(output, entry.getKey());
+            Text.writeString(output, entry.getValue() == null ? "" : entry.getValue());
+        }
+        output.writeInt(record.compressedProfile.length);
+        output.write(record.compressedProfile);
+        output.writeInt(record.compressedBrief.length);
+        output.write(record.compressedBrief);
+        output.flush();
+        return outputStream.toByteArray();
+    }
+
+    private static Record decode(byte[] payload) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload));
+        String profileId = Text.readString(input);
+        long queryFinishTimestamp = input.readLong();
+        int infoNum = input.readInt();
+        Map<String, String> infoStrings = Maps.newHashMapWithExpectedSize(infoNum);
+        for (int i = 0; i < infoNum; i++) {
+            String key = Text.readString(input);
+            infoStrings.put(key, Text.readString(input));
+        }
+        byte[] compressedProfile = new byte[input.readInt()];
+        input.readFully(compressedProfile);
+        byte[] compressedBrief = new byte[input.readInt()];
+        input.readFully(compressedBrief);
+        return new Record(profileId, queryFinishTimestamp, infoStrings, compressedProfile, compressedBrief);
+    }
+}
@@ -80,15 +80,19 @@ public class SummaryProfile {
     public static final String GET_SPLITS_TIME = "Get Splits Time";
     public static final String GET_PARTITIONS_TIME = "Get Partitions Time";
     public static final String GET_PARTITION_FILES_TIME = "Get Partition Files Time";
+    public static final String GET_FIRST_SPLIT_TIME = "Get First Split Time";
     public static final String CREATE_SCAN_RANGE_TIME = "Create Scan Range Time";
     public static final String PLAN_TIME = "Plan Time";
     public static final String SCHEDULE_TIME = "Schedule Time";
     public static final String ASSIGN_FRAGMENT_TIME = "Fragment Assign Time";
+    public static final String FRAGMENT_BUILD_PARAMS_TIME = "Fragment Build Params Time";
     public static final String FRAGMENT_SERIALIZE_TIME = "Fragment Serialize Time";
+    public static final String FRAGMENT_SERIALIZE_TOTAL_TIME = "Fragment Serialize Total Time";
     public static final String SEND_FRAGMENT_PHASE1_TIME = "Fragment RPC Phase1 Time";
     public static final String SEND_FRAGMENT_PHASE2_TIME = "Fragment RPC Phase2 Time";
     public static final String WAIT_FETCH_RESULT_TIME = "Wait and Fetch Result Time";
     public static final String FETCH_RESULT_TIME = "Fetch Result Time";
+    public static final String FETCH_RESULT_WAIT_TIME = "Fetch Result Wait Time";
     public static final String WRITE_RESULT_TIME = "Write Result Time";
     public static final String GET_PARTITION_VERSION_TIME = "Get Partition Version Time";
     public static final String GET_PARTITION_VERSION_COUNT = "Get Partition Version Count";
@@ -97,6 +101,7 @@ public class SummaryProfile {
     public static final String GET_TABLE_VERSION_COUNT = "Get Table Version Count";
 
     public static final String PARSE_SQL_TIME = "Parse SQL Time";
+    public static final String PARSE_SQL_SAVED_TIME = "Parse SQL Saved Time";
     public static final String NEREIDS_ANALYSIS_TIME = "Nereids Analysis Time";
     public static final String NEREIDS_REWRITE_TIME = "Nereids Rewrite Time";
     public static final String NEREIDS_OPTIMIZE_TIME = "Nereids Optimize Time";
@@ -135,6 +140,7 @@ public class SummaryProfile {
     // The display order of execution summary items.
     public static final ImmutableList<String> EXECUTION_SUMMARY_KEYS = ImmutableList.of(
             PARSE_SQL_TIME,
+            PARSE_SQL_SAVED_TIME,
             NEREIDS_ANALYSIS_TIME,
             NEREIDS_REWRITE_TIME,
             NEREIDS_OPTIMIZE_TIME,
@@ -150,6 +156,7 @@ public class SummaryProfile {
             GET_SPLITS_TIME,
             GET_PARTITIONS_TIME,
             GET_PARTITION_FILES_TIME,
+            GET_FIRST_SPLIT_TIME,
             CREATE_SCAN_RANGE_TIME,
             GET_PARTITION_VERSION_TIME,
             GET_PARTITION_VERSION_BY_HAS_DATA_COUNT,
@@ -158,7 +165,9 @@ public class SummaryProfile {
             GET_TABLE_VERSION_COUNT,
             SCHEDULE_TIME,
             ASSIGN_FRAGMENT_TIME,
+            FRAGMENT_BUILD_PARAMS_TIME,
             FRAGMENT_SERIALIZE_TIME,
+            FRAGMENT_SERIALIZE_TOTAL_TIME,
             SEND_FRAGMENT_PHASE1_TIME,
             SEND_FRAGMENT_PHASE2_TIME,
             FRAGMENT_COMPRESSED_SIZE,
@@ -166,6 +175,7 @@ public class SummaryProfile {
             SCHEDULE_TIME_PER_BE,
             WAIT_FETCH_RESULT_TIME,
             FETCH_RESULT_TIME,
+            FETCH_RESULT_WAIT_TIME,
             WRITE_RESULT_TIME,
             DORIS_VERSION,
             IS_NEREIDS,
@@ -182,6 +192,7 @@ public class SummaryProfile {
     // Please set this map for new profile items if they need ident.
     public static ImmutableMap<String, Integer> EXECUTION_SUMMARY_KEYS_IDENTATION
             = ImmutableMap.<String, Integer>builder()
+            .put(PARSE_SQL_SAVED_TIME, 1)
             .put(JOIN_REORDER_TIME, 1)
             .put(CREATE_SINGLE_NODE_TIME, 1)
             .put(QUERY_DISTRIBUTED_TIME, 1)
@@ -190,6 +201,7 @@ public class SummaryProfile {
             .put(GET_SPLITS_TIME, 2)
             .put(GET_PARTITIONS_TIME, 3)
             .put(GET_PARTITION_FILES_TIME, 3)
+            .put(GET_FIRST_SPLIT_TIME, 3)
             .put(CREATE_SCAN_RANGE_TIME, 2)
             .put(GET_PARTITION_VERSION_TIME, 1)
             .put(GET_PARTITION_VERSION_COUNT, 1)
@@ -197,11 +209,14 @@ public class SummaryProfile {
             .put(GET_TABLE_VERSION_TIME, 1)
             .put(GET_TABLE_VERSION_COUNT, 1)
             .put(ASSIGN_FRAGMENT_TIME, 1)
+            .put(FRAGMENT_BUILD_PARAMS_TIME, 1)
             .put(FRAGMENT_SERIALIZE_TIME, 1)
+            .put(FRAGMENT_SERIALIZE_TOTAL_TIME, 2)
             .put(SEND_FRAGMENT_PHASE1_TIME, 1)
             .put(SEND_FRAGMENT_PHASE2_TIME, 1)
             .put(FRAGMENT_COMPRESSED_SIZE, 1)
             .put(FRAGMENT_RPC_COUNT, 1)
+            .put(FETCH_RESULT_WAIT_TIME, 1)
             .put(FILESYSTEM_OPT_TIME, 1)
             .put(FILESYSTEM_OPT_RENAME_FILE_CNT, 2)
             .put(FILESYSTEM_OPT_RENAME_DIR_CNT, 2)
@@ -221,6 +236,9 @@ public class SummaryProfile {
     private long parseSqlStartTime = -1;
     @SerializedName(value = "parseSqlFinishTime")
     private long parseSqlFinishTime = -1;
+    // the parsing time saved by the parsed statement cache, in nanoseconds
+    @SerializedName(value = "parseSqlSavedTime")
+    private long parseSqlSavedTime = 0;
     @SerializedName(value = "nereidsAnalysisFinishTime")
     private long nereidsAnalysisFinishTime = -1;
     @SerializedName(value = "nereidsRewriteFinishTime")
@@ -259,6 +277,9 @@ public class SummaryProfile {
     private long getPartitionsFinishTime = -1;
     @SerializedName(value = "getPartitionFilesFinishTime")
     private long getPartitionFilesFinishTime = -1;
+    // only set in batch mode, the time when the first split is available for backends
+    @SerializedName(value = "getFirstSplitFinishTime")
+    private long getFirstSplitFinishTime = -1;
     @SerializedName(value = "getSplitsFinishTime")
     private long getSplitsFinishTime = -1;
     @SerializedName(value = "createScanRangeFinishTime")
@@ -268,8 +289,14 @@ public class SummaryProfile {
     private long queryPlanFinishTime = -1;
     @SerializedName(value = "assignFragmentTime")
     private long assignFragmentTime = -1;
+    @SerializedName(value = "fragmentBuildParamsTime")
+    private long fragmentBuildParamsTime = -1;
+    // the fragments of the backends are serialized and sent in parallel
     @SerializedName(value = "fragmentSerializeTime")
     private long fragmentSerializeTime = -1;
+    // the sum of the serialize time of all the backends, in nanoseconds
+    @SerializedName(value = "fragmentSerializeTotalTime")
+    private long fragmentSerializeTotalTime = 0;
     @SerializedName(value = "fragmentSendPhase1Time")
     private long fragmentSendPhase1Time = -1;
     @SerializedName(value = "fragmentSendPhase2Time")
@@ -288,6 +315,9 @@ public class SummaryProfile {
     private long tempStarTime = -1;
     @SerializedName(value = "queryFetchResultConsumeTime")
     private long queryFetchResultConsumeTime = 0;
+    // the time blocked on waiting the fetch_data rpcs, in nanoseconds
+    @SerializedName(value = "queryFetchResultWaitTime")
+    private long queryFetchResultWaitTime = 0;
     @SerializedName(value = "queryWriteResultConsumeTime")
     private long queryWriteResultConsumeTime = 0;
     @SerializedName(value = "getPartitionVersionTime")
@@ -403,6 +433,8 @@ public class SummaryProfile {
 
     private void updateExecutionSummaryProfile() {
         executionSummaryProfile.addInfoString(PARSE_SQL_TIME, getPrettyParseSqlTime());
+        executionSummaryProfile.addInfoString(PARSE_SQL_SAVED_TIME,
+                RuntimeProfile.printCounter(parseSqlSavedTime / 1000000, TUnit.TIME_MS));
         executionSummaryProfile.addInfoString(NEREIDS_ANALYSIS_TIME, getPrettyNereidsAnalysisTime());
         executionSummaryProfile.addInfoString(NEREIDS_REWRITE_TIME, getPrettyNereidsRewriteTime());
         executionSummaryProfile.addInfoString(NEREIDS_OPTIMIZE_TIME, getPrettyNereidsOptimizeTime());
@@ -428,6 +460,8 @@ public class SummaryProfile {
                 getPrettyTime(getPartitionsFinishTime, getSplitsStartTime, TUnit.TIME_MS));
         executionSummaryProfile.addInfoString(GET_PARTITION_FILES_TIME,
                 getPrettyTime(getPartitionFilesFinishTime, getPartitionsFinishTime, TUnit.TIME_MS));
+        executionSummaryProfile.addInfoString(GET_FIRST_SPLIT_TIME,
+                getPrettyTime(getFirstSplitFinishTime, getSplitsStartTime, TUnit.TIME_MS));
         executionSummaryProfile.addInfoString(CREATE_SCAN_RANGE_TIME,
                 getPrettyTime(createScanRangeFinishTime, getSplitsFinishTime, TUnit.TIME_MS));
         executionSummaryProfile.addInfoString(SCHEDULE_TIME,
@@ -435,8 +469,13 @@ public class SummaryProfile {
         executionSummaryProfile.addInfoString(SCHEDULE_TIME_PER_BE, getRpcLatency());
         executionSummaryProfile.addInfoString(ASSIGN_FRAGMENT_TIME,
                 getPrettyTime(assignFragmentTime, queryPlanFinishTime, TUnit.TIME_MS));
+        executionSummaryProfile.addInfoString(FRAGMENT_BUILD_PARAMS_TIME,
+                getPrettyTime(fragmentBuildParamsTime, assignFragmentTime, TUnit.TIME_MS));
         executionSummaryProfile.addInfoString(FRAGMENT_SERIALIZE_TIME,
-                getPrettyTime(fragmentSerializeTime, assignFragmentTime, TUnit.TIME_MS));
+                getPrettyTime(fragmentSerializeTime,
+                        fragmentBuildParamsTime == -1 ? assignFragmentTime : fragmentBuildParamsTime, TUnit.TIME_MS));
+        executionSummaryProfile.addInfoString(FRAGMENT_SERIALIZE_TOTAL_TIME,
+                RuntimeProfile.printCounter(fragmentSerializeTotalTime / 1000000, TUnit.TIME_MS));
         executionSummaryProfile.addInfoString(SEND_FRAGMENT_PHASE1_TIME,
                 getPrettyTime(fragmentSendPhase1Time, fragmentSerializeTime, TUnit.TIME_MS));
         executionSummaryProfile.addInfoString(SEND_FRAGMENT_PHASE2_TIME,
@@ -448,6 +487,8 @@ public class SummaryProfile {
                 getPrettyTime(queryFetchResultFinishTime, queryScheduleFinishTime, TUnit.TIME_MS));
         executionSummaryProfile.addInfoString(FETCH_RESULT_TIME,
                 RuntimeProfile.printCounter(queryFetchResultConsumeTime, TUnit.TIME_MS));
+        executionSummaryProfile.addInfoString(FETCH_RESULT_WAIT_TIME,
+                RuntimeProfile.printCounter(queryFetchResultWaitTime / 1000000, TUnit.TIME_MS));
         executionSummaryProfile.addInfoString(WRITE_RESULT_TIME,
                 RuntimeProfile.printCounter(queryWriteResultConsumeTime, TUnit.TIME_MS));
         setTransactionSummary();
@@ -497,6 +538,10 @@ public class SummaryProfile {
         this.parseSqlFinishTime = parseSqlFinishTime;
     }
 
+    public void setParseSqlSavedTime(long parseSqlSavedTimeNs) {
+        this.parseSqlSavedTime = parseSqlSavedTimeNs;
+    }
+
     public void setNereidsAnalysisTime() {
         this.nereidsAnalysisFinishTime = TimeUtils.getStartTimeMs();
     }
@@ -561,6 +606,10 @@ public class SummaryProfile {
         this.getPartitionFilesFinishTime = TimeUtils.getStartTimeMs();
     }
 
+    public void setGetFirstSplitFinishTime() {
+        this.getFirstSplitFinishTime = TimeUtils.getStartTimeMs();
+    }
+
     public void setGetSplitsFinishTime() {
         this.getSplitsFinishTime = TimeUtils.getStartTimeMs();
     }
@@ -593,6 +642,10 @@ public class SummaryProfile {
         this.queryFetchResultConsumeTime += TimeUtils.getStartTimeMs() - tempStarTime;
     }
 
+    public void addFetchResultWaitTime(long waitTimeNs) {
+        this.queryFetchResultWaitTime += waitTimeNs;
+    }
+
     public void freshWriteResultConsumeTime() {
         this.queryWriteResultConsumeTime += TimeUtils.getStartTimeMs() - tempStarTime;
     }
@@ -601,6 +654,10 @@ public class SummaryProfile {
         this.assignFragmentTime = TimeUtils.getStartTimeMs();
     }
 
+    public void setFragmentBuildParamsTime() {
+        this.fragmentBuildParamsTime = TimeUtils.getStartTimeMs();
+    }
+
     public void setFragmentSerializeTime() {
         this.fragmentSerializeTime = TimeUtils.getStartTimeMs();
     }
@@ -617,6 +674,10 @@ public class SummaryProfile {
         this.fragmentCompressedSize += size;
     }
 
+    public void updateFragmentSerializeTotalTime(long ns) {
+        this.fragmentSerializeTotalTime += ns;
+    }
+
     public void updateFragmentRpcCount(long count) {
         this.fragmentRpcCount += count;
     }
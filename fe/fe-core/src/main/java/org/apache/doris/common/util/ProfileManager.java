@@ -15,6 +15,7 @@
 // specific language governing permissions and limitations
 // under the License.
 
+
 package org.apache.doris.common.util;
 
 import org.apache.doris.catalog.Env;
@@ -27,6 +28,7 @@ import org.apache.doris.common.ThreadPoolManager;
 import org.apache.doris.common.profile.ExecutionProfile;
 import org.apache.doris.common.profile.MultiProfileTreeBuilder;
 import org.apache.doris.common.profile.Profile;
+import org.apache.doris.common.profile.ProfileSegmentLog;
 import org.apache.doris.common.profile.ProfileTreeBuilder;
 import org.apache.doris.common.profile.ProfileTreeNode;
 import org.apache.doris.common.profile.SummaryProfile;
@@ -41,6 +43,7 @@ import org.apache.doris.thrift.TNetworkAddress;
 import org.apache.doris.thrift.TStatusCode;
 import org.apache.doris.thrift.TUniqueId;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -50,19 +53,17 @@ import org.apache.logging.log4j.Logger;
 import org.apache.thrift.TException;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.io.IOException;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
 
 /*
  * if you want to visit the attribute(such as queryID,defaultDb)
@@ -72,11 +73,22 @@ import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
  * why the element in the finished profile array is not RuntimeProfile,
  * the purpose is let coordinator can destruct earlier(the fragment profile is in Coordinator)
  *
+ * The profiles are kept in three tiers:
+ * 1. the live profile of the running or just finished query, it is updated by the coordinator.
+ * 2. the compressed profile in memory, the profile is compressed and its execution profiles are
+ *    released when the query finishes and all its execution profiles are reported.
+ * 3. the profile in the profile segment log on storage, the oldest compressed profiles are appended to the
+ *    log when their total size exceeds max_in_memory_compressed_profile_bytes, only the summary info strings
+ *    and the location are kept in memory. The log is limited by max_spilled_profile_num and
+ *    spilled_profile_storage_limit_bytes.
+ * All the indexes are concurrent maps, so looking up a profile by query id or trace id never takes a lock.
  */
 public class ProfileManager extends MasterDaemon {
     private static final Logger LOG = LogManager.getLogger(ProfileManager.class);
     private static volatile ProfileManager INSTANCE = null;
     private static final String PROFILE_STORAGE_PATH = Config.spilled_profile_storage_path;
+    // sub directory of the profile segment log
+    private static final String PROFILE_SEGMENT_DIR = "segments";
 
     public enum ProfileType {
         QUERY,
@@ -84,11 +96,34 @@ public class ProfileManager extends MasterDaemon {
     }
 
     public static class ProfileElement {
-        public ProfileElement(Profile profile) {
+        public ProfileElement(Profile profile, ProfileSegmentLog segmentLog) {
             this.profile = profile;
-        }
+            this.profileId = profile.getSummaryProfile().getProfileId();
+            this.segmentLog = segmentLog;
+        }
+
+        // the profile in the segment log, recovered or migrated when FE starts
+        private ProfileElement(ProfileSegmentLog.Record record, ProfileSegmentLog.Location location,
+                ProfileSegmentLog segmentLog) {
+            this.profile = null;
+            this.profileId = record.profileId;
+            this.queryFinishTimestamp = record.queryFinishTimestamp;
+            this.infoStrings = record.infoStrings;
+            this.location = location;
+            this.segmentLog = segmentLog;
+        }
+
+        // Only one of profile, archived and location is used, see the tiers in the comment of ProfileManager.
+        // The next tier is set before the current one is cleared, so a reader always sees one of them.
+        private volatile Profile profile;
+        private volatile ProfileSegmentLog.Record archived = null;
+        private volatile ProfileSegmentLog.Location location = null;
+        private volatile long queryFinishTimestamp = Long.MAX_VALUE;
+        // set when the element is removed from ProfileManager, protected by the lock of this element
+        private boolean removed = false;
+        private final String profileId;
+        private final ProfileSegmentLog segmentLog;
 
-        private final Profile profile;
         public Map<String, String> infoStrings = Maps.newHashMap();
         public MultiProfileTreeBuilder builder = null;
         public String errMsg = "";
@@ -100,11 +135,42 @@ public class ProfileManager extends MasterDaemon {
             // Not cache the profile content because it may change during insert
             // into select statement, we need use this to check process.
             // And also, cache the content will double usage of the memory in FE.
-            return profile.getProfileByLevel();
+            Profile liveProfile = profile;
+            if (liveProfile != null) {
+                return liveProfile.getProfileByLevel();
+            }
+            return readArchived(false);
         }
 
         public String getProfileBrief() {
-            return profile.getProfileBrief();
+            Profile liveProfile = profile;
+            if (liveProfile != null) {
+                return liveProfile.getProfileBrief();
+            }
+            return readArchived(true);
+        }
+
+        private String readArchived(boolean brief) {
+            ProfileSegmentLog.Record record = archived;
+            ProfileSegmentLog.Location recordLocation = null;
+            try {
+                if (record == null) {
+                    recordLocation = location;
+                    if (recordLocation == null) {
+                        return null;
+                    }
+                    record = segmentLog.read(recordLocation);
+                }
+                return Profile.decompressExecutionProfile(brief ? record.compressedBrief : record.compressedProfile);
+            } catch (IOException e) {
+                LOG.warn("Failed to read archived profile {}, {}", profileId, recordLocation, e);
+                return "Failed to read profile " + profileId + " from storage: " + e.getMessage();
+            }
+        }
+
+        public long getQueryFinishTimestamp() {
+            Profile liveProfile = profile;
+            return liveProfile != null ? liveProfile.getQueryFinishTimestamp() : queryFinishTimestamp;
         }
 
         public double getError() {
@@ -115,14 +181,41 @@ public class ProfileManager extends MasterDaemon {
             this.statsErrorEstimator = statsErrorEstimator;
         }
 
-        // Store profile to path
-        public void writeToStorage(String profileStoragePath) {
-            profile.writeToStorage(profileStoragePath);
+        // Compress the content and brief of the finished profile, and release the live profile.
+        private synchronized boolean archive() throws IOException {
+            Profile liveProfile = profile;
+            if (removed || liveProfile == null) {
+                return false;
+            }
+            byte[] compressedProfile = Profile.compressExecutionProfile(liveProfile.getProfileByLevel());
+            byte[] compressedBrief = Profile.compressExecutionProfile(liveProfile.getProfileBrief());
+            queryFinishTimestamp = liveProfile.getQueryFinishTimestamp();
+            archived = new ProfileSegmentLog.Record(profileId, queryFinishTimestamp, infoStrings,
+                    compressedProfile, compressedBrief);
+            profile = null;
+            return true;
+        }
+
+        // Append the compressed profile to the segment log, and release the memory.
+        private synchronized void spill() throws IOException {
+            ProfileSegmentLog.Record record = archived;
+            if (removed || record == null) {
+                return;
+            }
+            location = segmentLog.append(record);
+            archived = null;
+        }
+
+        private synchronized void remove() {
+            removed = true;
+            if (location != null) {
+                segmentLog.release(location);
+            }
         }
 
-        // Remove profile from storage
-        public void deleteFromStorage() {
-            profile.deleteFromStorage();
+        private long getCompressedSize() {
+            ProfileSegmentLog.Record record = archived;
+            return record == null ? 0 : record.compressedProfile.length + record.compressedBrief.length;
         }
     }
 
@@ -130,17 +223,16 @@ public class ProfileManager extends MasterDaemon {
     // no futher write operaiton, so no data race
     boolean isProfileLoaded = false;
 
-    // only protect queryIdDeque; queryIdToProfileMap is concurrent, no need to protect
-    private ReentrantReadWriteLock lock;
-    private ReadLock readLock;
-    private WriteLock writeLock;
-
     // profile id is long string for brocker load
     // is TUniqueId for others.
-    private Map<String, ProfileElement> queryIdToProfileMap;
+    private final Map<String, ProfileElement> queryIdToProfileMap;
+    private final Map<String, String> traceIdToQueryId;
     // Sometimes one Profile is related with multiple execution profiles(Brokerload), so that
     // execution profile's query id is not related with Profile's query id.
-    private Map<TUniqueId, ExecutionProfile> queryIdToExecutionProfiles;
+    private final Map<TUniqueId, ExecutionProfile> queryIdToExecutionProfiles;
+    // the profile files written by older versions are in this directory
+    private final String profileStoragePath;
+    private final ProfileSegmentLog profileSegmentLog;
 
     private final ExecutorService fetchRealTimeProfileExecutor;
     private final ExecutorService profileIOExecutor;
@@ -159,11 +251,17 @@ public class ProfileManager extends MasterDaemon {
 
     // The visiablity of ProfileManager() is package level, so that we can write ut for it.
     ProfileManager() {
-        lock = new ReentrantReadWriteLock(true);
-        readLock = lock.readLock();
-        writeLock = lock.writeLock();
-        queryIdToProfileMap = Maps.newHashMap();
-        queryIdToExecutionProfiles = Maps.newHashMap();
+        this(PROFILE_STORAGE_PATH);
+    }
+
+    @VisibleForTesting
+    ProfileManager(String profileStoragePath) {
+        queryIdToProfileMap = new ConcurrentHashMap<>();
+        traceIdToQueryId = new ConcurrentHashMap<>();
+        queryIdToExecutionProfiles = new ConcurrentHashMap<>();
+        this.profileStoragePath = profileStoragePath;
+        profileSegmentLog = new ProfileSegmentLog(profileStoragePath + File.separator + PROFILE_SEGMENT_DIR,
+                Config.profile_segment_size_bytes);
         fetchRealTimeProfileExecutor = ThreadPoolManager.newDaemonFixedThreadPool(
                 10, 100, "fetch-realtime-profile-pool", true);
         profileIOExecutor = ThreadPoolManager.newDaemonFixedThreadPool(
@@ -171,8 +269,12 @@ public class ProfileManager extends MasterDaemon {
     }
 
     private ProfileElement createElement(Profile profile) {
-        ProfileElement element = new ProfileElement(profile);
+        ProfileElement element = new ProfileElement(profile, profileSegmentLog);
         element.infoStrings.putAll(profile.getSummaryProfile().getAsInfoStings());
+        String traceId = profile.getSummaryProfile().getExecutionSummary().getInfoString(SummaryProfile.TRACE_ID);
+        if (!Strings.isNullOrEmpty(traceId) && !traceId.equals("N/A")) {
+            element.infoStrings.put(SummaryProfile.TRACE_ID, traceId);
+        }
         // Not init builder any more, we will not maintain it since 2.1.0, because the structure
         // assume that the execution profiles structure is already known before execution. But in
         // PipelineX Engine, it will changed during execution.
@@ -183,40 +285,34 @@ public class ProfileManager extends MasterDaemon {
         if (executionProfile == null) {
             return;
         }
-        writeLock.lock();
-        try {
-            if (queryIdToExecutionProfiles.containsKey(executionProfile.getQueryId())) {
-                return;
-            }
-            queryIdToExecutionProfiles.put(executionProfile.getQueryId(), executionProfile);
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("Add execution profile {} to profile manager",
-                        DebugUtil.printId(executionProfile.getQueryId()));
-            }
-            // This branch has two purposes:
-            // 1. discard profile collecting if its collection not finished in 5 seconds after query finished.
-            // 2. prevent execution profile from leakage. If we have too many execution profiles in memory,
-            // we will remove execution profiles of query that has finished in 5 seconds ago.
-            if (queryIdToExecutionProfiles.size() > 2 * Config.max_query_profile_num) {
-                List<ExecutionProfile> finishOrExpireExecutionProfiles = Lists.newArrayList();
-                for (ExecutionProfile tmpProfile : queryIdToExecutionProfiles.values()) {
-                    boolean queryFinishedLongEnough = tmpProfile.getQueryFinishTime() > 0
-                            && System.currentTimeMillis() - tmpProfile.getQueryFinishTime()
-                            > Config.profile_async_collect_expire_time_secs * 1000;
-
-                    if (queryFinishedLongEnough) {
-                        finishOrExpireExecutionProfiles.add(tmpProfile);
-                    }
-                }
-                StringBuilder stringBuilder = new StringBuilder();
-                for (ExecutionProfile tmp : finishOrExpireExecutionProfiles) {
-                    stringBuilder.append(DebugUtil.printId(tmp.getQueryId())).append(",");
-                    queryIdToExecutionProfiles.remove(tmp.getQueryId());
+        if (queryIdToExecutionProfiles.putIfAbsent(executionProfile.getQueryId(), executionProfile) != null) {
+            return;
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Add execution profile {} to profile manager",
+                    DebugUtil.printId(executionProfile.getQueryId()));
+        }
+        // This branch has two purposes:
+        // 1. discard profile collecting if its collection not finished in 5 seconds after query finished.
+        // 2. prevent execution profile from leakage. If we have too many execution profiles in memory,
+        // we will remove execution profiles of query that has finished in 5 seconds ago.
+        if (queryIdToExecutionProfiles.size() > 2 * Config.max_query_profile_num) {
+            List<ExecutionProfile> finishOrExpireExecutionProfiles = Lists.newArrayList();
+            for (ExecutionProfile tmpProfile : queryIdToExecutionProfiles.values()) {
+                boolean queryFinishedLongEnough = tmpProfile.getQueryFinishTime() > 0
+                        && System.currentTimeMillis() - tmpProfile.getQueryFinishTime()
+                        > Config.profile_async_collect_expire_time_secs * 1000;
+
+                if (queryFinishedLongEnough) {
+                    finishOrExpireExecutionProfiles.add(tmpProfile);
                 }
-                LOG.warn("Remove expired execution profiles {}", stringBuilder.toString());
             }
-        } finally {
-            writeLock.unlock();
+            StringBuilder stringBuilder = new StringBuilder();
+            for (ExecutionProfile tmp : finishOrExpireExecutionProfiles) {
+                stringBuilder.append(DebugUtil.printId(tmp.getQueryId())).append(",");
+                queryIdToExecutionProfiles.remove(tmp.getQueryId());
+            }
+            LOG.warn("Remove expired execution profiles {}", stringBuilder.toString());
         }
     }
 
@@ -239,32 +335,43 @@ public class ProfileManager extends MasterDaemon {
                     + "may be forget to insert 'QUERY_ID' or 'JOB_ID' column into infoStrings");
         }
 
-        writeLock.lock();
-        try {
-            // a profile may be updated multiple times in queryIdToProfileMap,
-            // and only needs to be inserted into the queryIdDeque for the first time.
-            queryIdToProfileMap.put(key, element);
-        } finally {
-            writeLock.unlock();
+        // a profile may be updated multiple times in queryIdToProfileMap
+        putProfileElement(key, element);
+    }
+
+    private void putProfileElement(String key, ProfileElement element) {
+        ProfileElement oldElement = queryIdToProfileMap.put(key, element);
+        if (oldElement != null && oldElement != element) {
+            oldElement.remove();
+        }
+        String traceId = element.infoStrings.get(SummaryProfile.TRACE_ID);
+        if (traceId != null) {
+            traceIdToQueryId.put(traceId, key);
+        }
+    }
+
+    private void removeProfileElement(ProfileElement element) {
+        if (!queryIdToProfileMap.remove(element.profileId, element)) {
+            return;
+        }
+        String traceId = element.infoStrings.get(SummaryProfile.TRACE_ID);
+        if (traceId != null) {
+            traceIdToQueryId.remove(traceId, element.profileId);
         }
+        element.remove();
     }
 
     public List<List<String>> getAllQueries() {
         List<List<String>> result = Lists.newArrayList();
-        readLock.lock();
-        try {
-            PriorityQueue<ProfileElement> queueIdDeque = getProfileOrderByQueryFinishTime();
-            while (!queueIdDeque.isEmpty()) {
-                ProfileElement profileElement = queueIdDeque.poll();
-                Map<String, String> infoStrings = profileElement.infoStrings;
-                List<String> row = Lists.newArrayList();
-                for (String str : SummaryProfile.SUMMARY_KEYS) {
-                    row.add(infoStrings.get(str));
-                }
-                result.add(row);
+        PriorityQueue<ProfileElement> queueIdDeque = getProfileOrderByQueryFinishTime();
+        while (!queueIdDeque.isEmpty()) {
+            ProfileElement profileElement = queueIdDeque.poll();
+            Map<String, String> infoStrings = profileElement.infoStrings;
+            List<String> row = Lists.newArrayList();
+            for (String str : SummaryProfile.SUMMARY_KEYS) {
+                row.add(infoStrings.get(str));
             }
-        } finally {
-            readLock.unlock();
+            result.add(row);
         }
         return result;
     }
@@ -407,30 +514,19 @@ public class ProfileManager extends MasterDaemon {
             LOG.info("Get real-time exec status finished, id {}", id);
         }
 
-        readLock.lock();
-        try {
-            ProfileElement element = queryIdToProfileMap.get(id);
-            if (element == null) {
-                return null;
-            }
-
-            return element.getProfileContent();
-        } finally {
-            readLock.unlock();
+        ProfileElement element = queryIdToProfileMap.get(id);
+        if (element == null) {
+            return null;
         }
+        return element.getProfileContent();
     }
 
     public String getProfileBrief(String queryID) {
-        readLock.lock();
-        try {
-            ProfileElement element = queryIdToProfileMap.get(queryID);
-            if (element == null) {
-                return null;
-            }
-            return element.getProfileBrief();
-        } finally {
-            readLock.unlock();
+        ProfileElement element = queryIdToProfileMap.get(queryID);
+        if (element == null) {
+            return null;
         }
+        return element.getProfileBrief();
     }
 
     public ProfileElement findProfileElementObject(String queryId) {
@@ -445,53 +541,33 @@ public class ProfileManager extends MasterDaemon {
      * @throws DdlException
      */
     public void checkAuthByUserAndQueryId(String user, String queryId) throws AuthenticationException {
-        readLock.lock();
-        try {
-            ProfileElement element = queryIdToProfileMap.get(queryId);
-            if (element == null) {
-                throw new AuthenticationException("query with id " + queryId + " not found");
-            }
-            if (!element.infoStrings.get(SummaryProfile.USER).equals(user)) {
-                throw new AuthenticationException("Access deny to view query with id: " + queryId);
-            }
-        } finally {
-            readLock.unlock();
+        ProfileElement element = queryIdToProfileMap.get(queryId);
+        if (element == null) {
+            throw new AuthenticationException("query with id " + queryId + " not found");
+        }
+        if (!element.infoStrings.get(SummaryProfile.USER).equals(user)) {
+            throw new AuthenticationException("Access deny to view query with id: " + queryId);
         }
     }
 
     public ProfileTreeNode getFragmentProfileTree(String queryID, String executionId) throws AnalysisException {
-        MultiProfileTreeBuilder builder;
-        readLock.lock();
-        try {
-            ProfileElement element = queryIdToProfileMap.get(queryID);
-            if (element == null || element.builder == null) {
-                throw new AnalysisException("failed to get fragment profile tree. err: "
-                        + (element == null ? "not found" : element.errMsg));
-            }
-            builder = element.builder;
-        } finally {
-            readLock.unlock();
+        ProfileElement element = queryIdToProfileMap.get(queryID);
+        if (element == null || element.builder == null) {
+            throw new AnalysisException("failed to get fragment profile tree. err: "
+                    + (element == null ? "not found" : element.errMsg));
         }
-        return builder.getFragmentTreeRoot(executionId);
+        return element.builder.getFragmentTreeRoot(executionId);
     }
 
     public ProfileTreeNode getInstanceProfileTree(String queryID, String executionId,
             String fragmentId, String instanceId)
             throws AnalysisException {
-        MultiProfileTreeBuilder builder;
-        readLock.lock();
-        try {
-            ProfileElement element = queryIdToProfileMap.get(queryID);
-            if (element == null || element.builder == null) {
-                throw new AnalysisException("failed to get instance profile tree. err: "
-                        + (element == null ? "not found" : element.errMsg));
-            }
-            builder = element.builder;
-        } finally {
-            readLock.unlock();
+        ProfileElement element = queryIdToProfileMap.get(queryID);
+        if (element == null || element.builder == null) {
+            throw new AnalysisException("failed to get instance profile tree. err: "
+                    + (element == null ? "not found" : element.errMsg));
         }
-
-        return builder.getInstanceTreeRoot(executionId, fragmentId, instanceId);
+        return element.builder.getInstanceTreeRoot(executionId, fragmentId, instanceId);
     }
 
     // Return the tasks info of the specified load job
@@ -507,31 +583,17 @@ public class ProfileManager extends MasterDaemon {
     }
 
     private MultiProfileTreeBuilder getMultiProfileTreeBuilder(String jobId) throws AnalysisException {
-        readLock.lock();
-        try {
-            ProfileElement element = queryIdToProfileMap.get(jobId);
-            if (element == null || element.builder == null) {
-                throw new AnalysisException("failed to get task ids. err: "
-                        + (element == null ? "not found" : element.errMsg));
-            }
-            return element.builder;
-        } finally {
-            readLock.unlock();
+        ProfileElement element = queryIdToProfileMap.get(jobId);
+        if (element == null || element.builder == null) {
+            throw new AnalysisException("failed to get task ids. err: "
+                    + (element == null ? "not found" : element.errMsg));
         }
+        return element.builder;
     }
 
     public String getQueryIdByTraceId(String traceId) {
-        readLock.lock();
-        try {
-            for (Map.Entry<String, ProfileElement> entry : queryIdToProfileMap.entrySet()) {
-                if (entry.getValue().infoStrings.getOrDefault(SummaryProfile.TRACE_ID, "").equals(traceId)) {
-                    return entry.getKey();
-                }
-            }
-            return "";
-        } finally {
-            readLock.unlock();
-        }
+        String queryId = traceIdToQueryId.get(traceId);
+        return queryId == null ? "" : queryId;
     }
 
     public void setStatsErrorEstimator(String queryId, StatsErrorEstimator statsErrorEstimator) {
@@ -542,31 +604,29 @@ public class ProfileManager extends MasterDaemon {
     }
 
     public void cleanProfile() {
-        writeLock.lock();
-        try {
-            queryIdToProfileMap.clear();
-            queryIdToExecutionProfiles.clear();
-        } finally {
-            writeLock.unlock();
+        for (ProfileElement profileElement : queryIdToProfileMap.values()) {
+            removeProfileElement(profileElement);
         }
+        queryIdToExecutionProfiles.clear();
     }
 
     @Override
     protected void runAfterCatalogReady() {
         loadProfilesFromStorageIfFirstTime();
-        writeProfileToStorage();
-        deleteBrokenProfiles();
+        archiveFinishedProfiles();
+        spillArchivedProfilesIfNecessary();
         deleteOutdatedProfilesFromStorage();
     }
 
-    // List PROFILE_STORAGE_PATH and return all dir names
+    // List profileStoragePath and return all file names
     // string will contain profile id and its storage timestamp
+    // These files are written by older versions, one file per profile.
     private List<String> getOnStorageProfileInfos() {
         List<String> res = Lists.newArrayList();
         try {
-            File profileDir = new File(PROFILE_STORAGE_PATH);
+            File profileDir = new File(profileStoragePath);
             if (!profileDir.exists()) {
-                LOG.warn("Profile storage directory {} does not exist", PROFILE_STORAGE_PATH);
+                LOG.warn("Profile storage directory {} does not exist", profileStoragePath);
                 return res;
             }
 
@@ -583,169 +643,191 @@ public class ProfileManager extends MasterDaemon {
         return res;
     }
 
-    // read profile file on storage
-    // deserialize to an object Profile
-    // push them to memory structure of ProfileManager for index
-    private void loadProfilesFromStorageIfFirstTime() {
+    // recover the profile segment log
+    // push the index of the profiles in it to memory structure of ProfileManager
+    @VisibleForTesting
+    void loadProfilesFromStorageIfFirstTime() {
         if (this.isProfileLoaded) {
             return;
         }
 
         try {
-            LOG.info("Reading profile from {}", PROFILE_STORAGE_PATH);
-            List<String> profileDirAbsPaths = getOnStorageProfileInfos();
-            // Thread safe list
-            List<Profile> profiles = Collections.synchronizedList(new ArrayList<>());
-            // List of profile io futures
-            List<Future<?>> profileIOfutures = Lists.newArrayList();
-            // Creatre and add task to executor
-            for (String profileDirAbsPath : profileDirAbsPaths) {
-                Thread thread = new Thread(() -> {
-                    Profile profile = Profile.read(profileDirAbsPath);
-                    if (profile != null) {
-                        profiles.add(profile);
-                    }
-                });
-                profileIOfutures.add(profileIOExecutor.submit(thread));
-            }
-
-            // Wait for all submitted futures to complete
-            for (Future<?> future : profileIOfutures) {
-                try {
-                    future.get();
-                } catch (Exception e) {
-                    LOG.warn("Failed to read profile from storage", e);
-                }
-            }
-
-            LOG.info("There are {} profiles loaded into memory", profiles.size());
+            LOG.info("Reading profile from {}", profileStoragePath);
+            List<ProfileElement> profileElements = Lists.newArrayList();
+            profileSegmentLog.recover((record, location) ->
+                    profileElements.add(new ProfileElement(record, location, profileSegmentLog)));
 
             // there may already has some queries running before this thread running
             // so we should not clear current memory structure
-
-            for (Profile profile : profiles) {
-                this.pushProfile(profile);
+            for (ProfileElement profileElement : profileElements) {
+                if (queryIdToProfileMap.containsKey(profileElement.profileId)) {
+                    profileElement.remove();
+                } else {
+                    putProfileElement(profileElement.profileId, profileElement);
+                }
             }
+            LOG.info("There are {} profiles loaded into memory", profileElements.size());
 
+            migrateProfileFiles();
             this.isProfileLoaded = true;
         } catch (Exception e) {
             LOG.error("Failed to load query profile from storage", e);
         }
     }
 
-    private void createProfileStorageDirIfNecessary() {
-        File profileDir = new File(PROFILE_STORAGE_PATH);
-        if (profileDir.exists()) {
-            return;
+    // Older versions store every profile to a single file, append them to the segment log and delete the files.
+    // The broken files are deleted too.
+    private void migrateProfileFiles() {
+        List<String> profileFileAbsPaths = getOnStorageProfileInfos();
+        int migratedNum = 0;
+        for (String profileFileAbsPath : profileFileAbsPaths) {
+            Profile profile = Profile.read(profileFileAbsPath);
+            if (profile != null && !queryIdToProfileMap.containsKey(profile.getSummaryProfile().getProfileId())) {
+                try {
+                    ProfileElement profileElement = migrateProfileFile(profileFileAbsPath, profile);
+                    putProfileElement(profileElement.profileId, profileElement);
+                    migratedNum++;
+                } catch (IOException e) {
+                    LOG.warn("Failed to migrate profile {} to segment log", profileFileAbsPath, e);
+                }
+            }
+            if (!FileUtils.deleteQuietly(new File(profileFileAbsPath))) {
+                LOG.warn("Failed to delete profile file {}", profileFileAbsPath);
+            }
         }
-
-        // create query_id directory
-        if (!profileDir.mkdir()) {
-            LOG.warn("create profile directory {} failed", profileDir.getAbsolutePath());
-        } else {
-            LOG.info("Create profile storage {} succeed", PROFILE_STORAGE_PATH);
+        if (!profileFileAbsPaths.isEmpty()) {
+            LOG.info("Migrate {} of {} profile files to segment log", migratedNum, profileFileAbsPaths.size());
         }
     }
 
-    private List<ProfileElement> getProfilesNeedStore() {
-        List<ProfileElement> profilesToBeStored = Lists.newArrayList();
-
-        queryIdToProfileMap.forEach((queryId, profileElement) -> {
-            if (profileElement.profile.shouldStoreToStorage()) {
-                profilesToBeStored.add(profileElement);
-            }
-        });
-
-        return profilesToBeStored;
+    // The profile file only has the summary profile and the text of the execution profiles, they are appended
+    // to the segment log as they are. The brief is the one of the summary profile in the file, the same as
+    // older versions show it.
+    private ProfileElement migrateProfileFile(String profileFileAbsPath, Profile profile) throws IOException {
+        Map<String, String> infoStrings = createElement(profile).infoStrings;
+        byte[] compressedProfile = Profile.compressExecutionProfile(
+                profile.getProfileByLevel() + Profile.readExecutionProfileContent(profileFileAbsPath));
+        byte[] compressedBrief = Profile.compressExecutionProfile(profile.getProfileBrief());
+        ProfileSegmentLog.Record record = new ProfileSegmentLog.Record(profile.getSummaryProfile().getProfileId(),
+                profile.getQueryFinishTimestamp(), infoStrings, compressedProfile, compressedBrief);
+        return new ProfileElement(record, profileSegmentLog.append(record), profileSegmentLog);
     }
 
-    // Collect profiles that need to be stored to storage
-    // Store them to storage
-    // Release the memory
-    private void writeProfileToStorage() {
+    // Collect profiles of the finished queries
+    // Compress them in memory
+    // Release the execution profiles
+    @VisibleForTesting
+    void archiveFinishedProfiles() {
         try {
-            if (Strings.isNullOrEmpty(PROFILE_STORAGE_PATH)) {
-                LOG.error("Logical error, PROFILE_STORAGE_PATH is empty");
-                return;
-            }
-
-            createProfileStorageDirIfNecessary();
-            List<ProfileElement> profilesToBeStored = Lists.newArrayList();
-
-            readLock.lock();
-            try {
-                profilesToBeStored = getProfilesNeedStore();
-            } finally {
-                readLock.unlock();
+            List<ProfileElement> profilesToBeArchived = Lists.newArrayList();
+            for (ProfileElement profileElement : queryIdToProfileMap.values()) {
+                Profile profile = profileElement.profile;
+                if (profile != null && profile.shouldStoreToStorage()) {
+                    profilesToBeArchived.add(profileElement);
+                }
             }
 
-            // Store profile to storage in parallel
-            List<Future<?>> profileWriteFutures = Lists.newArrayList();
-
-            for (ProfileElement profileElement : profilesToBeStored) {
-                Thread thread = new Thread(() -> {
-                    profileElement.writeToStorage(PROFILE_STORAGE_PATH);
-                });
-                profileWriteFutures.add(profileIOExecutor.submit(thread));
+            // Compress profile in parallel
+            List<Future<?>> profileArchiveFutures = Lists.newArrayList();
+            for (ProfileElement profileElement : profilesToBeArchived) {
+                profileArchiveFutures.add(profileIOExecutor.submit(() -> {
+                    Profile profile = profileElement.profile;
+                    try {
+                        if (profile == null || !profileElement.archive()) {
+                            return;
+                        }
+                    } catch (IOException e) {
+                        LOG.warn("Failed to archive profile {}", profileElement.profileId, e);
+                        return;
+                    }
+                    // After profile is archived, the execution profile must be ejected from memory
+                    // or the memory will be exhausted
+                    for (ExecutionProfile executionProfile : profile.getExecutionProfiles()) {
+                        queryIdToExecutionProfiles.remove(executionProfile.getQueryId());
+                    }
+                    profile.releaseExecutionProfile();
+                }));
             }
 
-            for (Future<?> future : profileWriteFutures) {
+            for (Future<?> future : profileArchiveFutures) {
                 try {
                     future.get();
                 } catch (Exception e) {
-                    LOG.warn("Failed to write profile to storage", e);
+                    LOG.warn("Failed to archive profile", e);
                 }
             }
+        } catch (Exception e) {
+            LOG.error("Failed to archive query profile", e);
+        }
+    }
 
-            // After profile is stored to storage, the executoin profile must be ejected from memory
-            // or the memory will be exhausted
+    // Append the oldest compressed profiles to the segment log
+    // until the compressed profiles in memory are under the limit
+    @VisibleForTesting
+    void spillArchivedProfilesIfNecessary() {
+        // the segment log can be appended only after it is recovered
+        if (!isProfileLoaded) {
+            return;
+        }
+        // The profile with the least query finish timestamp will be on the top of heap
+        PriorityQueue<ProfileElement> profileDeque = new PriorityQueue<>(
+                Comparator.comparingLong(ProfileElement::getQueryFinishTimestamp));
+        long compressedBytes = 0;
+        for (ProfileElement profileElement : queryIdToProfileMap.values()) {
+            long compressedSize = profileElement.getCompressedSize();
+            if (compressedSize > 0) {
+                compressedBytes += compressedSize;
+                profileDeque.add(profileElement);
+            }
+        }
 
-            writeLock.lock();
+        int spilledNum = 0;
+        while (compressedBytes > Config.max_in_memory_compressed_profile_bytes && !profileDeque.isEmpty()) {
+            ProfileElement profileElement = profileDeque.poll();
+            compressedBytes -= profileElement.getCompressedSize();
             try {
-                for (ProfileElement profileElement : profilesToBeStored) {
-                    for (ExecutionProfile executionProfile : profileElement.profile.getExecutionProfiles()) {
-                        this.queryIdToExecutionProfiles.remove(executionProfile.getQueryId());
-                    }
-                    profileElement.profile.releaseExecutionProfile();
-                }
-            } finally {
-                writeLock.unlock();
+                profileElement.spill();
+                spilledNum++;
+            } catch (IOException e) {
+                LOG.warn("Failed to spill profile {} to storage", profileElement.profileId, e);
+                break;
             }
-        } catch (Exception e) {
-            LOG.error("Failed to remove query profile", e);
+        }
+
+        if (spilledNum != 0 && LOG.isDebugEnabled()) {
+            LOG.debug("Spill {} profiles to storage, compressed profiles in memory: {}, profiles on storage: {}",
+                    spilledNum, DebugUtil.printByteWithUnit(compressedBytes),
+                    DebugUtil.printByteWithUnit(profileSegmentLog.getTotalSize()));
         }
     }
 
     private List<ProfileElement> getProfilesToBeRemoved() {
-        // By order of query finish timestamp
-        // The profile with the least storage timestamp will be on the top of heap
-        PriorityQueue<ProfileElement> profileDeque = new PriorityQueue<>(Comparator.comparingLong(
-                (ProfileElement profileElement) -> profileElement.profile.getQueryFinishTimestamp()));
+        // Profiles in the segments deleted by size limit can not be read anymore
+        Set<Long> deletedSegmentIds = profileSegmentLog.retain(Config.spilled_profile_storage_limit_bytes);
 
-        long totalProfileSize = 0;
+        // By order of query finish timestamp
+        // The profile with the least query finish timestamp will be on the top of heap
+        PriorityQueue<ProfileElement> profileDeque = new PriorityQueue<>(
+                Comparator.comparingLong(ProfileElement::getQueryFinishTimestamp));
+        List<ProfileElement> queryIdToBeRemoved = Lists.newArrayList();
 
         // Collect all profiles that has been stored to storage
         for (ProfileElement profileElement : queryIdToProfileMap.values()) {
-            if (profileElement.profile.profileHasBeenStored()) {
-                totalProfileSize += profileElement.profile.getProfileSize();
+            ProfileSegmentLog.Location location = profileElement.location;
+            if (location == null) {
+                continue;
+            }
+            if (deletedSegmentIds.contains(location.segmentId)) {
+                queryIdToBeRemoved.add(profileElement);
+            } else {
                 profileDeque.add(profileElement);
             }
         }
 
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("{} profiles size on storage: {}", profileDeque.size(),
-                        DebugUtil.printByteWithUnit(totalProfileSize));
-        }
-
         final int maxSpilledProfileNum = Config.max_spilled_profile_num;
-        final long spilledProfileLimitBytes = Config.spilled_profile_storage_limit_bytes;
-        List<ProfileElement> queryIdToBeRemoved = Lists.newArrayList();
-
-        while (profileDeque.size() > maxSpilledProfileNum || totalProfileSize >= spilledProfileLimitBytes) {
+        while (profileDeque.size() > maxSpilledProfileNum) {
             // First profile is the oldest profile
-            ProfileElement profileElement = profileDeque.poll();
-            totalProfileSize -= profileElement.profile.getProfileSize();
-            queryIdToBeRemoved.add(profileElement);
+            queryIdToBeRemoved.add(profileDeque.poll());
         }
 
         return queryIdToBeRemoved;
@@ -753,50 +835,21 @@ public class ProfileManager extends MasterDaemon {
 
     // We can not store all profiles on storage, because the storage space is limited
     // So we need to remove the outdated profiles
-    private void deleteOutdatedProfilesFromStorage() {
+    @VisibleForTesting
+    void deleteOutdatedProfilesFromStorage() {
+        if (!isProfileLoaded) {
+            return;
+        }
         try {
-            List<ProfileElement> queryIdToBeRemoved = Lists.newArrayList();
-            readLock.lock();
-            try {
-                queryIdToBeRemoved = getProfilesToBeRemoved();
-            } finally {
-                readLock.unlock();
-            }
-
-            List<Thread> iothreads = Lists.newArrayList();
-
+            List<ProfileElement> queryIdToBeRemoved = getProfilesToBeRemoved();
             for (ProfileElement profileElement : queryIdToBeRemoved) {
-                Thread thread = new Thread(() -> {
-                    profileElement.deleteFromStorage();
-                });
-                thread.start();
-                iothreads.add(thread);
-            }
-
-            try {
-                for (Thread thread : iothreads) {
-                    thread.join();
-                }
-            } catch (InterruptedException e) {
-                LOG.error("Failed to remove outdated query profile", e);
-            }
-
-            writeLock.lock();
-            try {
-                for (ProfileElement profileElement : queryIdToBeRemoved) {
-                    queryIdToProfileMap.remove(profileElement.profile.getSummaryProfile().getProfileId());
-                    TUniqueId thriftQueryId = DebugUtil.parseTUniqueIdFromString(
-                            profileElement.profile.getSummaryProfile().getProfileId());
-                    queryIdToExecutionProfiles.remove(thriftQueryId);
-                }
-            } finally {
-                writeLock.unlock();
+                removeProfileElement(profileElement);
             }
 
             if (queryIdToBeRemoved.size() != 0 && LOG.isDebugEnabled()) {
                 StringBuilder builder = new StringBuilder();
                 for (ProfileElement profileElement : queryIdToBeRemoved) {
-                    builder.append(profileElement.profile.getSummaryProfile().getProfileId()).append(",");
+                    builder.append(profileElement.profileId).append(",");
                 }
                 LOG.debug("Remove outdated profile: {}", builder.toString());
             }
@@ -805,86 +858,11 @@ public class ProfileManager extends MasterDaemon {
         }
     }
 
-    private List<String> getBrokenProfiles() {
-        List<String> profilesOnStorage = getOnStorageProfileInfos();
-        List<String> brokenProfiles = Lists.newArrayList();
-
-        for (String profileDirAbsPath : profilesOnStorage) {
-            int separatorIdx = profileDirAbsPath.lastIndexOf(File.separator);
-            if (separatorIdx == -1) {
-                LOG.warn("Invalid profile path {}", profileDirAbsPath);
-                brokenProfiles.add(profileDirAbsPath);
-                continue;
-            }
-
-            String profileId = "";
-
-            try {
-                String timeStampAndId = profileDirAbsPath.substring(separatorIdx + 1);
-                String[] parsed = Profile.parseProfileFileName(timeStampAndId);
-                if (parsed == null) {
-                    LOG.warn("Invalid profile directory path: {}", profileDirAbsPath);
-                    brokenProfiles.add(profileDirAbsPath);
-                    continue;
-                } else {
-                    profileId = parsed[1];
-                }
-            } catch (Exception e) {
-                LOG.error("Failed to get profile id from path: {}", profileDirAbsPath, e);
-                brokenProfiles.add(profileDirAbsPath);
-                continue;
-            }
-
-            readLock.lock();
-            try {
-                if (!queryIdToProfileMap.containsKey(profileId)) {
-                    LOG.debug("Wild profile {}, need to be removed.", profileDirAbsPath);
-                    brokenProfiles.add(profileDirAbsPath);
-                }
-            } finally {
-                readLock.unlock();
-            }
-        }
-
-        return brokenProfiles;
-    }
-
-    private void deleteBrokenProfiles() {
-        List<String> brokenProfiles = getBrokenProfiles();
-        List<Future<?>> profileDeleteFutures = Lists.newArrayList();
-
-        for (String brokenProfile : brokenProfiles) {
-            Thread iothread = new Thread(() -> {
-                try {
-                    File profileFile = new File(brokenProfile);
-                    if (!profileFile.isFile()) {
-                        LOG.warn("Profile path {} is not a file, can not delete.", brokenProfile);
-                        return;
-                    }
-
-                    FileUtils.deleteQuietly(profileFile);
-                    LOG.debug("Delete broken profile: {}", brokenProfile);
-                } catch (Exception e) {
-                    LOG.error("Failed to delete broken profile: {}", brokenProfile, e);
-                }
-            });
-            profileDeleteFutures.add(profileIOExecutor.submit(iothread));
-        }
-
-        for (Future<?> future : profileDeleteFutures) {
-            try {
-                future.get();
-            } catch (Exception e) {
-                LOG.error("Failed to remove broken profile", e);
-            }
-        }
-    }
-
     // The init value of query finish time of profile is MAX_VALUE
     // So more recent query will be on the top of heap.
     private PriorityQueue<ProfileElement> getProfileOrderByQueryFinishTime() {
-        PriorityQueue<ProfileElement> queryIdDeque = new PriorityQueue<>(Comparator.comparingLong(
-                (ProfileElement profileElement) -> profileElement.profile.getQueryFinishTimestamp()).reversed());
+        PriorityQueue<ProfileElement> queryIdDeque = new PriorityQueue<>(
+                Comparator.comparingLong(ProfileElement::getQueryFinishTimestamp).reversed());
 
         queryIdToProfileMap.forEach((queryId, profileElement) -> {
             queryIdDeque.add(profileElement);
@@ -896,7 +874,6 @@ public class ProfileManager extends MasterDaemon {
     // When the query is finished, the execution profile should be marked as finished
     // For load task, one of its execution profile is finished.
     public void markExecutionProfileFinished(TUniqueId queryId) {
-        readLock.lock();
         try {
             ExecutionProfile execProfile = queryIdToExecutionProfiles.get(queryId);
             if (execProfile == null) {
@@ -907,14 +884,12 @@ public class ProfileManager extends MasterDaemon {
             execProfile.setQueryFinishTime(System.currentTimeMillis());
         } catch (Exception e) {
             LOG.error("Failed to mark query {} finished", DebugUtil.printId(queryId), e);
-        } finally {
-            readLock.unlock();
         }
     }
 
     public String getLastProfileId() {
         PriorityQueue<ProfileElement> queueIdDeque = getProfileOrderByQueryFinishTime();
         ProfileElement profileElement = queueIdDeque.poll();
-        return profileElement.profile.getSummaryProfile().getProfileId();
+        return profileElement.profileId;
     }
 }
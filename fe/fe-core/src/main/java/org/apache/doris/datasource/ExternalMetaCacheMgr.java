@@ -26,6 +26,7 @@ import org.apache.doris.datasource.hive.HMSExternalTable;
 import org.apache.doris.datasource.hive.HiveMetaStoreCache;
 import org.apache.doris.datasource.hudi.source.HudiPartitionMgr;
 import org.apache.doris.datasource.hudi.source.HudiPartitionProcessor;
+import org.apache.doris.datasource.iceberg.IcebergManifestPruningIndex;
 import org.apache.doris.datasource.iceberg.IcebergMetadataCache;
 import org.apache.doris.datasource.iceberg.IcebergMetadataCacheMgr;
 import org.apache.doris.datasource.maxcompute.MaxComputeMetadataCache;
@@ -78,6 +79,10 @@ public class ExternalMetaCacheMgr {
     private ExecutorService commonRefreshExecutor;
     private ExecutorService fileListingExecutor;
     private ExecutorService scheduleExecutor;
+    // for reading the manifests of iceberg table in parallel while planning the files of a scan
+    private ExecutorService icebergManifestExecutor;
+    // for loading the partitions of hive table from metastore in parallel
+    private ExecutorService partitionLoadingExecutor;
 
     // catalog id -> HiveMetaStoreCache
     private final Map<Long, HiveMetaStoreCache> cacheMap = Maps.newConcurrentMap();
@@ -91,6 +96,10 @@ public class ExternalMetaCacheMgr {
     private ExternalRowCountCache rowCountCache;
     private final IcebergMetadataCacheMgr icebergMetadataCacheMgr;
     private final MaxComputeMetadataCacheMgr maxComputeMetadataCacheMgr;
+    // null if the manifest disk cache is disabled
+    private ManifestDiskCache manifestDiskCache = null;
+    // null if the manifest pruning index is disabled
+    private IcebergManifestPruningIndex icebergManifestPruningIndex = null;
 
     public ExternalMetaCacheMgr() {
         rowCountRefreshExecutor = ThreadPoolManager.newDaemonFixedThreadPool(
@@ -115,12 +124,36 @@ public class ExternalMetaCacheMgr {
                 Config.max_external_cache_loader_thread_pool_size * 1000,
                 "scheduleExecutor", 10, true);
 
+        icebergManifestExecutor = ThreadPoolManager.newDaemonFixedThreadPool(
+                Config.iceberg_manifest_reading_thread_num,
+                Config.iceberg_manifest_reading_thread_num * 1000,
+                "IcebergManifestExecutor", 10, true);
+
+        partitionLoadingExecutor = ThreadPoolManager.newDaemonFixedThreadPool(
+                Config.hive_partition_loading_thread_num,
+                Config.hive_partition_loading_thread_num * 1000,
+                "PartitionLoadingExecutor", 10, true);
+
         fsCache = new FileSystemCache();
         rowCountCache = new ExternalRowCountCache(rowCountRefreshExecutor);
 
         hudiPartitionMgr = new HudiPartitionMgr(commonRefreshExecutor);
         icebergMetadataCacheMgr = new IcebergMetadataCacheMgr(commonRefreshExecutor);
         maxComputeMetadataCacheMgr = new MaxComputeMetadataCacheMgr();
+
+        if (Config.enable_external_manifest_disk_cache) {
+            try {
+                manifestDiskCache = new ManifestDiskCache(Config.external_manifest_disk_cache_dir,
+                        Config.external_manifest_disk_cache_max_bytes);
+            } catch (Exception e) {
+                LOG.warn("failed to init manifest disk cache in {}, the cache is disabled",
+                        Config.external_manifest_disk_cache_dir, e);
+            }
+        }
+        if (Config.enable_iceberg_manifest_pruning_index) {
+            icebergManifestPruningIndex = new IcebergManifestPruningIndex(
+                    Config.iceberg_manifest_pruning_index_max_bytes);
+        }
     }
 
     public ExecutorService getFileListingExecutor() {
@@ -131,13 +164,26 @@ public class ExternalMetaCacheMgr {
         return scheduleExecutor;
     }
 
+    public ExecutorService getIcebergManifestExecutor() {
+        return icebergManifestExecutor;
+    }
+
+    public ManifestDiskCache getManifestDiskCache() {
+        return manifestDiskCache;
+    }
+
+    public IcebergManifestPruningIndex getIcebergManifestPruningIndex() {
+        return icebergManifestPruningIndex;
+    }
+
     public HiveMetaStoreCache getMetaStoreCache(HMSExternalCatalog catalog) {
         HiveMetaStoreCache cache = cacheMap.get(catalog.getId());
         if (cache == null) {
             synchronized (cacheMap) {
                 if (!cacheMap.containsKey(catalog.getId())) {
                     cacheMap.put(catalog.getId(),
-                            new HiveMetaStoreCache(catalog, commonRefreshExecutor, fileListingExecutor));
+                            new HiveMetaStoreCache(catalog, commonRefreshExecutor, fileListingExecutor,
+                                    partitionLoadingExecutor));
                 }
                 cache = cacheMap.get(catalog.getId());
             }
@@ -83,6 +83,7 @@ public class FederationBackendPolicy {
     protected ConsistentHash<Split, Backend> consistentHash;
 
     private int nextBe = 0;
+    private boolean weightedRoundRobin = false;
     private boolean initialized = false;
 
     private NodeSelectionStrategy nodeSelectionStrategy;
@@ -267,8 +268,15 @@ public class FederationBackendPolicy {
             } else {
                 switch (nodeSelectionStrategy) {
                     case ROUND_ROBIN: {
-                        Backend selectedBackend = backends.get(nextBe++);
-                        nextBe = nextBe % backends.size();
+                        Backend selectedBackend;
+                        if (!weightedRoundRobin && split.getSplitWeight().equals(SplitWeight.standard())) {
+                            selectedBackend = backends.get(nextBe++);
+                            nextBe = nextBe % backends.size();
+                        } else {
+                            // once the splits have different weights, balance the weights instead of the counts
+                            weightedRoundRobin = true;
+                            selectedBackend = nextLeastWeightedBe(backends);
+                        }
                         candidateNodes = ImmutableList.of(selectedBackend);
                         break;
                     }
@@ -364,6 +372,14 @@ public class FederationBackendPolicy {
 
             // move split from max to min
             Split redistributedSplit = redistributeSplit(assignment, maxNode, minNode);
+            if (redistributedSplit.getSplitWeight().getRawValue()
+                    >= assignedWeightPerBackend.get(maxNode) - assignedWeightPerBackend.get(minNode)) {
+                // moving a split not lighter than the difference can not make the distribution more uniform,
+                // and may move the same split back and forth.
+                assignment.remove(minNode, redistributedSplit);
+                assignment.put(maxNode, redistributedSplit);
+                return;
+            }
 
             assignedWeightPerBackend.put(maxNode,
                     assignedWeightPerBackend.get(maxNode) - redistributedSplit.getSplitWeight().getRawValue());
@@ -464,6 +480,22 @@ public class FederationBackendPolicy {
         return selected;
     }
 
+    // the backend with the least assigned weight, the ties are broken in the round robin order
+    private Backend nextLeastWeightedBe(List<Backend> backends) {
+        int selected = nextBe;
+        long minWeight = Long.MAX_VALUE;
+        for (int i = 0; i < backends.size(); i++) {
+            int index = (nextBe + i) % backends.size();
+            long weight = assignedWeightPerBackend.get(backends.get(index));
+            if (weight < minWeight) {
+                selected = index;
+                minWeight = weight;
+            }
+        }
+        nextBe = (selected + 1) % backends.size();
+        return backends.get(selected);
+    }
+
     private Backend chooseNodeForSplit(List<Backend> candidateNodes) {
         Backend chosenNode = null;
         long minWeight = Long.MAX_VALUE;
@@ -43,6 +43,8 @@ public class FileSplit implements Split {
     public List<String> partitionValues;
 
     public List<String> alternativeHosts;
+    // used by FederationBackendPolicy to balance the work of backends
+    public SplitWeight splitWeight = SplitWeight.standard();
 
     public FileSplit(Path path, long start, long length, long fileLength,
             long modificationTime, String[] hosts, List<String> partitionValues) {
@@ -197,12 +197,14 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -221,6 +223,8 @@ public class InternalCatalog implements CatalogIf<Database> {
     private MonitoredReentrantLock lock = new MonitoredReentrantLock(true);
     private transient ConcurrentHashMap<Long, Database> idToDb = new ConcurrentHashMap<>();
     private transient ConcurrentHashMap<String, Database> fullNameToDb = new ConcurrentHashMap<>();
+    // not null only when the databases of image are being loaded lazily
+    private volatile LazyDbLoader lazyDbLoader;
 
     // Add transient to fix gson issue.
     @Getter
@@ -257,11 +261,24 @@ public class InternalCatalog implements CatalogIf<Database> {
 
     @Override
     public List<String> getDbNames() {
-        return Lists.newArrayList(fullNameToDb.keySet());
+        LazyDbLoader loader = lazyDbLoader;
+        if (loader == null) {
+            return Lists.newArrayList(fullNameToDb.keySet());
+        }
+        // the names of the databases not loaded yet are known without loading them
+        Set<String> dbNames = new LinkedHashSet<>(fullNameToDb.keySet());
+        dbNames.addAll(loader.getDbNames());
+        return Lists.newArrayList(dbNames);
     }
 
     public List<Long> getDbIds() {
-        return Lists.newArrayList(idToDb.keySet());
+        LazyDbLoader loader = lazyDbLoader;
+        if (loader == null) {
+            return Lists.newArrayList(idToDb.keySet());
+        }
+        Set<Long> dbIds = new LinkedHashSet<>(idToDb.keySet());
+        dbIds.addAll(loader.getDbIds());
+        return Lists.newArrayList(dbIds);
     }
 
     @Nullable
@@ -272,8 +289,9 @@ public class InternalCatalog implements CatalogIf<Database> {
         }
         // ATTN: this should be removed in v3.0
         dbName = ClusterNamespace.getNameFromFullName(dbName);
-        if (fullNameToDb.containsKey(dbName)) {
-            return fullNameToDb.get(dbName);
+        Database db = getDbByFullName(dbName);
+        if (db != null) {
+            return db;
         } else {
             // This maybe a information_schema db request, and information_schema db name is case insensitive.
             // So, we first extract db name to check if it is information_schema.
@@ -289,7 +307,34 @@ public class InternalCatalog implements CatalogIf<Database> {
     @Nullable
     @Override
     public Database getDbNullable(long dbId) {
-        return idToDb.get(dbId);
+        Database db = idToDb.get(dbId);
+        if (db == null) {
+            LazyDbLoader loader = lazyDbLoader;
+            if (loader != null) {
+                db = loader.getDb(dbId);
+                if (db == null) {
+                    // the database may be loaded in background between the two lookups
+                    db = idToDb.get(dbId);
+                }
+            }
+        }
+        return db;
+    }
+
+    // get the database by its exact full name, the database of image which is not loaded yet is loaded
+    private Database getDbByFullName(String fullDbName) {
+        Database db = fullNameToDb.get(fullDbName);
+        if (db == null) {
+            LazyDbLoader loader = lazyDbLoader;
+            if (loader != null) {
+                db = loader.getDb(fullDbName);
+                if (db == null) {
+                    // the database may be loaded in background between the two lookups
+                    db = fullNameToDb.get(fullDbName);
+                }
+            }
+        }
+        return db;
     }
 
     @Override
@@ -313,7 +358,7 @@ public class InternalCatalog implements CatalogIf<Database> {
     }
 
     public TableName getTableNameByTableId(Long tableId) {
-        for (Database db : fullNameToDb.values()) {
+        for (Database db : getDbs()) {
             Table table = db.getTableNullable(tableId);
             if (table != null) {
                 return new TableName(INTERNAL_CATALOG_NAME, db.getFullName(), table.getName());
@@ -323,7 +368,7 @@ public class InternalCatalog implements CatalogIf<Database> {
     }
 
     public Table getTableByTableId(Long tableId) {
-        for (Database db : fullNameToDb.values()) {
+        for (Database db : getDbs()) {
             Table table = db.getTableNullable(tableId);
             if (table != null) {
                 return table;
@@ -364,7 +409,18 @@ public class InternalCatalog implements CatalogIf<Database> {
     }
 
     public List<Database> getDbs() {
-        return Lists.newArrayList(idToDb.values());
+        if (lazyDbLoader == null) {
+            return Lists.newArrayList(idToDb.values());
+        }
+        // the databases not loaded yet are loaded by getDbNullable
+        List<Database> dbs = Lists.newArrayList();
+        for (long dbId : getDbIds()) {
+            Database db = getDbNullable(dbId);
+            if (db != null) {
+                dbs.add(db);
+            }
+        }
+        return dbs;
     }
 
     private void unlock() {
@@ -378,37 +434,42 @@ public class InternalCatalog implements CatalogIf<Database> {
      */
     public void recreateTabletInvertIndex() {
         // create inverted index
-        TabletInvertedIndex invertedIndex = Env.getCurrentInvertedIndex();
         for (Database db : this.fullNameToDb.values()) {
-            long dbId = db.getId();
-            for (Table table : db.getTables()) {
-                if (!table.isManagedTable()) {
-                    continue;
-                }
+            addToTabletInvertedIndex(db);
+        }
+    }
 
-                OlapTable olapTable = (OlapTable) table;
-                long tableId = olapTable.getId();
-                Collection<Partition> allPartitions = olapTable.getAllPartitions();
-                for (Partition partition : allPartitions) {
-                    long partitionId = partition.getId();
-                    TStorageMedium medium = olapTable.getPartitionInfo().getDataProperty(partitionId)
-                            .getStorageMedium();
-                    for (MaterializedIndex index : partition.getMaterializedIndices(IndexExtState.ALL)) {
-                        long indexId = index.getId();
-                        int schemaHash = olapTable.getSchemaHashByIndexId(indexId);
-                        for (Tablet tablet : index.getTablets()) {
-                            TabletMeta tabletMeta = new TabletMeta(dbId, tableId, partitionId, indexId, schemaHash,
-                                    medium);
-                            long tabletId = tablet.getId();
-                            invertedIndex.addTablet(tabletId, tabletMeta);
-                            for (Replica replica : tablet.getReplicas()) {
-                                invertedIndex.addReplica(tabletId, replica);
-                            }
+    // add the tablets and replicas of the database to the tablet inverted index
+    public void addToTabletInvertedIndex(Database db) {
+        TabletInvertedIndex invertedIndex = Env.getCurrentInvertedIndex();
+        long dbId = db.getId();
+        for (Table table : db.getTables()) {
+            if (!table.isManagedTable()) {
+                continue;
+            }
+
+            OlapTable olapTable = (OlapTable) table;
+            long tableId = olapTable.getId();
+            Collection<Partition> allPartitions = olapTable.getAllPartitions();
+            for (Partition partition : allPartitions) {
+                long partitionId = partition.getId();
+                TStorageMedium medium = olapTable.getPartitionInfo().getDataProperty(partitionId)
+                        .getStorageMedium();
+                for (MaterializedIndex index : partition.getMaterializedIndices(IndexExtState.ALL)) {
+                    long indexId = index.getId();
+                    int schemaHash = olapTable.getSchemaHashByIndexId(indexId);
+                    for (Tablet tablet : index.getTablets()) {
+                        TabletMeta tabletMeta = new TabletMeta(dbId, tableId, partitionId, indexId, schemaHash,
+                                medium);
+                        long tabletId = tablet.getId();
+                        invertedIndex.addTablet(tabletId, tabletMeta);
+                        for (Replica replica : tablet.getReplicas()) {
+                            invertedIndex.addReplica(tabletId, replica);
                         }
-                    } // end for indices
-                } // end for partitions
-            } // end for tables
-        } // end for dbs
+                    }
+                } // end for indices
+            } // end for partitions
+        } // end for tables
     }
 
     /**
@@ -430,7 +491,7 @@ public class InternalCatalog implements CatalogIf<Database> {
             throw new DdlException("Failed to acquire catalog lock. Try again");
         }
         try {
-            if (fullNameToDb.containsKey(fullDbName)) {
+            if (getDbByFullName(fullDbName) != null) {
                 if (stmt.isSetIfNotExists()) {
                     LOG.info("create database[{}] which already exists", fullDbName);
                     return;
@@ -484,7 +545,8 @@ public class InternalCatalog implements CatalogIf<Database> {
             throw new DdlException("Failed to acquire catalog lock. Try again");
         }
         try {
-            if (!fullNameToDb.containsKey(dbName)) {
+            Database db = getDbByFullName(dbName);
+            if (db == null) {
                 if (stmt.isSetIfExists()) {
                     LOG.info("drop database[{}] which does not exist", dbName);
                     return;
@@ -494,7 +556,6 @@ public class InternalCatalog implements CatalogIf<Database> {
             }
 
             // 2. drop tables in db
-            Database db = this.fullNameToDb.get(dbName);
             db.writeLock();
             long recycleTime = 0;
             try {
@@ -570,7 +631,7 @@ public class InternalCatalog implements CatalogIf<Database> {
     public void replayDropDb(String dbName, boolean isForceDrop, Long recycleTime) throws DdlException {
         tryLock(true);
         try {
-            Database db = fullNameToDb.get(dbName);
+            Database db = getDbNullable(dbName);
             db.writeLock();
             try {
                 Set<String> tableNames = db.getTableNamesWithLock();
@@ -622,13 +683,13 @@ public class InternalCatalog implements CatalogIf<Database> {
         MetaLockUtils.writeLockTables(tableList);
         try {
             if (!Strings.isNullOrEmpty(newDbName)) {
-                if (fullNameToDb.containsKey(newDbName)) {
+                if (getDbByFullName(newDbName) != null) {
                     throw new DdlException("Database[" + newDbName + "] already exist.");
                     // it's ok that we do not put db back to CatalogRecycleBin
                     // cause this db cannot recover any more
                 }
             } else {
-                if (fullNameToDb.containsKey(db.getFullName())) {
+                if (getDbByFullName(db.getFullName()) != null) {
                     throw new DdlException("Database[" + db.getFullName() + "] already exist.");
                     // it's ok that we do not put db back to CatalogRecycleBin
                     // cause this db cannot recover any more
@@ -824,12 +885,12 @@ public class InternalCatalog implements CatalogIf<Database> {
         }
         try {
             // check if db exists
-            db = fullNameToDb.get(fullDbName);
+            db = getDbByFullName(fullDbName);
             if (db == null) {
                 ErrorReport.reportDdlException(ErrorCode.ERR_BAD_DB_ERROR, fullDbName);
             }
             // check if name is already used
-            if (fullNameToDb.get(newFullDbName) != null) {
+            if (getDbByFullName(newFullDbName) != null) {
                 throw new DdlException("Database name[" + newFullDbName + "] is already used");
             }
             // 1. rename db
@@ -851,7 +912,7 @@ public class InternalCatalog implements CatalogIf<Database> {
     public void replayRenameDatabase(String dbName, String newDbName) {
         tryLock(true);
         try {
-            Database db = fullNameToDb.get(dbName);
+            Database db = getDbNullable(dbName);
             db.setName(newDbName);
             fullNameToDb.remove(dbName);
             fullNameToDb.put(newDbName, db);
@@ -1444,7 +1505,7 @@ public class InternalCatalog implements CatalogIf<Database> {
     }
 
     public void replayCreateTable(String dbName, Table table) throws MetaNotFoundException {
-        Database db = this.fullNameToDb.get(dbName);
+        Database db = getDbNullable(dbName);
         try {
             db.createTableWithLock(table, true, false);
         } catch (DdlException e) {
@@ -3713,6 +3774,8 @@ public class InternalCatalog implements CatalogIf<Database> {
     }
 
     public long saveDb(CountingDataOutputStream dos, long checksum) throws IOException {
+        // all the databases are saved, including the ones of the loaded image which are not loaded yet
+        waitLazyLoadDbs();
         // 2 is for information_schema db & mysql db, which does not need to be persisted.
         // And internal database could not be dropped, so we assert dbCount >= 0
         int dbCount = idToDb.size() - MysqlCompatibleDatabase.COUNT;
@@ -3740,38 +3803,92 @@ public class InternalCatalog implements CatalogIf<Database> {
         for (long i = 0; i < dbCount; ++i) {
             Database db = Database.read(dis);
             newChecksum ^= db.getId();
+            addLoadedDb(db);
+        }
+        finishLoadDbs();
+        return newChecksum;
+    }
 
-            Database dbPrev = fullNameToDb.get(db.getFullName());
-            if (dbPrev != null) {
-                String errMsg;
-                if (dbPrev instanceof MysqlCompatibleDatabase || db instanceof MysqlCompatibleDatabase) {
-                    errMsg = String.format(
-                        "Mysql compatibility problem, previous checkpoint already has a database with full name "
-                        + "%s. If its name is mysql, try to add mysqldb_replace_name=\"mysql_comp\" in fe.conf.",
-                        db.getFullName());
-                } else {
-                    errMsg = String.format("Logical error, duplicated database fullname: %s, id: %d %d.",
-                                    db.getFullName(), db.getId(), fullNameToDb.get(db.getFullName()).getId());
-                }
-                throw new IOException(errMsg);
+    /**
+     * The ids of the databases which are persisted in image, the mysql compatible databases are not persisted.
+     */
+    public List<Long> getPersistentDbIds() {
+        List<Long> dbIds = Lists.newArrayList();
+        for (long dbId : getDbIds()) {
+            // the databases not loaded yet are all persistent
+            if (!(idToDb.get(dbId) instanceof MysqlCompatibleDatabase)) {
+                dbIds.add(dbId);
+            }
+        }
+        return dbIds;
+    }
+
+    // register a database read from image
+    public void addLoadedDb(Database db) throws IOException {
+        Database dbPrev = fullNameToDb.get(db.getFullName());
+        if (dbPrev != null) {
+            String errMsg;
+            if (dbPrev instanceof MysqlCompatibleDatabase || db instanceof MysqlCompatibleDatabase) {
+                errMsg = String.format(
+                    "Mysql compatibility problem, previous checkpoint already has a database with full name "
+                    + "%s. If its name is mysql, try to add mysqldb_replace_name=\"mysql_comp\" in fe.conf.",
+                    db.getFullName());
+            } else {
+                errMsg = String.format("Logical error, duplicated database fullname: %s, id: %d %d.",
+                                db.getFullName(), db.getId(), fullNameToDb.get(db.getFullName()).getId());
             }
-            idToDb.put(db.getId(), db);
-            fullNameToDb.put(db.getFullName(), db);
-            Env.getCurrentGlobalTransactionMgr().addDatabaseTransactionMgr(db.getId());
+            throw new IOException(errMsg);
+        }
+        idToDb.put(db.getId(), db);
+        fullNameToDb.put(db.getFullName(), db);
+        Env.getCurrentGlobalTransactionMgr().addDatabaseTransactionMgr(db.getId());
+
+        db.analyze();
+    }
+
+    /**
+     * Load the databases of image lazily by the loader, the databases which are not loaded yet are
+     * loaded on the first access by getDbNullable.
+     */
+    public void startLazyLoadDbs(LazyDbLoader loader, Executor executor) {
+        lazyDbLoader = loader;
+        loader.startLoad(executor);
+    }
+
+    /**
+     * Wait until all the databases of image are loaded. The tablet inverted index is complete after it,
+     * so it must be called before the daemons which rely on the index (eg. tablet report) are started.
+     */
+    public void waitLazyLoadDbs() {
+        LazyDbLoader loader = lazyDbLoader;
+        if (loader != null) {
+            loader.await();
+        }
+    }
 
-            db.analyze();
+    // called by the loader after all of its databases are loaded
+    void finishLazyLoadDbs(LazyDbLoader loader) {
+        if (lazyDbLoader != loader) {
+            return;
         }
+        lazyDbLoader = null;
+        // the tablets are added to inverted index when each database is loaded
+        getEsRepository().loadTableFromCatalog();
+        LOG.info("finished replay databases from image lazily");
+    }
+
+    // called after all the databases are read from image
+    public void finishLoadDbs() {
         // ATTN: this should be done after load Db, and before loadAlterJob
         recreateTabletInvertIndex();
         // rebuild es state state
         getEsRepository().loadTableFromCatalog();
         LOG.info("finished replay databases from image");
-        return newChecksum;
     }
 
     @Override
     public Collection<DatabaseIf<? extends TableIf>> getAllDbs() {
-        return new HashSet<>(idToDb.values());
+        return new HashSet<>(getDbs());
     }
 
     public void replayAutoIncrementIdUpdateLog(AutoIncrementIdUpdateLog log) throws MetaNotFoundException {
@@ -3787,7 +3904,7 @@ public class InternalCatalog implements CatalogIf<Database> {
 
     public Map<String, Long> getUsedDataQuota() {
         Map<String, Long> dbToDataSize = new TreeMap<>();
-        for (Database db : this.idToDb.values()) {
+        for (Database db : getDbs()) {
             dbToDataSize.put(db.getFullName(), db.getUsedDataQuotaWithLock());
         }
         return dbToDataSize;
@@ -0,0 +1,169 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.datasource;
+
+import org.apache.doris.catalog.Database;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load the databases of the image lazily.
+ *
+ * The databases are registered with their ids and names when loading the image, and each database is
+ * deserialized on its first access through {@link InternalCatalog#getDbNullable}, or by the background tasks
+ * which load all the databases in parallel. The image load does not wait for them, the journals are replayed
+ * while the databases are deserialized. A loaded database is removed from the loader, and the loader is
+ * detached from the catalog once all the databases are loaded.
+ */
+public class LazyDbLoader {
+    private static final Logger LOG = LogManager.getLogger(LazyDbLoader.class);
+
+    public interface DbReader {
+        Database read() throws IOException;
+    }
+
+    private class LazyDb {
+        private final long id;
+        private final String fullName;
+        private DbReader reader;
+        private volatile Database db;
+
+        private LazyDb(long id, String fullName, DbReader reader) {
+            this.id = id;
+            this.fullName = fullName;
+            this.reader = reader;
+        }
+
+        // deserialize and register the database only once, the concurrent callers wait for it
+        private Database load() throws IOException {
+            Database loaded = db;
+            if (loaded != null) {
+                return loaded;
+            }
+            synchronized (this) {
+                if (db == null) {
+                    loaded = reader.read();
+                    if (loaded.getId() != id || !loaded.getFullName().equals(fullName)) {
+                        throw new IOException("database mismatch, expected " + fullName + "(" + id + "), actual "
+                                + loaded.getFullName() + "(" + loaded.getId() + ")");
+                    }
+                    catalog.addLoadedDb(loaded);
+                    catalog.addToTabletInvertedIndex(loaded);
+                    reader = null;
+                    db = loaded;
+                    onLoaded(this);
+                }
+                return db;
+            }
+        }
+    }
+
+    private final InternalCatalog catalog;
+    // the databases which are not loaded yet
+    private final Map<Long, LazyDb> idToLazyDb = new ConcurrentHashMap<>();
+    private final Map<String, LazyDb> nameToLazyDb = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingDbNum = new AtomicInteger();
+
+    public LazyDbLoader(InternalCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    public void addDb(long dbId, String fullName, DbReader reader) {
+        LazyDb lazyDb = new LazyDb(dbId, fullName, reader);
+        idToLazyDb.put(dbId, lazyDb);
+        nameToLazyDb.put(fullName, lazyDb);
+        pendingDbNum.incrementAndGet();
+    }
+
+    public int getDbNum() {
+        return pendingDbNum.get();
+    }
+
+    /**
+     * Start to load all the databases in background by the executor. The failed databases are loaded
+     * again on their first access, which reports the error to the caller.
+     */
+    public void startLoad(Executor executor) {
+        if (pendingDbNum.get() == 0) {
+            catalog.finishLazyLoadDbs(this);
+            return;
+        }
+        for (LazyDb lazyDb : idToLazyDb.values()) {
+            executor.execute(() -> {
+                try {
+                    lazyDb.load();
+                } catch (Throwable t) {
+                    LOG.warn("failed to load database {} from image in background", lazyDb.fullName, t);
+                }
+            });
+        }
+    }
+
+    Database getDb(long dbId) {
+        return load(idToLazyDb.get(dbId));
+    }
+
+    Database getDb(String fullName) {
+        return load(nameToLazyDb.get(fullName));
+    }
+
+    Set<Long> getDbIds() {
+        return idToLazyDb.keySet();
+    }
+
+    Set<String> getDbNames() {
+        return nameToLazyDb.keySet();
+    }
+
+    /**
+     * Load all the databases which are not loaded yet by the current thread,
+     * the databases being loaded in background are waited.
+     */
+    void await() {
+        for (LazyDb lazyDb : idToLazyDb.values()) {
+            load(lazyDb);
+        }
+    }
+
+    private void onLoaded(LazyDb lazyDb) {
+        // the database is registered in catalog before it is removed here, so it is always visible
+        idToLazyDb.remove(lazyDb.id);
+        nameToLazyDb.remove(lazyDb.fullName);
+        if (pendingDbNum.decrementAndGet() == 0) {
+            catalog.finishLazyLoadDbs(this);
+        }
+    }
+
+    private Database load(LazyDb lazyDb) {
+        if (lazyDb == null) {
+            return null;
+        }
+        try {
+            return lazyDb.load();
+        } catch (IOException e) {
+            throw new IllegalStateException("failed to load database " + lazyDb.fullName + " from image", e);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.datasource;
+
+import org.apache.doris.metric.MetricRepo;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.Hashing;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local disk cache of the manifest files of external tables, such as the manifest lists and manifests of iceberg.
+ *
+ * The manifest files are immutable once written and every new manifest gets a new path, so the path of a manifest
+ * identifies its content, and the cached file is named by the hash of the path. The cache is bounded by
+ * total bytes and evicts the least recently used files. The recency is kept in the modified time of the cached files,
+ * so the cache and its LRU order are loaded again after FE restarts.
+ */
+public class ManifestDiskCache {
+    private static final Logger LOG = LogManager.getLogger(ManifestDiskCache.class);
+
+    private static final String TMP_SUFFIX = ".tmp";
+
+    public interface StreamSupplier {
+        InputStream open() throws IOException;
+    }
+
+    private final File cacheDir;
+    private final long maxBytes;
+    // file name -> file size, in access order
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes = 0;
+
+    private final AtomicLong hitNum = new AtomicLong();
+    private final AtomicLong missNum = new AtomicLong();
+
+    public ManifestDiskCache(String cacheDir, long maxBytes) throws IOException {
+        Preconditions.checkArgument(maxBytes > 0, "max bytes of manifest disk cache must be positive");
+        this.cacheDir = new File(cacheDir);
+        this.maxBytes = maxBytes;
+        if (!this.cacheDir.exists() && !this.cacheDir.mkdirs()) {
+            throw new IOException("failed to create manifest cache dir " + cacheDir);
+        }
+        load();
+    }
+
+    /**
+     * Return the cached file of the manifest, the manifest is read from the supplier and cached if it is not
+     * cached yet.
+     *
+     * @param path the path of the manifest in the remote storage
+     * @param length the length of the manifest, or -1 if unknown
+     */
+    public File get(String path, long length, StreamSupplier supplier) throws IOException {
+        String name = fileName(path);
+        File file = getCachedFile(name, length);
+        if (file != null) {
+            hitNum.incrementAndGet();
+            if (MetricRepo.isInit) {
+                MetricRepo.COUNTER_MANIFEST_DISK_CACHE_HIT.increase(1L);
+            }
+            return file;
+        }
+        missNum.incrementAndGet();
+        if (MetricRepo.isInit) {
+            MetricRepo.COUNTER_MANIFEST_DISK_CACHE_MISS.increase(1L);
+        }
+        return load(name, supplier);
+    }
+
+    /**
+     * Return the length of the cached manifest, or -1 if it is not cached.
+     */
+    public synchronized long getCachedLength(String path) {
+        Long size = entries.get(fileName(path));
+        return size == null ? -1 : size;
+    }
+
+    private synchronized File getCachedFile(String name, long length) {
+        Long size = entries.get(name);
+        if (size == null) {
+            return null;
+        }
+        File file = dataFile(name);
+        if (length >= 0 && size != length || !file.exists()) {
+            // the file is removed or broken outside, load it again
+            entries.remove(name);
+            totalBytes -= size;
+            return null;
+        }
+        // keep the recency for the restart
+        file.setLastModified(System.currentTimeMillis());
+        return file;
+    }
+
+    private File load(String name, StreamSupplier supplier) throws IOException {
+        File file = dataFile(name);
+        File dir = file.getParentFile();
+        if (!dir.exists() && !dir.mkdirs() && !dir.exists()) {
+            throw new IOException("failed to create manifest cache dir " + dir);
+        }
+        // the manifest may be loaded by several threads at the same time, each of them writes its own tmp file,
+        // and the rename is atomic, so the readers never see a partial file.
+        File tmpFile = new File(dir, name + "." + UUID.randomUUID() + TMP_SUFFIX);
+        try (InputStream in = supplier.open()) {
+            Files.copy(in, tmpFile.toPath());
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmpFile.toPath());
+        }
+        add(name, file.length());
+        return file;
+    }
+
+    private synchronized void add(String name, long size) {
+        Long oldSize = entries.put(name, size);
+        totalBytes += size - (oldSize == null ? 0 : oldSize);
+        evict();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        // keep the newest one even if it exceeds the limit, it is being read
+        while (totalBytes > maxBytes && entries.size() > 1 && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            totalBytes -= eldest.getValue();
+            File file = dataFile(eldest.getKey());
+            if (!file.delete() && file.exists()) {
+                LOG.warn("failed to delete evicted manifest cache file {}", file);
+            }
+        }
+    }
+
+    // load the cached files left by the last run, from the least recently used to the most
+    private void load() {
+        List<File> files = new ArrayList<>();
+        File[] dirs = cacheDir.listFiles(File::isDirectory);
+        if (dirs != null) {
+            for (File dir : dirs) {
+                File[] dataFiles = dir.listFiles(File::isFile);
+                if (dataFiles == null) {
+                    continue;
+                }
+                for (File file : dataFiles) {
+                    if (file.getName().endsWith(TMP_SUFFIX)) {
+                        // left by a crash during loading
+                        file.delete();
+                    } else {
+                        files.add(file);
+                    }
+                }
+            }
+        }
+        files.sort(Comparator.comparingLong(File::lastModified));
+        synchronized (this) {
+            for (File file : files) {
+                add(file.getName(), file.length());
+            }
+        }
+        LOG.info("loaded {} manifest cache files with {} bytes from {}", entries.size(), totalBytes, cacheDir);
+    }
+
+    private File dataFile(String name) {
+        return new File(new File(cacheDir, name.substring(0, 2)), name);
+    }
+
+    static String fileName(String path) {
+        return Hashing.sha256().hashString(path, StandardCharsets.UTF_8).toString();
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHitNum() {
+        return hitNum.get();
+    }
+
+    public long getMissNum() {
+        return missNum.get();
+    }
+}
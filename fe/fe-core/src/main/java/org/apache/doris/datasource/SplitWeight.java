@@ -32,6 +32,10 @@ public final class SplitWeight {
     private static final long UNIT_VALUE = 100;
     private static final int UNIT_SCALE = 2; // Decimal scale such that (10 ^ UNIT_SCALE) == UNIT_VALUE
     private static final SplitWeight STANDARD_WEIGHT = new SplitWeight(UNIT_VALUE);
+    // the bounds of the weight by scan bytes, relative to a standard split.
+    // a tiny split still has the cost of opening the file, and a huge split should not take a backend alone.
+    private static final double MIN_BYTES_PROPORTION = 0.05;
+    private static final double MAX_BYTES_PROPORTION = 100;
 
     private final long value;
 
@@ -74,6 +78,19 @@ public final class SplitWeight {
         return fromRawValueInternal((long) Math.ceil(weight * UNIT_VALUE));
     }
 
+    /**
+     * Produces a {@link SplitWeight} by the estimated bytes to scan of a split, relative to a standard split
+     * which scans standardSplitBytes. The connectors may add the overhead of merging the delete files or log files
+     * to the bytes, so that the backends get similar amounts of work rather than similar numbers of splits.
+     */
+    public static SplitWeight fromScanBytes(long bytes, long standardSplitBytes) {
+        if (standardSplitBytes <= 0) {
+            return STANDARD_WEIGHT;
+        }
+        double proportion = (double) bytes / standardSplitBytes;
+        return fromProportion(Math.min(MAX_BYTES_PROPORTION, Math.max(MIN_BYTES_PROPORTION, proportion)));
+    }
+
     private static SplitWeight fromRawValueInternal(long value) {
         return value == UNIT_VALUE ? STANDARD_WEIGHT : new SplitWeight(value);
     }
@@ -111,6 +111,7 @@ public class HiveMetaStoreCache {
     private JobConf jobConf;
     private final ExecutorService refreshExecutor;
     private final ExecutorService fileListingExecutor;
+    private final HivePartitionLoader partitionLoader;
 
     // cache from <dbname-tblname> -> <values of partitions>
     private LoadingCache<PartitionValueCacheKey, HivePartitionValues> partitionValuesCache;
@@ -122,10 +123,14 @@ public class HiveMetaStoreCache {
             = new AtomicReference<>();
 
     public HiveMetaStoreCache(HMSExternalCatalog catalog,
-            ExecutorService refreshExecutor, ExecutorService fileListingExecutor) {
+            ExecutorService refreshExecutor, ExecutorService fileListingExecutor,
+            ExecutorService partitionLoadingExecutor) {
         this.catalog = catalog;
         this.refreshExecutor = refreshExecutor;
         this.fileListingExecutor = fileListingExecutor;
+        this.partitionLoader = new HivePartitionLoader(catalog.getName(), (dbName, tblName, partitionNames) ->
+                catalog.getClient().getPartitions(dbName, tblName, partitionNames), partitionLoadingExecutor,
+                Config.max_hive_partition_loading_concurrency_per_catalog);
         init();
         initMetrics();
     }
@@ -310,9 +315,8 @@ public class HiveMetaStoreCache {
     }
 
     private Map<PartitionCacheKey, HivePartition> loadPartitions(Iterable<? extends PartitionCacheKey> keys) {
-        Map<PartitionCacheKey, HivePartition> ret = new HashMap<>();
         if (keys == null || !keys.iterator().hasNext()) {
-            return ret;
+            return new HashMap<>();
         }
         PartitionCacheKey oneKey = Iterables.get(keys, 0);
         String dbName = oneKey.getDbName();
@@ -333,15 +337,7 @@ public class HiveMetaStoreCache {
             sb.delete(sb.length() - 1, sb.length());
             return sb.toString();
         }).collect(Collectors.toList());
-        List<Partition> partitions = catalog.getClient().getPartitions(dbName, tblName, partitionNames);
-        // Compose the return result map.
-        for (Partition partition : partitions) {
-            StorageDescriptor sd = partition.getSd();
-            ret.put(new PartitionCacheKey(dbName, tblName, partition.getValues()),
-                    new HivePartition(dbName, tblName, false,
-                            sd.getInputFormat(), sd.getLocation(), partition.getValues(), partition.getParameters()));
-        }
-        return ret;
+        return partitionLoader.load(dbName, tblName, Lists.newArrayList(keys), partitionNames);
     }
 
     // Get File Status by using FileSystem API.
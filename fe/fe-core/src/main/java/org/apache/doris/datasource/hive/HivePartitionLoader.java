@@ -0,0 +1,251 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+package org.apache.doris.datasource.hive;
+
+import org.apache.doris.common.Config;
+import org.apache.doris.datasource.CacheException;
+import org.apache.doris.datasource.hive.HiveMetaStoreCache.PartitionCacheKey;
+
+import com.google.common.base.Preconditions;
+import org.apache.hadoop.hive.metastore.api.Partition;
+import org.apache.hadoop.hive.metastore.api.StorageDescriptor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load the partitions of hive tables from the metastore of a catalog in parallel.
+ *
+ * The partitions are fetched by getPartitionsByNames in batches, and the batches are sent by the executor
+ * with at most maxConcurrency rpcs of the catalog in flight, so a table with a huge number of partitions
+ * is loaded concurrently while the metastore is not overwhelmed.
+ * The batch size is adjusted by the latency of the rpcs: it grows while the rpcs are fast and shrinks when
+ * they are slow or failed, in [MIN_BATCH_SIZE, Config.hive_partition_loading_max_batch_size]. It is kept below
+ * the size of the failed batches, which is forgotten a while after the last failure, so a transient failure
+ * does not cap the batch size forever.
+ * The concurrent loads of the same partition are coalesced, they wait for the same rpc.
+ */
+public class HivePartitionLoader {
+    private static final Logger LOG = LogManager.getLogger(HivePartitionLoader.class);
+
+    private static final int MIN_BATCH_SIZE = 16;
+    private static final int INITIAL_BATCH_SIZE = 256;
+    private static final long FAILED_BATCH_SIZE_EXPIRE_MS = 10 * 60 * 1000L;
+
+    /**
+     * Fetch the partitions of a table by partition names, the partitions which do not exist are absent.
+     */
+    public interface PartitionFetcher {
+        List<Partition> fetch(String dbName, String tblName, List<String> partitionNames);
+    }
+
+    private final String catalogName;
+    private final PartitionFetcher fetcher;
+    private final ExecutorService executor;
+    // limit the number of the concurrent rpcs to the metastore of this catalog
+    private final Semaphore rpcPermits;
+    private final AtomicInteger batchSize = new AtomicInteger(INITIAL_BATCH_SIZE);
+    // the smallest size of the recently failed batches, the batch size grows up to half of it
+    private final AtomicInteger failedBatchSize = new AtomicInteger(Integer.MAX_VALUE);
+    private volatile long lastFailureTimeMs = 0;
+    // the partitions being loaded, the later loads of the same partition wait for the same future
+    private final ConcurrentMap<PartitionCacheKey, CompletableFuture<HivePartition>> loadingPartitions =
+            new ConcurrentHashMap<>();
+
+    public HivePartitionLoader(String catalogName, PartitionFetcher fetcher, ExecutorService executor,
+            int maxConcurrency) {
+        Preconditions.checkArgument(maxConcurrency > 0, "max concurrency must be positive");
+        this.catalogName = catalogName;
+        this.fetcher = fetcher;
+        this.executor = executor;
+        this.rpcPermits = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * Load the partitions of a table. The keys and the partition names are in the same order.
+     * The partitions which do not exist in the metastore are absent in the result.
+     */
+    public Map<PartitionCacheKey, HivePartition> load(String dbName, String tblName, List<PartitionCacheKey> keys,
+            List<String> partitionNames) {
+        Preconditions.checkArgument(keys.size() == partitionNames.size());
+        Map<PartitionCacheKey, CompletableFuture<HivePartition>> futures = new LinkedHashMap<>();
+        List<PartitionCacheKey> ownedKeys = new ArrayList<>();
+        List<String> ownedNames = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            PartitionCacheKey key = keys.get(i);
+            if (futures.containsKey(key)) {
+                continue;
+            }
+            CompletableFuture<HivePartition> future = new CompletableFuture<>();
+            CompletableFuture<HivePartition> loading = loadingPartitions.putIfAbsent(key, future);
+            if (loading == null) {
+                ownedKeys.add(key);
+                ownedNames.add(partitionNames.get(i));
+                futures.put(key, future);
+            } else {
+                futures.put(key, loading);
+            }
+        }
+        submitBatches(dbName, tblName, ownedKeys, ownedNames, futures);
+
+        Map<PartitionCacheKey, HivePartition> ret = new HashMap<>();
+        for (Map.Entry<PartitionCacheKey, CompletableFuture<HivePartition>> entry : futures.entrySet()) {
+            HivePartition partition;
+            try {
+                partition = entry.getValue().get();
+            } catch (ExecutionException e) {
+                throw new CacheException("failed to load partitions of table %s.%s in catalog %s",
+                        e.getCause(), dbName, tblName, catalogName);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CacheException("interrupted while loading partitions of table %s.%s in catalog %s",
+                        e, dbName, tblName, catalogName);
+            }
+            if (partition != null) {
+                ret.put(entry.getKey(), partition);
+            }
+        }
+        return ret;
+    }
+
+    // The batches are cut by the current batch size, which may be changed by the finished batches.
+    // The permit is acquired by the caller, so the threads of the executor never wait for the permits.
+    private void submitBatches(String dbName, String tblName, List<PartitionCacheKey> keys, List<String> names,
+            Map<PartitionCacheKey, CompletableFuture<HivePartition>> futures) {
+        int start = 0;
+        while (start < keys.size()) {
+            int end = Math.min(keys.size(), start + batchSize.get());
+            List<PartitionCacheKey> batchKeys = keys.subList(start, end);
+            List<String> batchNames = names.subList(start, end);
+            try {
+                rpcPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                completeExceptionally(keys.subList(start, keys.size()), futures, e);
+                return;
+            }
+            Runnable task = () -> {
+                try {
+                    loadBatch(dbName, tblName, batchKeys, batchNames, futures);
+                } finally {
+                    rpcPermits.release();
+                }
+            };
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+            start = end;
+        }
+    }
+
+    private void loadBatch(String dbName, String tblName, List<PartitionCacheKey> keys, List<String> names,
+            Map<PartitionCacheKey, CompletableFuture<HivePartition>> futures) {
+        Map<PartitionCacheKey, HivePartition> partitions = new HashMap<>();
+        try {
+            for (Partition partition : fetch(dbName, tblName, names)) {
+                StorageDescriptor sd = partition.getSd();
+                partitions.put(new PartitionCacheKey(dbName, tblName, partition.getValues()),
+                        new HivePartition(dbName, tblName, false, sd.getInputFormat(), sd.getLocation(),
+                                partition.getValues(), partition.getParameters()));
+            }
+        } catch (Throwable t) {
+            completeExceptionally(keys, futures, t);
+            return;
+        }
+        for (PartitionCacheKey key : keys) {
+            CompletableFuture<HivePartition> future = futures.get(key);
+            loadingPartitions.remove(key, future);
+            future.complete(partitions.get(key));
+        }
+    }
+
+    private List<Partition> fetch(String dbName, String tblName, List<String> names) {
+        long start = System.currentTimeMillis();
+        try {
+            List<Partition> partitions = fetcher.fetch(dbName, tblName, names);
+            adjustBatchSize(names.size(), System.currentTimeMillis() - start);
+            return partitions;
+        } catch (RuntimeException e) {
+            if (names.size() <= MIN_BATCH_SIZE) {
+                throw e;
+            }
+            // the rpc may fail because the response is too large or the metastore is overloaded,
+            // so retry with smaller batches
+            LOG.warn("failed to get {} partitions of table {}.{} in catalog {}, retry with smaller batches",
+                    names.size(), dbName, tblName, catalogName, e);
+            lastFailureTimeMs = System.currentTimeMillis();
+            failedBatchSize.accumulateAndGet(names.size(), Math::min);
+            batchSize.updateAndGet(current -> Math.max(MIN_BATCH_SIZE, Math.min(current, names.size() / 2)));
+            int mid = names.size() / 2;
+            List<Partition> partitions = new ArrayList<>(fetch(dbName, tblName, names.subList(0, mid)));
+            partitions.addAll(fetch(dbName, tblName, names.subList(mid, names.size())));
+            return partitions;
+        }
+    }
+
+    private void adjustBatchSize(int size, long latencyMs) {
+        long targetLatencyMs = Config.hive_partition_loading_target_rpc_latency_ms;
+        if (failedBatchSize.get() != Integer.MAX_VALUE
+                && System.currentTimeMillis() - lastFailureTimeMs > FAILED_BATCH_SIZE_EXPIRE_MS) {
+            // the failure may be caused by a temporary overload of the metastore, try the larger batches again
+            failedBatchSize.set(Integer.MAX_VALUE);
+        }
+        int maxBatchSize = Math.max(MIN_BATCH_SIZE,
+                Math.min(Config.hive_partition_loading_max_batch_size, failedBatchSize.get() / 2));
+        batchSize.updateAndGet(current -> {
+            if (latencyMs > targetLatencyMs) {
+                return Math.max(MIN_BATCH_SIZE, current / 2);
+            }
+            // only a full batch which is fast enough proves that a larger batch is fine
+            if (size >= current && latencyMs < targetLatencyMs / 2) {
+                return Math.min(maxBatchSize, current * 2);
+            }
+            return Math.min(maxBatchSize, current);
+        });
+    }
+
+    private void completeExceptionally(List<PartitionCacheKey> keys,
+            Map<PartitionCacheKey, CompletableFuture<HivePartition>> futures, Throwable t) {
+        for (PartitionCacheKey key : keys) {
+            CompletableFuture<HivePartition> future = futures.get(key);
+            loadingPartitions.remove(key, future);
+            future.completeExceptionally(t);
+        }
+    }
+
+    // for ut
+    int getBatchSize() {
+        return batchSize.get();
+    }
+}
@@ -28,6 +28,7 @@ import org.apache.doris.common.UserException;
 import org.apache.doris.common.util.LocationPath;
 import org.apache.doris.datasource.ExternalTable;
 import org.apache.doris.datasource.FileSplit;
+import org.apache.doris.datasource.SplitWeight;
 import org.apache.doris.datasource.TableFormatType;
 import org.apache.doris.datasource.TablePartitionValues;
 import org.apache.doris.datasource.hive.HiveMetaStoreClientHelper;
@@ -86,6 +87,8 @@ import java.util.stream.Collectors;
 public class HudiScanNode extends HiveScanNode {
 
     private static final Logger LOG = LogManager.getLogger(HudiScanNode.class);
+    // the scan cost of a byte of log file, relative to a byte of base file
+    private static final long LOG_FILE_MERGE_COST_FACTOR = 3;
 
     private boolean isCowOrRoTable;
 
@@ -352,8 +355,10 @@ public class HudiScanNode extends HiveScanNode {
                 // Need add hdfs host to location
                 LocationPath locationPath = new LocationPath(filePath, hmsTable.getCatalogProperties());
                 Path splitFilePath = locationPath.toStorageLocation();
-                splits.add(new FileSplit(splitFilePath, 0, fileSize, fileSize,
-                        new String[0], partition.getPartitionValues()));
+                FileSplit split = new FileSplit(splitFilePath, 0, fileSize, fileSize,
+                        new String[0], partition.getPartitionValues());
+                split.setSplitWeight(SplitWeight.fromScanBytes(fileSize, fileSplitSize));
+                splits.add(split);
             });
         } else {
             fileSystemView.getLatestMergedFileSlicesBeforeOrOn(partitionName, queryInstant)
@@ -473,9 +478,13 @@ public class HudiScanNode extends HiveScanNode {
         long fileSize = baseFile.map(BaseFile::getFileSize).orElse(0L);
         fileSlice.getPartitionPath();
 
-        List<String> logs = fileSlice.getLogFiles().map(HoodieLogFile::getPath)
+        List<HoodieLogFile> logFiles = fileSlice.getLogFiles().collect(Collectors.toList());
+        List<String> logs = logFiles.stream().map(HoodieLogFile::getPath)
                 .map(Path::toString)
                 .collect(Collectors.toList());
+        // the log files are read row by row and merged with the base file, which costs much more than
+        // reading the base file by the native reader, and the unknown size of log file is treated as 0
+        long logFileSize = logFiles.stream().mapToLong(logFile -> Math.max(0, logFile.getFileSize())).sum();
         if (logs.isEmpty()) {
             noLogsSplitNum.incrementAndGet();
         }
@@ -493,6 +502,8 @@ public class HudiScanNode extends HiveScanNode {
         split.setHudiColumnNames(columnNames);
         split.setHudiColumnTypes(columnTypes);
         split.setInstantTime(queryInstant);
+        split.setSplitWeight(SplitWeight.fromScanBytes(
+                fileSize + logFileSize * LOG_FILE_MERGE_COST_FACTOR, fileSplitSize));
         return split;
     }
 
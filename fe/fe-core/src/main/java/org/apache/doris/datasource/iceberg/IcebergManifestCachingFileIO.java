@@ -0,0 +1,259 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.datasource.iceberg;
+
+import org.apache.doris.datasource.ManifestDiskCache;
+
+import org.apache.iceberg.BaseTable;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.TableMetadata;
+import org.apache.iceberg.TableOperations;
+import org.apache.iceberg.encryption.EncryptionManager;
+import org.apache.iceberg.io.FileIO;
+import org.apache.iceberg.io.InputFile;
+import org.apache.iceberg.io.LocationProvider;
+import org.apache.iceberg.io.OutputFile;
+import org.apache.iceberg.io.SeekableInputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Map;
+
+/**
+ * FileIO which reads the manifest lists and manifests of iceberg from {@link ManifestDiskCache},
+ * other files are read and written by the delegate FileIO directly.
+ * It is under the in memory manifest cache of iceberg ("io.manifest.cache-enabled"), which still works as before.
+ */
+public class IcebergManifestCachingFileIO implements FileIO {
+    private static final Logger LOG = LogManager.getLogger(IcebergManifestCachingFileIO.class);
+
+    // both manifest lists and manifests are avro files, and they are never rewritten in place
+    private static final String MANIFEST_SUFFIX = ".avro";
+
+    private final FileIO delegate;
+    // not serialized, the copy of the table (eg. SerializableTable) reads everything from the delegate
+    private final transient ManifestDiskCache cache;
+
+    public IcebergManifestCachingFileIO(FileIO delegate, ManifestDiskCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    /**
+     * Return a table whose FileIO reads manifests from the disk cache.
+     * Only the BaseTable is wrapped, other tables are returned as is.
+     */
+    public static Table wrap(Table table, ManifestDiskCache cache) {
+        if (cache == null || table.getClass() != BaseTable.class) {
+            return table;
+        }
+        TableOperations ops = ((BaseTable) table).operations();
+        return new BaseTable(new CachingTableOperations(ops,
+                new IcebergManifestCachingFileIO(ops.io(), cache)), table.name());
+    }
+
+    public FileIO getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public InputFile newInputFile(String path) {
+        return newInputFile(path, -1);
+    }
+
+    @Override
+    public InputFile newInputFile(String path, long length) {
+        InputFile inputFile = length >= 0 ? delegate.newInputFile(path, length) : delegate.newInputFile(path);
+        if (cache == null || !path.endsWith(MANIFEST_SUFFIX)) {
+            return inputFile;
+        }
+        return new CachedInputFile(inputFile, length);
+    }
+
+    @Override
+    public OutputFile newOutputFile(String path) {
+        return delegate.newOutputFile(path);
+    }
+
+    @Override
+    public void deleteFile(String path) {
+        delegate.deleteFile(path);
+    }
+
+    @Override
+    public Map<String, String> properties() {
+        return delegate.properties();
+    }
+
+    @Override
+    public void initialize(Map<String, String> properties) {
+        delegate.initialize(properties);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private class CachedInputFile implements InputFile {
+        private final InputFile remote;
+        private final long length;
+
+        private CachedInputFile(InputFile remote, long length) {
+            this.remote = remote;
+            this.length = length;
+        }
+
+        @Override
+        public long getLength() {
+            if (length >= 0) {
+                return length;
+            }
+            long cachedLength = cache.getCachedLength(remote.location());
+            return cachedLength >= 0 ? cachedLength : remote.getLength();
+        }
+
+        @Override
+        public SeekableInputStream newStream() {
+            try {
+                File file = cache.get(remote.location(), length, remote::newStream);
+                return new LocalSeekableInputStream(new RandomAccessFile(file, "r"));
+            } catch (IOException e) {
+                // the cached file may be evicted after it is returned, or the disk is full
+                LOG.warn("failed to read manifest {} from disk cache, read it from remote storage",
+                        remote.location(), e);
+                return remote.newStream();
+            }
+        }
+
+        @Override
+        public String location() {
+            return remote.location();
+        }
+
+        @Override
+        public boolean exists() {
+            return remote.exists();
+        }
+    }
+
+    private static class LocalSeekableInputStream extends SeekableInputStream {
+        private final RandomAccessFile file;
+
+        private LocalSeekableInputStream(RandomAccessFile file) {
+            this.file = file;
+        }
+
+        @Override
+        public long getPos() throws IOException {
+            return file.getFilePointer();
+        }
+
+        @Override
+        public void seek(long newPos) throws IOException {
+            file.seek(newPos);
+        }
+
+        @Override
+        public int read() throws IOException {
+            return file.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return file.read(b, off, len);
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long pos = file.getFilePointer();
+            long newPos = Math.min(file.length(), pos + Math.max(0, n));
+            file.seek(newPos);
+            return newPos - pos;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(Integer.MAX_VALUE, file.length() - file.getFilePointer());
+        }
+
+        @Override
+        public void close() throws IOException {
+            file.close();
+        }
+    }
+
+    // all operations go to the delegate except that io() returns the caching FileIO
+    private static class CachingTableOperations implements TableOperations {
+        private final TableOperations delegate;
+        private final FileIO io;
+
+        private CachingTableOperations(TableOperations delegate, FileIO io) {
+            this.delegate = delegate;
+            this.io = io;
+        }
+
+        @Override
+        public TableMetadata current() {
+            return delegate.current();
+        }
+
+        @Override
+        public TableMetadata refresh() {
+            return delegate.refresh();
+        }
+
+        @Override
+        public void commit(TableMetadata base, TableMetadata metadata) {
+            delegate.commit(base, metadata);
+        }
+
+        @Override
+        public FileIO io() {
+            return io;
+        }
+
+        @Override
+        public EncryptionManager encryption() {
+            return delegate.encryption();
+        }
+
+        @Override
+        public String metadataFileLocation(String fileName) {
+            return delegate.metadataFileLocation(fileName);
+        }
+
+        @Override
+        public LocationProvider locationProvider() {
+            return delegate.locationProvider();
+        }
+
+        @Override
+        public TableOperations temp(TableMetadata uncommittedMetadata) {
+            return delegate.temp(uncommittedMetadata);
+        }
+
+        @Override
+        public long newSnapshotId() {
+            return delegate.newSnapshotId();
+        }
+    }
+}
@@ -0,0 +1,497 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.datasource.iceberg;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.collect.Lists;
+import org.apache.iceberg.BaseFileScanTask;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DeleteFile;
+import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.ManifestFile;
+import org.apache.iceberg.ManifestFiles;
+import org.apache.iceberg.ManifestReader;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.PartitionSpecParser;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.SchemaParser;
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.TableScan;
+import org.apache.iceberg.expressions.And;
+import org.apache.iceberg.expressions.Binder;
+import org.apache.iceberg.expressions.BoundPredicate;
+import org.apache.iceberg.expressions.BoundReference;
+import org.apache.iceberg.expressions.Evaluator;
+import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.expressions.InclusiveMetricsEvaluator;
+import org.apache.iceberg.expressions.ManifestEvaluator;
+import org.apache.iceberg.expressions.Projections;
+import org.apache.iceberg.expressions.ResidualEvaluator;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.io.CloseableIterator;
+import org.apache.iceberg.io.FileIO;
+import org.apache.iceberg.types.Conversions;
+import org.apache.iceberg.types.Type;
+import org.apache.iceberg.util.ParallelIterable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Manifest level pruning index of iceberg tables.
+ *
+ * For each manifest and each column used by the predicates, the index keeps the lower bounds, upper bounds,
+ * null counts and value counts of the live data files in the manifest as primitive long arrays. The manifests are
+ * immutable and shared by the following snapshots, so the index of a snapshot is the index of its manifests, and
+ * only the manifests added by a new snapshot need to be indexed. The index of a manifest is built when it is read
+ * by a scan for the first time.
+ *
+ * Before reading the manifests, the predicates of a scan are evaluated against the bounds of every file in a tight
+ * loop, and a manifest is skipped if none of its files may match all the predicates. Iceberg itself only prunes
+ * manifests by the partition summaries, and the file level metrics are checked after the manifest is read.
+ *
+ * Only the int, long, date, time, timestamp, float and double columns are indexed, and only the snapshots without
+ * delete files are planned here, other scans are planned by iceberg.
+ */
+public class IcebergManifestPruningIndex {
+    private static final Logger LOG = LogManager.getLogger(IcebergManifestPruningIndex.class);
+
+    // manifest path + "#" + field id -> bounds of the live files in the manifest
+    private final Cache<String, ColumnBounds> cache;
+
+    private final AtomicLong scannedManifestNum = new AtomicLong();
+    private final AtomicLong skippedManifestNum = new AtomicLong();
+
+    public IcebergManifestPruningIndex(long maxBytes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, ColumnBounds value) -> key.length() + value.getBytes())
+                .build();
+    }
+
+    /**
+     * Plan the files of the scan with the index, or return null if the index can not be used by the scan.
+     */
+    public CloseableIterable<FileScanTask> planFiles(Table table, TableScan scan, ExecutorService executor) {
+        Snapshot snapshot = scan.snapshot();
+        if (snapshot == null) {
+            return null;
+        }
+        FileIO io = table.io();
+        if (!snapshot.deleteManifests(io).isEmpty()) {
+            return null;
+        }
+        Schema schema = table.schema();
+        Expression filter = scan.filter();
+        boolean caseSensitive = scan.isCaseSensitive();
+        List<ColumnPredicate> predicates = new ArrayList<>();
+        try {
+            collectPredicates(Binder.bind(schema.asStruct(), filter, caseSensitive), predicates);
+        } catch (Exception e) {
+            // eg. the filter refers to a column not in the current schema
+            LOG.debug("failed to bind the filter {} of table {}", filter, table.name(), e);
+            return null;
+        }
+        if (predicates.isEmpty()) {
+            return null;
+        }
+
+        Map<Integer, PartitionSpec> specsById = table.specs();
+        String schemaString = SchemaParser.toJson(schema);
+        List<CloseableIterable<FileScanTask>> manifestTasks = Lists.newArrayList();
+        int skipped = 0;
+        List<ManifestFile> manifests = snapshot.dataManifests(io);
+        for (ManifestFile manifest : manifests) {
+            PartitionSpec spec = specsById.get(manifest.partitionSpecId());
+            if (!manifest.hasAddedFiles() && !manifest.hasExistingFiles()
+                    || !ManifestEvaluator.forRowFilter(filter, spec, caseSensitive).eval(manifest)
+                    || !mightMatch(manifest, predicates)) {
+                skipped++;
+                continue;
+            }
+            manifestTasks.add(new ManifestTasks(manifest, io, specsById, spec, schema, schemaString, filter,
+                    caseSensitive, predicates));
+        }
+        scannedManifestNum.addAndGet(manifests.size());
+        skippedManifestNum.addAndGet(skipped);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("pruning index skips {} of {} manifests for table {}, filter {}",
+                    skipped, manifests.size(), table.name(), filter);
+        }
+        if (executor == null) {
+            return CloseableIterable.concat(manifestTasks);
+        }
+        return new ParallelIterable<>(manifestTasks, executor);
+    }
+
+    // return true if the manifest is not fully indexed, or some of its files may match all the predicates
+    private boolean mightMatch(ManifestFile manifest, List<ColumnPredicate> predicates) {
+        boolean[] match = null;
+        for (ColumnPredicate predicate : predicates) {
+            ColumnBounds bounds = cache.getIfPresent(key(manifest.path(), predicate.fieldId));
+            if (bounds == null) {
+                return true;
+            }
+            if (match == null) {
+                match = new boolean[bounds.size()];
+                Arrays.fill(match, true);
+            } else if (match.length != bounds.size()) {
+                // should not happen, the manifest is immutable
+                return true;
+            }
+            predicate.eval(bounds, match);
+        }
+        for (boolean fileMatch : match) {
+            if (fileMatch) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void collectPredicates(Expression expr, List<ColumnPredicate> predicates) {
+        if (expr.op() == Expression.Operation.AND) {
+            collectPredicates(((And) expr).left(), predicates);
+            collectPredicates(((And) expr).right(), predicates);
+        } else if (expr instanceof BoundPredicate) {
+            ColumnPredicate predicate = ColumnPredicate.of((BoundPredicate<?>) expr);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        // the other expressions, such as OR and NOT, are treated as always true
+    }
+
+    private static String key(CharSequence manifestPath, int fieldId) {
+        return manifestPath + "#" + fieldId;
+    }
+
+    public long getScannedManifestNum() {
+        return scannedManifestNum.get();
+    }
+
+    public long getSkippedManifestNum() {
+        return skippedManifestNum.get();
+    }
+
+    // Read the manifest once, the index of the predicate columns is built if it is missing,
+    // and the files are filtered in the same way as ManifestReader.filterRows().
+    private class ManifestTasks implements CloseableIterable<FileScanTask> {
+        private final ManifestFile manifest;
+        private final FileIO io;
+        private final Map<Integer, PartitionSpec> specsById;
+        private final PartitionSpec spec;
+        private final Schema schema;
+        private final String schemaString;
+        private final Expression filter;
+        private final boolean caseSensitive;
+        private final List<ColumnPredicate> predicates;
+
+        private ManifestTasks(ManifestFile manifest, FileIO io, Map<Integer, PartitionSpec> specsById,
+                PartitionSpec spec, Schema schema, String schemaString, Expression filter, boolean caseSensitive,
+                List<ColumnPredicate> predicates) {
+            this.manifest = manifest;
+            this.io = io;
+            this.specsById = specsById;
+            this.spec = spec;
+            this.schema = schema;
+            this.schemaString = schemaString;
+            this.filter = filter;
+            this.caseSensitive = caseSensitive;
+            this.predicates = predicates;
+        }
+
+        @Override
+        public CloseableIterator<FileScanTask> iterator() {
+            List<ColumnBoundsBuilder> builders = new ArrayList<>();
+            for (ColumnPredicate predicate : predicates) {
+                if (cache.getIfPresent(key(manifest.path(), predicate.fieldId)) == null) {
+                    builders.add(new ColumnBoundsBuilder(predicate.fieldId, predicate.type));
+                }
+            }
+            Evaluator partitionEvaluator = new Evaluator(spec.partitionType(),
+                    Projections.inclusive(spec, caseSensitive).project(filter), caseSensitive);
+            InclusiveMetricsEvaluator metricsEvaluator = new InclusiveMetricsEvaluator(schema, filter, caseSensitive);
+            String specString = PartitionSpecParser.toJson(spec);
+            ResidualEvaluator residuals = ResidualEvaluator.of(spec, filter, caseSensitive);
+
+            // the files are collected at once, so the reader is closed before the tasks are consumed
+            List<FileScanTask> tasks = new ArrayList<>();
+            try (ManifestReader<DataFile> reader = ManifestFiles.read(manifest, io, specsById)
+                    .caseSensitive(caseSensitive)) {
+                for (DataFile file : reader) {
+                    for (ColumnBoundsBuilder builder : builders) {
+                        builder.add(file);
+                    }
+                    if (partitionEvaluator.eval(file.partition()) && metricsEvaluator.eval(file)) {
+                        tasks.add(new BaseFileScanTask(file.copyWithoutStats(), new DeleteFile[0], schemaString,
+                                specString, residuals));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            for (ColumnBoundsBuilder builder : builders) {
+                cache.put(key(manifest.path(), builder.fieldId), builder.build());
+            }
+            return CloseableIterable.withNoopClose(tasks).iterator();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Bounds of a column of the files in a manifest, the values are encoded by {@link #encode} so that
+     * they can be compared as long.
+     * The missing lower and upper bounds are Long.MIN_VALUE and Long.MAX_VALUE,
+     * and the missing null counts and value counts are -1.
+     */
+    static class ColumnBounds {
+        private final long[] lowerBounds;
+        private final long[] upperBounds;
+        private final long[] nullCounts;
+        private final long[] valueCounts;
+
+        ColumnBounds(long[] lowerBounds, long[] upperBounds, long[] nullCounts, long[] valueCounts) {
+            this.lowerBounds = lowerBounds;
+            this.upperBounds = upperBounds;
+            this.nullCounts = nullCounts;
+            this.valueCounts = valueCounts;
+        }
+
+        int size() {
+            return lowerBounds.length;
+        }
+
+        int getBytes() {
+            return lowerBounds.length * Long.BYTES * 4;
+        }
+    }
+
+    private static class ColumnBoundsBuilder {
+        private final int fieldId;
+        private final Type type;
+        private long[] lowerBounds = new long[16];
+        private long[] upperBounds = new long[16];
+        private long[] nullCounts = new long[16];
+        private long[] valueCounts = new long[16];
+        private int size = 0;
+
+        private ColumnBoundsBuilder(int fieldId, Type type) {
+            this.fieldId = fieldId;
+            this.type = type;
+        }
+
+        private void add(DataFile file) {
+            if (size == lowerBounds.length) {
+                int capacity = size * 2;
+                lowerBounds = Arrays.copyOf(lowerBounds, capacity);
+                upperBounds = Arrays.copyOf(upperBounds, capacity);
+                nullCounts = Arrays.copyOf(nullCounts, capacity);
+                valueCounts = Arrays.copyOf(valueCounts, capacity);
+            }
+            lowerBounds[size] = decode(file.lowerBounds(), Long.MIN_VALUE);
+            upperBounds[size] = decode(file.upperBounds(), Long.MAX_VALUE);
+            nullCounts[size] = count(file.nullValueCounts());
+            valueCounts[size] = count(file.valueCounts());
+            size++;
+        }
+
+        private long decode(Map<Integer, ByteBuffer> bounds, long missing) {
+            ByteBuffer buffer = bounds == null ? null : bounds.get(fieldId);
+            if (buffer == null) {
+                return missing;
+            }
+            Object value;
+            if (buffer.remaining() == Integer.BYTES && type.typeId() == Type.TypeID.LONG) {
+                // the column is promoted from int to long
+                value = (long) buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN).getInt();
+            } else if (buffer.remaining() == Float.BYTES && type.typeId() == Type.TypeID.DOUBLE) {
+                // the column is promoted from float to double
+                value = (double) buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN).getFloat();
+            } else {
+                value = Conversions.fromByteBuffer(type, buffer);
+            }
+            Long encoded = encode(type, value);
+            return encoded == null ? missing : encoded;
+        }
+
+        private long count(Map<Integer, Long> counts) {
+            Long count = counts == null ? null : counts.get(fieldId);
+            return count == null ? -1 : count;
+        }
+
+        private ColumnBounds build() {
+            return new ColumnBounds(Arrays.copyOf(lowerBounds, size), Arrays.copyOf(upperBounds, size),
+                    Arrays.copyOf(nullCounts, size), Arrays.copyOf(valueCounts, size));
+        }
+    }
+
+    /**
+     * Encode the value of the indexed types to long which keeps the order, or return null if it can not be encoded.
+     */
+    static Long encode(Type type, Object value) {
+        if (value == null) {
+            return null;
+        }
+        switch (type.typeId()) {
+            case INTEGER:
+            case DATE:
+                return (long) (Integer) value;
+            case LONG:
+            case TIME:
+            case TIMESTAMP:
+                return (Long) value;
+            case FLOAT:
+            case DOUBLE:
+                double d = ((Number) value).doubleValue();
+                if (Double.isNaN(d)) {
+                    return null;
+                }
+                // -0.0 and 0.0 are equal in comparison
+                long bits = Double.doubleToLongBits(d == 0.0 ? 0.0 : d);
+                // flip the bits of the negative numbers, so that the order of long is the order of double
+                return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+            default:
+                return null;
+        }
+    }
+
+    static class ColumnPredicate {
+        private final int fieldId;
+        private final Type type;
+        private final Expression.Operation op;
+        private final long value;
+
+        ColumnPredicate(int fieldId, Type type, Expression.Operation op, long value) {
+            this.fieldId = fieldId;
+            this.type = type;
+            this.op = op;
+            this.value = value;
+        }
+
+        static ColumnPredicate of(BoundPredicate<?> predicate) {
+            if (!(predicate.term() instanceof BoundReference)) {
+                return null;
+            }
+            BoundReference<?> ref = (BoundReference<?>) predicate.term();
+            Type type = ref.type();
+            if (encode(type, defaultValue(type)) == null) {
+                return null;
+            }
+            Expression.Operation op = predicate.op();
+            switch (op) {
+                case IS_NULL:
+                case NOT_NULL:
+                    return new ColumnPredicate(ref.fieldId(), type, op, 0);
+                case LT:
+                case LT_EQ:
+                case GT:
+                case GT_EQ:
+                case EQ:
+                    if (!predicate.isLiteralPredicate()) {
+                        return null;
+                    }
+                    Long value = encode(type, predicate.asLiteralPredicate().literal().value());
+                    return value == null ? null : new ColumnPredicate(ref.fieldId(), type, op, value);
+                default:
+                    return null;
+            }
+        }
+
+        // a sample value to check whether the type is indexed
+        private static Object defaultValue(Type type) {
+            switch (type.typeId()) {
+                case INTEGER:
+                case DATE:
+                    return 0;
+                case LONG:
+                case TIME:
+                case TIMESTAMP:
+                    return 0L;
+                case FLOAT:
+                case DOUBLE:
+                    return 0.0;
+                default:
+                    return null;
+            }
+        }
+
+        // clear the files which can not match the predicate
+        void eval(ColumnBounds bounds, boolean[] match) {
+            long[] lower = bounds.lowerBounds;
+            long[] upper = bounds.upperBounds;
+            long[] nulls = bounds.nullCounts;
+            long[] values = bounds.valueCounts;
+            int size = match.length;
+            switch (op) {
+                case LT:
+                    for (int i = 0; i < size; i++) {
+                        match[i] &= lower[i] < value;
+                    }
+                    break;
+                case LT_EQ:
+                    for (int i = 0; i < size; i++) {
+                        match[i] &= lower[i] <= value;
+                    }
+                    break;
+                case GT:
+                    for (int i = 0; i < size; i++) {
+                        match[i] &= upper[i] > value;
+                    }
+                    break;
+                case GT_EQ:
+                    for (int i = 0; i < size; i++) {
+                        match[i] &= upper[i] >= value;
+                    }
+                    break;
+                case EQ:
+                    for (int i = 0; i < size; i++) {
+                        match[i] &= lower[i] <= value & upper[i] >= value;
+                    }
+                    break;
+                case IS_NULL:
+                    for (int i = 0; i < size; i++) {
+                        match[i] &= nulls[i] != 0;
+                    }
+                    break;
+                case NOT_NULL:
+                    for (int i = 0; i < size; i++) {
+                        match[i] &= nulls[i] < 0 | values[i] < 0 | nulls[i] < values[i];
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+}
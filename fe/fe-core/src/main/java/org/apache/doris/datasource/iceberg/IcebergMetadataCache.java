@@ -125,7 +125,8 @@ public class IcebergMetadataCache {
         Table icebergTable = HiveMetaStoreClientHelper.ugiDoAs(key.catalog.getId(),
                 () -> icebergCatalog.loadTable(TableIdentifier.of(key.dbName, key.tableName)));
         initIcebergTableFileIO(icebergTable, key.catalog.getProperties());
-        return icebergTable;
+        return IcebergManifestCachingFileIO.wrap(icebergTable,
+                Env.getCurrentEnv().getExtMetaCacheMgr().getManifestDiskCache());
     }
 
     public void invalidateCatalogCache(long catalogId) {
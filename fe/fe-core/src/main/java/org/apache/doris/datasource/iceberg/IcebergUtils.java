@@ -95,6 +95,7 @@ public class IcebergUtils {
     public static final String TOTAL_RECORDS = "total-records";
     public static final String TOTAL_POSITION_DELETES = "total-position-deletes";
     public static final String TOTAL_EQUALITY_DELETES = "total-equality-deletes";
+    public static final String TOTAL_DATA_FILES = "total-data-files";
 
     // nickname in flink and spark
     public static final String WRITE_FORMAT = "write-format";
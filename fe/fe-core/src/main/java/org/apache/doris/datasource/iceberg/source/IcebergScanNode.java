@@ -22,12 +22,16 @@ import org.apache.doris.analysis.FunctionCallExpr;
 import org.apache.doris.analysis.TableSnapshot;
 import org.apache.doris.analysis.TupleDescriptor;
 import org.apache.doris.catalog.Column;
+import org.apache.doris.catalog.Env;
 import org.apache.doris.catalog.HdfsResource;
 import org.apache.doris.catalog.TableIf;
 import org.apache.doris.common.DdlException;
 import org.apache.doris.common.UserException;
+import org.apache.doris.common.profile.SummaryProfile;
 import org.apache.doris.common.util.LocationPath;
 import org.apache.doris.common.util.TimeUtils;
+import org.apache.doris.common.util.Util;
+import org.apache.doris.datasource.ExternalMetaCacheMgr;
 import org.apache.doris.datasource.ExternalTable;
 import org.apache.doris.datasource.FileQueryScanNode;
 import org.apache.doris.datasource.TableFormatType;
@@ -35,8 +39,10 @@ import org.apache.doris.datasource.hive.HMSExternalTable;
 import org.apache.doris.datasource.hive.HiveMetaStoreClientHelper;
 import org.apache.doris.datasource.iceberg.IcebergExternalCatalog;
 import org.apache.doris.datasource.iceberg.IcebergExternalTable;
+import org.apache.doris.datasource.iceberg.IcebergManifestPruningIndex;
 import org.apache.doris.datasource.iceberg.IcebergUtils;
 import org.apache.doris.planner.PlanNodeId;
+import org.apache.doris.qe.ConnectContext;
 import org.apache.doris.spi.Split;
 import org.apache.doris.statistics.StatisticalType;
 import org.apache.doris.thrift.TExplainLevel;
@@ -57,13 +63,17 @@ import org.apache.iceberg.CombinedScanTask;
 import org.apache.iceberg.DeleteFile;
 import org.apache.iceberg.FileContent;
 import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.ManifestFile;
+import org.apache.iceberg.ManifestFile.PartitionFieldSummary;
 import org.apache.iceberg.MetadataColumns;
 import org.apache.iceberg.PartitionField;
+import org.apache.iceberg.PartitionSpec;
 import org.apache.iceberg.Snapshot;
 import org.apache.iceberg.StructLike;
 import org.apache.iceberg.Table;
 import org.apache.iceberg.TableScan;
 import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.expressions.ManifestEvaluator;
 import org.apache.iceberg.io.CloseableIterable;
 import org.apache.iceberg.types.Conversions;
 import org.apache.iceberg.types.Type;
@@ -71,8 +81,11 @@ import org.apache.iceberg.types.Types;
 import org.apache.iceberg.util.DateTimeUtil;
 import org.apache.iceberg.util.SnapshotUtil;
 import org.apache.iceberg.util.TableScanUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -80,15 +93,25 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public class IcebergScanNode extends FileQueryScanNode {
 
+    private static final Logger LOG = LogManager.getLogger(IcebergScanNode.class);
+
     public static final int MIN_DELETE_FILE_SUPPORT_VERSION = 2;
+    // the number of splits sent to SplitAssignment at a time in batch mode
+    private static final int NUM_SPLITS_PER_BATCH = 1024;
 
     private IcebergSource source;
     private Table icebergTable;
     private List<String> pushdownIcebergPredicates = Lists.newArrayList();
+    // decided once in isBatchMode()
+    private Boolean batchMode = null;
+    // the number of data files of the scanned snapshot, used as the approximate split number in batch mode
+    private long numDataFiles = -1;
 
     /**
      * External file scan node for Query iceberg table
@@ -179,7 +202,7 @@ public class IcebergScanNode extends FileQueryScanNode {
         return HiveMetaStoreClientHelper.ugiDoAs(source.getCatalog().getConfiguration(), this::doGetSplits);
     }
 
-    private List<Split> doGetSplits() throws UserException {
+    private TableScan createTableScan() throws UserException {
         TableScan scan = icebergTable.newScan();
 
         // set snapshot
@@ -196,66 +219,42 @@ public class IcebergScanNode extends FileQueryScanNode {
                 expressions.add(expression);
             }
         }
+        pushdownIcebergPredicates.clear();
         for (Expression predicate : expressions) {
             scan = scan.filter(predicate);
             this.pushdownIcebergPredicates.add(predicate.toString());
         }
 
+        // read the manifests in parallel
+        return scan.planWith(Env.getCurrentEnv().getExtMetaCacheMgr().getIcebergManifestExecutor());
+    }
+
+    private CloseableIterable<FileScanTask> planFiles(TableScan scan) {
+        ExternalMetaCacheMgr cacheMgr = Env.getCurrentEnv().getExtMetaCacheMgr();
+        IcebergManifestPruningIndex pruningIndex = cacheMgr.getIcebergManifestPruningIndex();
+        if (pruningIndex != null) {
+            CloseableIterable<FileScanTask> fileScanTasks = pruningIndex.planFiles(icebergTable, scan,
+                    cacheMgr.getIcebergManifestExecutor());
+            if (fileScanTasks != null) {
+                return fileScanTasks;
+            }
+        }
+        return scan.planFiles();
+    }
+
+    private List<Split> doGetSplits() throws UserException {
+        TableScan scan = createTableScan();
+
         // get splits
         List<Split> splits = new ArrayList<>();
         int formatVersion = ((BaseTable) icebergTable).operations().current().formatVersion();
         HashSet<String> partitionPathSet = new HashSet<>();
-        boolean isPartitionedTable = icebergTable.spec().isPartitioned();
 
-        CloseableIterable<FileScanTask> fileScanTasks = TableScanUtil.splitFiles(scan.planFiles(), fileSplitSize);
+        CloseableIterable<FileScanTask> fileScanTasks = TableScanUtil.splitFiles(planFiles(scan), fileSplitSize);
         try (CloseableIterable<CombinedScanTask> combinedScanTasks =
                 TableScanUtil.planTasks(fileScanTasks, fileSplitSize, 1, 0)) {
-            combinedScanTasks.forEach(taskGrp -> taskGrp.files().forEach(splitTask -> {
-                String dataFilePath = normalizeLocation(splitTask.file().path().toString());
-
-                List<String> partitionValues = new ArrayList<>();
-                if (isPartitionedTable) {
-                    StructLike structLike = splitTask.file().partition();
-                    List<PartitionField> fields = splitTask.spec().fields();
-                    Types.StructType structType = icebergTable.schema().asStruct();
-
-                    // set partitionValue for this IcebergSplit
-                    for (int i = 0; i < structLike.size(); i++) {
-                        Object obj = structLike.get(i, Object.class);
-                        String value = String.valueOf(obj);
-                        PartitionField partitionField = fields.get(i);
-                        if (partitionField.transform().isIdentity()) {
-                            Type type = structType.fieldType(partitionField.name());
-                            if (type != null && type.typeId().equals(Type.TypeID.DATE)) {
-                                // iceberg use integer to store date,
-                                // we need transform it to string
-                                value = DateTimeUtil.daysToIsoDate((Integer) obj);
-                            }
-                        }
-                        partitionValues.add(value);
-                    }
-
-                    // Counts the number of partitions read
-                    partitionPathSet.add(structLike.toString());
-                }
-                LocationPath locationPath = new LocationPath(dataFilePath, source.getCatalog().getProperties());
-                Path finalDataFilePath = locationPath.toStorageLocation();
-                IcebergSplit split = new IcebergSplit(
-                        finalDataFilePath,
-                        splitTask.start(),
-                        splitTask.length(),
-                        splitTask.file().fileSizeInBytes(),
-                        new String[0],
-                        formatVersion,
-                        source.getCatalog().getProperties(),
-                        partitionValues,
-                        splitTask.file().path().toString());
-                if (formatVersion >= MIN_DELETE_FILE_SUPPORT_VERSION) {
-                    split.setDeleteFileFilters(getDeleteFileFilters(splitTask));
-                }
-                split.setTableFormatType(TableFormatType.ICEBERG);
-                splits.add(split);
-            }));
+            combinedScanTasks.forEach(taskGrp -> taskGrp.files().forEach(splitTask ->
+                    splits.add(createIcebergSplit(splitTask, formatVersion, partitionPathSet))));
         } catch (IOException e) {
             throw new UserException(e.getMessage(), e.getCause());
         }
@@ -271,6 +270,225 @@ public class IcebergScanNode extends FileQueryScanNode {
         return splits;
     }
 
+    private Split createIcebergSplit(FileScanTask splitTask, int formatVersion, Set<String> partitionPathSet) {
+        String dataFilePath = normalizeLocation(splitTask.file().path().toString());
+
+        List<String> partitionValues = new ArrayList<>();
+        if (icebergTable.spec().isPartitioned()) {
+            StructLike structLike = splitTask.file().partition();
+            List<PartitionField> fields = splitTask.spec().fields();
+            Types.StructType structType = icebergTable.schema().asStruct();
+
+            // set partitionValue for this IcebergSplit
+            for (int i = 0; i < structLike.size(); i++) {
+                Object obj = structLike.get(i, Object.class);
+                String value = String.valueOf(obj);
+                PartitionField partitionField = fields.get(i);
+                if (partitionField.transform().isIdentity()) {
+                    Type type = structType.fieldType(partitionField.name());
+                    if (type != null && type.typeId().equals(Type.TypeID.DATE)) {
+                        // iceberg use integer to store date,
+                        // we need transform it to string
+                        value = DateTimeUtil.daysToIsoDate((Integer) obj);
+                    }
+                }
+                partitionValues.add(value);
+            }
+
+            // Counts the number of partitions read
+            partitionPathSet.add(structLike.toString());
+        }
+        LocationPath locationPath = new LocationPath(dataFilePath, source.getCatalog().getProperties());
+        Path finalDataFilePath = locationPath.toStorageLocation();
+        IcebergSplit split = new IcebergSplit(
+                finalDataFilePath,
+                splitTask.start(),
+                splitTask.length(),
+                splitTask.file().fileSizeInBytes(),
+                new String[0],
+                formatVersion,
+                source.getCatalog().getProperties(),
+                partitionValues,
+                splitTask.file().path().toString());
+        if (formatVersion >= MIN_DELETE_FILE_SUPPORT_VERSION) {
+            split.setDeleteFileFilters(getDeleteFileFilters(splitTask));
+        }
+        split.setTableFormatType(TableFormatType.ICEBERG);
+        return split;
+    }
+
+    @Override
+    public void startSplit() {
+        // the splits are generated in another thread, which has no connect context
+        SummaryProfile summaryProfile = ConnectContext.get().getExecutor() != null
+                ? ConnectContext.get().getExecutor().getSummaryProfile() : null;
+        CompletableFuture.runAsync(() -> {
+            try {
+                HiveMetaStoreClientHelper.ugiDoAs(source.getCatalog().getConfiguration(), () -> {
+                    doStartSplit(summaryProfile);
+                    return null;
+                });
+            } catch (Throwable t) {
+                LOG.warn("get file split failed for iceberg table: {}", icebergTable.name(), t);
+                splitAssignment.setException(new UserException(
+                        "get file split failed for iceberg table: " + icebergTable.name()
+                                + ", err: " + Util.getRootCauseMessage(t), t));
+            } finally {
+                splitAssignment.finishSchedule();
+            }
+        }, Env.getCurrentEnv().getExtMetaCacheMgr().getScheduleExecutor());
+    }
+
+    // The file scan tasks are produced while the manifests are still being read,
+    // so the splits are sent to backends without waiting for the whole planning.
+    // The partition number estimated in isBatchMode() is replaced by the exact one after all the splits are generated.
+    private void doStartSplit(SummaryProfile summaryProfile) throws UserException, IOException {
+        TableScan scan = createTableScan();
+        int formatVersion = ((BaseTable) icebergTable).operations().current().formatVersion();
+        HashSet<String> partitionPathSet = new HashSet<>();
+        try (CloseableIterable<FileScanTask> fileScanTasks =
+                TableScanUtil.splitFiles(planFiles(scan), fileSplitSize)) {
+            List<Split> batch = new ArrayList<>();
+            boolean firstBatch = true;
+            for (FileScanTask splitTask : fileScanTasks) {
+                if (splitAssignment.isStop()) {
+                    break;
+                }
+                batch.add(createIcebergSplit(splitTask, formatVersion, partitionPathSet));
+                // send the first split at once, so that the planning can go on as soon as possible
+                if (firstBatch || batch.size() >= NUM_SPLITS_PER_BATCH) {
+                    splitAssignment.addToQueue(batch);
+                    batch = new ArrayList<>();
+                    if (firstBatch && summaryProfile != null) {
+                        summaryProfile.setGetFirstSplitFinishTime();
+                    }
+                    firstBatch = false;
+                }
+            }
+            splitAssignment.addToQueue(batch);
+        }
+        selectedPartitionNum = partitionPathSet.size();
+    }
+
+    @Override
+    public boolean isBatchMode() {
+        if (batchMode == null) {
+            batchMode = HiveMetaStoreClientHelper.ugiDoAs(source.getCatalog().getConfiguration(),
+                    this::checkBatchMode);
+        }
+        return batchMode;
+    }
+
+    private boolean checkBatchMode() {
+        int numFiles = ConnectContext.get().getSessionVariable().getNumFilesInBatchMode();
+        if (numFiles < 0) {
+            return false;
+        }
+        // count push down only needs one split
+        if (getPushDownAggNoGroupingOp().equals(TPushAggOp.COUNT) && getCountFromSnapshot() >= 0) {
+            return false;
+        }
+        try {
+            Long specifiedSnapshot = getSpecifiedSnapshot();
+            Snapshot snapshot = specifiedSnapshot == null
+                    ? icebergTable.currentSnapshot() : icebergTable.snapshot(specifiedSnapshot);
+            if (snapshot == null) {
+                return false;
+            }
+            numDataFiles = getNumDataFiles(snapshot);
+            if (numDataFiles < numFiles) {
+                return false;
+            }
+            // the splits are generated asynchronously, but the partition number is used once the plan is done,
+            // eg. by the explain and the sql block rules, so it is estimated without reading the manifests
+            TableScan scan = createTableScan();
+            selectedPartitionNum = estimateSelectedPartitions(snapshot, scan.filter(), scan.isCaseSensitive());
+        } catch (Exception e) {
+            LOG.warn("failed to check the batch mode of iceberg table: {}", icebergTable.name(), e);
+            return false;
+        }
+        return true;
+    }
+
+    // An upper bound of the partitions of the live data files which may match the filter, computed from the
+    // partition summaries of the manifest list only. A manifest whose partition fields all have a single value
+    // holds one partition, the other manifests are bounded by their file numbers.
+    private long estimateSelectedPartitions(Snapshot snapshot, Expression filter, boolean caseSensitive) {
+        if (!icebergTable.spec().isPartitioned()) {
+            return 0;
+        }
+        Map<Integer, PartitionSpec> specsById = icebergTable.specs();
+        Set<List<Object>> singlePartitions = new HashSet<>();
+        long numPartitions = 0;
+        for (ManifestFile manifest : snapshot.dataManifests(icebergTable.io())) {
+            PartitionSpec spec = specsById.get(manifest.partitionSpecId());
+            if (!manifest.hasAddedFiles() && !manifest.hasExistingFiles()
+                    || !ManifestEvaluator.forRowFilter(filter, spec, caseSensitive).eval(manifest)) {
+                continue;
+            }
+            List<Object> partition = getSinglePartition(manifest);
+            if (partition != null) {
+                singlePartitions.add(partition);
+                continue;
+            }
+            if (manifest.addedFilesCount() != null) {
+                numPartitions += manifest.addedFilesCount();
+            }
+            if (manifest.existingFilesCount() != null) {
+                numPartitions += manifest.existingFilesCount();
+            }
+        }
+        return numPartitions + singlePartitions.size();
+    }
+
+    // The spec id and the partition values of the manifest if all of its files are in one partition, otherwise null.
+    private static List<Object> getSinglePartition(ManifestFile manifest) {
+        List<PartitionFieldSummary> summaries = manifest.partitions();
+        if (summaries == null) {
+            return null;
+        }
+        List<Object> partition = new ArrayList<>(summaries.size() + 1);
+        partition.add(manifest.partitionSpecId());
+        for (PartitionFieldSummary summary : summaries) {
+            ByteBuffer lowerBound = summary.lowerBound();
+            ByteBuffer upperBound = summary.upperBound();
+            if (lowerBound == null && upperBound == null && summary.containsNull()) {
+                // all the values are null
+                partition.add(null);
+            } else if (lowerBound != null && lowerBound.equals(upperBound) && !summary.containsNull()
+                    && !Boolean.TRUE.equals(summary.containsNaN())) {
+                partition.add(lowerBound);
+            } else {
+                return null;
+            }
+        }
+        return partition;
+    }
+
+    // Prefer the snapshot summary, and fall back to the file counts of the manifest list,
+    // both of them do not need to read the manifests.
+    private long getNumDataFiles(Snapshot snapshot) {
+        Map<String, String> summary = snapshot.summary();
+        if (summary != null && summary.containsKey(IcebergUtils.TOTAL_DATA_FILES)) {
+            return Long.parseLong(summary.get(IcebergUtils.TOTAL_DATA_FILES));
+        }
+        long numFiles = 0;
+        for (ManifestFile manifest : snapshot.dataManifests(icebergTable.io())) {
+            if (manifest.addedFilesCount() != null) {
+                numFiles += manifest.addedFilesCount();
+            }
+            if (manifest.existingFilesCount() != null) {
+                numFiles += manifest.existingFilesCount();
+            }
+        }
+        return numFiles;
+    }
+
+    @Override
+    public int numApproximateSplits() {
+        return (int) Math.min(numDataFiles, Integer.MAX_VALUE);
+    }
+
     public Long getSpecifiedSnapshot() throws UserException {
         TableSnapshot tableSnapshot = getQueryTableSnapshot();
         if (tableSnapshot != null) {
@@ -24,6 +24,7 @@ import org.apache.doris.common.MetaNotFoundException;
 import org.apache.doris.common.UserException;
 import org.apache.doris.common.util.LocationPath;
 import org.apache.doris.datasource.FileQueryScanNode;
+import org.apache.doris.datasource.SplitWeight;
 import org.apache.doris.datasource.paimon.PaimonExternalCatalog;
 import org.apache.doris.datasource.paimon.PaimonExternalTable;
 import org.apache.doris.planner.PlanNodeId;
@@ -44,6 +45,7 @@ import org.apache.hadoop.fs.Path;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.paimon.data.BinaryRow;
+import org.apache.paimon.io.DataFileMeta;
 import org.apache.paimon.predicate.Predicate;
 import org.apache.paimon.table.FileStoreTable;
 import org.apache.paimon.table.source.DataSplit;
@@ -98,8 +100,16 @@ public class PaimonScanNode extends FileQueryScanNode {
     }
 
     private static final Logger LOG = LogManager.getLogger(PaimonScanNode.class);
+    // the scan cost of a byte of data file which need to be merged, relative to a byte read directly
+    private static final long MERGE_COST_FACTOR = 3;
+    // the extra cost of passing a row through jni, in bytes
+    private static final long JNI_COST_BYTES_PER_ROW = 16;
+
     private PaimonSource source = null;
     private List<Predicate> predicates;
+    private boolean forceJniScanner;
+    // Just for counting the number of selected partitions for this paimon table
+    private final Set<BinaryRow> selectedPartitionValues = Sets.newHashSet();
     private int rawFileSplitNum = 0;
     private int paimonSplitNum = 0;
     private List<SplitStat> splitStats = new ArrayList<>();
@@ -116,6 +126,7 @@ public class PaimonScanNode extends FileQueryScanNode {
         PaimonPredicateConverter paimonPredicateConverter = new PaimonPredicateConverter(
                 source.getPaimonTable().rowType());
         predicates = paimonPredicateConverter.convertToPaimonExpr(conjuncts);
+        forceJniScanner = ConnectContext.get().getSessionVariable().isForceJniScanner();
     }
 
     private static final Base64.Encoder BASE64_ENCODER =
@@ -172,99 +183,110 @@ public class PaimonScanNode extends FileQueryScanNode {
 
     @Override
     public List<Split> getSplits() throws UserException {
-        boolean forceJniScanner = ConnectContext.get().getSessionVariable().isForceJniScanner();
         List<Split> splits = new ArrayList<>();
         int[] projected = desc.getSlots().stream().mapToInt(
                 slot -> (source.getPaimonTable().rowType().getFieldNames().indexOf(slot.getColumn().getName())))
                 .toArray();
         ReadBuilder readBuilder = source.getPaimonTable().newReadBuilder();
+        // The paimon scan plans all the splits at once, so the batch mode is not used,
+        // which would only defer the conversion of the planned splits.
         List<org.apache.paimon.table.source.Split> paimonSplits = readBuilder.withFilter(predicates)
                 .withProjection(projected)
                 .newScan().plan().splits();
-        boolean supportNative = supportNativeReader();
-        // Just for counting the number of selected partitions for this paimon table
-        Set<BinaryRow> selectedPartitionValues = Sets.newHashSet();
         for (org.apache.paimon.table.source.Split split : paimonSplits) {
-            SplitStat splitStat = new SplitStat();
-            splitStat.setRowCount(split.rowCount());
-            if (!forceJniScanner && supportNative && split instanceof DataSplit) {
-                DataSplit dataSplit = (DataSplit) split;
-                BinaryRow partitionValue = dataSplit.partition();
-                selectedPartitionValues.add(partitionValue);
-                Optional<List<RawFile>> optRawFiles = dataSplit.convertToRawFiles();
-                Optional<List<DeletionFile>> optDeletionFiles = dataSplit.deletionFiles();
-                if (optRawFiles.isPresent()) {
-                    splitStat.setType(SplitReadType.NATIVE);
-                    splitStat.setRawFileConvertable(true);
-                    List<RawFile> rawFiles = optRawFiles.get();
-                    if (optDeletionFiles.isPresent()) {
-                        List<DeletionFile> deletionFiles = optDeletionFiles.get();
-                        for (int i = 0; i < rawFiles.size(); i++) {
-                            RawFile file = rawFiles.get(i);
-                            DeletionFile deletionFile = deletionFiles.get(i);
-                            LocationPath locationPath = new LocationPath(file.path(),
-                                    source.getCatalog().getProperties());
-                            Path finalDataFilePath = locationPath.toStorageLocation();
-                            try {
-                                List<Split> dorisSplits = splitFile(
-                                        finalDataFilePath,
-                                        0,
-                                        null,
-                                        file.length(),
-                                        -1,
-                                        true,
-                                        null,
-                                        PaimonSplit.PaimonSplitCreator.DEFAULT);
-                                for (Split dorisSplit : dorisSplits) {
-                                    // the element in DeletionFiles might be null
-                                    if (deletionFile != null) {
-                                        splitStat.setHasDeletionVector(true);
-                                        ((PaimonSplit) dorisSplit).setDeletionFile(deletionFile);
-                                    }
-                                    splits.add(dorisSplit);
-                                }
-                                ++rawFileSplitNum;
-                            } catch (IOException e) {
-                                throw new UserException("Paimon error to split file: " + e.getMessage(), e);
-                            }
-                        }
-                    } else {
-                        for (RawFile file : rawFiles) {
-                            LocationPath locationPath = new LocationPath(file.path(),
-                                    source.getCatalog().getProperties());
-                            Path finalDataFilePath = locationPath.toStorageLocation();
-                            try {
-                                splits.addAll(
-                                        splitFile(
-                                                finalDataFilePath,
-                                                0,
-                                                null,
-                                                file.length(),
-                                                -1,
-                                                true,
-                                                null,
-                                                PaimonSplit.PaimonSplitCreator.DEFAULT));
-                                ++rawFileSplitNum;
-                            } catch (IOException e) {
-                                throw new UserException("Paimon error to split file: " + e.getMessage(), e);
+            splits.addAll(convertSplit(split));
+        }
+        this.selectedPartitionNum = selectedPartitionValues.size();
+        // TODO: get total partition number
+        return splits;
+    }
+
+    private List<Split> convertSplit(org.apache.paimon.table.source.Split split) throws UserException {
+        List<Split> splits = new ArrayList<>();
+        SplitStat splitStat = new SplitStat();
+        splitStat.setRowCount(split.rowCount());
+        if (!forceJniScanner && supportNativeReader() && split instanceof DataSplit) {
+            DataSplit dataSplit = (DataSplit) split;
+            selectedPartitionValues.add(dataSplit.partition());
+            Optional<List<RawFile>> optRawFiles = dataSplit.convertToRawFiles();
+            Optional<List<DeletionFile>> optDeletionFiles = dataSplit.deletionFiles();
+            if (optRawFiles.isPresent()) {
+                splitStat.setType(SplitReadType.NATIVE);
+                splitStat.setRawFileConvertable(true);
+                List<RawFile> rawFiles = optRawFiles.get();
+                for (int i = 0; i < rawFiles.size(); i++) {
+                    RawFile file = rawFiles.get(i);
+                    // the element in DeletionFiles might be null
+                    DeletionFile deletionFile = optDeletionFiles.isPresent() ? optDeletionFiles.get().get(i) : null;
+                    LocationPath locationPath = new LocationPath(file.path(),
+                            source.getCatalog().getProperties());
+                    Path finalDataFilePath = locationPath.toStorageLocation();
+                    try {
+                        List<Split> dorisSplits = splitFile(
+                                finalDataFilePath,
+                                0,
+                                null,
+                                file.length(),
+                                -1,
+                                true,
+                                null,
+                                PaimonSplit.PaimonSplitCreator.DEFAULT);
+                        for (Split dorisSplit : dorisSplits) {
+                            PaimonSplit paimonSplit = (PaimonSplit) dorisSplit;
+                            long scanBytes = paimonSplit.getLength();
+                            if (deletionFile != null) {
+                                splitStat.setHasDeletionVector(true);
+                                paimonSplit.setDeletionFile(deletionFile);
+                                scanBytes += deletionFile.length();
                             }
+                            paimonSplit.setSplitWeight(SplitWeight.fromScanBytes(scanBytes, fileSplitSize));
+                            splits.add(paimonSplit);
                         }
+                        ++rawFileSplitNum;
+                    } catch (IOException e) {
+                        throw new UserException("Paimon error to split file: " + e.getMessage(), e);
                     }
-                } else {
-                    splits.add(new PaimonSplit(split));
-                    ++paimonSplitNum;
                 }
-            } else {
-                splits.add(new PaimonSplit(split));
-                ++paimonSplitNum;
+                splitStats.add(splitStat);
+                return splits;
             }
-            splitStats.add(splitStat);
         }
-        this.selectedPartitionNum = selectedPartitionValues.size();
-        // TODO: get total partition number
+        PaimonSplit paimonSplit = new PaimonSplit(split);
+        paimonSplit.setSplitWeight(getJniSplitWeight(split));
+        splits.add(paimonSplit);
+        ++paimonSplitNum;
+        splitStats.add(splitStat);
         return splits;
     }
 
+    // The weight of the split read by the jni reader, which is estimated by the bytes of the data files
+    // and deletion files, plus the cost of passing the rows through jni.
+    // If the data files can not be read as raw files, the rows of the files are merged by the primary keys,
+    // which is much more expensive than reading them directly.
+    private SplitWeight getJniSplitWeight(org.apache.paimon.table.source.Split split) {
+        if (!(split instanceof DataSplit)) {
+            return SplitWeight.standard();
+        }
+        DataSplit dataSplit = (DataSplit) split;
+        long scanBytes = 0;
+        for (DataFileMeta dataFile : dataSplit.dataFiles()) {
+            scanBytes += dataFile.fileSize();
+        }
+        if (!dataSplit.rawConvertible()) {
+            scanBytes *= MERGE_COST_FACTOR;
+        }
+        Optional<List<DeletionFile>> optDeletionFiles = dataSplit.deletionFiles();
+        if (optDeletionFiles.isPresent()) {
+            for (DeletionFile deletionFile : optDeletionFiles.get()) {
+                if (deletionFile != null) {
+                    scanBytes += deletionFile.length();
+                }
+            }
+        }
+        scanBytes += dataSplit.rowCount() * JNI_COST_BYTES_PER_ROW;
+        return SplitWeight.fromScanBytes(scanBytes, fileSplitSize);
+    }
+
     private boolean supportNativeReader() {
         String fileFormat = source.getFileFormat().toLowerCase();
         switch (fileFormat) {
@@ -66,6 +66,15 @@ public class JournalBatch {
         entities.add(new Entity(op, buffer));
     }
 
+    // Add a journal entity which has been serialized by `JournalEntity.write` into journal batch.
+    public void addJournal(short op, DataOutputBuffer buffer) {
+        if (op == OperationType.OP_TIMESTAMP) {
+            throw new RuntimeException("JournalBatch.addJournal is not supported OP_TIMESTAMP");
+        }
+        size += buffer.size();
+        entities.add(new Entity(op, buffer));
+    }
+
     public ArrayList<Entity> getJournalEntities() {
         return entities;
     }
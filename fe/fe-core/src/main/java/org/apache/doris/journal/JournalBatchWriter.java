@@ -0,0 +1,255 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.journal;
+
+import org.apache.doris.common.Config;
+import org.apache.doris.common.LogUtils;
+import org.apache.doris.common.io.DataOutputBuffer;
+import org.apache.doris.common.io.Writable;
+import org.apache.doris.journal.bdbje.BDBJEJournal;
+import org.apache.doris.metric.MetricRepo;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for the journal writing.
+ *
+ * The journals of concurrent callers are queued and written by a single writer thread, every time the writer
+ * takes all the queued journals (up to batch_edit_log_max_item_num journals or batch_edit_log_max_byte_size
+ * bytes) as one {@link JournalBatch}, which is written in one durable transaction. So the callers don't pay
+ * a full commit for each journal. The journals are serialized by the callers, the caller is blocked until
+ * its journal is durable, and the journals are written in the order of {@link #write}.
+ * After {@link #stop}, the writing batch is finished, and the queued and later journals fail with IOException.
+ */
+public class JournalBatchWriter {
+    private static final Logger LOG = LogManager.getLogger(JournalBatchWriter.class);
+
+    private static final int OUTPUT_BUFFER_INIT_SIZE = 128;
+    // the interval to check whether the writer is stopped while waiting for journals
+    private static final long POLL_INTERVAL_MS = 100;
+
+    /**
+     * Called by the writer thread after a batch is written.
+     */
+    public interface BatchWrittenListener {
+        void onBatchWritten(int batchSize, long costMs);
+    }
+
+    private final Journal journal;
+    private final BatchWrittenListener onBatchWritten;
+    private final BlockingQueue<JournalTask> queue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    private volatile boolean stopped = false;
+
+    public JournalBatchWriter(Journal journal, BatchWrittenListener onBatchWritten) {
+        this.journal = journal;
+        this.onBatchWritten = onBatchWritten;
+        this.writerThread = new Thread(this::runWriter, "journal-batch-writer");
+        this.writerThread.setDaemon(true);
+    }
+
+    public void start() {
+        writerThread.start();
+    }
+
+    /**
+     * Stop the writer thread and wait until the writing batch is finished.
+     */
+    public void stop() {
+        stopped = true;
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failQueuedTasks();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Write a journal and wait until it is durable.
+     *
+     * @return the journal id
+     */
+    public long write(short op, Writable writable) throws IOException {
+        JournalEntity entity = new JournalEntity();
+        entity.setOpCode(op);
+        entity.setData(writable);
+        DataOutputBuffer buffer = new DataOutputBuffer(OUTPUT_BUFFER_INIT_SIZE);
+        entity.write(buffer);
+
+        JournalTask task = new JournalTask(op, buffer);
+        queue.add(task);
+        // the task may be queued after the writer thread exits
+        if (stopped) {
+            failQueuedTasks();
+        }
+        return task.await();
+    }
+
+    /**
+     * Write a list of journals in order and wait until all of them are durable.
+     * The journals are queued together, so they are written in as few batches as possible.
+     *
+     * @return the journal ids
+     */
+    public long[] write(short op, List<? extends Writable> writables) throws IOException {
+        List<JournalTask> tasks = new ArrayList<>(writables.size());
+        for (Writable writable : writables) {
+            JournalEntity entity = new JournalEntity();
+            entity.setOpCode(op);
+            entity.setData(writable);
+            DataOutputBuffer buffer = new DataOutputBuffer(OUTPUT_BUFFER_INIT_SIZE);
+            entity.write(buffer);
+            tasks.add(new JournalTask(op, buffer));
+        }
+        queue.addAll(tasks);
+        if (stopped) {
+            failQueuedTasks();
+        }
+        long[] journalIds = new long[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            journalIds[i] = tasks.get(i).await();
+        }
+        return journalIds;
+    }
+
+    private void runWriter() {
+        List<JournalTask> tasks = new ArrayList<>();
+        while (!stopped) {
+            tasks.clear();
+            try {
+                JournalTask first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                tasks.add(first);
+            } catch (InterruptedException e) {
+                LOG.warn("journal batch writer is interrupted", e);
+                continue;
+            }
+            JournalBatch batch = new JournalBatch(Config.batch_edit_log_max_item_num);
+            batch.addJournal(tasks.get(0).op, tasks.get(0).data);
+            while (batch.getJournalEntities().size() < Config.batch_edit_log_max_item_num
+                    && batch.getSize() < Config.batch_edit_log_max_byte_size) {
+                JournalTask task = queue.poll();
+                if (task == null) {
+                    break;
+                }
+                tasks.add(task);
+                batch.addJournal(task.op, task.data);
+            }
+            writeBatch(tasks, batch);
+        }
+        LOG.info("journal batch writer is stopped");
+    }
+
+    private void failQueuedTasks() {
+        JournalTask task;
+        while ((task = queue.poll()) != null) {
+            task.fail(new IOException("journal batch writer is stopped"));
+        }
+    }
+
+    private void writeBatch(List<JournalTask> tasks, JournalBatch batch) {
+        long startNs = System.nanoTime();
+        long firstId = -1;
+        try {
+            firstId = journal.write(batch);
+        } catch (Throwable t) {
+            // same as the EditLog.logEdit, the memory is modified but the journal is not durable
+            if (journal instanceof BDBJEJournal) {
+                LOG.error("BDBJE stats : {}", ((BDBJEJournal) journal).getBDBStats());
+            }
+            LOG.error("Fatal Error : write stream Exception", t);
+            LogUtils.stderr("write journal batch failed, will exit. " + t.getMessage());
+            System.exit(-1);
+        }
+        long endNs = System.nanoTime();
+        onBatchWritten.onBatchWritten(tasks.size(), (endNs - startNs) / 1000000);
+
+        for (int i = 0; i < tasks.size(); i++) {
+            JournalTask task = tasks.get(i);
+            if (MetricRepo.isInit) {
+                MetricRepo.HISTO_JOURNAL_BATCH_WAIT_LATENCY.update((startNs - task.enqueueNs) / 1000000);
+                MetricRepo.HISTO_EDIT_LOG_WRITE_LATENCY.update((endNs - task.enqueueNs) / 1000000);
+            }
+            task.finish(firstId + i);
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("write journal batch, first journal id {}, batch size {}, data size {}, cost {}ms",
+                    firstId, tasks.size(), batch.getSize(), (endNs - startNs) / 1000000);
+        }
+    }
+
+    private static class JournalTask {
+        private final short op;
+        private final DataOutputBuffer data;
+        private final long enqueueNs = System.nanoTime();
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile long journalId = -1;
+        private volatile IOException exception = null;
+
+        private JournalTask(short op, DataOutputBuffer data) {
+            this.op = op;
+            this.data = data;
+        }
+
+        private void finish(long journalId) {
+            this.journalId = journalId;
+            latch.countDown();
+        }
+
+        private void fail(IOException exception) {
+            this.exception = exception;
+            latch.countDown();
+        }
+
+        // the journal must be durable before the caller returns, so ignore the interruption here
+        private long await() throws IOException {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    latch.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (exception != null) {
+                throw exception;
+            }
+            return journalId;
+        }
+    }
+}
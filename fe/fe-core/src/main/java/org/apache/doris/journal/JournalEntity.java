@@ -76,6 +76,7 @@ import org.apache.doris.persist.BatchDropInfo;
 import org.apache.doris.persist.BatchModifyPartitionsInfo;
 import org.apache.doris.persist.BatchRemoveTransactionsOperation;
 import org.apache.doris.persist.BatchRemoveTransactionsOperationV2;
+import org.apache.doris.persist.BinaryJournalCodec;
 import org.apache.doris.persist.BinlogGcInfo;
 import org.apache.doris.persist.CleanLabelOperationLog;
 import org.apache.doris.persist.CleanQueryStatsInfo;
@@ -183,7 +184,9 @@ public class JournalEntity implements Writable {
     @Override
     public void write(DataOutput out) throws IOException {
         out.writeShort(opCode);
-        data.write(out);
+        if (!BinaryJournalCodec.write(opCode, data, out)) {
+            data.write(out);
+        }
     }
 
     public void readFields(DataInput in) throws IOException {
@@ -42,6 +42,7 @@ import org.apache.doris.catalog.TabletMeta;
 import org.apache.doris.common.Config;
 import org.apache.doris.common.MetaNotFoundException;
 import org.apache.doris.common.Pair;
+import org.apache.doris.common.ThreadPoolManager;
 import org.apache.doris.common.util.Daemon;
 import org.apache.doris.common.util.NetUtils;
 import org.apache.doris.common.util.TimeUtils;
@@ -107,6 +108,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 public class ReportHandler extends Daemon {
@@ -114,6 +117,20 @@ public class ReportHandler extends Daemon {
 
     private BlockingQueue<ReportTask> reportQueue = Queues.newLinkedBlockingQueue();
 
+    // The reports are dispatched to the shards by backend id and handled in parallel,
+    // the reports of one backend are always handled by the same shard in order.
+    private final ThreadPoolExecutor[] reportShards;
+    // the number of reports which are received but not finished, include the ones in reportQueue
+    private final AtomicInteger pendingReportNum = new AtomicInteger(0);
+    // backend id -> the number of reports which are received but not finished
+    private final Map<Long, AtomicInteger> backendPendingReportNum = Maps.newConcurrentMap();
+    // backend id -> the generation of the last accepted tablet report, the base of next delta tablet report.
+    // It is not persisted, the backends send full reports after master changed.
+    private final Map<Long, Long> backendTabletReportGeneration = Maps.newConcurrentMap();
+    // the backends whose tablet report is skipped, their queued delta tablet reports are skipped until
+    // a full tablet report is handled.
+    private final Set<Long> staleTabletReportBackends = Sets.newConcurrentHashSet();
+
     private enum ReportType {
         UNKNOWN,
         TASK,
@@ -127,10 +144,16 @@ public class ReportHandler extends Daemon {
                 "report_queue_size", MetricUnit.NOUNIT, "report queue size") {
             @Override
             public Long getValue() {
-                return (long) reportQueue.size();
+                return (long) pendingReportNum.get();
             }
         };
         MetricRepo.DORIS_METRIC_REGISTER.addMetrics(gauge);
+        int shardNum = Math.max(1, Config.report_handler_shard_num);
+        reportShards = new ThreadPoolExecutor[shardNum];
+        for (int i = 0; i < shardNum; i++) {
+            reportShards[i] = ThreadPoolManager.newDaemonFixedThreadPool(1, Integer.MAX_VALUE,
+                    "report-shard-" + i, false);
+        }
     }
 
     public TMasterResult handleReport(TReportRequest request) throws TException {
@@ -156,6 +179,7 @@ public class ReportHandler extends Daemon {
         Map<TTaskType, Set<Long>> tasks = null;
         Map<String, TDisk> disks = null;
         Map<Long, TTablet> tablets = null;
+        List<Long> deletedTabletIds = null;
         Map<Long, Long> partitionsVersion = null;
         long reportVersion = -1;
 
@@ -182,6 +206,29 @@ public class ReportHandler extends Daemon {
             reportType = ReportType.TABLET;
         }
 
+        if (request.isIsDeltaTabletReport()) {
+            if (tablets == null) {
+                tablets = Maps.newHashMap();
+                reportVersion = request.getReportVersion();
+                reportType = ReportType.TABLET;
+            }
+            deletedTabletIds = request.isSetDeletedTabletIds() ? request.getDeletedTabletIds() : Lists.newArrayList();
+            if (!acceptDeltaTabletReport(beId, request.getTabletReportBaseGeneration(),
+                    request.getTabletReportGeneration())) {
+                LOG.info("reject delta tablet report from be {}, base generation: {}, current generation: {}",
+                        beId, request.getTabletReportBaseGeneration(), backendTabletReportGeneration.get(beId));
+                result.setNeedFullTabletReport(true);
+                tablets = null;
+                deletedTabletIds = null;
+            }
+        } else if (tablets != null) {
+            if (request.isSetTabletReportGeneration()) {
+                backendTabletReportGeneration.put(beId, request.getTabletReportGeneration());
+            } else {
+                backendTabletReportGeneration.remove(beId);
+            }
+        }
+
         if (request.isSetPartitionsVersion()) {
             partitionsVersion = request.getPartitionsVersion();
         }
@@ -190,35 +237,83 @@ public class ReportHandler extends Daemon {
             backend.setTabletMaxCompactionScore(request.getTabletMaxCompactionScore());
         }
 
-        ReportTask reportTask = new ReportTask(beId, tasks, disks, tablets, partitionsVersion, reportVersion,
-                request.getStoragePolicy(), request.getResource(), request.getNumCores(),
+        ReportTask reportTask = new ReportTask(beId, tasks, disks, tablets, deletedTabletIds, partitionsVersion,
+                reportVersion, request.getStoragePolicy(), request.getResource(), request.getNumCores(),
                 request.getPipelineExecutorSize());
         try {
             putToQueue(reportTask);
         } catch (Exception e) {
+            if (tablets != null) {
+                // the tablet report is discarded, the next delta report can't base on it
+                backendTabletReportGeneration.remove(beId);
+            }
             tStatus.setStatusCode(TStatusCode.INTERNAL_ERROR);
             List<String> errorMsgs = Lists.newArrayList();
-            errorMsgs.add("failed to put report task to queue. queue size: " + reportQueue.size());
+            errorMsgs.add("failed to put report task to queue. queue size: " + pendingReportNum.get());
             errorMsgs.add("err: " + e.getMessage());
             tStatus.setErrorMsgs(errorMsgs);
             return result;
         }
         LOG.info("receive report from be {}. type: {}, current queue size: {}",
-                backend.getId(), reportType, reportQueue.size());
+                backend.getId(), reportType, pendingReportNum.get());
         return result;
     }
 
     private void putToQueue(ReportTask reportTask) throws Exception {
-        int currentSize = reportQueue.size();
+        int currentSize = pendingReportNum.get();
         if (currentSize > Config.report_queue_size) {
             LOG.warn("the report queue size exceeds the limit: {}. current: {}", Config.report_queue_size, currentSize);
             throw new Exception(
                     "the report queue size exceeds the limit: "
                             + Config.report_queue_size + ". current: " + currentSize);
         }
+        pendingReportNum.incrementAndGet();
+        updateBackendPendingReportNum(reportTask.beId, 1);
         reportQueue.put(reportTask);
     }
 
+    /**
+     * A delta tablet report is accepted only if it is based on the last accepted tablet report of the backend.
+     * Otherwise some changes may be lost, and the backend should send a full tablet report.
+     */
+    private boolean acceptDeltaTabletReport(long beId, long baseGeneration, long generation) {
+        if (!Config.enable_delta_tablet_report) {
+            return false;
+        }
+        boolean[] accepted = new boolean[1];
+        backendTabletReportGeneration.computeIfPresent(beId, (id, current) -> {
+            accepted[0] = current == baseGeneration;
+            return accepted[0] ? generation : current;
+        });
+        return accepted[0];
+    }
+
+    // the tablet report is skipped, so the next delta tablet report of the backend should be rejected
+    private void invalidateTabletReportGeneration(long beId) {
+        backendTabletReportGeneration.remove(beId);
+    }
+
+    private void updateBackendPendingReportNum(long beId, int delta) {
+        int num = backendPendingReportNum.computeIfAbsent(beId, k -> new AtomicInteger(0)).addAndGet(delta);
+        if (MetricRepo.isInit) {
+            MetricRepo.BE_GAUGE_REPORT_QUEUE_SIZE.getOrAdd(String.valueOf(beId)).setValue((long) num);
+        }
+    }
+
+    private void handleReportInShard(ReportTask task) {
+        long start = System.currentTimeMillis();
+        try {
+            task.run();
+        } finally {
+            pendingReportNum.decrementAndGet();
+            updateBackendPendingReportNum(task.beId, -1);
+            if (MetricRepo.isInit) {
+                MetricRepo.BE_HISTO_REPORT_LATENCY.getOrAdd(String.valueOf(task.beId))
+                        .update(System.currentTimeMillis() - start);
+            }
+        }
+    }
+
     private Map<Long, TTablet> buildTabletMap(List<TTablet> tabletList) {
         Map<Long, TTablet> tabletMap = Maps.newHashMap();
         for (TTablet tTablet : tabletList) {
@@ -237,6 +332,8 @@ public class ReportHandler extends Daemon {
         private Map<TTaskType, Set<Long>> tasks;
         private Map<String, TDisk> disks;
         private Map<Long, TTablet> tablets;
+        // not null for delta tablet report
+        private List<Long> deletedTabletIds;
         private Map<Long, Long> partitionsVersion;
         private long reportVersion;
 
@@ -246,7 +343,7 @@ public class ReportHandler extends Daemon {
         private int pipelineExecutorSize;
 
         public ReportTask(long beId, Map<TTaskType, Set<Long>> tasks,
-                Map<String, TDisk> disks, Map<Long, TTablet> tablets,
+                Map<String, TDisk> disks, Map<Long, TTablet> tablets, List<Long> deletedTabletIds,
                 Map<Long, Long> partitionsVersion, long reportVersion,
                 List<TStoragePolicy> storagePolicies, List<TStorageResource> storageResources, int cpuCores,
                 int pipelineExecutorSize) {
@@ -254,6 +351,7 @@ public class ReportHandler extends Daemon {
             this.tasks = tasks;
             this.disks = disks;
             this.tablets = tablets;
+            this.deletedTabletIds = deletedTabletIds;
             this.partitionsVersion = partitionsVersion;
             this.reportVersion = reportVersion;
             this.storagePolicies = storagePolicies;
@@ -280,12 +378,20 @@ public class ReportHandler extends Daemon {
                 if (reportVersion < backendReportVersion) {
                     LOG.warn("out of date report version {} from backend[{}]. current report version[{}]",
                             reportVersion, beId, backendReportVersion);
+                    // the changes in the skipped report are lost, a full tablet report is needed
+                    staleTabletReportBackends.add(beId);
+                    invalidateTabletReportGeneration(beId);
+                } else if (deletedTabletIds != null && staleTabletReportBackends.contains(beId)) {
+                    LOG.info("skip delta tablet report from backend[{}] until a full tablet report", beId);
                 } else {
+                    if (deletedTabletIds == null) {
+                        staleTabletReportBackends.remove(beId);
+                    }
                     Map<Long, Long> partitions = this.partitionsVersion;
                     if (partitions == null) {
                         partitions = Maps.newHashMap();
                     }
-                    ReportHandler.tabletReport(beId, tablets, partitions, reportVersion);
+                    ReportHandler.tabletReport(beId, tablets, deletedTabletIds, partitions, reportVersion);
                 }
             }
         }
@@ -422,9 +528,21 @@ public class ReportHandler extends Daemon {
     // public for fe ut
     public static void tabletReport(long backendId, Map<Long, TTablet> backendTablets,
             Map<Long, Long> backendPartitionsVersion, long backendReportVersion) {
+        tabletReport(backendId, backendTablets, null, backendPartitionsVersion, backendReportVersion);
+    }
+
+    /**
+     * Handle the tablet report of the backend.
+     *
+     * @param deletedTabletIds null for a full report, otherwise the backendTablets only contain the tablets
+     *                         changed since the last report, and these are the tablets deleted since then.
+     */
+    public static void tabletReport(long backendId, Map<Long, TTablet> backendTablets,
+            List<Long> deletedTabletIds, Map<Long, Long> backendPartitionsVersion, long backendReportVersion) {
         long start = System.currentTimeMillis();
-        LOG.info("backend[{}] reports {} tablet(s). report version: {}",
-                backendId, backendTablets.size(), backendReportVersion);
+        LOG.info("backend[{}] reports {} tablet(s), {} deleted tablet(s). report version: {}",
+                backendId, backendTablets.size(), deletedTabletIds == null ? "-" : deletedTabletIds.size(),
+                backendReportVersion);
 
         // storage medium map
         HashMap<Long, TStorageMedium> storageMediumMap = Config.disable_storage_medium_check
@@ -455,7 +573,8 @@ public class ReportHandler extends Daemon {
         List<CooldownConf> cooldownConfToUpdate = new LinkedList<>();
 
         // 1. do the diff. find out (intersection) / (be - meta) / (meta - be)
-        Env.getCurrentInvertedIndex().tabletReport(backendId, backendTablets, backendPartitionsVersion,
+        Env.getCurrentInvertedIndex().tabletReport(backendId, backendTablets, deletedTabletIds,
+                backendPartitionsVersion,
                 storageMediumMap,
                 tabletSyncMap,
                 tabletDeleteFromMeta,
@@ -1403,10 +1522,10 @@ public class ReportHandler extends Daemon {
     @Override
     protected void runOneCycle() {
         while (true) {
-            ReportTask task = null;
             try {
-                task = reportQueue.take();
-                task.exec();
+                ReportTask task = reportQueue.take();
+                reportShards[(int) Math.floorMod(task.beId, (long) reportShards.length)]
+                        .execute(() -> handleReportInShard(task));
             } catch (InterruptedException e) {
                 LOG.warn("got interupted exception when executing report", e);
             }
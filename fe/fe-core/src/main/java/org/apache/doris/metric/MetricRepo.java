@@ -93,12 +93,17 @@ public final class MetricRepo {
     public static AutoMappedMetric<LongCounterMetric> BE_COUNTER_QUERY_RPC_ALL;
     public static AutoMappedMetric<LongCounterMetric> BE_COUNTER_QUERY_RPC_FAILED;
     public static AutoMappedMetric<LongCounterMetric> BE_COUNTER_QUERY_RPC_SIZE;
+    public static AutoMappedMetric<GaugeMetricImpl<Long>> BE_GAUGE_REPORT_QUEUE_SIZE;
+    public static AutoMappedMetric<Histogram> BE_HISTO_REPORT_LATENCY;
 
     public static LongCounterMetric COUNTER_CACHE_ADDED_SQL;
     public static LongCounterMetric COUNTER_CACHE_ADDED_PARTITION;
     public static LongCounterMetric COUNTER_CACHE_HIT_SQL;
     public static LongCounterMetric COUNTER_CACHE_HIT_PARTITION;
 
+    public static LongCounterMetric COUNTER_MANIFEST_DISK_CACHE_HIT;
+    public static LongCounterMetric COUNTER_MANIFEST_DISK_CACHE_MISS;
+
     public static LongCounterMetric COUNTER_EDIT_LOG_WRITE;
     public static LongCounterMetric COUNTER_EDIT_LOG_READ;
     public static LongCounterMetric COUNTER_EDIT_LOG_CURRENT;
@@ -111,6 +116,7 @@ public final class MetricRepo {
     public static Histogram HISTO_EDIT_LOG_WRITE_LATENCY;
     public static Histogram HISTO_JOURNAL_BATCH_SIZE;
     public static Histogram HISTO_JOURNAL_BATCH_DATA_SIZE;
+    public static Histogram HISTO_JOURNAL_BATCH_WAIT_LATENCY;
     public static Histogram HISTO_HTTP_COPY_INTO_UPLOAD_LATENCY;
     public static Histogram HISTO_HTTP_COPY_INTO_QUERY_LATENCY;
 
@@ -353,6 +359,11 @@ public final class MetricRepo {
             new LongCounterMetric("query_rpc_failed", MetricUnit.NOUNIT, ""));
         BE_COUNTER_QUERY_RPC_SIZE = addLabeledMetrics("be", () ->
             new LongCounterMetric("query_rpc_size", MetricUnit.BYTES, ""));
+        BE_GAUGE_REPORT_QUEUE_SIZE = addLabeledMetrics("be", () ->
+            new GaugeMetricImpl<>("be_report_queue_size", MetricUnit.NOUNIT,
+                    "number of pending reports of the backend", 0L));
+        BE_HISTO_REPORT_LATENCY = new AutoMappedMetric<>(beId -> METRIC_REGISTER.histogram(
+                MetricRegistry.name("report", "latency", "ms", "be=" + beId)));
 
         // cache
         COUNTER_CACHE_ADDED_SQL = new LongCounterMetric("cache_added", MetricUnit.REQUESTS,
@@ -371,6 +382,14 @@ public final class MetricRepo {
                 "total hits query by partition model");
         COUNTER_CACHE_HIT_PARTITION.addLabel(new MetricLabel("type", "partition"));
         DORIS_METRIC_REGISTER.addMetrics(COUNTER_CACHE_HIT_PARTITION);
+        COUNTER_MANIFEST_DISK_CACHE_HIT = new LongCounterMetric("manifest_disk_cache", MetricUnit.REQUESTS,
+                "total hits of the manifest disk cache of external tables");
+        COUNTER_MANIFEST_DISK_CACHE_HIT.addLabel(new MetricLabel("type", "hit"));
+        DORIS_METRIC_REGISTER.addMetrics(COUNTER_MANIFEST_DISK_CACHE_HIT);
+        COUNTER_MANIFEST_DISK_CACHE_MISS = new LongCounterMetric("manifest_disk_cache", MetricUnit.REQUESTS,
+                "total misses of the manifest disk cache of external tables");
+        COUNTER_MANIFEST_DISK_CACHE_MISS.addLabel(new MetricLabel("type", "miss"));
+        DORIS_METRIC_REGISTER.addMetrics(COUNTER_MANIFEST_DISK_CACHE_MISS);
 
         // edit log
         COUNTER_EDIT_LOG_WRITE = new LongCounterMetric("edit_log", MetricUnit.OPERATIONS,
@@ -405,6 +424,8 @@ public final class MetricRepo {
                 MetricRegistry.name("journal", "write", "batch_size"));
         HISTO_JOURNAL_BATCH_DATA_SIZE = METRIC_REGISTER.histogram(
                 MetricRegistry.name("journal", "write", "batch_data_size"));
+        HISTO_JOURNAL_BATCH_WAIT_LATENCY = METRIC_REGISTER.histogram(
+                MetricRegistry.name("journal", "write", "batch_wait", "ms"));
 
         // edit log clean
         COUNTER_EDIT_LOG_CLEAN_SUCCESS = new LongCounterMetric("edit_log_clean", MetricUnit.OPERATIONS,
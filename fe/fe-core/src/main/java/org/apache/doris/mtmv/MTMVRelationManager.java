@@ -114,17 +114,13 @@ public class MTMVRelationManager implements MTMVHookService {
     }
 
     private Set<BaseTableInfo> getOrCreateMTMVs(BaseTableInfo baseTableInfo) {
-        if (!tableMTMVs.containsKey(baseTableInfo)) {
-            tableMTMVs.put(baseTableInfo, Sets.newConcurrentHashSet());
-        }
-        return tableMTMVs.get(baseTableInfo);
+        // the mtmvs may be registered concurrently when loading the databases of image in parallel
+        return tableMTMVs.computeIfAbsent(baseTableInfo, k -> Sets.newConcurrentHashSet());
     }
 
     private Set<BaseTableInfo> getOrCreateMTMVsOneLevel(BaseTableInfo baseTableInfo) {
-        if (!tableMTMVsOneLevel.containsKey(baseTableInfo)) {
-            tableMTMVsOneLevel.put(baseTableInfo, Sets.newConcurrentHashSet());
-        }
-        return tableMTMVsOneLevel.get(baseTableInfo);
+        // the mtmvs may be registered concurrently when loading the databases of image in parallel
+        return tableMTMVsOneLevel.computeIfAbsent(baseTableInfo, k -> Sets.newConcurrentHashSet());
     }
 
     public void refreshMTMVCache(MTMVRelation relation, BaseTableInfo mtmvInfo) {
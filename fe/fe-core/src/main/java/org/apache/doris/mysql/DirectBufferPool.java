@@ -0,0 +1,69 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.mysql;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of the fixed size direct buffers.
+ *
+ * The result rows are encoded into the direct buffers before written to the socket, so the buffers are not
+ * copied again into the temporary direct buffers of the JDK. The buffers are shared by all the connections,
+ * at most maxPooledNum buffers are kept, the others are released to GC after used.
+ */
+public class DirectBufferPool {
+    private final int bufferSize;
+    private final int maxPooledNum;
+    private final ConcurrentLinkedQueue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledNum = new AtomicInteger();
+
+    public DirectBufferPool(int bufferSize, int maxPooledNum) {
+        this.bufferSize = bufferSize;
+        this.maxPooledNum = maxPooledNum;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    // the returned buffer is cleared
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        pooledNum.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    // the buffer must not be used after released
+    public void release(ByteBuffer buffer) {
+        if (pooledNum.incrementAndGet() <= maxPooledNum) {
+            buffers.offer(buffer);
+        } else {
+            pooledNum.decrementAndGet();
+        }
+    }
+
+    // for ut
+    int getPooledNum() {
+        return pooledNum.get();
+    }
+}
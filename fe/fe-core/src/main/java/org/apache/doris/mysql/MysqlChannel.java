@@ -17,6 +17,7 @@
 
 package org.apache.doris.mysql;
 
+import org.apache.doris.common.Config;
 import org.apache.doris.common.ConnectionException;
 import org.apache.doris.common.util.NetUtils;
 import org.apache.doris.qe.ConnectContext;
@@ -32,6 +33,7 @@ import org.xnio.channels.Channels;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import javax.net.ssl.SSLEngine;
 import javax.net.ssl.SSLEngineResult;
@@ -52,6 +54,13 @@ public class MysqlChannel implements BytesChannel {
     protected static final int PACKET_HEADER_LEN = 4;
     // SSL packet header length
     protected static final int SSL_PACKET_HEADER_LEN = 5;
+    // the rows not larger than this are copied into the direct buffer in sendRows, the others are written as is
+    private static final int COPY_ROW_MAX_LEN = 4 * 1024;
+    // the max number of buffers in one gathering write
+    private static final int MAX_GATHER_BUFFER_NUM = 512;
+    // the max bytes written in one gathering write
+    private static final int MAX_GATHER_BYTES = 2 * 1024 * 1024;
+    private static final DirectBufferPool DIRECT_BUFFER_POOL = new DirectBufferPool(256 * 1024, 64);
     // next sequence id to receive or send
     protected int sequenceId;
     // channel connected with client
@@ -412,6 +421,12 @@ public class MysqlChannel implements BytesChannel {
 
     protected void realNetSend(ByteBuffer buffer) throws IOException {
         buffer = encryptData(buffer);
+        writeBlocking(buffer);
+        Channels.flushBlocking(conn.getSinkChannel(), context.getNetWriteTimeout(), TimeUnit.SECONDS);
+        isSend = true;
+    }
+
+    private void writeBlocking(ByteBuffer buffer) throws IOException {
         long bufLen = buffer.remaining();
         long start = System.currentTimeMillis();
         long writeLen = Channels.writeBlocking(conn.getSinkChannel(), buffer, context.getNetWriteTimeout(),
@@ -421,10 +436,56 @@ public class MysqlChannel implements BytesChannel {
             throw new ConnectionException("Write mysql packet failed.[write=" + writeLen
                     + ", needToWrite=" + bufLen + "], duration: " + duration + " ms");
         }
+    }
+
+    // write the buffers by gathering writes, the buffers are encrypted in ssl mode
+    private void realNetSend(ByteBuffer[] buffers, int bufferNum, long bufLen) throws IOException {
+        if (isSslMode) {
+            encryptAndSend(buffers, bufferNum);
+        } else {
+            long start = System.currentTimeMillis();
+            long writeLen = Channels.writeBlocking(conn.getSinkChannel(), buffers, 0, bufferNum,
+                    context.getNetWriteTimeout(), TimeUnit.SECONDS);
+            if (bufLen != writeLen) {
+                long duration = System.currentTimeMillis() - start;
+                throw new ConnectionException("Write mysql packets failed.[write=" + writeLen
+                        + ", needToWrite=" + bufLen + "], duration: " + duration + " ms");
+            }
+        }
         Channels.flushBlocking(conn.getSinkChannel(), context.getNetWriteTimeout(), TimeUnit.SECONDS);
         isSend = true;
     }
 
+    // the ssl records of the buffers are accumulated in encryptNetData, and written when it is nearly full
+    private void encryptAndSend(ByteBuffer[] buffers, int bufferNum) throws IOException {
+        int packetBufferSize = sslEngine.getSession().getPacketBufferSize();
+        int offset = 0;
+        encryptNetData.clear();
+        while (offset < bufferNum) {
+            if (encryptNetData.remaining() < packetBufferSize && encryptNetData.position() > 0) {
+                encryptNetData.flip();
+                writeBlocking(encryptNetData);
+                encryptNetData.clear();
+            }
+            SSLEngineResult result = sslEngine.wrap(buffers, offset, bufferNum - offset, encryptNetData);
+            if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+                sslEngine.closeOutbound();
+                throw new ConnectionException("Write mysql packets failed, the ssl engine is closed");
+            }
+            if (!handleWrapResult(result)) {
+                continue;
+            }
+            while (offset < bufferNum && !buffers[offset].hasRemaining()) {
+                offset++;
+            }
+        }
+        if (encryptNetData.position() > 0) {
+            encryptNetData.flip();
+            writeBlocking(encryptNetData);
+        }
+        encryptNetData.clear();
+    }
+
     protected ByteBuffer encryptData(ByteBuffer dstBuf) throws SSLException {
         if (!isSslMode) {
             return dstBuf;
@@ -517,6 +578,10 @@ public class MysqlChannel implements BytesChannel {
     }
 
     public void sendOnePacket(Object[] rows) throws IOException {
+        if (sendBuffer != null && !isSslHandshaking && writeRowToSendBuffer(rows)) {
+            accSequenceId();
+            return;
+        }
         ByteBuffer packet;
         serializer.reset();
         for (Object value : rows) {
@@ -528,6 +593,178 @@ public class MysqlChannel implements BytesChannel {
         sendOnePacket(packet);
     }
 
+    // encode the row into sendBuffer directly, the packet header is patched after the row is encoded.
+    // return false and leave sendBuffer unchanged if the remaining of sendBuffer is not enough.
+    private boolean writeRowToSendBuffer(Object[] rows) {
+        int headerPos = sendBuffer.position();
+        if (sendBuffer.remaining() < PACKET_HEADER_LEN) {
+            return false;
+        }
+        sendBuffer.position(headerPos + PACKET_HEADER_LEN);
+        for (Object value : rows) {
+            byte[] bytes = String.valueOf(value).getBytes();
+            // at most 9 bytes for the length
+            if (sendBuffer.remaining() < bytes.length + 9) {
+                sendBuffer.position(headerPos);
+                return false;
+            }
+            writeVInt(sendBuffer, bytes.length);
+            sendBuffer.put(bytes);
+        }
+        int length = sendBuffer.position() - headerPos - PACKET_HEADER_LEN;
+        if (length >= MAX_PHYSICAL_PACKET_LENGTH) {
+            sendBuffer.position(headerPos);
+            return false;
+        }
+        sendBuffer.put(headerPos, (byte) length);
+        sendBuffer.put(headerPos + 1, (byte) (length >> 8));
+        sendBuffer.put(headerPos + 2, (byte) (length >> 16));
+        sendBuffer.put(headerPos + 3, (byte) sequenceId);
+        return true;
+    }
+
+    // same as MysqlSerializer.writeVInt
+    private static void writeVInt(ByteBuffer buffer, long value) {
+        if (value < 251) {
+            buffer.put((byte) value);
+        } else if (value < 0x10000) {
+            buffer.put((byte) 252);
+            buffer.put((byte) value);
+            buffer.put((byte) (value >> 8));
+        } else if (value < 0x1000000) {
+            buffer.put((byte) 253);
+            buffer.put((byte) value);
+            buffer.put((byte) (value >> 8));
+            buffer.put((byte) (value >> 16));
+        } else {
+            buffer.put((byte) 254);
+            for (int i = 0; i < 8; i++) {
+                buffer.put((byte) (value >> (8 * i)));
+            }
+        }
+    }
+
+    /**
+     * Send the rows of a result batch, each row is one packet.
+     *
+     * Different from sendOnePacket, the rows are not copied into sendBuffer and are written before return.
+     * The small rows are encoded with their packet headers into a pooled direct buffer, the large rows are
+     * written as they are, and all of them are written by gathering writes. The packets buffered in sendBuffer
+     * (eg. the fields) are written before the rows.
+     * If the rows can be buffered in sendBuffer, they are sent by sendOnePacket, so the small result is still
+     * not sent until flush, and the query can be retried or return an error before that.
+     */
+    public void sendRows(List<ByteBuffer> rows) throws IOException {
+        if (!Config.enable_mysql_batch_send_rows || sendBuffer == null || isSslHandshaking
+                || !needGatheringWrite(rows)) {
+            for (ByteBuffer row : rows) {
+                sendOnePacket(row);
+            }
+            return;
+        }
+        GatheringRowWriter writer = new GatheringRowWriter();
+        try {
+            if (sendBuffer.position() > 0) {
+                sendBuffer.flip();
+                writer.add(sendBuffer);
+            }
+            for (ByteBuffer row : rows) {
+                writer.writeRow(row);
+            }
+            writer.flush();
+        } finally {
+            writer.release();
+            sendBuffer.clear();
+        }
+    }
+
+    // the rows can't be buffered in sendBuffer, and no row needs to be split to multiple packets
+    private boolean needGatheringWrite(List<ByteBuffer> rows) {
+        long length = 0;
+        for (ByteBuffer row : rows) {
+            if (row.remaining() >= MAX_PHYSICAL_PACKET_LENGTH) {
+                return false;
+            }
+            length += PACKET_HEADER_LEN + row.remaining();
+        }
+        return length > sendBuffer.remaining();
+    }
+
+    private static void putHeader(ByteBuffer buffer, int length, int sequenceId) {
+        buffer.put((byte) length);
+        buffer.put((byte) (length >> 8));
+        buffer.put((byte) (length >> 16));
+        buffer.put((byte) sequenceId);
+    }
+
+    /**
+     * Collect the buffers of the packets of sendRows, and write them by gathering writes.
+     * The direct buffer is sliced into segments between the large rows, so the buffers are kept in order.
+     */
+    private class GatheringRowWriter {
+        // one more for the last segment of the direct buffer
+        private final ByteBuffer[] buffers = new ByteBuffer[MAX_GATHER_BUFFER_NUM + 1];
+        private final ByteBuffer direct = DIRECT_BUFFER_POOL.acquire();
+        private int bufferNum = 0;
+        private long pendingBytes = 0;
+        private int segmentStart = 0;
+
+        private void add(ByteBuffer buffer) {
+            buffers[bufferNum++] = buffer;
+            pendingBytes += buffer.remaining();
+        }
+
+        private void writeRow(ByteBuffer row) throws IOException {
+            int length = row.remaining();
+            if (length <= COPY_ROW_MAX_LEN) {
+                if (direct.remaining() < PACKET_HEADER_LEN + length) {
+                    flush();
+                }
+                putHeader(direct, length, sequenceId);
+                direct.put(row.duplicate());
+            } else {
+                if (direct.remaining() < PACKET_HEADER_LEN || bufferNum + 2 > MAX_GATHER_BUFFER_NUM) {
+                    flush();
+                }
+                putHeader(direct, length, sequenceId);
+                closeSegment();
+                add(row.duplicate());
+            }
+            accSequenceId();
+            if (pendingBytes + direct.position() - segmentStart >= MAX_GATHER_BYTES) {
+                flush();
+            }
+        }
+
+        private void closeSegment() {
+            if (direct.position() > segmentStart) {
+                ByteBuffer segment = direct.duplicate();
+                segment.position(segmentStart);
+                segment.limit(direct.position());
+                add(segment);
+                segmentStart = direct.position();
+            }
+        }
+
+        private void flush() throws IOException {
+            closeSegment();
+            if (bufferNum > 0) {
+                realNetSend(buffers, bufferNum, pendingBytes);
+            }
+            for (int i = 0; i < bufferNum; i++) {
+                buffers[i] = null;
+            }
+            bufferNum = 0;
+            pendingBytes = 0;
+            direct.clear();
+            segmentStart = 0;
+        }
+
+        private void release() {
+            DIRECT_BUFFER_POOL.release(direct);
+        }
+    }
+
     public void sendAndFlush(ByteBuffer packet) throws IOException {
         sendOnePacket(packet);
         flush();
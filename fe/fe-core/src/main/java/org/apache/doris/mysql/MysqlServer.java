@@ -51,8 +51,11 @@ public class MysqlServer {
     private AcceptingChannel<StreamConnection> server;
 
     // default task service.
-    private ExecutorService taskService = ThreadPoolManager.newDaemonCacheThreadPoolThrowException(
-            Config.max_mysql_service_task_threads_num, "mysql-nio-pool", true);
+    private ExecutorService taskService = Config.enable_mysql_service_virtual_thread
+            ? ThreadPoolManager.newDaemonVirtualCacheThreadPoolThrowException(
+                    Config.max_mysql_service_task_threads_num, "mysql-nio-pool", true)
+            : ThreadPoolManager.newDaemonCacheThreadPoolThrowException(
+                    Config.max_mysql_service_task_threads_num, "mysql-nio-pool", true);
 
     public MysqlServer(int port, ConnectScheduler connectScheduler) {
         this.port = port;
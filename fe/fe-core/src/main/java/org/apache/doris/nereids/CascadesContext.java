@@ -37,6 +37,7 @@ import org.apache.doris.nereids.jobs.rewrite.RootPlanTreeRewriteJob.RootRewriteJ
 import org.apache.doris.nereids.jobs.scheduler.JobPool;
 import org.apache.doris.nereids.jobs.scheduler.JobScheduler;
 import org.apache.doris.nereids.jobs.scheduler.JobStack;
+import org.apache.doris.nereids.jobs.scheduler.ParallelJobScheduler;
 import org.apache.doris.nereids.jobs.scheduler.ScheduleContext;
 import org.apache.doris.nereids.jobs.scheduler.SimpleJobScheduler;
 import org.apache.doris.nereids.memo.Group;
@@ -249,6 +250,12 @@ public class CascadesContext implements ScheduleContext {
 
     @Override
     public void pushJob(Job job) {
+        // the jobs pushed in ParallelJobScheduler are collected by the scheduler of current thread
+        JobPool currentJobPool = ParallelJobScheduler.getCurrentJobPool(this);
+        if (currentJobPool != null) {
+            currentJobPool.push(job);
+            return;
+        }
         jobPool.push(job);
     }
 
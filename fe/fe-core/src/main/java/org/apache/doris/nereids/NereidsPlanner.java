@@ -66,6 +66,7 @@ import org.apache.doris.planner.Planner;
 import org.apache.doris.planner.RuntimeFilter;
 import org.apache.doris.planner.ScanNode;
 import org.apache.doris.qe.ConnectContext;
+import org.apache.doris.qe.GenericPlanContext;
 import org.apache.doris.qe.ResultSet;
 import org.apache.doris.qe.SessionVariable;
 
@@ -198,13 +199,28 @@ public class NereidsPlanner extends Planner {
                 }
             }
 
+            GenericPlanContext genericPlanContext = statementContext.getGenericPlanContext();
+            if (genericPlanContext == null || genericPlanContext.getLogicalPlan() != plan
+                    || explainLevel != ExplainLevel.NONE || showPlanProcess) {
+                genericPlanContext = null;
+            }
+
             // pre-process logical plan out of memo, e.g. process SET_VAR hint
             plan = preprocess(plan);
 
+            if (genericPlanContext != null && genericPlanContext.hasGenericPlan()) {
+                Optional<PhysicalPlan> genericPlan = planWithGenericPlan(plan, requireProperties,
+                        genericPlanContext, lockCallback);
+                if (genericPlan.isPresent()) {
+                    return genericPlan.get();
+                }
+            }
+
             initCascadesContext(plan, requireProperties);
 
             try (Lock lock = new Lock(plan, cascadesContext)) {
-                Plan resultPlan = planWithoutLock(plan, explainLevel, showPlanProcess, requireProperties);
+                Plan resultPlan = planWithoutLock(plan, explainLevel, showPlanProcess, requireProperties,
+                        genericPlanContext);
                 lockCallback.accept(resultPlan);
                 return resultPlan;
             }
@@ -213,12 +229,43 @@ public class NereidsPlanner extends Planner {
         }
     }
 
+    /**
+     * Bind the values of the placeholders into the generic plan of the prepared statement,
+     * skip the analysis, rewriting and optimization.
+     *
+     * @return the plan, or empty if the statement needs a custom plan
+     */
+    private Optional<PhysicalPlan> planWithGenericPlan(LogicalPlan plan, PhysicalProperties requireProperties,
+            GenericPlanContext genericPlanContext, Consumer<Plan> lockCallback) {
+        initCascadesContext(plan, requireProperties);
+        cascadesContext.setTables(genericPlanContext.getTables());
+        try (Lock lock = new Lock(plan, cascadesContext)) {
+            Optional<PhysicalPlan> boundPlan = genericPlanContext.bindGenericPlan(cascadesContext);
+            if (!boundPlan.isPresent()) {
+                return Optional.empty();
+            }
+            if (statementContext.getConnectContext().getExecutor() != null) {
+                SummaryProfile summaryProfile = statementContext.getConnectContext().getExecutor()
+                        .getSummaryProfile();
+                summaryProfile.setQueryAnalysisFinishTime();
+                summaryProfile.setNereidsAnalysisTime();
+                summaryProfile.setNereidsRewriteTime();
+                summaryProfile.setNereidsOptimizeTime();
+            }
+            physicalPlan = postProcess(boundPlan.get());
+            lockCallback.accept(physicalPlan);
+            return Optional.of(physicalPlan);
+        }
+    }
+
     private Plan planWithoutLock(
             LogicalPlan plan, ExplainLevel explainLevel,
-            boolean showPlanProcess, PhysicalProperties requireProperties) {
+            boolean showPlanProcess, PhysicalProperties requireProperties,
+            GenericPlanContext genericPlanContext) {
         // resolve column, table and function
         // analyze this query
         analyze(showAnalyzeProcess(explainLevel, showPlanProcess));
+        Plan analyzedPlanForGenericPlan = cascadesContext.getRewritePlan();
         // minidump of input must be serialized first, this process ensure minidump string not null
         try {
             MinidumpUtils.serializeInputsToDumpFile(plan, cascadesContext.getTables());
@@ -265,6 +312,9 @@ public class NereidsPlanner extends Planner {
 
         int nth = cascadesContext.getConnectContext().getSessionVariable().getNthOptimizedPlan();
         PhysicalPlan physicalPlan = chooseNthPlan(getRoot(), requireProperties, nth);
+        if (genericPlanContext != null) {
+            genericPlanContext.addCustomPlan(analyzedPlanForGenericPlan, physicalPlan, cascadesContext);
+        }
 
         physicalPlan = postProcess(physicalPlan);
         if (cascadesContext.getConnectContext().getSessionVariable().dumpNereidsMemo) {
@@ -42,6 +42,7 @@ import org.apache.doris.nereids.trees.plans.algebra.Relation;
 import org.apache.doris.nereids.trees.plans.logical.LogicalCTEConsumer;
 import org.apache.doris.nereids.trees.plans.logical.LogicalPlan;
 import org.apache.doris.qe.ConnectContext;
+import org.apache.doris.qe.GenericPlanContext;
 import org.apache.doris.qe.OriginStatement;
 import org.apache.doris.qe.SessionVariable;
 import org.apache.doris.qe.ShortCircuitQueryContext;
@@ -164,10 +165,20 @@ public class StatementContext implements Closeable {
 
     private ShortCircuitQueryContext shortCircuitQueryContext;
 
+    // the generic plan of the prepared statement, only set when executing a prepared query
+    private GenericPlanContext genericPlanContext;
+
+    // the parsing time saved by the parsed statement cache, in nanoseconds
+    private long parseSqlSavedTime = 0;
+
     private FormatOptions formatOptions = FormatOptions.getDefault();
 
     private List<PlannerHook> plannerHooks = new ArrayList<>();
 
+    // table id -> the partitions which are not hit in the partition cache, only these partitions of the table
+    // are read when the query is planned again for the partition cache, see NereidsPartitionCache
+    private final Map<Long, Set<Long>> partitionCacheMissedPartitions = new HashMap<>();
+
     public StatementContext() {
         this(ConnectContext.get(), null, 0);
     }
@@ -189,7 +200,7 @@ public class StatementContext implements Closeable {
         exprIdGenerator = ExprId.createGenerator(initialId);
         if (connectContext != null && connectContext.getSessionVariable() != null
                 && connectContext.queryId() != null
-                && CacheAnalyzer.canUseSqlCache(connectContext.getSessionVariable())) {
+                && CacheAnalyzer.canUseCache(connectContext.getSessionVariable())) {
             this.sqlCacheContext = new SqlCacheContext(
                     connectContext.getCurrentUserIdentity(), connectContext.queryId());
             if (originStatement != null) {
@@ -255,6 +266,22 @@ public class StatementContext implements Closeable {
         this.shortCircuitQueryContext = shortCircuitQueryContext;
     }
 
+    public GenericPlanContext getGenericPlanContext() {
+        return genericPlanContext;
+    }
+
+    public void setGenericPlanContext(GenericPlanContext genericPlanContext) {
+        this.genericPlanContext = genericPlanContext;
+    }
+
+    public long getParseSqlSavedTime() {
+        return parseSqlSavedTime;
+    }
+
+    public void setParseSqlSavedTime(long parseSqlSavedTimeNs) {
+        this.parseSqlSavedTime = parseSqlSavedTimeNs;
+    }
+
     public Optional<SqlCacheContext> getSqlCacheContext() {
         return Optional.ofNullable(sqlCacheContext);
     }
@@ -501,6 +528,14 @@ public class StatementContext implements Closeable {
         this.plannerHooks.add(plannerHook);
     }
 
+    public void setPartitionCacheMissedPartitions(long tableId, Set<Long> partitionIds) {
+        partitionCacheMissedPartitions.put(tableId, partitionIds);
+    }
+
+    public Optional<Set<Long>> getPartitionCacheMissedPartitions(long tableId) {
+        return Optional.ofNullable(partitionCacheMissedPartitions.get(tableId));
+    }
+
     private static class CloseableResource implements Closeable {
         public final String resourceName;
         public final String threadName;
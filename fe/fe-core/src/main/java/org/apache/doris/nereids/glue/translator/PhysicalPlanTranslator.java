@@ -66,6 +66,7 @@ import org.apache.doris.datasource.paimon.PaimonExternalTable;
 import org.apache.doris.datasource.paimon.source.PaimonScanNode;
 import org.apache.doris.datasource.trinoconnector.TrinoConnectorExternalTable;
 import org.apache.doris.datasource.trinoconnector.source.TrinoConnectorScanNode;
+import org.apache.doris.nereids.StatementContext;
 import org.apache.doris.nereids.exceptions.AnalysisException;
 import org.apache.doris.nereids.properties.DistributionSpec;
 import org.apache.doris.nereids.properties.DistributionSpecAny;
@@ -219,6 +220,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
@@ -796,7 +798,20 @@ public class PhysicalPlanTranslator extends DefaultPlanVisitor<PlanFragment, Pla
         TableRef ref = new TableRef(tableName, null, null);
         BaseTableRef tableRef = new BaseTableRef(ref, olapTable, tableName);
         tupleDescriptor.setRef(tableRef);
-        olapScanNode.setSelectedPartitionIds(olapScan.getSelectedPartitionIds());
+        Collection<Long> selectedPartitionIds = olapScan.getSelectedPartitionIds();
+        StatementContext statementContext = context.getConnectContext() == null
+                ? null : context.getConnectContext().getStatementContext();
+        if (statementContext != null) {
+            Optional<Set<Long>> partitionCacheMissed
+                    = statementContext.getPartitionCacheMissedPartitions(olapTable.getId());
+            if (partitionCacheMissed.isPresent()) {
+                // the results of the other partitions are read from the partition cache
+                selectedPartitionIds = selectedPartitionIds.stream()
+                        .filter(partitionCacheMissed.get()::contains)
+                        .collect(Collectors.toList());
+            }
+        }
+        olapScanNode.setSelectedPartitionIds(selectedPartitionIds);
         olapScanNode.setSampleTabletIds(olapScan.getSelectedTabletIds());
         if (olapScan.getTableSample().isPresent()) {
             olapScanNode.setTableSample(new TableSample(olapScan.getTableSample().get().isPercent,
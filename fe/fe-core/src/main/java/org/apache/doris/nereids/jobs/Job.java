@@ -89,6 +89,23 @@ public abstract class Job implements TracerSupplier {
 
     public abstract void execute();
 
+    /**
+     * Whether this job could be executed concurrently with its sibling jobs by
+     * {@link org.apache.doris.nereids.jobs.scheduler.ParallelJobScheduler}.
+     * Sibling jobs are the jobs pushed by the same parent job. A parallelizable job must only write the state of
+     * {@link #getTargetGroup()} and the groups below it, and must hold the lock of the group it writes.
+     */
+    public boolean isParallelizable() {
+        return false;
+    }
+
+    /**
+     * The group whose state is written by this job, jobs with same target group are always executed serially.
+     */
+    public Optional<Group> getTargetGroup() {
+        return Optional.empty();
+    }
+
     public EventProducer getEventTracer() {
         throw new UnsupportedOperationException("get_event_tracer is unsupported");
     }
@@ -36,6 +36,7 @@ import org.apache.doris.statistics.Statistics;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Job to derive stats for {@link GroupExpression} in {@link org.apache.doris.nereids.memo.Memo}.
@@ -103,31 +104,69 @@ public class DeriveStatsJob extends Job {
                 }
             }
         } else {
-            ConnectContext connectContext = context.getCascadesContext().getConnectContext();
-            SessionVariable sessionVariable = connectContext.getSessionVariable();
-            StatsCalculator statsCalculator = StatsCalculator.estimate(groupExpression,
-                    sessionVariable.getForbidUnknownColStats(),
-                    connectContext.getTotalColumnStatisticMap(),
-                    sessionVariable.isPlayNereidsDump(),
-                    cteIdToStats,
-                    context.getCascadesContext());
-            STATS_STATE_TRACER.log(StatsStateEvent.of(groupExpression,
-                    groupExpression.getOwnerGroup().getStatistics()));
-            if (sessionVariable.isEnableMinidump() && !sessionVariable.isPlayNereidsDump()) {
-                connectContext.getTotalColumnStatisticMap().putAll(statsCalculator.getTotalColumnStatisticMap());
-                connectContext.getTotalHistogramMap().putAll(statsCalculator.getTotalHistogramMap());
+            Group ownerGroup = groupExpression.getOwnerGroup();
+            ownerGroup.lock();
+            try {
+                // another job on a shared group may derive it concurrently in ParallelJobScheduler
+                if (!groupExpression.isStatDerived()) {
+                    deriveStats();
+                }
+            } finally {
+                ownerGroup.unlock();
             }
+        }
+    }
 
-            if (groupExpression.getPlan() instanceof Project) {
-                // In the context of reorder join, when a new plan is generated, it may include a project operation.
-                // In this case, the newly generated join root and the original join root will no longer be in the
-                // same group. To avoid inconsistencies in the statistics between these two groups, we keep the
-                // child group's row count unchanged when the parent group expression is a project operation.
-                double parentRowCount = groupExpression.getOwnerGroup().getStatistics().getRowCount();
-                groupExpression.children().forEach(g -> g.setStatistics(
-                        g.getStatistics().withRowCountAndEnforceValid(parentRowCount))
-                );
+    private void deriveStats() {
+        ConnectContext connectContext = context.getCascadesContext().getConnectContext();
+        SessionVariable sessionVariable = connectContext.getSessionVariable();
+        StatsCalculator statsCalculator = StatsCalculator.estimate(groupExpression,
+                sessionVariable.getForbidUnknownColStats(),
+                connectContext.getTotalColumnStatisticMap(),
+                sessionVariable.isPlayNereidsDump(),
+                cteIdToStats,
+                context.getCascadesContext());
+        STATS_STATE_TRACER.log(StatsStateEvent.of(groupExpression,
+                groupExpression.getOwnerGroup().getStatistics()));
+        if (sessionVariable.isEnableMinidump() && !sessionVariable.isPlayNereidsDump()) {
+            connectContext.getTotalColumnStatisticMap().putAll(statsCalculator.getTotalColumnStatisticMap());
+            connectContext.getTotalHistogramMap().putAll(statsCalculator.getTotalHistogramMap());
+        }
+
+        if (groupExpression.getPlan() instanceof Project) {
+            // In the context of reorder join, when a new plan is generated, it may include a project operation.
+            // In this case, the newly generated join root and the original join root will no longer be in the
+            // same group. To avoid inconsistencies in the statistics between these two groups, we keep the
+            // child group's row count unchanged when the parent group expression is a project operation.
+            double parentRowCount = groupExpression.getOwnerGroup().getStatistics().getRowCount();
+            for (Group child : groupExpression.children()) {
+                child.lock();
+                try {
+                    child.setStatistics(child.getStatistics().withRowCountAndEnforceValid(parentRowCount));
+                } finally {
+                    child.unlock();
+                }
             }
         }
     }
+
+    /**
+     * Stats of different child groups could be derived in parallel, except:
+     * 1. the job derive stats of the parent after its children, it must wait for its children
+     * 2. the statement contains cte, the stats of cte consumers depend on the derive order of the cte producer
+     * 3. the minidump collects the column statistics into a non thread-safe map
+     */
+    @Override
+    public boolean isParallelizable() {
+        ConnectContext connectContext = context.getCascadesContext().getConnectContext();
+        return !deriveChildren
+                && cteIdToStats.isEmpty()
+                && context.getCascadesContext().getCteIdToConsumers().isEmpty()
+                && !connectContext.getSessionVariable().isEnableMinidump();
+    }
+
+    @Override
+    public Optional<Group> getTargetGroup() {
+        return Optional.of(groupExpression.getOwnerGroup());
+    }
 }
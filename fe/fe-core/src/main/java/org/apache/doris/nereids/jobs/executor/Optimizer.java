@@ -17,10 +17,12 @@
 
 package org.apache.doris.nereids.jobs.executor;
 
+import org.apache.doris.common.Config;
 import org.apache.doris.nereids.CascadesContext;
 import org.apache.doris.nereids.jobs.cascades.DeriveStatsJob;
 import org.apache.doris.nereids.jobs.cascades.OptimizeGroupJob;
 import org.apache.doris.nereids.jobs.joinorder.JoinOrderJob;
+import org.apache.doris.nereids.jobs.scheduler.ParallelJobScheduler;
 import org.apache.doris.nereids.memo.Group;
 import org.apache.doris.qe.ConnectContext;
 import org.apache.doris.qe.SessionVariable;
@@ -49,7 +51,13 @@ public class Optimizer {
         // stats derive
         cascadesContext.pushJob(new DeriveStatsJob(cascadesContext.getMemo().getRoot().getLogicalExpression(),
                 cascadesContext.getCurrentJobContext()));
-        cascadesContext.getJobScheduler().executeJobPool(cascadesContext);
+        if (getSessionVariable().isEnableParallelDeriveStats()
+                && Config.nereids_parallel_derive_stats_thread_num > 0) {
+            // the memo is not changed while deriving the stats, so the independent groups are computed only once
+            new ParallelJobScheduler(cascadesContext.getMemo()).executeJobPool(cascadesContext);
+        } else {
+            cascadesContext.getJobScheduler().executeJobPool(cascadesContext);
+        }
         boolean optimizeWithUnknownColStats = false;
         if (ConnectContext.get() != null && ConnectContext.get().getStatementContext() != null) {
             if (ConnectContext.get().getStatementContext().isHasUnknownColStats()) {
@@ -0,0 +1,262 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.nereids.jobs.scheduler;
+
+import org.apache.doris.common.Config;
+import org.apache.doris.common.ThreadPoolManager;
+import org.apache.doris.nereids.CascadesContext;
+import org.apache.doris.nereids.jobs.Job;
+import org.apache.doris.nereids.memo.Group;
+import org.apache.doris.nereids.memo.GroupExpression;
+import org.apache.doris.nereids.memo.Memo;
+import org.apache.doris.qe.ConnectContext;
+import org.apache.doris.qe.SessionVariable;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Work-stealing scheduler, execute the independent sibling jobs in parallel.
+ *
+ * It is only used to derive the stats of the memo before exploration, see
+ * {@link org.apache.doris.nereids.jobs.executor.Optimizer}, and it is enabled by the session variable
+ * enable_parallel_derive_stats. The exploration, implementation, enforcer and cost jobs are still executed by
+ * {@link SimpleJobScheduler}:
+ * 1. a new expression copied in by a rule is deduplicated against the whole memo, and may merge groups which
+ *    are explored by other jobs, so the sub-memos of sibling jobs are not independent during exploration.
+ * 2. the ids of the new groups and the order of the expressions in a group decide the chosen plan when the
+ *    costs are equal, they would depend on the thread timing if the rules were applied concurrently.
+ * Since the memo is not changed while deriving the stats, the groups reachable from each group are computed
+ * once when the scheduler is created, and checking the independence of the forked jobs is only a few bitset
+ * operations.
+ *
+ * The semantic of the serial LIFO scheduler is kept: a job and all the jobs derived from it are finished
+ * before the jobs pushed earlier than it. When a job pushes several jobs, the trailing
+ * {@link Job#isParallelizable() parallelizable} ones are grouped by their target group. If the groups
+ * don't share any descendant group, every group of jobs is executed by a worker with its own job stack,
+ * and the remaining jobs are continued after all the workers finished. Otherwise, the jobs are executed
+ * serially like {@link SimpleJobScheduler}. So the memo state is always the same as the serial execution,
+ * and the chosen plan is deterministic.
+ */
+public class ParallelJobScheduler implements JobScheduler {
+    private static volatile ForkJoinPool workerPool;
+
+    // the jobs pushed by the executing job of current thread
+    private static final ThreadLocal<PushedJobs> PUSHED_JOBS = new ThreadLocal<>();
+
+    // group -> the indexes of the groups reachable from it, including itself
+    private final Map<Group, BitSet> reachableGroups = new IdentityHashMap<>();
+    // called before executing each job, for ut
+    private final Consumer<Job> beforeExecute;
+
+    public ParallelJobScheduler(Memo memo) {
+        this(memo, job -> { });
+    }
+
+    @VisibleForTesting
+    public ParallelJobScheduler(Memo memo, Consumer<Job> beforeExecute) {
+        this.beforeExecute = beforeExecute;
+        Map<Group, Integer> groupIndexes = new IdentityHashMap<>();
+        for (Group group : memo.getGroups()) {
+            groupIndexes.put(group, groupIndexes.size());
+        }
+        for (Group group : memo.getGroups()) {
+            computeReachableGroups(group, groupIndexes);
+        }
+    }
+
+    private static ForkJoinPool getWorkerPool() {
+        if (workerPool == null) {
+            synchronized (ParallelJobScheduler.class) {
+                if (workerPool == null) {
+                    workerPool = ThreadPoolManager.newDaemonForkJoinPool(
+                            Config.nereids_parallel_derive_stats_thread_num, "nereids-derive-stats");
+                }
+            }
+        }
+        return workerPool;
+    }
+
+    /**
+     * Get the job pool which collect the jobs pushed by the executing job of current thread,
+     * return null if current thread is not executing job of the schedule context by ParallelJobScheduler.
+     */
+    public static JobPool getCurrentJobPool(ScheduleContext scheduleContext) {
+        PushedJobs pushedJobs = PUSHED_JOBS.get();
+        if (pushedJobs == null || pushedJobs.scheduleContext != scheduleContext) {
+            return null;
+        }
+        return pushedJobs.jobs;
+    }
+
+    @Override
+    public void executeJobPool(ScheduleContext scheduleContext) {
+        // the job pool is executed by a job recursively, e.g. JoinOrderJob,
+        // the pending jobs have been pushed into the pool of the executing job.
+        JobPool pool = getCurrentJobPool(scheduleContext);
+        executeJobs((CascadesContext) scheduleContext, pool != null ? pool : scheduleContext.getJobPool());
+    }
+
+    private void executeJobs(CascadesContext context, JobPool pool) {
+        SessionVariable sessionVariable = context.getConnectContext().getSessionVariable();
+        while (!pool.isEmpty()) {
+            if (sessionVariable.enableNereidsTimeout
+                    && context.getStatementContext().getStopwatch().elapsed(TimeUnit.MILLISECONDS)
+                    > sessionVariable.nereidsTimeoutSecond * 1000L) {
+                throw new RuntimeException(
+                        "Nereids cost too much time ( > " + sessionVariable.nereidsTimeoutSecond + "s )");
+            }
+            List<Job> pushedJobs = execute(context, pool.pop());
+            int forkStart = pushedJobs.size();
+            while (forkStart > 0 && pushedJobs.get(forkStart - 1).isParallelizable()
+                    && pushedJobs.get(forkStart - 1).getTargetGroup().isPresent()) {
+                forkStart--;
+            }
+            List<List<Job>> forkJobs = groupByTargetGroup(pushedJobs.subList(forkStart, pushedJobs.size()));
+            if (forkJobs.size() > 1 && isIndependent(forkJobs)) {
+                pushedJobs.subList(0, forkStart).forEach(pool::push);
+                fork(context, forkJobs);
+            } else {
+                pushedJobs.forEach(pool::push);
+            }
+        }
+    }
+
+    private List<Job> execute(CascadesContext context, Job job) {
+        PushedJobs previous = PUSHED_JOBS.get();
+        PushedJobs pushedJobs = new PushedJobs(context);
+        PUSHED_JOBS.set(pushedJobs);
+        try {
+            beforeExecute.accept(job);
+            job.execute();
+        } finally {
+            if (previous == null) {
+                PUSHED_JOBS.remove();
+            } else {
+                PUSHED_JOBS.set(previous);
+            }
+        }
+        return new ArrayList<>(pushedJobs.jobs.stack);
+    }
+
+    private void fork(CascadesContext context, List<List<Job>> forkJobs) {
+        List<ForkJoinTask<?>> tasks = Lists.newArrayListWithCapacity(forkJobs.size());
+        for (List<Job> jobs : forkJobs) {
+            tasks.add(ForkJoinTask.adapt(() -> executeInWorker(context, jobs)));
+        }
+        ForkJoinPool pool = getWorkerPool();
+        if (ForkJoinTask.getPool() == pool) {
+            ForkJoinTask.invokeAll(tasks);
+        } else {
+            pool.invoke(ForkJoinTask.adapt(() -> {
+                ForkJoinTask.invokeAll(tasks);
+            }));
+        }
+    }
+
+    private void executeInWorker(CascadesContext context, List<Job> jobs) {
+        ConnectContext previous = ConnectContext.get();
+        ConnectContext connectContext = context.getConnectContext();
+        if (previous != connectContext) {
+            connectContext.setThreadLocalInfo();
+        }
+        try {
+            JobStack pool = new JobStack();
+            jobs.forEach(pool::push);
+            executeJobs(context, pool);
+        } finally {
+            if (previous == null) {
+                ConnectContext.remove();
+            } else if (previous != connectContext) {
+                previous.setThreadLocalInfo();
+            }
+        }
+    }
+
+    /** group the jobs by target group, keep the push order of the jobs in the same group */
+    private List<List<Job>> groupByTargetGroup(List<Job> jobs) {
+        Map<Group, List<Job>> groupToJobs = new IdentityHashMap<>();
+        List<List<Job>> result = new ArrayList<>();
+        for (Job job : jobs) {
+            Group targetGroup = job.getTargetGroup().get();
+            List<Job> groupJobs = groupToJobs.get(targetGroup);
+            if (groupJobs == null) {
+                groupJobs = new ArrayList<>();
+                groupToJobs.put(targetGroup, groupJobs);
+                result.add(groupJobs);
+            }
+            groupJobs.add(job);
+        }
+        return result;
+    }
+
+    /** the jobs are independent when the groups reachable from their target groups are disjoint */
+    private boolean isIndependent(List<List<Job>> forkJobs) {
+        BitSet visited = new BitSet();
+        for (List<Job> jobs : forkJobs) {
+            BitSet reachable = reachableGroups.get(jobs.get(0).getTargetGroup().get());
+            // the group is not in the memo when the scheduler is created
+            if (reachable == null || visited.intersects(reachable)) {
+                return false;
+            }
+            visited.or(reachable);
+        }
+        return true;
+    }
+
+    private BitSet computeReachableGroups(Group group, Map<Group, Integer> groupIndexes) {
+        BitSet reachable = reachableGroups.get(group);
+        if (reachable != null) {
+            return reachable;
+        }
+        reachable = new BitSet();
+        reachable.set(groupIndexes.get(group));
+        // put it before visiting the children to stop at a cycle
+        reachableGroups.put(group, reachable);
+        for (GroupExpression logicalExpression : group.getLogicalExpressions()) {
+            for (Group child : logicalExpression.children()) {
+                reachable.or(computeReachableGroups(child, groupIndexes));
+            }
+        }
+        for (GroupExpression physicalExpression : group.getPhysicalExpressions()) {
+            for (Group child : physicalExpression.children()) {
+                reachable.or(computeReachableGroups(child, groupIndexes));
+            }
+        }
+        return reachable;
+    }
+
+    private static class PushedJobs {
+        private final ScheduleContext scheduleContext;
+        private final JobStack jobs = new JobStack();
+
+        private PushedJobs(ScheduleContext scheduleContext) {
+            this.scheduleContext = scheduleContext;
+        }
+    }
+}
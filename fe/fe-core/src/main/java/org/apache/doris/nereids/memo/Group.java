@@ -46,6 +46,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -69,7 +70,12 @@ public class Group {
 
     private boolean isExplored = false;
 
-    private Statistics statistics;
+    private volatile Statistics statistics;
+
+    // guard the derived state of this group (statistics and stat derived flags of its expressions)
+    // when jobs on different groups are executed by ParallelJobScheduler.
+    // lock order must follow the memo from parent group to child group to avoid dead lock.
+    private final ReentrantLock lock = new ReentrantLock();
 
     private PhysicalProperties chosenProperties;
 
@@ -105,6 +111,14 @@ public class Group {
         return groupId;
     }
 
+    public void lock() {
+        lock.lock();
+    }
+
+    public void unlock() {
+        lock.unlock();
+    }
+
     public List<PhysicalProperties> getAllProperties() {
         return new ArrayList<>(lowestCostPlans.keySet());
     }
@@ -59,7 +59,7 @@ public class GroupExpression {
     private final List<Group> children;
     private final Plan plan;
     private final BitSet ruleMasks;
-    private boolean statDerived;
+    private volatile boolean statDerived;
 
     private double estOutputRowCount = -1;
 
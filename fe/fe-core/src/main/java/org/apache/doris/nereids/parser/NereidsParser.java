@@ -35,9 +35,13 @@ import org.apache.doris.plugin.PluginMgr;
 import org.apache.doris.qe.ConnectContext;
 import org.apache.doris.qe.SessionVariable;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.Token;
 import org.antlr.v4.runtime.TokenSource;
@@ -64,6 +68,25 @@ public class NereidsParser {
 
     private static final BitSet EXPLAIN_TOKENS = new BitSet();
 
+    // the common statements to warm up the DFA cache of the parser, which is shared by all the parsers
+    private static final List<String> WARMUP_STATEMENTS = ImmutableList.of(
+            "select a, b, count(*) as c from db.t1 where a = 1 and b in ('x', 'y') or c like 'z%' "
+                    + "group by a, b having count(*) > 1 order by a desc, b limit 10 offset 1",
+            "select t1.a, sum(t2.b) over (partition by t1.a order by t2.c rows between unbounded preceding "
+                    + "and current row) from t1 inner join t2 on t1.a = t2.a left join t3 using (a) "
+                    + "where t1.d between '2020-01-01' and date_add('2020-01-01', interval 1 day)",
+            "with cte as (select cast(a as bigint) k, case when b is null then 0 else b end v from t1) "
+                    + "select k, v from cte where exists (select 1 from t2 where t2.k = cte.k) "
+                    + "union all select k, v from t3 where k not in (select k from t4)",
+            "insert into t1 (a, b) values (1, 'a'), (2, null)",
+            "insert into t1 select * from t2 where a > 1",
+            "update t1 set b = b + 1 where a = 1",
+            "delete from t1 where a = 1",
+            "explain select a from t1",
+            "show tables",
+            "set enable_profile = true",
+            "use db1");
+
     static {
         EXPLAIN_TOKENS.set(DorisLexer.EXPLAIN);
         EXPLAIN_TOKENS.set(DorisLexer.PARSED);
@@ -200,7 +223,7 @@ public class NereidsParser {
                                                     SessionVariable sessionVariable) {
         @Nullable Dialect sqlDialect = Dialect.getByName(sessionVariable.getSqlDialect());
         if (sqlDialect == null) {
-            return parseSQL(sql);
+            return parseSQLWithCache(sql);
         }
 
         PluginMgr pluginMgr = Env.getCurrentEnv().getPluginMgr();
@@ -221,7 +244,57 @@ public class NereidsParser {
             return parseSQL(sql, new PLSqlLogicalPlanBuilder());
         }
         // fallback if any exception occurs before
-        return parseSQL(sql);
+        return parseSQLWithCache(sql);
+    }
+
+    /**
+     * Parse sql with the syntax tree in the parsed statement cache.
+     * The logical plans are built from the syntax tree for each call.
+     */
+    @VisibleForTesting
+    List<StatementBase> parseSQLWithCache(String sql) {
+        ParsedStatementCache cache = ParsedStatementCache.getInstance();
+        if (!cache.isCacheable(sql)) {
+            return parseSQL(sql);
+        }
+        ParsedStatementCache.CachedStatement cachedStatement = cache.get(sql);
+        ParserRuleContext tree;
+        long savedTimeNs = 0;
+        if (cachedStatement != null) {
+            tree = cachedStatement.getTree();
+            savedTimeNs = cachedStatement.getParseTimeNs();
+        } else {
+            long startNs = System.nanoTime();
+            CommonTokenStream tokenStream = new CommonTokenStream(
+                    new DorisLexer(new CaseInsensitiveStream(CharStreams.fromString(sql))));
+            tree = toAst(tokenStream, DorisParser::multiStatements);
+            cache.put(sql, tree, tokenStream.size(), System.nanoTime() - startNs);
+        }
+        List<Pair<LogicalPlan, StatementContext>> logicalPlans =
+                (List<Pair<LogicalPlan, StatementContext>>) new LogicalPlanBuilder().visit(tree);
+        List<StatementBase> statementBases = Lists.newArrayList();
+        for (Pair<LogicalPlan, StatementContext> parsedPlanToContext : logicalPlans) {
+            parsedPlanToContext.second.setParseSqlSavedTime(savedTimeNs);
+            statementBases.add(new LogicalPlanAdapter(parsedPlanToContext.first, parsedPlanToContext.second));
+        }
+        return statementBases;
+    }
+
+    /**
+     * Parse the common statements to fill the DFA cache of the parser, so the first queries after FE starts
+     * don't pay for building the DFA states.
+     */
+    public static void warmup() {
+        long startMs = System.currentTimeMillis();
+        for (String sql : WARMUP_STATEMENTS) {
+            try {
+                toAst(sql, DorisParser::multiStatements);
+            } catch (Throwable t) {
+                LOG.warn("failed to warm up the parser with sql: {}", sql, t);
+            }
+        }
+        LOG.info("finish warming up the parser with {} statements, cost {}ms",
+                WARMUP_STATEMENTS.size(), System.currentTimeMillis() - startMs);
     }
 
     /**
@@ -294,22 +367,30 @@ public class NereidsParser {
     public static ParserRuleContext toAst(String sql, Function<DorisParser, ParserRuleContext> parseFunction) {
         DorisLexer lexer = new DorisLexer(new CaseInsensitiveStream(CharStreams.fromString(sql)));
         CommonTokenStream tokenStream = new CommonTokenStream(lexer);
+        return toAst(tokenStream, parseFunction);
+    }
+
+    private static ParserRuleContext toAst(CommonTokenStream tokenStream,
+            Function<DorisParser, ParserRuleContext> parseFunction) {
         DorisParser parser = new DorisParser(tokenStream);
 
         parser.addParseListener(POST_PROCESSOR);
         parser.removeErrorListeners();
-        parser.addErrorListener(PARSE_ERROR_LISTENER);
 
         ParserRuleContext tree;
         try {
-            // first, try parsing with potentially faster SLL mode
+            // first, try parsing with potentially faster SLL mode, which bails out at the first syntax error
+            // instead of reporting it, because SLL may fail on the sql which LL can parse
+            parser.setErrorHandler(new BailErrorStrategy());
             parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
             tree = parseFunction.apply(parser);
         } catch (ParseCancellationException ex) {
-            // if we fail, parse with LL mode
+            // if we fail, parse with LL mode, and report the syntax error if the sql is invalid
             tokenStream.seek(0); // rewind input stream
             parser.reset();
 
+            parser.setErrorHandler(new DefaultErrorStrategy());
+            parser.addErrorListener(PARSE_ERROR_LISTENER);
             parser.getInterpreter().setPredictionMode(PredictionMode.LL);
             tree = parseFunction.apply(parser);
         }
@@ -0,0 +1,125 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.nereids.parser;
+
+import org.apache.doris.common.Config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.annotations.VisibleForTesting;
+import org.antlr.v4.runtime.ParserRuleContext;
+
+/**
+ * Cache from the sql text to the syntax tree of ANTLR.
+ *
+ * The lexing and the prediction of ANTLR are the most part of the parsing cost, and the short queries of a
+ * high concurrency workload repeat the same sql text. The syntax tree is not modified after parsing, so it is
+ * shared by the statements of the same sql text. The logical plan is built from the syntax tree for every
+ * statement, because the plan nodes hold the states of rewriting and the ids allocated by the statement context.
+ * The entries are evicted by the estimated memory of the syntax trees.
+ */
+public class ParsedStatementCache {
+    // the estimated memory of a token, including the token, the terminal node and the rule contexts
+    private static final int TOKEN_WEIGHT = 256;
+
+    private static volatile ParsedStatementCache instance;
+
+    // null if the cache is disabled
+    private final Cache<String, CachedStatement> cache;
+
+    @VisibleForTesting
+    ParsedStatementCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            this.cache = null;
+        } else {
+            this.cache = Caffeine.newBuilder()
+                    .maximumWeight(maxBytes)
+                    .weigher((String sql, CachedStatement statement) -> statement.weight)
+                    .build();
+        }
+    }
+
+    public static ParsedStatementCache getInstance() {
+        if (instance == null) {
+            synchronized (ParsedStatementCache.class) {
+                if (instance == null) {
+                    instance = new ParsedStatementCache(Config.parsed_statement_cache_max_bytes);
+                }
+            }
+        }
+        return instance;
+    }
+
+    public boolean isCacheable(String sql) {
+        return cache != null && sql.length() <= Config.parsed_statement_cache_max_sql_length;
+    }
+
+    public CachedStatement get(String sql) {
+        return cache == null ? null : cache.getIfPresent(normalize(sql));
+    }
+
+    public void put(String sql, ParserRuleContext tree, int tokenNum, long parseTimeNs) {
+        if (cache == null) {
+            return;
+        }
+        long weight = 2L * sql.length() + (long) tokenNum * TOKEN_WEIGHT;
+        cache.put(normalize(sql), new CachedStatement(tree, parseTimeNs, (int) Math.min(weight, Integer.MAX_VALUE)));
+    }
+
+    @VisibleForTesting
+    long size() {
+        if (cache == null) {
+            return 0;
+        }
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    // the trailing whitespaces don't change the syntax tree and the positions of the tokens
+    @VisibleForTesting
+    static String normalize(String sql) {
+        int end = sql.length();
+        while (end > 0 && Character.isWhitespace(sql.charAt(end - 1))) {
+            end--;
+        }
+        return end == sql.length() ? sql : sql.substring(0, end);
+    }
+
+    /**
+     * The syntax tree of a sql text.
+     */
+    public static class CachedStatement {
+        private final ParserRuleContext tree;
+        // the time of lexing and parsing the sql, which is saved by each hit of the cache
+        private final long parseTimeNs;
+        private final int weight;
+
+        private CachedStatement(ParserRuleContext tree, long parseTimeNs, int weight) {
+            this.tree = tree;
+            this.parseTimeNs = parseTimeNs;
+            this.weight = weight;
+        }
+
+        public ParserRuleContext getTree() {
+            return tree;
+        }
+
+        public long getParseTimeNs() {
+            return parseTimeNs;
+        }
+    }
+}
@@ -145,7 +145,7 @@ public class ExpressionAnalyzer extends SubExprAnalyzer<ExpressionRewriteContext
         this.enableExactMatch = enableExactMatch;
         this.bindSlotInOuterScope = bindSlotInOuterScope;
         this.wantToParseSqlFromSqlCache = cascadesContext != null
-                && CacheAnalyzer.canUseSqlCache(cascadesContext.getConnectContext().getSessionVariable());
+                && CacheAnalyzer.canUseCache(cascadesContext.getConnectContext().getSessionVariable());
     }
 
     /** analyzeFunction */
@@ -19,12 +19,14 @@ package org.apache.doris.nereids.rules.rewrite;
 
 import org.apache.doris.catalog.Column;
 import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.common.Config;
 import org.apache.doris.nereids.StatementContext;
 import org.apache.doris.nereids.rules.Rule;
 import org.apache.doris.nereids.rules.RuleType;
 import org.apache.doris.nereids.trees.expressions.Cast;
 import org.apache.doris.nereids.trees.expressions.EqualTo;
 import org.apache.doris.nereids.trees.expressions.Expression;
+import org.apache.doris.nereids.trees.expressions.InPredicate;
 import org.apache.doris.nereids.trees.expressions.SlotReference;
 import org.apache.doris.nereids.trees.plans.Plan;
 import org.apache.doris.nereids.trees.plans.logical.LogicalFilter;
@@ -40,6 +42,7 @@ import java.util.Set;
 /**
  * short circuit query optimization
  * pattern : select xxx from tbl where key = ?
+ *           select xxx from tbl where key in (?, ?, ...)
  */
 public class LogicalResultSinkToShortCircuitPointQuery implements RewriteRuleFactory {
 
@@ -52,12 +55,16 @@ public class LogicalResultSinkToShortCircuitPointQuery implements RewriteRuleFac
 
     private boolean filterMatchShortCircuitCondition(LogicalFilter<LogicalOlapScan> filter) {
         return filter.getConjuncts().stream().allMatch(
-                // all conjuncts match with pattern `key = ?`
-                expression -> (expression instanceof EqualTo)
+                // all conjuncts match with pattern `key = ?` or `key in (?, ...)`
+                expression -> ((expression instanceof EqualTo)
                         && (removeCast(expression.child(0)).isKeyColumnFromTable()
                         || (expression.child(0) instanceof SlotReference
                         && ((SlotReference) expression.child(0)).getName().equals(Column.DELETE_SIGN)))
-                        && expression.child(1).isLiteral());
+                        && expression.child(1).isLiteral())
+                        || ((expression instanceof InPredicate)
+                        && removeCast(expression.child(0)).isKeyColumnFromTable()
+                        && ((InPredicate) expression).getOptions().stream()
+                                .allMatch(option -> option.isLiteral() && !option.isNullLiteral())));
     }
 
     private boolean scanMatchShortCircuitCondition(LogicalOlapScan olapScan) {
@@ -74,14 +81,20 @@ public class LogicalResultSinkToShortCircuitPointQuery implements RewriteRuleFac
                 Set<Expression> conjuncts, StatementContext statementContext) {
         // All key columns in conjuncts
         Set<String> colNames = Sets.newHashSet();
+        // the number of keys to look up, eg. 4 for `k1 in (?, ?) and k2 in (?, ?)`
+        long keyNum = 1;
         for (Expression expr : conjuncts) {
             SlotReference slot = ((SlotReference) removeCast((expr.child(0))));
             if (slot.isKeyColumnFromTable()) {
                 colNames.add(slot.getName());
             }
+            if (expr instanceof InPredicate && keyNum <= Config.max_point_query_batch_keys) {
+                keyNum *= ((InPredicate) expr).getOptions().size();
+            }
         }
         // set short circuit flag and modify nothing to the plan
-        if (olapTable.getBaseSchemaKeyColumns().size() <= colNames.size()) {
+        if (olapTable.getBaseSchemaKeyColumns().size() <= colNames.size()
+                && keyNum <= Config.max_point_query_batch_keys) {
             statementContext.setShortCircuitQuery(true);
         }
         return root;
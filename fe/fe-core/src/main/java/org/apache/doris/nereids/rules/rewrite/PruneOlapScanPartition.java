@@ -21,10 +21,12 @@ import org.apache.doris.catalog.Column;
 import org.apache.doris.catalog.OlapTable;
 import org.apache.doris.catalog.PartitionInfo;
 import org.apache.doris.catalog.PartitionItem;
+import org.apache.doris.nereids.CascadesContext;
 import org.apache.doris.nereids.rules.Rule;
 import org.apache.doris.nereids.rules.RuleType;
 import org.apache.doris.nereids.rules.expression.rules.PartitionPruner;
 import org.apache.doris.nereids.rules.expression.rules.PartitionPruner.PartitionTableType;
+import org.apache.doris.nereids.trees.expressions.Expression;
 import org.apache.doris.nereids.trees.expressions.Slot;
 import org.apache.doris.nereids.trees.plans.logical.LogicalEmptyRelation;
 import org.apache.doris.nereids.trees.plans.logical.LogicalFilter;
@@ -52,43 +54,11 @@ public class PruneOlapScanPartition extends OneRewriteRuleFactory {
         return logicalFilter(logicalOlapScan()).when(p -> !p.child().isPartitionPruned()).thenApply(ctx -> {
             LogicalFilter<LogicalOlapScan> filter = ctx.root;
             LogicalOlapScan scan = filter.child();
-            OlapTable table = scan.getTable();
-            Set<String> partitionColumnNameSet = Utils.execWithReturnVal(table::getPartitionColumnNames);
-            if (partitionColumnNameSet.isEmpty()) {
+            List<Long> prunedPartitions = prunePartitions(scan.getTable(), scan.getOutput(), filter.getPredicate(),
+                    scan.getManuallySpecifiedPartitions(), ctx.cascadesContext);
+            if (prunedPartitions == null) {
                 return null;
             }
-            List<Slot> output = scan.getOutput();
-            PartitionInfo partitionInfo = table.getPartitionInfo();
-            List<Column> partitionColumns = partitionInfo.getPartitionColumns();
-            List<Slot> partitionSlots = new ArrayList<>(partitionColumns.size());
-            for (Column column : partitionColumns) {
-                Slot partitionSlot = null;
-                // loop search is faster than build a map
-                for (Slot slot : output) {
-                    if (slot.getName().equalsIgnoreCase(column.getName())) {
-                        partitionSlot = slot;
-                        break;
-                    }
-                }
-                if (partitionSlot == null) {
-                    return null;
-                } else {
-                    partitionSlots.add(partitionSlot);
-                }
-            }
-            List<Long> manuallySpecifiedPartitions = scan.getManuallySpecifiedPartitions();
-            Map<Long, PartitionItem> idToPartitions;
-            if (manuallySpecifiedPartitions.isEmpty()) {
-                idToPartitions = partitionInfo.getIdToItem(false);
-            } else {
-                Map<Long, PartitionItem> allPartitions = partitionInfo.getAllPartitions();
-                idToPartitions = allPartitions.keySet().stream()
-                        .filter(manuallySpecifiedPartitions::contains)
-                        .collect(Collectors.toMap(Function.identity(), allPartitions::get));
-            }
-            List<Long> prunedPartitions = PartitionPruner.prune(
-                    partitionSlots, filter.getPredicate(), idToPartitions, ctx.cascadesContext,
-                    PartitionTableType.OLAP);
             if (prunedPartitions.isEmpty()) {
                 return new LogicalEmptyRelation(
                         ConnectContext.get().getStatementContext().getNextRelationId(),
@@ -98,4 +68,46 @@ public class PruneOlapScanPartition extends OneRewriteRuleFactory {
             return filter.withChildren(ImmutableList.of(rewrittenScan));
         }).toRule(RuleType.OLAP_SCAN_PARTITION_PRUNE);
     }
+
+    /**
+     * Prune the partitions of the olap table by the predicate on the output slots of the scan.
+     *
+     * @return the selected partition ids, or null if the table can't be pruned
+     */
+    public static List<Long> prunePartitions(OlapTable table, List<Slot> output, Expression predicate,
+            List<Long> manuallySpecifiedPartitions, CascadesContext cascadesContext) {
+        Set<String> partitionColumnNameSet = Utils.execWithReturnVal(table::getPartitionColumnNames);
+        if (partitionColumnNameSet.isEmpty()) {
+            return null;
+        }
+        PartitionInfo partitionInfo = table.getPartitionInfo();
+        List<Column> partitionColumns = partitionInfo.getPartitionColumns();
+        List<Slot> partitionSlots = new ArrayList<>(partitionColumns.size());
+        for (Column column : partitionColumns) {
+            Slot partitionSlot = null;
+            // loop search is faster than build a map
+            for (Slot slot : output) {
+                if (slot.getName().equalsIgnoreCase(column.getName())) {
+                    partitionSlot = slot;
+                    break;
+                }
+            }
+            if (partitionSlot == null) {
+                return null;
+            } else {
+                partitionSlots.add(partitionSlot);
+            }
+        }
+        Map<Long, PartitionItem> idToPartitions;
+        if (manuallySpecifiedPartitions.isEmpty()) {
+            idToPartitions = partitionInfo.getIdToItem(false);
+        } else {
+            Map<Long, PartitionItem> allPartitions = partitionInfo.getAllPartitions();
+            idToPartitions = allPartitions.keySet().stream()
+                    .filter(manuallySpecifiedPartitions::contains)
+                    .collect(Collectors.toMap(Function.identity(), allPartitions::get));
+        }
+        return PartitionPruner.prune(
+                partitionSlots, predicate, idToPartitions, cascadesContext, PartitionTableType.OLAP);
+    }
 }
@@ -74,7 +74,10 @@ public class PruneOlapScanTablet extends OneRewriteRuleFactory {
         }).toRule(RuleType.OLAP_SCAN_TABLET_PRUNE);
     }
 
-    private Collection<Long> getSelectedTabletIds(Set<Expression> expressions,
+    /**
+     * Prune the tablets of the index by the conjuncts on the distribution columns.
+     */
+    public static Collection<Long> getSelectedTabletIds(Set<Expression> expressions,
             MaterializedIndex index, boolean isBaseIndexSelected, DistributionInfo info) {
         if (info.getType() != DistributionInfoType.HASH) {
             return index.getTabletIdsInOrder();
@@ -26,6 +26,7 @@ import org.apache.doris.nereids.trees.expressions.Expression;
 import org.apache.doris.nereids.trees.plans.PlanType;
 import org.apache.doris.nereids.trees.plans.visitor.PlanVisitor;
 import org.apache.doris.qe.ConnectContext;
+import org.apache.doris.qe.GenericPlanContext;
 import org.apache.doris.qe.PointQueryExecutor;
 import org.apache.doris.qe.PreparedStatementContext;
 import org.apache.doris.qe.ShortCircuitQueryContext;
@@ -80,12 +81,27 @@ public class ExecuteCommand extends Command {
             // execute real statement
             preparedStmtCtx.shortCircuitQueryContext = Optional.empty();
             statementContext.setShortCircuitQueryContext(null);
+            if (ctx.getSessionVariable().isEnablePreparedStmtGenericPlan()) {
+                if (preparedStmtCtx.genericPlanContext == null) {
+                    preparedStmtCtx.genericPlanContext = new GenericPlanContext(prepareCommand.getLogicalPlan());
+                }
+                statementContext.setGenericPlanContext(preparedStmtCtx.genericPlanContext);
+            } else {
+                statementContext.setGenericPlanContext(null);
+            }
             executor.execute();
             if (executor.getContext().getStatementContext().isShortCircuitQuery()) {
-                // cache short-circuit plan
-                preparedStmtCtx.shortCircuitQueryContext = Optional.of(
-                        new ShortCircuitQueryContext(executor.planner(), (Queriable) executor.getParsedStmt()));
-                statementContext.setShortCircuitQueryContext(preparedStmtCtx.shortCircuitQueryContext.get());
+                ShortCircuitQueryContext shortCircuitQueryContext = new ShortCircuitQueryContext(
+                        executor.planner(), (Queriable) executor.getParsedStmt());
+                if (PointQueryExecutor.canBindPlaceholders(shortCircuitQueryContext.scanNode.getConjuncts(),
+                        prepareCommand.placeholderCount())) {
+                    // cache short-circuit plan
+                    preparedStmtCtx.shortCircuitQueryContext = Optional.of(shortCircuitQueryContext);
+                    statementContext.setShortCircuitQueryContext(shortCircuitQueryContext);
+                } else {
+                    // the values of the next execution can't be bound to the cached plan, plan it again
+                    executor.getContext().getStatementContext().setShortCircuitQuery(false);
+                }
             }
             return;
         }
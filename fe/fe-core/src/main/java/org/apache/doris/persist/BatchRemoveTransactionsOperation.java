@@ -18,9 +18,9 @@
 package org.apache.doris.persist;
 
 import org.apache.doris.common.io.Text;
-import org.apache.doris.common.io.Writable;
 import org.apache.doris.persist.gson.GsonUtils;
 
+import com.google.common.collect.Maps;
 import com.google.gson.annotations.SerializedName;
 
 import java.io.DataInput;
@@ -30,7 +30,8 @@ import java.util.List;
 import java.util.Map;
 
 // Persist the info when removing batch of expired txns
-public class BatchRemoveTransactionsOperation implements Writable {
+public class BatchRemoveTransactionsOperation implements BinaryJournalCodec.BinaryWritable {
+    private static final int BINARY_SCHEMA_VERSION = 1;
 
     @SerializedName(value = "dbTxnIds")
     // dbId -> List of txns
@@ -51,7 +52,33 @@ public class BatchRemoveTransactionsOperation implements Writable {
     }
 
     public static BatchRemoveTransactionsOperation read(DataInput in) throws IOException {
-        String json = Text.readString(in);
-        return GsonUtils.GSON.fromJson(json, BatchRemoveTransactionsOperation.class);
+        return BinaryJournalCodec.read(in, BatchRemoveTransactionsOperation.class,
+                BatchRemoveTransactionsOperation::readBinary);
+    }
+
+    @Override
+    public int getBinarySchemaVersion() {
+        return BINARY_SCHEMA_VERSION;
+    }
+
+    @Override
+    public void writeBinary(DataOutput out) throws IOException {
+        out.writeInt(dbTxnIds.size());
+        for (Map.Entry<Long, List<Long>> entry : dbTxnIds.entrySet()) {
+            out.writeLong(entry.getKey());
+            BinaryJournalCodec.writeLongs(out, entry.getValue());
+        }
+    }
+
+    private static BatchRemoveTransactionsOperation readBinary(DataInput in, int schemaVersion) throws IOException {
+        BinaryJournalCodec.checkSchemaVersion(BatchRemoveTransactionsOperation.class, schemaVersion,
+                BINARY_SCHEMA_VERSION);
+        int size = in.readInt();
+        Map<Long, List<Long>> dbTxnIds = Maps.newHashMapWithExpectedSize(size);
+        for (int i = 0; i < size; i++) {
+            long dbId = in.readLong();
+            dbTxnIds.put(dbId, BinaryJournalCodec.readLongList(in));
+        }
+        return new BatchRemoveTransactionsOperation(dbTxnIds);
     }
 }
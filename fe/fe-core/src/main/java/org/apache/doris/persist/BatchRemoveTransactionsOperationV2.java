@@ -18,7 +18,6 @@
 package org.apache.doris.persist;
 
 import org.apache.doris.common.io.Text;
-import org.apache.doris.common.io.Writable;
 import org.apache.doris.persist.gson.GsonUtils;
 
 import com.google.gson.annotations.SerializedName;
@@ -28,7 +27,8 @@ import java.io.DataOutput;
 import java.io.IOException;
 
 // Persist the info when removing batch of expired txns
-public class BatchRemoveTransactionsOperationV2 implements Writable {
+public class BatchRemoveTransactionsOperationV2 implements BinaryJournalCodec.BinaryWritable {
+    private static final int BINARY_SCHEMA_VERSION = 1;
 
     @SerializedName(value = "dbId")
     private long dbId;
@@ -64,7 +64,29 @@ public class BatchRemoveTransactionsOperationV2 implements Writable {
     }
 
     public static BatchRemoveTransactionsOperationV2 read(DataInput in) throws IOException {
-        String json = Text.readString(in);
-        return GsonUtils.GSON.fromJson(json, BatchRemoveTransactionsOperationV2.class);
+        return BinaryJournalCodec.read(in, BatchRemoveTransactionsOperationV2.class,
+                BatchRemoveTransactionsOperationV2::readBinary);
+    }
+
+    @Override
+    public int getBinarySchemaVersion() {
+        return BINARY_SCHEMA_VERSION;
+    }
+
+    @Override
+    public void writeBinary(DataOutput out) throws IOException {
+        out.writeLong(dbId);
+        out.writeLong(latestTxnIdForShort);
+        out.writeLong(latestTxnIdForLong);
+    }
+
+    private static BatchRemoveTransactionsOperationV2 readBinary(DataInput in, int schemaVersion)
+            throws IOException {
+        BinaryJournalCodec.checkSchemaVersion(BatchRemoveTransactionsOperationV2.class, schemaVersion,
+                BINARY_SCHEMA_VERSION);
+        long dbId = in.readLong();
+        long latestTxnIdForShort = in.readLong();
+        long latestTxnIdForLong = in.readLong();
+        return new BatchRemoveTransactionsOperationV2(dbId, latestTxnIdForShort, latestTxnIdForLong);
     }
 }
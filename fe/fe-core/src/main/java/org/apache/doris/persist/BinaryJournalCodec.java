@@ -0,0 +1,195 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.persist;
+
+import org.apache.doris.common.Config;
+import org.apache.doris.common.io.Text;
+import org.apache.doris.common.io.Writable;
+import org.apache.doris.persist.gson.GsonUtils;
+
+import com.google.common.collect.ImmutableMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compact binary codec for the edit logs of the high volume operation types.
+ *
+ * The json edit log of a writable starts with the int length of the json string, which is never negative.
+ * A binary edit log starts with the negative {@link #BINARY_MARKER} instead, followed by one byte of the schema
+ * version and the fields written by {@link BinaryWritable#writeBinary}. So {@link #read} can replay the logs of
+ * both formats, and the operation types are switched to the binary format one by one by
+ * {@link Config#binary_journal_op_types}. The binary format is only used for the edit logs, the image is still json.
+ */
+public final class BinaryJournalCodec {
+    private static final Logger LOG = LogManager.getLogger(BinaryJournalCodec.class);
+
+    public static final int BINARY_MARKER = 0xB17AC0DE;
+
+    // the operation types which have a binary codec
+    private static final Map<String, Short> SUPPORTED_OP_TYPES = ImmutableMap.<String, Short>builder()
+            .put("OP_UPSERT_TRANSACTION_STATE", OperationType.OP_UPSERT_TRANSACTION_STATE)
+            .put("OP_DELETE_TRANSACTION_STATE", OperationType.OP_DELETE_TRANSACTION_STATE)
+            .put("OP_BATCH_REMOVE_TXNS", OperationType.OP_BATCH_REMOVE_TXNS)
+            .put("OP_BATCH_REMOVE_TXNS_V2", OperationType.OP_BATCH_REMOVE_TXNS_V2)
+            .put("OP_ADD_REPLICA", OperationType.OP_ADD_REPLICA)
+            .put("OP_UPDATE_REPLICA", OperationType.OP_UPDATE_REPLICA)
+            .put("OP_DELETE_REPLICA", OperationType.OP_DELETE_REPLICA)
+            .put("OP_CLEAR_ROLLUP_INFO", OperationType.OP_CLEAR_ROLLUP_INFO)
+            .build();
+
+    // the parsed Config.binary_journal_op_types, the config array is replaced as a whole when it is changed
+    private static volatile EnabledOpTypes enabledOpTypes = new EnabledOpTypes(new String[0], Collections.emptySet());
+
+    public interface BinaryWritable extends Writable {
+        // the version of the binary layout, increase it when the layout is changed
+        int getBinarySchemaVersion();
+
+        void writeBinary(DataOutput out) throws IOException;
+    }
+
+    public interface BinaryReader<T> {
+        T readBinary(DataInput in, int schemaVersion) throws IOException;
+    }
+
+    private BinaryJournalCodec() {
+    }
+
+    public static boolean isBinaryEnabled(short opCode) {
+        String[] opTypes = Config.binary_journal_op_types;
+        EnabledOpTypes enabled = enabledOpTypes;
+        if (enabled.config != opTypes) {
+            enabled = parse(opTypes);
+            enabledOpTypes = enabled;
+        }
+        return enabled.opCodes.contains(opCode);
+    }
+
+    /**
+     * Write the data in the binary format if it is enabled for the operation type.
+     *
+     * @return false if the data is not written, the caller should write it in the json format
+     */
+    public static boolean write(short opCode, Writable data, DataOutput out) throws IOException {
+        if (!(data instanceof BinaryWritable) || !isBinaryEnabled(opCode)) {
+            return false;
+        }
+        BinaryWritable writable = (BinaryWritable) data;
+        out.writeInt(BINARY_MARKER);
+        out.writeByte(writable.getBinarySchemaVersion());
+        writable.writeBinary(out);
+        return true;
+    }
+
+    /**
+     * Read the data written by {@link #write}, or by {@link Text#writeString} with the json of the data.
+     */
+    public static <T> T read(DataInput in, Class<T> clazz, BinaryReader<T> reader) throws IOException {
+        int length = in.readInt();
+        if (length == BINARY_MARKER) {
+            return reader.readBinary(in, in.readUnsignedByte());
+        }
+        if (length < 0) {
+            throw new IOException("invalid length " + length + " of " + clazz.getSimpleName());
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return GsonUtils.GSON.fromJson(Text.decode(bytes), clazz);
+    }
+
+    public static void checkSchemaVersion(Class<?> clazz, int schemaVersion, int maxSchemaVersion)
+            throws IOException {
+        if (schemaVersion < 1 || schemaVersion > maxSchemaVersion) {
+            throw new IOException("unsupported binary schema version " + schemaVersion + " of "
+                    + clazz.getSimpleName() + ", max supported version is " + maxSchemaVersion);
+        }
+    }
+
+    public static void writeNullableString(DataOutput out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) {
+            Text.writeString(out, s);
+        }
+    }
+
+    public static String readNullableString(DataInput in) throws IOException {
+        return in.readBoolean() ? Text.readString(in) : null;
+    }
+
+    // the null collection is written as -1
+    public static void writeLongs(DataOutput out, Collection<Long> values) throws IOException {
+        if (values == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(values.size());
+        for (long value : values) {
+            out.writeLong(value);
+        }
+    }
+
+    public static List<Long> readLongList(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<Long> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(in.readLong());
+        }
+        return values;
+    }
+
+    private static EnabledOpTypes parse(String[] opTypes) {
+        Set<Short> opCodes = new HashSet<>();
+        for (String opType : opTypes) {
+            String name = opType.trim().toUpperCase();
+            if (name.isEmpty()) {
+                continue;
+            }
+            Short opCode = SUPPORTED_OP_TYPES.get(name);
+            if (opCode == null) {
+                LOG.warn("operation type {} in binary_journal_op_types is not supported, supported: {}",
+                        opType, SUPPORTED_OP_TYPES.keySet());
+                continue;
+            }
+            opCodes.add(opCode);
+        }
+        LOG.info("binary journal operation types: {}", opCodes);
+        return new EnabledOpTypes(opTypes, opCodes);
+    }
+
+    private static class EnabledOpTypes {
+        private final String[] config;
+        private final Set<Short> opCodes;
+
+        private EnabledOpTypes(String[] config, Set<Short> opCodes) {
+            this.config = config;
+            this.opCodes = opCodes;
+        }
+    }
+}
@@ -60,6 +60,7 @@ import org.apache.doris.insertoverwrite.InsertOverwriteLog;
 import org.apache.doris.job.base.AbstractJob;
 import org.apache.doris.journal.Journal;
 import org.apache.doris.journal.JournalBatch;
+import org.apache.doris.journal.JournalBatchWriter;
 import org.apache.doris.journal.JournalCursor;
 import org.apache.doris.journal.JournalEntity;
 import org.apache.doris.journal.bdbje.BDBJEJournal;
@@ -122,6 +123,9 @@ public class EditLog {
 
     private Journal journal;
 
+    // not null if enable_batch_editlog is true and this fe becomes master, see startBatchWriter()
+    private volatile JournalBatchWriter batchWriter;
+
     /**
      * The constructor.
      **/
@@ -1250,8 +1254,12 @@ public class EditLog {
     /**
      * Shutdown the file store.
      */
-    public synchronized void close() throws IOException {
-        journal.close();
+    public void close() throws IOException {
+        // the batch writer calls back into the synchronized methods, so stop it without holding the monitor
+        stopBatchWriter();
+        synchronized (this) {
+            journal.close();
+        }
     }
 
     public void open() {
@@ -1283,7 +1291,134 @@ public class EditLog {
     /**
      * Write an operation to the edit log. Do not sync to persistent store yet.
      */
-    private synchronized long logEdit(short op, Writable writable) {
+    private long logEdit(short op, Writable writable) {
+        // OP_TIMESTAMP is retried until succeed, see `BDBJEJournal.write` for details
+        if (batchWriter != null && op != OperationType.OP_TIMESTAMP) {
+            return logEditWithBatch(op, writable);
+        }
+        return logEditDirectly(op, writable);
+    }
+
+    /**
+     * Start the batch writer if enable_batch_editlog is true. Only the edit log of the master writes journals,
+     * so the writer thread is not started for the edit logs which only replay, e.g. of the followers or tests.
+     */
+    public synchronized void startBatchWriter() {
+        if (Config.enable_batch_editlog && batchWriter == null) {
+            JournalBatchWriter writer = new JournalBatchWriter(journal, this::onBatchWritten);
+            writer.start();
+            batchWriter = writer;
+        }
+    }
+
+    /**
+     * Stop the batch writer, the later operations can not be written by it any more.
+     */
+    public void stopBatchWriter() {
+        if (batchWriter != null) {
+            batchWriter.stop();
+        }
+    }
+
+    /**
+     * Queue the operation to the batch writer, and wait until it is written with other concurrent operations.
+     * Unlike logEditDirectly, the callers are not serialized by the monitor of EditLog.
+     */
+    private long logEditWithBatch(short op, Writable writable) {
+        if (journal == null) {
+            LOG.error("Fatal Error : no editLog stream", new Exception());
+            throw new Error("Fatal Error : no editLog stream");
+        }
+
+        long logId = -1;
+        try {
+            logId = batchWriter.write(op, writable);
+        } catch (Throwable t) {
+            LOG.error("Fatal Error : write stream Exception", t);
+            System.exit(-1);
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("logId = {}, op = {}, queue size = {}", logId, op, batchWriter.getQueueSize());
+        }
+        return logId;
+    }
+
+    /**
+     * Write a list of operations in order, as few journal batches as possible, and wait until all of them are
+     * durable. Return the log ids of the operations.
+     */
+    private long[] logEditBatch(short op, List<? extends Writable> writables) {
+        if (batchWriter != null) {
+            long[] logIds = null;
+            try {
+                logIds = batchWriter.write(op, writables);
+            } catch (Throwable t) {
+                LOG.error("Fatal Error : write stream Exception", t);
+                System.exit(-1);
+            }
+            return logIds;
+        }
+        return logEditBatchDirectly(op, writables);
+    }
+
+    private synchronized long[] logEditBatchDirectly(short op, List<? extends Writable> writables) {
+        if (this.getNumEditStreams() == 0) {
+            LOG.error("Fatal Error : no editLog stream", new Exception());
+            throw new Error("Fatal Error : no editLog stream");
+        }
+
+        long[] logIds = new long[writables.size()];
+        int written = 0;
+        try {
+            while (written < writables.size()) {
+                JournalBatch batch = new JournalBatch(Config.batch_edit_log_max_item_num);
+                while (written + batch.getJournalEntities().size() < writables.size()
+                        && (batch.getJournalEntities().isEmpty()
+                        || (batch.getJournalEntities().size() < Config.batch_edit_log_max_item_num
+                        && batch.getSize() < Config.batch_edit_log_max_byte_size))) {
+                    batch.addJournal(op, writables.get(written + batch.getJournalEntities().size()));
+                }
+                int batchSize = batch.getJournalEntities().size();
+                long firstId = journal.write(batch);
+                for (int i = 0; i < batchSize; i++) {
+                    logIds[written + i] = firstId + i;
+                }
+                written += batchSize;
+                onBatchWritten(batchSize);
+            }
+        } catch (Throwable t) {
+            if (journal instanceof BDBJEJournal) {
+                LOG.error("BDBJE stats : {}", ((BDBJEJournal) journal).getBDBStats());
+            }
+            LOG.error("Fatal Error : write stream Exception", t);
+            System.exit(-1);
+        }
+        return logIds;
+    }
+
+    private synchronized void onBatchWritten(int batchSize, long costMs) {
+        txId += batchSize;
+        numTransactions += batchSize;
+        totalTimeTransactions += costMs;
+        if (MetricRepo.isInit) {
+            MetricRepo.COUNTER_EDIT_LOG_CURRENT.increase((long) batchSize);
+            MetricRepo.COUNTER_EDIT_LOG_WRITE.increase((long) batchSize);
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("nextId = {}, numTransactions = {}, totalTimeTransactions = {}, batch size = {} delta = {}",
+                    txId, numTransactions, totalTimeTransactions, batchSize, costMs);
+        }
+
+        if (txId >= Config.edit_log_roll_num) {
+            LOG.info("txId {} is equal to or larger than edit_log_roll_num {}, will roll edit.", txId,
+                    Config.edit_log_roll_num);
+            rollEditLog();
+            txId = 0;
+        }
+    }
+
+    private synchronized long logEditDirectly(short op, Writable writable) {
         if (this.getNumEditStreams() == 0) {
             LOG.error("Fatal Error : no editLog stream", new Exception());
             throw new Error("Fatal Error : no editLog stream");
@@ -1622,6 +1757,27 @@ public class EditLog {
         }
     }
 
+    /**
+     * Write the transaction states in journal batches, used to finish a batch of transactions together.
+     */
+    public void logInsertTransactionStates(List<TransactionState> transactionStates) {
+        long start = System.currentTimeMillis();
+        long[] logIds = logEditBatch(OperationType.OP_UPSERT_TRANSACTION_STATE, transactionStates);
+        long logEditEnd = System.currentTimeMillis();
+        for (int i = 0; i < transactionStates.size(); i++) {
+            TransactionState transactionState = transactionStates.get(i);
+            if (transactionState.getTransactionStatus() == TransactionStatus.VISIBLE) {
+                UpsertRecord record = new UpsertRecord(logIds[i], transactionState);
+                Env.getCurrentEnv().getBinlogManager().addUpsertRecord(record);
+            }
+        }
+        long end = System.currentTimeMillis();
+        if (end - start > Config.lock_reporting_threshold_ms) {
+            LOG.warn("edit log insert {} transactions take a lot time, write bdb {} ms, write binlog {} ms",
+                    transactionStates.size(), logEditEnd - start, end - logEditEnd);
+        }
+    }
+
     public void logBackupJob(BackupJob job) {
         logEdit(OperationType.OP_BACKUP_JOB, job);
     }
@@ -20,7 +20,6 @@ package org.apache.doris.persist;
 import org.apache.doris.catalog.Env;
 import org.apache.doris.common.FeMetaVersion;
 import org.apache.doris.common.io.Text;
-import org.apache.doris.common.io.Writable;
 import org.apache.doris.persist.gson.GsonPostProcessable;
 import org.apache.doris.persist.gson.GsonUtils;
 
@@ -30,7 +29,9 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 
-public class ReplicaPersistInfo implements Writable, GsonPostProcessable {
+public class ReplicaPersistInfo implements BinaryJournalCodec.BinaryWritable, GsonPostProcessable {
+
+    private static final int BINARY_SCHEMA_VERSION = 1;
 
     public enum ReplicaOperationType {
         ADD(0),
@@ -313,7 +314,7 @@ public class ReplicaPersistInfo implements Writable, GsonPostProcessable {
             replicaInfo.readFields(in);
             return replicaInfo;
         } else {
-            return GsonUtils.GSON.fromJson(Text.readString(in), ReplicaPersistInfo.class);
+            return BinaryJournalCodec.read(in, ReplicaPersistInfo.class, ReplicaPersistInfo::readBinary);
         }
     }
 
@@ -322,6 +323,51 @@ public class ReplicaPersistInfo implements Writable, GsonPostProcessable {
         Text.writeString(out, GsonUtils.GSON.toJson(this));
     }
 
+    @Override
+    public int getBinarySchemaVersion() {
+        return BINARY_SCHEMA_VERSION;
+    }
+
+    // the deprecated version hashes are always 0, they are not written
+    @Override
+    public void writeBinary(DataOutput out) throws IOException {
+        out.writeInt(opType.getValue());
+        out.writeLong(dbId);
+        out.writeLong(tableId);
+        out.writeLong(partitionId);
+        out.writeLong(indexId);
+        out.writeLong(tabletId);
+        out.writeLong(replicaId);
+        out.writeLong(backendId);
+        out.writeLong(version);
+        out.writeInt(schemaHash);
+        out.writeLong(dataSize);
+        out.writeLong(rowCount);
+        out.writeLong(lastFailedVersion);
+        out.writeLong(lastSuccessVersion);
+    }
+
+    private static ReplicaPersistInfo readBinary(DataInput in, int schemaVersion) throws IOException {
+        BinaryJournalCodec.checkSchemaVersion(ReplicaPersistInfo.class, schemaVersion, BINARY_SCHEMA_VERSION);
+        ReplicaPersistInfo info = new ReplicaPersistInfo();
+        info.opType = ReplicaOperationType.findByValue(in.readInt());
+        info.dbId = in.readLong();
+        info.tableId = in.readLong();
+        info.partitionId = in.readLong();
+        info.indexId = in.readLong();
+        info.tabletId = in.readLong();
+        info.replicaId = in.readLong();
+        info.backendId = in.readLong();
+        info.version = in.readLong();
+        info.schemaHash = in.readInt();
+        info.dataSize = in.readLong();
+        info.rowCount = in.readLong();
+        info.lastFailedVersion = in.readLong();
+        info.lastSuccessVersion = in.readLong();
+        info.gsonPostProcess();
+        return info;
+    }
+
     @Override
     public void gsonPostProcess() throws IOException {
         if (opType == null) {
@@ -0,0 +1,143 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.persist.meta;
+
+import org.apache.doris.catalog.Database;
+import org.apache.doris.catalog.Env;
+import org.apache.doris.common.io.CountingDataOutputStream;
+import org.apache.doris.common.io.Text;
+import org.apache.doris.datasource.InternalCatalog;
+import org.apache.doris.datasource.LazyDbLoader;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Save the "db" module as a section for each database, same as {@link InternalCatalog#saveDb}.
+ * The head section saves the id and name of each database, so the databases can be loaded lazily.
+ */
+public class DbSplitMetaModule implements SplitMetaModule<Database> {
+    private static final Logger LOG = LogManager.getLogger(DbSplitMetaModule.class);
+
+    @Override
+    public String getName() {
+        return "db";
+    }
+
+    @Override
+    public boolean canSplit(Env env) {
+        return true;
+    }
+
+    @Override
+    public List<Long> getPartIds(Env env) {
+        return env.getInternalCatalog().getPersistentDbIds();
+    }
+
+    @Override
+    public long saveHead(Env env, List<Long> partIds, CountingDataOutputStream dos, long checksum)
+            throws IOException {
+        int dbCount = partIds.size();
+        checksum ^= dbCount;
+        dos.writeInt(dbCount);
+        for (long dbId : partIds) {
+            Database db = env.getInternalCatalog().getDbNullable(dbId);
+            if (db == null) {
+                throw new IOException("database " + dbId + " does not exist when saving image");
+            }
+            dos.writeLong(dbId);
+            Text.writeString(dos, db.getFullName());
+        }
+        return checksum;
+    }
+
+    @Override
+    public long savePart(Env env, long partId, CountingDataOutputStream dos, long checksum) throws IOException {
+        Database db = env.getInternalCatalog().getDbNullable(partId);
+        if (db == null) {
+            throw new IOException("database " + partId + " does not exist when saving image");
+        }
+        checksum ^= partId;
+        db.write(dos);
+        return checksum;
+    }
+
+    @Override
+    public Database readPart(DataInputStream dis) throws IOException {
+        return Database.read(dis);
+    }
+
+    @Override
+    public long getChecksum(Database db) {
+        return db.getId();
+    }
+
+    @Override
+    public long load(Env env, DataInputStream headDis, List<Database> dbs, long checksum) throws IOException {
+        LOG.info("start loading db from image");
+        int dbCount = headDis.readInt();
+        if (dbCount != dbs.size()) {
+            throw new IOException("database count mismatch, expected " + dbCount + ", actual " + dbs.size());
+        }
+        long newChecksum = checksum ^ dbCount;
+        InternalCatalog catalog = env.getInternalCatalog();
+        for (Database db : dbs) {
+            long dbId = headDis.readLong();
+            Text.readString(headDis);
+            if (db.getId() != dbId) {
+                throw new IOException("database id mismatch, expected " + dbId + ", actual " + db.getId());
+            }
+            catalog.addLoadedDb(db);
+        }
+        catalog.finishLoadDbs();
+        return newChecksum;
+    }
+
+    @Override
+    public boolean supportLazyLoad() {
+        return true;
+    }
+
+    @Override
+    public long loadLazily(Env env, DataInputStream headDis, List<PartReader<Database>> partReaders,
+            Executor executor, long checksum) throws IOException {
+        LOG.info("start loading db from image lazily");
+        int dbCount = headDis.readInt();
+        if (dbCount != partReaders.size()) {
+            throw new IOException("database count mismatch, expected " + dbCount + ", actual "
+                    + partReaders.size());
+        }
+        long newChecksum = checksum ^ dbCount;
+        InternalCatalog catalog = env.getInternalCatalog();
+        LazyDbLoader loader = new LazyDbLoader(catalog);
+        for (PartReader<Database> partReader : partReaders) {
+            long dbId = headDis.readLong();
+            String fullName = Text.readString(headDis);
+            newChecksum ^= dbId;
+            loader.addDb(dbId, fullName, partReader::read);
+            // the transaction states of the database may be loaded before the database itself
+            env.getGlobalTransactionMgr().addDatabaseTransactionMgr(dbId);
+        }
+        catalog.startLazyLoadDbs(loader, executor);
+        return newChecksum;
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.doris.persist.meta;
 import org.apache.doris.common.FeConstants;
 import org.apache.doris.common.io.Text;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
@@ -30,6 +31,10 @@ public class MetaJsonHeader {
     public static final String IMAGE_VERSION = FeConstants.meta_format.getVersion();
     // the version of image format
     public String imageVersion;
+    // the format of image body, null means the modules are written sequentially,
+    // it is not written if null so that the sequential image can still be read by the older versions.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String bodyFormat;
 
     public static MetaJsonHeader read(RandomAccessFile raf) throws IOException {
         String jsonHeader = Text.readString(raf);
@@ -37,8 +42,13 @@ public class MetaJsonHeader {
     }
 
     public static void write(RandomAccessFile raf) throws IOException {
+        write(raf, null);
+    }
+
+    public static void write(RandomAccessFile raf, String bodyFormat) throws IOException {
         MetaJsonHeader metaJsonHeader = new MetaJsonHeader();
         metaJsonHeader.imageVersion = IMAGE_VERSION;
+        metaJsonHeader.bodyFormat = bodyFormat;
         String jsonHeader =  MetaJsonHeader.toJson(metaJsonHeader);
         Text.writeString(raf, jsonHeader);
     }
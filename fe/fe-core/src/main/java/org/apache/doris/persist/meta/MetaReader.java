@@ -73,6 +73,10 @@ public class MetaReader {
         long loadImageStartTime = System.currentTimeMillis();
         MetaHeader metaHeader = MetaHeader.read(imageFile);
         MetaFooter metaFooter = MetaFooter.read(imageFile);
+        if (metaHeader.isSectioned()) {
+            SectionedMetaReader.read(imageFile, env, metaHeader, metaFooter);
+            return;
+        }
 
         long checksum = 0;
         long footerIndex = imageFile.length()
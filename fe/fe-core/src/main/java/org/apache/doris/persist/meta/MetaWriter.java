@@ -18,6 +18,7 @@
 package org.apache.doris.persist.meta;
 
 import org.apache.doris.catalog.Env;
+import org.apache.doris.common.Config;
 import org.apache.doris.common.Reference;
 import org.apache.doris.common.io.CountingDataOutputStream;
 
@@ -94,6 +95,10 @@ public class MetaWriter {
     }
 
     public static void write(File imageFile, Env env) throws IOException {
+        if (Config.enable_sectioned_image) {
+            SectionedMetaWriter.write(imageFile, env);
+            return;
+        }
         // save image does not need any lock. because only checkpoint thread will call this method.
         LOG.info("start to save image to {}. is ckpt: {}",
                 imageFile.getAbsolutePath(), Env.isCheckpointThread());
@@ -20,6 +20,7 @@ package org.apache.doris.persist.meta;
 import org.apache.doris.common.Config;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
@@ -51,6 +52,11 @@ public class PersistMetaModules {
     public static final ImmutableList<String> DEPRECATED_MODULE_NAMES = ImmutableList.of(
             "loadJob", "cooldownJob", "AnalysisMgr", "mtmvJobManager", "JobTaskManager");
 
+    // module name -> SplitMetaModule, the modules which are saved by database in the sectioned image
+    public static final ImmutableMap<String, SplitMetaModule<?>> SPLIT_MODULES_MAP = ImmutableMap.of(
+            "db", new DbSplitMetaModule(),
+            "transactionState", new TransactionSplitMetaModule());
+
     static {
         MODULES_MAP = Maps.newHashMap();
         MODULES_IN_ORDER = Lists.newArrayList();
@@ -0,0 +1,153 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.persist.meta;
+
+import org.apache.doris.catalog.Env;
+import org.apache.doris.common.Config;
+import org.apache.doris.common.DdlException;
+import org.apache.doris.common.ThreadPoolManager;
+import org.apache.doris.meta.MetaContext;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The worker threads to save or load the sections of the sectioned image in parallel.
+ *
+ * The workers see the same env and meta version as the thread which creates the pool, so the sections
+ * of the checkpoint env are saved and loaded by the workers as the checkpoint thread.
+ */
+class SectionWorkerPool implements AutoCloseable {
+    private final String poolName;
+    private final int threadNum;
+    private final ExecutorService executor;
+    // created on demand, to run the background tasks which do not block the tasks of runInOrder
+    private ExecutorService backgroundExecutor;
+    private final boolean isCheckpoint;
+    private final MetaContext metaContext;
+
+    interface SectionConsumer<T> {
+        void accept(int index, T result) throws IOException, DdlException;
+    }
+
+    SectionWorkerPool(String poolName) {
+        this.poolName = poolName;
+        this.threadNum = Math.max(1, Config.sectioned_image_thread_num);
+        this.executor = ThreadPoolManager.newDaemonFixedThreadPool(threadNum, getWindowSize(), poolName, false);
+        this.isCheckpoint = Env.isCheckpointThread();
+        this.metaContext = MetaContext.get();
+    }
+
+    /**
+     * Run the tasks by the workers, and consume the results in the order of the tasks by the current thread.
+     * At most window size tasks are running or waiting to be consumed, to bound the memory of the results.
+     */
+    <T> void runInOrder(List<Callable<T>> tasks, SectionConsumer<T> consumer) throws IOException, DdlException {
+        Deque<Future<T>> futures = new ArrayDeque<>();
+        int next = 0;
+        try {
+            for (int i = 0; i < tasks.size(); i++) {
+                while (next < tasks.size() && next - i < getWindowSize()) {
+                    futures.add(submit(tasks.get(next++)));
+                }
+                consumer.accept(i, get(futures.poll()));
+            }
+        } finally {
+            for (Future<T> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private int getWindowSize() {
+        return threadNum * 2;
+    }
+
+    /**
+     * The executor to run the tasks in background, the tasks are run by the threads other than the workers
+     * of runInOrder. The submitted tasks keep running after the pool is closed.
+     */
+    synchronized Executor getBackgroundExecutor() {
+        if (backgroundExecutor == null) {
+            backgroundExecutor = ThreadPoolManager.newDaemonFixedThreadPool(threadNum, Integer.MAX_VALUE,
+                    poolName + "-background", false);
+        }
+        ExecutorService background = backgroundExecutor;
+        return task -> background.execute(() -> {
+            try {
+                callWithContext(Executors.callable(task));
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(() -> callWithContext(task));
+    }
+
+    // run the task with the env and meta version of the thread which creates the pool
+    private <T> T callWithContext(Callable<T> task) throws Exception {
+        if (isCheckpoint) {
+            Env.registerCheckpointWorkerThread();
+        }
+        if (metaContext != null) {
+            metaContext.setThreadLocalInfo();
+        }
+        try {
+            return task.call();
+        } finally {
+            MetaContext.remove();
+            if (isCheckpoint) {
+                Env.unregisterCheckpointWorkerThread();
+            }
+        }
+    }
+
+    private static <T> T get(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted when waiting image section", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        executor.shutdownNow();
+        if (backgroundExecutor != null) {
+            backgroundExecutor.shutdown();
+        }
+    }
+}
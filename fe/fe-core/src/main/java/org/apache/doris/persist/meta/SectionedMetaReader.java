@@ -0,0 +1,289 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.persist.meta;
+
+import org.apache.doris.catalog.Env;
+import org.apache.doris.common.Config;
+import org.apache.doris.common.DdlException;
+
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import org.apache.commons.io.IOUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.xerial.snappy.SnappyInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Load the image written by {@link SectionedMetaWriter}.
+ *
+ * The sections are read, decompressed and (for the parts of split modules) deserialized by the worker
+ * threads in parallel, and loaded into the env in the order of the footer index by the current thread,
+ * so the modules are loaded in the same order as {@link MetaReader}.
+ *
+ * If enable_lazy_image_load is set and it is not the checkpoint, the parts of the split modules which
+ * support lazy load (eg. the databases) are only mapped into memory and registered in order. The parts are
+ * decompressed and deserialized from the mapped image on the first access or in background. This method
+ * does not wait for them, the mappings are still valid after the image file is closed.
+ */
+public class SectionedMetaReader {
+    private static final Logger LOG = LogManager.getLogger(SectionedMetaReader.class);
+
+    private enum SectionType {
+        MODULE, SPLIT_HEAD, SPLIT_PART, SKIP
+    }
+
+    private static class SectionDesc {
+        private final String name;
+        private final long offset;
+        private final long length;
+        private final SectionType type;
+        private final MetaPersistMethod persistMethod;
+        private final SplitMetaModule<?> splitModule;
+        // whether it is the last section of a split module
+        private boolean lastOfSplit;
+
+        private SectionDesc(String name, long offset, long length, SectionType type,
+                MetaPersistMethod persistMethod, SplitMetaModule<?> splitModule) {
+            this.name = name;
+            this.offset = offset;
+            this.length = length;
+            this.type = type;
+            this.persistMethod = persistMethod;
+            this.splitModule = splitModule;
+        }
+    }
+
+    // the result of a part section, which is deserialized by the worker
+    private static class Part {
+        private final Object value;
+        private final long checksum;
+
+        private Part(Object value, long checksum) {
+            this.value = value;
+            this.checksum = checksum;
+        }
+    }
+
+    private final Env env;
+    private final FileChannel channel;
+    private final boolean lazy;
+    private long checksum;
+    private byte[] splitHead;
+    private final List<Object> splitParts = Lists.newArrayList();
+    private SectionWorkerPool pool;
+
+    private SectionedMetaReader(Env env, FileChannel channel, boolean lazy) {
+        this.env = env;
+        this.channel = channel;
+        this.lazy = lazy;
+    }
+
+    public static void read(File imageFile, Env env, MetaHeader metaHeader, MetaFooter metaFooter)
+            throws IOException, DdlException {
+        boolean lazy = Config.enable_lazy_image_load && !Env.isCheckpointThread();
+        LOG.info("start load sectioned image from {}. is ckpt: {}, lazy: {}",
+                imageFile.getAbsolutePath(), Env.isCheckpointThread(), lazy);
+        long loadImageStartTime = System.currentTimeMillis();
+        long footerIndex = imageFile.length()
+                - metaFooter.length - MetaFooter.FOOTER_LENGTH_SIZE - MetaMagicNumber.MAGIC_STR.length();
+        List<SectionDesc> sections = getSections(metaFooter.metaIndices, footerIndex);
+        Preconditions.checkState(!sections.isEmpty() && sections.get(0).name.equals("header"),
+                "the first section of sectioned image must be header");
+
+        try (FileChannel channel = FileChannel.open(imageFile.toPath(), StandardOpenOption.READ)) {
+            SectionedMetaReader reader = new SectionedMetaReader(env, channel, lazy);
+            // the header must be loaded first, which sets the meta version used by the workers
+            SectionDesc header = sections.get(0);
+            reader.checksum = env.loadHeader(reader.toDataInput(reader.readSection(header)), metaHeader, 0);
+            List<SectionDesc> bodySections = sections.subList(1, sections.size());
+            List<Callable<Object>> tasks = Lists.newArrayList();
+            for (SectionDesc section : bodySections) {
+                tasks.add(() -> reader.decode(section));
+            }
+            try (SectionWorkerPool pool = new SectionWorkerPool("image-section-reader")) {
+                reader.pool = pool;
+                pool.runInOrder(tasks, (index, result) -> reader.load(bodySections.get(index), result));
+            }
+
+            long remoteChecksum = metaFooter.checksum;
+            Preconditions.checkState(remoteChecksum == reader.checksum, remoteChecksum + " vs. " + reader.checksum);
+        }
+
+        long loadImageEndTime = System.currentTimeMillis();
+        LOG.info("finished to load sectioned image in {} ms, section num is {}",
+                (loadImageEndTime - loadImageStartTime), sections.size());
+    }
+
+    private static List<SectionDesc> getSections(List<MetaIndex> metaIndices, long footerIndex)
+            throws IOException {
+        List<SectionDesc> sections = Lists.newArrayList();
+        for (int i = 0; i < metaIndices.size(); ++i) {
+            MetaIndex metaIndex = metaIndices.get(i);
+            long end = i < metaIndices.size() - 1 ? metaIndices.get(i + 1).offset : footerIndex;
+            String name = metaIndex.name;
+            int separator = name.indexOf(SectionedMetaWriter.PART_SEPARATOR);
+            String moduleName = separator < 0 ? name : name.substring(0, separator);
+            SectionType type;
+            MetaPersistMethod persistMethod = null;
+            SplitMetaModule<?> splitModule = null;
+            if (name.equals("header")) {
+                type = SectionType.MODULE;
+            } else if (PersistMetaModules.DEPRECATED_MODULE_NAMES.contains(moduleName)) {
+                LOG.warn("meta modules {} is deprecated, ignore and skip it", name);
+                type = SectionType.SKIP;
+            } else if (!PersistMetaModules.MODULES_MAP.containsKey(moduleName)
+                    || (separator >= 0 && !PersistMetaModules.SPLIT_MODULES_MAP.containsKey(moduleName))) {
+                if (!Config.ignore_unknown_metadata_module) {
+                    throw new IOException("Unknown meta module: " + name + ". Known modules: "
+                            + PersistMetaModules.MODULE_NAMES);
+                }
+                LOG.warn("meta modules {} is unknown, ignore and skip it", name);
+                type = SectionType.SKIP;
+            } else if (separator < 0) {
+                type = SectionType.MODULE;
+                persistMethod = PersistMetaModules.MODULES_MAP.get(moduleName);
+            } else {
+                boolean isHead = name.substring(separator + 1).equals(SectionedMetaWriter.HEAD_PART);
+                type = isHead ? SectionType.SPLIT_HEAD : SectionType.SPLIT_PART;
+                splitModule = PersistMetaModules.SPLIT_MODULES_MAP.get(moduleName);
+                if (!isHead && (sections.isEmpty() || sections.get(sections.size() - 1).splitModule != splitModule)) {
+                    throw new IOException("the head section of meta module " + moduleName + " is missing");
+                }
+            }
+            sections.add(new SectionDesc(name, metaIndex.offset, end - metaIndex.offset, type,
+                    persistMethod, splitModule));
+        }
+        for (int i = 0; i < sections.size(); ++i) {
+            SectionDesc section = sections.get(i);
+            section.lastOfSplit = section.splitModule != null
+                    && (i == sections.size() - 1 || sections.get(i + 1).type != SectionType.SPLIT_PART);
+        }
+        return sections;
+    }
+
+    // called by the worker threads
+    private Object decode(SectionDesc section) throws IOException {
+        switch (section.type) {
+            case SPLIT_PART:
+                if (isLazy(section.splitModule)) {
+                    // map the section now, and read it by the module on demand
+                    ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, section.offset, section.length);
+                    return (SplitMetaModule.PartReader<?>) () -> {
+                        try (DataInputStream dis = new DataInputStream(
+                                new SnappyInputStream(new ByteBufferBackedInputStream(buffer.duplicate())))) {
+                            return section.splitModule.readPart(dis);
+                        }
+                    };
+                }
+                return readPart(section.splitModule, toDataInput(readSection(section)));
+            case SKIP:
+                return null;
+            default:
+                return readSection(section);
+        }
+    }
+
+    private static <T> Part readPart(SplitMetaModule<T> splitModule, DataInputStream dis) throws IOException {
+        T part = splitModule.readPart(dis);
+        return new Part(part, splitModule.getChecksum(part));
+    }
+
+    private void load(SectionDesc section, Object result) throws IOException, DdlException {
+        switch (section.type) {
+            case MODULE:
+                byte[] data = (byte[]) result;
+                if (data.length == 0) {
+                    LOG.info("Skip {} module since empty meta length.", section.name);
+                    break;
+                }
+                try {
+                    checksum = (long) section.persistMethod.readMethod.invoke(env, toDataInput(data), checksum);
+                } catch (InvocationTargetException | IllegalAccessException e) {
+                    throw new IOException(e);
+                }
+                break;
+            case SPLIT_HEAD:
+                splitHead = (byte[]) result;
+                splitParts.clear();
+                break;
+            case SPLIT_PART:
+                if (result instanceof Part) {
+                    Part part = (Part) result;
+                    splitParts.add(part.value);
+                    checksum ^= part.checksum;
+                } else {
+                    splitParts.add(result);
+                }
+                break;
+            default:
+                break;
+        }
+        if (section.lastOfSplit) {
+            checksum = loadSplitModule(section.splitModule);
+            splitHead = null;
+            splitParts.clear();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> long loadSplitModule(SplitMetaModule<T> splitModule) throws IOException, DdlException {
+        if (isLazy(splitModule)) {
+            List<SplitMetaModule.PartReader<T>> partReaders = Lists.newArrayList();
+            for (Object partReader : splitParts) {
+                partReaders.add((SplitMetaModule.PartReader<T>) partReader);
+            }
+            return splitModule.loadLazily(env, toDataInput(splitHead), partReaders, pool.getBackgroundExecutor(),
+                    checksum);
+        }
+        return splitModule.load(env, toDataInput(splitHead), (List<T>) splitParts, checksum);
+    }
+
+    private boolean isLazy(SplitMetaModule<?> splitModule) {
+        return lazy && splitModule.supportLazyLoad();
+    }
+
+    // read and decompress the section
+    private byte[] readSection(SectionDesc section) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) section.length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, section.offset + buffer.position()) < 0) {
+                throw new EOFException("unexpected end of image when reading section " + section.name);
+            }
+        }
+        buffer.flip();
+        try (SnappyInputStream in = new SnappyInputStream(new ByteBufferBackedInputStream(buffer))) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    private DataInputStream toDataInput(byte[] data) {
+        return new DataInputStream(new ByteArrayInputStream(data));
+    }
+}
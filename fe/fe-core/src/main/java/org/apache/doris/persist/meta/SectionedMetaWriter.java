@@ -0,0 +1,148 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.persist.meta;
+
+import org.apache.doris.catalog.Env;
+import org.apache.doris.common.DdlException;
+import org.apache.doris.common.Reference;
+import org.apache.doris.common.io.CountingDataOutputStream;
+
+import com.google.common.collect.Lists;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.xerial.snappy.SnappyOutputStream;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Sectioned image format, the header and footer are same as {@link MetaWriter}, and the json header
+ * has bodyFormat {@link #BODY_FORMAT}.
+ * |- Image Body -----------------------------------------|
+ * | Section "header"                                     |
+ * | Section "masterInfo"                                 |
+ * | ...                                                  |
+ * | Section "db/head"           (database count)         |
+ * | Section "db/10001"          (database 10001)         |
+ * | Section "db/10002"          (database 10002)         |
+ * | ...                                                  |
+ * | Section "transactionState/head"                      |
+ * | Section "transactionState/10001"                     |
+ * | ...                                                  |
+ * |------------------------------------------------------|
+ * Each section is the snappy compressed data of a meta module, or a part of a split module
+ * (see {@link SplitMetaModule}), and is addressed by the index of the footer. The checksum of each
+ * section is computed from 0, and the checksum of the image is the xor of the checksums of all sections.
+ *
+ * So the sections are serialized and compressed by the worker threads in parallel,
+ * and written to the file in order.
+ */
+public class SectionedMetaWriter {
+    private static final Logger LOG = LogManager.getLogger(SectionedMetaWriter.class);
+
+    public static final String BODY_FORMAT = "SECTIONED_SNAPPY";
+    public static final String PART_SEPARATOR = "/";
+    public static final String HEAD_PART = "head";
+
+    private interface SectionWriteMethod {
+        long write(CountingDataOutputStream dos) throws IOException;
+    }
+
+    private static class Section {
+        private final String name;
+        private final byte[] data;
+        private final long checksum;
+
+        private Section(String name, byte[] data, long checksum) {
+            this.name = name;
+            this.data = data;
+            this.checksum = checksum;
+        }
+    }
+
+    public static void write(File imageFile, Env env) throws IOException {
+        LOG.info("start to save sectioned image to {}. is ckpt: {}",
+                imageFile.getAbsolutePath(), Env.isCheckpointThread());
+        long saveImageStartTime = System.currentTimeMillis();
+        long startPosition = MetaHeader.write(imageFile, BODY_FORMAT);
+        List<MetaIndex> metaIndices = Lists.newArrayList();
+        final Reference<Long> checksum = new Reference<>(0L);
+        FileOutputStream imageFileOut = new FileOutputStream(imageFile, true);
+        try (SectionWorkerPool pool = new SectionWorkerPool("image-section-writer");
+                CountingDataOutputStream dos = new CountingDataOutputStream(new BufferedOutputStream(imageFileOut),
+                        startPosition)) {
+            pool.runInOrder(createSectionTasks(env), (index, section) -> {
+                metaIndices.add(new MetaIndex(section.name, dos.getCount()));
+                dos.write(section.data);
+                checksum.setRef(checksum.getRef() ^ section.checksum);
+            });
+            dos.flush();
+            imageFileOut.getChannel().force(true);
+        } catch (DdlException e) {
+            throw new IOException(e);
+        }
+        MetaFooter.write(imageFile, metaIndices, checksum.getRef());
+
+        long saveImageEndTime = System.currentTimeMillis();
+        LOG.info("finished save sectioned image {} in {} ms. checksum is {}, size is {}, section num is {}",
+                imageFile.getAbsolutePath(), (saveImageEndTime - saveImageStartTime), checksum.getRef(),
+                imageFile.length(), metaIndices.size());
+    }
+
+    private static List<Callable<Section>> createSectionTasks(Env env) {
+        List<Callable<Section>> tasks = Lists.newArrayList();
+        long replayedJournalId = env.getReplayedJournalId();
+        tasks.add(() -> encode("header", dos -> env.saveHeader(dos, replayedJournalId, 0)));
+        for (MetaPersistMethod m : PersistMetaModules.MODULES_IN_ORDER) {
+            SplitMetaModule<?> splitModule = PersistMetaModules.SPLIT_MODULES_MAP.get(m.name);
+            if (splitModule != null && splitModule.canSplit(env)) {
+                List<Long> partIds = splitModule.getPartIds(env);
+                tasks.add(() -> encode(m.name + PART_SEPARATOR + HEAD_PART,
+                        dos -> splitModule.saveHead(env, partIds, dos, 0)));
+                for (long partId : partIds) {
+                    tasks.add(() -> encode(m.name + PART_SEPARATOR + partId,
+                            dos -> splitModule.savePart(env, partId, dos, 0)));
+                }
+                continue;
+            }
+            tasks.add(() -> encode(m.name, dos -> {
+                try {
+                    return (long) m.writeMethod.invoke(env, dos, 0L);
+                } catch (IllegalAccessException | InvocationTargetException e) {
+                    LOG.warn("failed to write meta module: {}", m.name, e);
+                    throw new IOException(e);
+                }
+            }));
+        }
+        return tasks;
+    }
+
+    private static Section encode(String name, SectionWriteMethod method) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long checksum;
+        try (CountingDataOutputStream dos = new CountingDataOutputStream(new SnappyOutputStream(out))) {
+            checksum = method.write(dos);
+        }
+        return new Section(name, out.toByteArray(), checksum);
+    }
+}
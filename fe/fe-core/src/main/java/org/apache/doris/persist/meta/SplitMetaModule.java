@@ -0,0 +1,75 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.persist.meta;
+
+import org.apache.doris.catalog.Env;
+import org.apache.doris.common.DdlException;
+import org.apache.doris.common.io.CountingDataOutputStream;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * A meta module which is saved as a head section and a section for each part (eg. each database) of it
+ * in the sectioned image, see {@link SectionedMetaWriter}.
+ * The parts are serialized and deserialized by the worker threads in parallel,
+ * and then loaded into the env in order by the loading thread.
+ *
+ * @param <T> the deserialized part
+ */
+public interface SplitMetaModule<T> {
+    // the name of the module in PersistMetaModules.MODULE_NAMES
+    String getName();
+
+    // if false, the module is saved as a whole module
+    boolean canSplit(Env env);
+
+    List<Long> getPartIds(Env env);
+
+    long saveHead(Env env, List<Long> partIds, CountingDataOutputStream dos, long checksum) throws IOException;
+
+    // called by the worker threads
+    long savePart(Env env, long partId, CountingDataOutputStream dos, long checksum) throws IOException;
+
+    // called by the worker threads, must not modify the env
+    T readPart(DataInputStream dis) throws IOException;
+
+    long getChecksum(T part);
+
+    long load(Env env, DataInputStream headDis, List<T> parts, long checksum) throws IOException, DdlException;
+
+    interface PartReader<T> {
+        T read() throws IOException;
+    }
+
+    // whether the parts can be loaded lazily, see loadLazily
+    default boolean supportLazyLoad() {
+        return false;
+    }
+
+    /**
+     * Load the head, and register the parts which are deserialized on the first access or in background
+     * by the executor. The image load does not wait for the parts, the part readers must not depend on
+     * the image file being open.
+     */
+    default long loadLazily(Env env, DataInputStream headDis, List<PartReader<T>> partReaders, Executor executor,
+            long checksum) throws IOException, DdlException {
+        throw new UnsupportedOperationException("meta module " + getName() + " does not support lazy load");
+    }
+}
@@ -0,0 +1,98 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.persist.meta;
+
+import org.apache.doris.catalog.Env;
+import org.apache.doris.common.io.CountingDataOutputStream;
+import org.apache.doris.transaction.GlobalTransactionMgr;
+import org.apache.doris.transaction.TransactionState;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Save the "transactionState" module as a section for the transaction states of each database,
+ * the head section saves the transaction number and the transaction id generator.
+ */
+public class TransactionSplitMetaModule implements SplitMetaModule<List<TransactionState>> {
+    private static final Logger LOG = LogManager.getLogger(TransactionSplitMetaModule.class);
+
+    @Override
+    public String getName() {
+        return "transactionState";
+    }
+
+    @Override
+    public boolean canSplit(Env env) {
+        // the cloud transaction manager does not save the transaction states in image
+        return env.getGlobalTransactionMgr() instanceof GlobalTransactionMgr;
+    }
+
+    @Override
+    public List<Long> getPartIds(Env env) {
+        return getTransactionMgr(env).getDatabaseTransactionMgrDbIds();
+    }
+
+    @Override
+    public long saveHead(Env env, List<Long> partIds, CountingDataOutputStream dos, long checksum)
+            throws IOException {
+        GlobalTransactionMgr transactionMgr = getTransactionMgr(env);
+        int size = transactionMgr.getTransactionNum();
+        checksum ^= size;
+        dos.writeInt(size);
+        transactionMgr.getTransactionIDGenerator().write(dos);
+        return checksum;
+    }
+
+    @Override
+    public long savePart(Env env, long partId, CountingDataOutputStream dos, long checksum) throws IOException {
+        getTransactionMgr(env).writeDbTransactionStates(partId, dos);
+        return checksum;
+    }
+
+    @Override
+    public List<TransactionState> readPart(DataInputStream dis) throws IOException {
+        return GlobalTransactionMgr.readDbTransactionStates(dis);
+    }
+
+    @Override
+    public long getChecksum(List<TransactionState> transactionStates) {
+        return 0;
+    }
+
+    @Override
+    public long load(Env env, DataInputStream headDis, List<List<TransactionState>> parts, long checksum)
+            throws IOException {
+        GlobalTransactionMgr transactionMgr = getTransactionMgr(env);
+        int size = headDis.readInt();
+        long newChecksum = checksum ^ size;
+        transactionMgr.getTransactionIDGenerator().readFields(headDis);
+        for (List<TransactionState> transactionStates : parts) {
+            transactionMgr.loadTransactionStates(transactionStates);
+        }
+        LOG.info("finished replay transactionState from image");
+        return newChecksum;
+    }
+
+    private static GlobalTransactionMgr getTransactionMgr(Env env) {
+        return (GlobalTransactionMgr) env.getGlobalTransactionMgr();
+    }
+}
@@ -25,30 +25,35 @@ import org.apache.doris.plugin.PluginMgr;
 import org.apache.doris.plugin.audit.AuditEvent;
 
 import com.google.common.base.Strings;
-import com.google.common.collect.Queues;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Class for processing all audit events.
  * It will receive audit events and handle them to all AUDIT type plugins.
+ * The events are queued in an array based queue, which allocates nothing for each event,
+ * and the worker takes the queued events in batch to reduce the contention with the producers.
  */
 public class AuditEventProcessor {
     private static final Logger LOG = LogManager.getLogger(AuditEventProcessor.class);
     private static final long UPDATE_PLUGIN_INTERVAL_MS = 60 * 1000; // 1min
+    private static final int EVENT_QUEUE_CAPACITY = 10000;
+    private static final int MAX_BATCH_SIZE = 1024;
 
     private PluginMgr pluginMgr;
 
     private List<Plugin> auditPlugins;
     private long lastUpdateTime = 0;
 
-    private BlockingQueue<AuditEvent> eventQueue = Queues.newLinkedBlockingDeque(10000);
+    private BlockingQueue<AuditEvent> eventQueue = new ArrayBlockingQueue<>(EVENT_QUEUE_CAPACITY);
     private Thread workerThread;
 
     private volatile boolean isStopped = false;
@@ -97,14 +102,10 @@ public class AuditEventProcessor {
             // return true to ignore this event
             return true;
         }
-        boolean isAddSucc = true;
-        try {
-            eventQueue.add(auditEvent);
-        } catch (Exception e) {
-            isAddSucc = false;
-            if (!ignoreQueueFullLog) {
-                LOG.warn("encounter exception when handle audit event {}, ignore", auditEvent.type, e);
-            }
+        // offer() doesn't create an exception when the queue is full
+        boolean isAddSucc = eventQueue.offer(auditEvent);
+        if (!isAddSucc && !ignoreQueueFullLog) {
+            LOG.warn("audit event queue is full when handle audit event {}, ignore", auditEvent.type);
         }
         return isAddSucc;
     }
@@ -113,6 +114,7 @@ public class AuditEventProcessor {
         @Override
         public void run() {
             AuditEvent auditEvent;
+            List<AuditEvent> events = Lists.newArrayListWithCapacity(MAX_BATCH_SIZE);
             while (!isStopped) {
                 // update audit plugin list every UPDATE_PLUGIN_INTERVAL_MS.
                 // because some plugins may be installed or uninstalled at runtime.
@@ -129,6 +131,8 @@ public class AuditEventProcessor {
                     if (auditEvent == null) {
                         continue;
                     }
+                    events.add(auditEvent);
+                    eventQueue.drainTo(events, MAX_BATCH_SIZE - 1);
                 } catch (InterruptedException e) {
                     if (LOG.isDebugEnabled()) {
                         LOG.debug("encounter exception when getting audit event from queue, ignore", e);
@@ -136,17 +140,20 @@ public class AuditEventProcessor {
                     continue;
                 }
 
-                try {
-                    for (Plugin plugin : auditPlugins) {
-                        if (((AuditPlugin) plugin).eventFilter(auditEvent.type)) {
-                            ((AuditPlugin) plugin).exec(auditEvent);
+                for (AuditEvent event : events) {
+                    try {
+                        for (Plugin plugin : auditPlugins) {
+                            if (((AuditPlugin) plugin).eventFilter(event.type)) {
+                                ((AuditPlugin) plugin).exec(event);
+                            }
+                        }
+                    } catch (Exception e) {
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug("encounter exception when processing audit event.", e);
                         }
-                    }
-                } catch (Exception e) {
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("encounter exception when processing audit event.", e);
                     }
                 }
+                events.clear();
             }
         }
 
@@ -373,6 +373,10 @@ public abstract class ConnectProcessor {
                 executor = new StmtExecutor(ctx, parsedStmt);
                 executor.getProfile().getSummaryProfile().setParseSqlStartTime(parseSqlStartTime);
                 executor.getProfile().getSummaryProfile().setParseSqlFinishTime(parseSqlFinishTime);
+                if (parsedStmt instanceof LogicalPlanAdapter) {
+                    executor.getProfile().getSummaryProfile().setParseSqlSavedTime(
+                            ((LogicalPlanAdapter) parsedStmt).getStatementContext().getParseSqlSavedTime());
+                }
                 ctx.setExecutor(executor);
 
                 if (cacheKeyType != null) {
@@ -155,15 +155,20 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class Coordinator implements CoordInterface {
@@ -177,6 +182,11 @@ public class Coordinator implements CoordInterface {
     private static ExecutorService backendRpcCallbackExecutor = ThreadPoolManager.newDaemonProfileThreadPool(32, 100,
             "backend-rpc-callback", true);
 
+    // serialize and send the fragments of the backends in parallel, run in the caller if the queue is full
+    private static final ExecutorService fragmentDispatchExecutor = ThreadPoolManager.newDaemonFixedThreadPool(
+            Config.fragment_dispatch_thread_num, 1024, "fragment-dispatch", true,
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
     // Overall status of the entire query; set to the first reported fragment error
     // status or to CANCELLED, if Cancel() is called.
     Status queryStatus = new Status();
@@ -738,9 +748,12 @@ public class Coordinator implements CoordInterface {
                     continue;
                 }
                 addrs.add(param.host);
-                receivers.add(new ResultReceiver(queryId, param.instanceId, addressToBackendID.get(param.host),
-                        toBrpcHost(param.host), this.timeoutDeadline,
-                        context.getSessionVariable().getMaxMsgSizeOfResultReceiver(), enableParallelResultSink));
+                ResultReceiver receiver = new ResultReceiver(queryId, param.instanceId,
+                        addressToBackendID.get(param.host), toBrpcHost(param.host), this.timeoutDeadline,
+                        context.getSessionVariable().getMaxMsgSizeOfResultReceiver(), enableParallelResultSink);
+                receiver.setLookahead(context.getSessionVariable().getFetchResultLookaheadNum(),
+                        context.getSessionVariable().getFetchResultLookaheadBytes());
+                receivers.add(receiver);
             }
 
             if (!context.isReturnResultFromLocal()) {
@@ -888,36 +901,20 @@ public class Coordinator implements CoordInterface {
                 fragmentsDoneLatch.addMark(pair.first.asInt(), pair.second);
             }
 
+            updateProfileIfPresent(profile -> profile.setFragmentBuildParamsTime());
+
             // 4. send and wait fragments rpc
-            // 4.1 serialize fragment
             // unsetFields() must be called serially.
             for (PipelineExecContexts ctxs : beToPipelineExecCtxs.values()) {
                 ctxs.unsetFields();
             }
-            // serializeFragments() can be called in parallel.
-            final AtomicLong compressedSize = new AtomicLong(0);
-            beToPipelineExecCtxs.values().parallelStream().forEach(ctxs -> {
-                try {
-                    compressedSize.addAndGet(ctxs.serializeFragments());
-                } catch (TException e) {
-                    throw new RuntimeException(e);
-                }
-            });
-
-            updateProfileIfPresent(profile -> profile.updateFragmentCompressedSize(compressedSize.get()));
+            // 4.1 serialize and send the fragments of each backend in parallel
+            BackendServiceProxy proxy = BackendServiceProxy.getInstance();
+            List<Pair<Long, Triple<PipelineExecContexts, BackendServiceProxy,
+                    Future<InternalService.PExecPlanFragmentResult>>>> futures = dispatchFragments(proxy);
             updateProfileIfPresent(profile -> profile.setFragmentSerializeTime());
 
-            // 4.2 send fragments rpc
-            List<Pair<Long, Triple<PipelineExecContexts, BackendServiceProxy,
-                    Future<InternalService.PExecPlanFragmentResult>>>> futures = Lists.newArrayList();
-            BackendServiceProxy proxy = BackendServiceProxy.getInstance();
-            for (PipelineExecContexts ctxs : beToPipelineExecCtxs.values()) {
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug(ctxs.debugInfo());
-                }
-                futures.add(Pair.of(DateTime.now().getMillis(),
-                        ImmutableTriple.of(ctxs, proxy, ctxs.execRemoteFragmentsAsync(proxy))));
-            }
+            // 4.2 wait fragments rpc
             Map<TNetworkAddress, List<Long>> rpcPhase1Latency =
                     waitPipelineRpc(futures, this.timeoutDeadline - System.currentTimeMillis(), "send fragments");
 
@@ -944,6 +941,77 @@ public class Coordinator implements CoordInterface {
         }
     }
 
+    /**
+     * Serialize the fragments of each backend and send them in parallel. The rpc of a backend is sent as soon as
+     * its fragments are serialized, without waiting for the other backends. The descriptor table is the same for
+     * all the backends, so it is serialized only once.
+     */
+    private List<Pair<Long, Triple<PipelineExecContexts, BackendServiceProxy,
+            Future<InternalService.PExecPlanFragmentResult>>>> dispatchFragments(BackendServiceProxy proxy)
+            throws TException {
+        long startNs = System.nanoTime();
+        if (descTable != null) {
+            PreSerializedDescriptorTable serializedDescTable = new PreSerializedDescriptorTable(descTable);
+            for (PipelineExecContexts ctxs : beToPipelineExecCtxs.values()) {
+                for (PipelineExecContext ctx : ctxs.ctxs) {
+                    if (ctx.rpcParams.getDescTbl() == descTable) {
+                        ctx.rpcParams.setDescTbl(serializedDescTable);
+                    }
+                }
+            }
+        }
+        long descTableSerializeNs = System.nanoTime() - startNs;
+
+        AtomicLong compressedSize = new AtomicLong(0);
+        AtomicLong serializeNs = new AtomicLong(0);
+        // no need to switch thread for the query of a single backend, the failure is still completed into
+        // the future to be handled the same as the parallel dispatches
+        Executor dispatchExecutor = beToPipelineExecCtxs.size() == 1 ? Runnable::run : fragmentDispatchExecutor;
+        List<CompletableFuture<Pair<Long, Triple<PipelineExecContexts, BackendServiceProxy,
+                Future<InternalService.PExecPlanFragmentResult>>>>> dispatches = Lists.newArrayList();
+        for (PipelineExecContexts ctxs : beToPipelineExecCtxs.values()) {
+            Supplier<Pair<Long, Triple<PipelineExecContexts, BackendServiceProxy,
+                    Future<InternalService.PExecPlanFragmentResult>>>> dispatch
+                    = () -> serializeAndSendFragments(ctxs, proxy, compressedSize, serializeNs);
+            dispatches.add(CompletableFuture.supplyAsync(dispatch, dispatchExecutor));
+        }
+        List<Pair<Long, Triple<PipelineExecContexts, BackendServiceProxy,
+                Future<InternalService.PExecPlanFragmentResult>>>> futures = Lists.newArrayList();
+        for (CompletableFuture<Pair<Long, Triple<PipelineExecContexts, BackendServiceProxy,
+                Future<InternalService.PExecPlanFragmentResult>>>> dispatch : dispatches) {
+            try {
+                futures.add(dispatch.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof TException) {
+                    throw (TException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        updateProfileIfPresent(profile -> profile.updateFragmentCompressedSize(compressedSize.get()));
+        updateProfileIfPresent(profile -> profile.updateFragmentSerializeTotalTime(
+                descTableSerializeNs + serializeNs.get()));
+        return futures;
+    }
+
+    private Pair<Long, Triple<PipelineExecContexts, BackendServiceProxy,
+            Future<InternalService.PExecPlanFragmentResult>>> serializeAndSendFragments(PipelineExecContexts ctxs,
+            BackendServiceProxy proxy, AtomicLong compressedSize, AtomicLong serializeNs) {
+        try {
+            long startNs = System.nanoTime();
+            compressedSize.addAndGet(ctxs.serializeFragments());
+            serializeNs.addAndGet(System.nanoTime() - startNs);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(ctxs.debugInfo());
+            }
+            return Pair.of(DateTime.now().getMillis(),
+                    ImmutableTriple.of(ctxs, proxy, ctxs.execRemoteFragmentsAsync(proxy)));
+        } catch (TException e) {
+            throw new CompletionException(e);
+        }
+    }
+
     private Map<TNetworkAddress, List<Long>>  waitPipelineRpc(List<Pair<Long, Triple<PipelineExecContexts,
             BackendServiceProxy, Future<InternalService.PExecPlanFragmentResult>>>> futures, long leftTimeMs,
             String operation) throws RpcException, UserException {
@@ -1163,7 +1231,10 @@ public class Coordinator implements CoordInterface {
 
         RowBatch resultBatch;
         Status status = new Status();
-        resultBatch = receivers.get(receivers.size() - 1).getNext(status);
+        ResultReceiver receiver = receivers.get(receivers.size() - 1);
+        resultBatch = receiver.getNext(status);
+        long fetchWaitTimeNs = receiver.takeFetchWaitTimeNs();
+        updateProfileIfPresent(profile -> profile.addFetchResultWaitTime(fetchWaitTimeNs));
         if (!status.ok()) {
             LOG.warn("Query {} coordinator get next fail, {}, need cancel.",
                     DebugUtil.printId(queryId), status.getErrorMsg());
@@ -0,0 +1,613 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.qe;
+
+import org.apache.doris.analysis.UserIdentity;
+import org.apache.doris.catalog.Column;
+import org.apache.doris.catalog.Database;
+import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.MTMV;
+import org.apache.doris.catalog.MaterializedIndex;
+import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.catalog.Partition;
+import org.apache.doris.catalog.TableIf;
+import org.apache.doris.catalog.Tablet;
+import org.apache.doris.common.UserException;
+import org.apache.doris.nereids.CascadesContext;
+import org.apache.doris.nereids.StatementContext;
+import org.apache.doris.nereids.analyzer.UnboundRelation;
+import org.apache.doris.nereids.rules.analysis.UserAuthentication;
+import org.apache.doris.nereids.rules.rewrite.PruneOlapScanPartition;
+import org.apache.doris.nereids.rules.rewrite.PruneOlapScanTablet;
+import org.apache.doris.nereids.trees.expressions.Expression;
+import org.apache.doris.nereids.trees.expressions.NamedExpression;
+import org.apache.doris.nereids.trees.expressions.Slot;
+import org.apache.doris.nereids.trees.expressions.SlotReference;
+import org.apache.doris.nereids.trees.expressions.functions.Nondeterministic;
+import org.apache.doris.nereids.trees.expressions.literal.Literal;
+import org.apache.doris.nereids.trees.expressions.literal.NullLiteral;
+import org.apache.doris.nereids.trees.plans.Plan;
+import org.apache.doris.nereids.trees.plans.logical.LogicalPlan;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalAssertNumRows;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalDistribute;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalEmptyRelation;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalFilter;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalHashAggregate;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalHashJoin;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalLimit;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalNestedLoopJoin;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalOlapScan;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalOneRowRelation;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalPartitionTopN;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalPlan;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalProject;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalQuickSort;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalRepeat;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalResultSink;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalTopN;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalUnion;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalWindow;
+import org.apache.doris.nereids.util.ExpressionUtils;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The generic plan of a prepared statement.
+ *
+ * The physical plan of a custom execution, which is planned with the real values of the placeholders, is kept
+ * as a candidate. If the plan of the next custom execution equals the candidate with the placeholder values
+ * replaced, the placeholder values are known to appear in the candidate only as these literals, and the
+ * candidate becomes the generic plan. Later executions bind their values into the generic plan and prune the
+ * partitions and tablets of the olap scans again, instead of analyzing, rewriting and optimizing the statement.
+ *
+ * An execution falls back to a custom plan if its values can't be bound losslessly, or the pruned rows of a
+ * scan drift too much from the generic plan. The generic plan is dropped if the schema or partitions of
+ * the tables, the session variables or the user changed.
+ */
+public class GenericPlanContext {
+    private static final Logger LOG = LogManager.getLogger(GenericPlanContext.class);
+    // stop building the generic plan after this number of custom plans can't be verified
+    private static final int MAX_UNVERIFIED_PLAN_NUM = 5;
+    private static final Set<Class<?>> SUPPORTED_PLANS = ImmutableSet.of(
+            PhysicalResultSink.class, PhysicalOlapScan.class, PhysicalFilter.class, PhysicalProject.class,
+            PhysicalHashJoin.class, PhysicalNestedLoopJoin.class, PhysicalHashAggregate.class,
+            PhysicalDistribute.class, PhysicalQuickSort.class, PhysicalTopN.class, PhysicalLimit.class,
+            PhysicalPartitionTopN.class, PhysicalWindow.class, PhysicalRepeat.class, PhysicalUnion.class,
+            PhysicalOneRowRelation.class, PhysicalAssertNumRows.class);
+
+    // the plan of the prepared statement
+    private final LogicalPlan logicalPlan;
+    private boolean disabled = false;
+    private int unverifiedPlanNum = 0;
+    private CustomPlan candidate;
+    private CustomPlan genericPlan;
+    // the pruned rows of the olap scans of the generic plan, in pre-order
+    private List<Long> genericScanRows;
+
+    public GenericPlanContext(LogicalPlan logicalPlan) {
+        this.logicalPlan = logicalPlan;
+    }
+
+    public LogicalPlan getLogicalPlan() {
+        return logicalPlan;
+    }
+
+    public boolean hasGenericPlan() {
+        return genericPlan != null;
+    }
+
+    public List<TableIf> getTables() {
+        return genericPlan == null ? Collections.emptyList() : new ArrayList<>(genericPlan.tables);
+    }
+
+    /**
+     * Bind the placeholder values of the current execution into the generic plan.
+     * The tables of the generic plan must be locked.
+     *
+     * @return the bound plan, which is not post processed, or empty if the execution needs a custom plan
+     */
+    public Optional<PhysicalPlan> bindGenericPlan(CascadesContext cascadesContext) {
+        if (genericPlan == null) {
+            return Optional.empty();
+        }
+        ConnectContext ctx = cascadesContext.getConnectContext();
+        if (!genericPlan.isValid(cascadesContext)) {
+            LOG.info("drop the generic plan of prepared statement because the tables or variables changed, {}",
+                    ctx.getQueryIdentifier());
+            dropGenericPlan();
+            return Optional.empty();
+        }
+        List<Literal> params = getParams(cascadesContext);
+        if (params == null || !sameTypes(genericPlan.params, params)) {
+            return Optional.empty();
+        }
+        try {
+            PhysicalPlan plan = (PhysicalPlan) new Binder(genericPlan.params, params, cascadesContext)
+                    .bind(genericPlan.plan);
+            List<PhysicalOlapScan> scans = plan.collectToList(PhysicalOlapScan.class::isInstance);
+            double maxDrift = ctx.getSessionVariable().getGenericPlanMaxRowsDrift();
+            for (int i = 0; i < scans.size(); i++) {
+                long rows = getScanRows(scans.get(i));
+                long genericRows = genericScanRows.get(i);
+                if ((Math.max(rows, genericRows) + 1.0) / (Math.min(rows, genericRows) + 1.0) > maxDrift) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("use custom plan for {}, the scan rows {} drift from the generic plan {}",
+                                ctx.getQueryIdentifier(), rows, genericRows);
+                    }
+                    return Optional.empty();
+                }
+            }
+            return Optional.of(plan);
+        } catch (CannotBindException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("use custom plan for {}, {}", ctx.getQueryIdentifier(), e.getMessage());
+            }
+            return Optional.empty();
+        } catch (Exception e) {
+            LOG.warn("failed to bind the generic plan of prepared statement, {}", ctx.getQueryIdentifier(), e);
+            dropGenericPlan();
+            disabled = true;
+            return Optional.empty();
+        }
+    }
+
+    private void dropGenericPlan() {
+        genericPlan = null;
+        genericScanRows = null;
+        unverifiedPlanNum = 0;
+    }
+
+    /**
+     * Add the plan of a custom execution, the plan is not post processed.
+     * It becomes the generic plan if it equals the last custom plan with the placeholder values replaced.
+     */
+    public void addCustomPlan(Plan analyzedPlan, PhysicalPlan plan, CascadesContext cascadesContext) {
+        if (disabled || genericPlan != null) {
+            return;
+        }
+        try {
+            // the values which prune all the data don't tell the plan of the other values
+            if (plan.anyMatch(PhysicalEmptyRelation.class::isInstance)) {
+                return;
+            }
+            if (!isSupported(analyzedPlan, plan, cascadesContext)) {
+                disabled = true;
+                candidate = null;
+                return;
+            }
+            List<Literal> params = getParams(cascadesContext);
+            if (params == null || hasAmbiguousParams(params)) {
+                return;
+            }
+            CustomPlan customPlan = new CustomPlan(plan, params, cascadesContext);
+            if (candidate != null && verify(candidate, customPlan, cascadesContext)) {
+                genericPlan = candidate;
+                genericScanRows = Lists.newArrayList();
+                for (Plan scan : genericPlan.plan.collectToList(PhysicalOlapScan.class::isInstance)) {
+                    genericScanRows.add(getScanRows((PhysicalOlapScan) scan));
+                }
+                candidate = null;
+                LOG.info("build the generic plan of prepared statement, {}",
+                        cascadesContext.getConnectContext().getQueryIdentifier());
+                return;
+            }
+            candidate = customPlan;
+            if (++unverifiedPlanNum > MAX_UNVERIFIED_PLAN_NUM) {
+                disabled = true;
+                candidate = null;
+            }
+        } catch (Exception e) {
+            LOG.warn("failed to build the generic plan of prepared statement, {}",
+                    cascadesContext.getConnectContext().getQueryIdentifier(), e);
+            disabled = true;
+            candidate = null;
+        }
+    }
+
+    // the candidate is verified if the custom plan equals the candidate bound with the values of the custom plan
+    private boolean verify(CustomPlan candidate, CustomPlan customPlan, CascadesContext cascadesContext) {
+        if (!candidate.tables.equals(customPlan.tables) || !sameTypes(candidate.params, customPlan.params)) {
+            return false;
+        }
+        for (int i = 0; i < candidate.params.size(); i++) {
+            // the provenance of a placeholder can't be told if it has the same value in both plans
+            if (matches(candidate.params.get(i), customPlan.params.get(i))) {
+                return false;
+            }
+        }
+        Plan bound;
+        try {
+            bound = new Binder(candidate.params, customPlan.params, cascadesContext).bind(candidate.plan);
+        } catch (CannotBindException e) {
+            return false;
+        }
+        return bound.shape("").equals(customPlan.plan.shape(""))
+                && collectLiterals(bound).equals(collectLiterals(customPlan.plan))
+                && collectScans(bound).equals(collectScans(customPlan.plan));
+    }
+
+    private boolean isSupported(Plan analyzedPlan, PhysicalPlan plan, CascadesContext cascadesContext) {
+        StatementContext statementContext = cascadesContext.getStatementContext();
+        if (statementContext.isShortCircuitQuery() || cascadesContext.getTables() == null
+                || cascadesContext.getTables().isEmpty()) {
+            return false;
+        }
+        for (TableIf table : cascadesContext.getTables()) {
+            if (!(table instanceof OlapTable) || table instanceof MTMV) {
+                return false;
+            }
+        }
+        // the partitions or tablets are specified, or the result is not deterministic
+        boolean specifiedScan = logicalPlan.anyMatch(p -> p instanceof UnboundRelation
+                && (!((UnboundRelation) p).getPartNames().isEmpty()
+                || !((UnboundRelation) p).getTabletIds().isEmpty()
+                || ((UnboundRelation) p).getTableSample().isPresent()
+                || ((UnboundRelation) p).getTableSnapshot().isPresent()));
+        if (specifiedScan || analyzedPlan.anyMatch(p -> ((Plan) p).getExpressions().stream()
+                .anyMatch(e -> e.anyMatch(Nondeterministic.class::isInstance)))) {
+            return false;
+        }
+        return !plan.anyMatch(p -> !SUPPORTED_PLANS.contains(p.getClass())
+                || (p instanceof PhysicalOlapScan && ((PhysicalOlapScan) p).getTableSample().isPresent()));
+    }
+
+    private static List<Literal> getParams(CascadesContext cascadesContext) {
+        List<Literal> params = Lists.newArrayList();
+        for (Expression param : cascadesContext.getStatementContext().getIdToPlaceholderRealExpr().values()) {
+            // null changes the plan shape, e.g. the predicate is folded to null
+            if (!(param instanceof Literal) || param instanceof NullLiteral) {
+                return null;
+            }
+            params.add((Literal) param);
+        }
+        return params;
+    }
+
+    private static boolean sameTypes(List<Literal> params, List<Literal> otherParams) {
+        if (params.size() != otherParams.size()) {
+            return false;
+        }
+        for (int i = 0; i < params.size(); i++) {
+            if (!params.get(i).getDataType().equals(otherParams.get(i).getDataType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasAmbiguousParams(List<Literal> params) {
+        for (int i = 0; i < params.size(); i++) {
+            for (int j = i + 1; j < params.size(); j++) {
+                if (matches(params.get(i), params.get(j)) || matches(params.get(j), params.get(i))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // the literal in the plan is the param, or converted from the param losslessly
+    private static boolean matches(Literal literal, Literal param) {
+        if (literal instanceof NullLiteral) {
+            return false;
+        }
+        if (literal.getDataType().isStringLikeType() && param.getDataType().isStringLikeType()) {
+            return literal.getStringValue().equals(param.getStringValue());
+        }
+        try {
+            return castTo(param, literal).equals(literal) && castTo(literal, param).equals(param);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static Literal castTo(Literal literal, Literal typeLiteral) throws Exception {
+        Expression result = literal.checkedCastTo(typeLiteral.getDataType());
+        if (!(result instanceof Literal)) {
+            throw new CannotBindException("can not cast " + literal.toSql() + " to " + typeLiteral.getDataType());
+        }
+        return (Literal) result;
+    }
+
+    private static List<String> collectLiterals(Plan plan) {
+        List<String> literals = Lists.newArrayList();
+        plan.foreach(p -> {
+            for (Expression expression : ((Plan) p).getExpressions()) {
+                expression.foreach(e -> {
+                    if (e instanceof Literal) {
+                        literals.add(((Literal) e).getDataType() + ":" + ((Literal) e).getStringValue());
+                    }
+                });
+            }
+        });
+        Collections.sort(literals);
+        return literals;
+    }
+
+    private static List<List<Long>> collectScans(Plan plan) {
+        List<List<Long>> scans = Lists.newArrayList();
+        for (Plan scan : plan.collectToList(PhysicalOlapScan.class::isInstance)) {
+            PhysicalOlapScan olapScan = (PhysicalOlapScan) scan;
+            List<Long> partitionIds = Lists.newArrayList(olapScan.getSelectedPartitionIds());
+            List<Long> tabletIds = Lists.newArrayList(olapScan.getSelectedTabletIds());
+            Collections.sort(partitionIds);
+            Collections.sort(tabletIds);
+            scans.add(ImmutableList.<Long>builder().add(olapScan.getTable().getId())
+                    .addAll(partitionIds).add(-1L).addAll(tabletIds).build());
+        }
+        return scans;
+    }
+
+    private static long getScanRows(PhysicalOlapScan scan) {
+        OlapTable table = scan.getTable();
+        long rows = 0;
+        for (Long partitionId : scan.getSelectedPartitionIds()) {
+            Partition partition = table.getPartition(partitionId);
+            MaterializedIndex index = partition == null ? null : partition.getIndex(scan.getSelectedIndexId());
+            if (index == null) {
+                continue;
+            }
+            if (scan.getSelectedTabletIds().isEmpty()) {
+                rows += index.getRowCount();
+            } else {
+                for (Long tabletId : scan.getSelectedTabletIds()) {
+                    Tablet tablet = index.getTablet(tabletId);
+                    if (tablet != null) {
+                        rows += tablet.getRowCount(true);
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    // the schema version, partitions and indexes of the table, which decide the plan and the pruning
+    private static List<Long> getTableFingerprint(OlapTable table) {
+        List<Long> partitionIds = Lists.newArrayList(table.getPartitionIds());
+        List<Long> indexIds = Lists.newArrayList(table.getIndexIdToMeta().keySet());
+        Collections.sort(partitionIds);
+        Collections.sort(indexIds);
+        return ImmutableList.<Long>builder().add((long) table.getBaseSchemaVersion())
+                .addAll(partitionIds).add(-1L).addAll(indexIds).build();
+    }
+
+    private static class CannotBindException extends RuntimeException {
+        CannotBindException(String message) {
+            super(message);
+        }
+    }
+
+    // the custom plan and what it depends on
+    private static class CustomPlan {
+        private final PhysicalPlan plan;
+        private final List<Literal> params;
+        private final List<OlapTable> tables = Lists.newArrayList();
+        private final Map<Long, List<Long>> tableFingerprints = Maps.newHashMap();
+        // the used columns of each table, to check the privilege
+        private final Map<Long, Set<String>> tableColumns = Maps.newHashMap();
+        private final Map<String, String> variables;
+        private final UserIdentity user;
+        private final String database;
+        // the expr ids and relation ids of the plan are allocated by the statement context
+        private final StatementContext statementContext;
+
+        private CustomPlan(PhysicalPlan plan, List<Literal> params, CascadesContext cascadesContext) {
+            this.plan = plan;
+            this.params = params;
+            for (TableIf table : cascadesContext.getTables()) {
+                OlapTable olapTable = (OlapTable) table;
+                tables.add(olapTable);
+                tableFingerprints.put(olapTable.getId(), getTableFingerprint(olapTable));
+                tableColumns.put(olapTable.getId(), Sets.newHashSet());
+            }
+            for (Plan scan : plan.collectToList(PhysicalOlapScan.class::isInstance)) {
+                PhysicalOlapScan olapScan = (PhysicalOlapScan) scan;
+                Set<String> columns = tableColumns.computeIfAbsent(olapScan.getTable().getId(),
+                        id -> Sets.newHashSet());
+                for (Slot slot : olapScan.getOutput()) {
+                    if (slot instanceof SlotReference && ((SlotReference) slot).getColumn().isPresent()) {
+                        columns.add(((SlotReference) slot).getColumn().get().getName());
+                    }
+                }
+            }
+            ConnectContext ctx = cascadesContext.getConnectContext();
+            this.variables = ctx.getSessionVariable().getForwardVariables();
+            this.user = ctx.getCurrentUserIdentity();
+            this.database = ctx.getDatabase();
+            this.statementContext = cascadesContext.getStatementContext();
+        }
+
+        private boolean isValid(CascadesContext cascadesContext) {
+            ConnectContext ctx = cascadesContext.getConnectContext();
+            if (statementContext != cascadesContext.getStatementContext()
+                    || !Objects.equals(user, ctx.getCurrentUserIdentity())
+                    || !Objects.equals(database, ctx.getDatabase())
+                    || !variables.equals(ctx.getSessionVariable().getForwardVariables())) {
+                return false;
+            }
+            Env env = ctx.getEnv();
+            for (OlapTable table : tables) {
+                Database db = env.getInternalCatalog().getDbNullable(table.getDatabase().getId());
+                if (db == null || db.getTableNullable(table.getId()) != table
+                        || !getTableFingerprint(table).equals(tableFingerprints.get(table.getId()))) {
+                    return false;
+                }
+                // the analysis is skipped, so check the privilege and the policies here
+                Set<String> columns = tableColumns.get(table.getId());
+                try {
+                    UserAuthentication.checkPermission(table, ctx, columns);
+                } catch (UserException e) {
+                    return false;
+                }
+                String catalog = db.getCatalog().getName();
+                if (!env.getAccessManager().evalRowFilterPolicies(
+                        user, catalog, db.getFullName(), table.getName()).isEmpty()) {
+                    return false;
+                }
+                for (Column column : table.getBaseSchema()) {
+                    if (columns.contains(column.getName()) && env.getAccessManager().evalDataMaskPolicy(
+                            user, catalog, db.getFullName(), table.getName(), column.getName()).isPresent()) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    // replace the values of the generic plan with the values of the current execution
+    private static class Binder {
+        private final List<Literal> fromParams;
+        private final List<Literal> toParams;
+        private final CascadesContext cascadesContext;
+
+        private Binder(List<Literal> fromParams, List<Literal> toParams, CascadesContext cascadesContext) {
+            this.fromParams = fromParams;
+            this.toParams = toParams;
+            this.cascadesContext = cascadesContext;
+        }
+
+        private Plan bind(Plan plan) {
+            // every node is copied, so the post processors which set the states of the nodes, e.g. the runtime
+            // filters, don't change the generic plan
+            List<Plan> children = new ArrayList<>(plan.arity());
+            for (Plan child : plan.children()) {
+                children.add(bind(child));
+            }
+            if (plan instanceof PhysicalFilter) {
+                PhysicalFilter<?> filter = (PhysicalFilter<?>) plan;
+                ImmutableSet.Builder<Expression> conjuncts = ImmutableSet.builder();
+                for (Expression conjunct : filter.getConjuncts()) {
+                    conjuncts.add(bindExpression(conjunct));
+                }
+                Set<Expression> newConjuncts = conjuncts.build();
+                Plan child = children.get(0);
+                if (child instanceof PhysicalOlapScan) {
+                    child = pruneScan((PhysicalOlapScan) child, newConjuncts);
+                }
+                return filter.withConjunctsAndChild(newConjuncts, child);
+            } else if (plan instanceof PhysicalProject) {
+                PhysicalProject<?> project = (PhysicalProject<?>) plan;
+                List<NamedExpression> projects = Lists.newArrayListWithCapacity(project.getProjects().size());
+                for (NamedExpression namedExpression : project.getProjects()) {
+                    NamedExpression newExpression = (NamedExpression) bindExpression(namedExpression);
+                    // the output type may be derived from the literal, e.g. the length of a varchar
+                    if (!newExpression.toSlot().getDataType().equals(namedExpression.toSlot().getDataType())) {
+                        throw new CannotBindException("the type of " + namedExpression.toSql() + " is changed");
+                    }
+                    projects.add(newExpression);
+                }
+                return project.withProjectionsAndChild(projects, children.get(0));
+            }
+            for (Expression expression : plan.getExpressions()) {
+                if (expression.anyMatch(e -> e instanceof Literal && matchedParam((Literal) e) >= 0)) {
+                    throw new CannotBindException("can not bind the values in " + plan.getType());
+                }
+            }
+            if (plan instanceof PhysicalOlapScan) {
+                PhysicalOlapScan scan = (PhysicalOlapScan) plan;
+                return copyScan(scan, scan.getSelectedPartitionIds(), scan.getSelectedTabletIds());
+            }
+            return plan.arity() == 0 ? plan.withGroupExpression(Optional.empty()) : plan.withChildren(children);
+        }
+
+        private Expression bindExpression(Expression expression) {
+            return expression.rewriteUp(e -> {
+                if (!(e instanceof Literal)) {
+                    return e;
+                }
+                Literal literal = (Literal) e;
+                int index = matchedParam(literal);
+                if (index < 0) {
+                    return e;
+                }
+                Literal toParam = toParams.get(index);
+                if (literal.getDataType().isStringLikeType() && toParam.getDataType().isStringLikeType()) {
+                    return toParam;
+                }
+                try {
+                    Literal bound = castTo(toParam, literal);
+                    if (castTo(bound, toParam).equals(toParam)) {
+                        return bound;
+                    }
+                } catch (Exception ex) {
+                    // fall through
+                }
+                throw new CannotBindException("can not bind " + toParam.toSql() + " as " + literal.getDataType());
+            });
+        }
+
+        private int matchedParam(Literal literal) {
+            int index = -1;
+            for (int i = 0; i < fromParams.size(); i++) {
+                if (matches(literal, fromParams.get(i))) {
+                    if (index >= 0) {
+                        throw new CannotBindException("ambiguous literal " + literal.toSql());
+                    }
+                    index = i;
+                }
+            }
+            return index;
+        }
+
+        private PhysicalOlapScan pruneScan(PhysicalOlapScan scan, Set<Expression> conjuncts) {
+            OlapTable table = scan.getTable();
+            List<Long> partitionIds = PruneOlapScanPartition.prunePartitions(table, scan.getOutput(),
+                    ExpressionUtils.and(conjuncts), ImmutableList.of(), cascadesContext);
+            if (partitionIds == null) {
+                partitionIds = scan.getSelectedPartitionIds();
+            } else if (partitionIds.isEmpty()) {
+                // the generic plan can't be an empty relation
+                throw new CannotBindException("all partitions of " + table.getName() + " are pruned");
+            }
+            List<Long> tabletIds = scan.getSelectedTabletIds();
+            if (!tabletIds.isEmpty()) {
+                ImmutableList.Builder<Long> selectedTabletIds = ImmutableList.builder();
+                for (Long partitionId : partitionIds) {
+                    Partition partition = table.getPartition(partitionId);
+                    MaterializedIndex index = partition.getIndex(scan.getSelectedIndexId());
+                    selectedTabletIds.addAll(PruneOlapScanTablet.getSelectedTabletIds(conjuncts, index,
+                            scan.getSelectedIndexId() == table.getBaseIndexId(), partition.getDistributionInfo()));
+                }
+                tabletIds = selectedTabletIds.build();
+            }
+            return copyScan(scan, partitionIds, tabletIds);
+        }
+
+        private PhysicalOlapScan copyScan(PhysicalOlapScan scan, List<Long> partitionIds, List<Long> tabletIds) {
+            return new PhysicalOlapScan(scan.getRelationId(), scan.getTable(), scan.getQualifier(),
+                    scan.getSelectedIndexId(), tabletIds, partitionIds, scan.getDistributionSpec(),
+                    scan.getPreAggStatus(), scan.getBaseOutputs(), Optional.empty(),
+                    scan.getLogicalProperties(), scan.getPhysicalProperties(), scan.getStats(),
+                    scan.getTableSample());
+        }
+    }
+}
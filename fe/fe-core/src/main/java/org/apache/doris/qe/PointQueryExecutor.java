@@ -15,15 +15,22 @@
 // specific language governing permissions and limitations
 // under the License.
 
+
 package org.apache.doris.qe;
 
 import org.apache.doris.analysis.BinaryPredicate;
 import org.apache.doris.analysis.Expr;
+import org.apache.doris.analysis.InPredicate;
 import org.apache.doris.analysis.LiteralExpr;
 import org.apache.doris.analysis.SlotRef;
 import org.apache.doris.catalog.Column;
+import org.apache.doris.catalog.DistributionInfo;
+import org.apache.doris.catalog.DistributionInfo.DistributionInfoType;
 import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.HashDistributionInfo;
 import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.catalog.Partition;
+import org.apache.doris.catalog.PartitionKey;
 import org.apache.doris.cloud.catalog.CloudPartition;
 import org.apache.doris.common.Config;
 import org.apache.doris.common.Status;
@@ -41,19 +48,23 @@ import org.apache.doris.rpc.TCustomProtocolFactory;
 import org.apache.doris.system.Backend;
 import org.apache.doris.thrift.TNetworkAddress;
 import org.apache.doris.thrift.TResultBatch;
+import org.apache.doris.thrift.TScanRangeLocation;
 import org.apache.doris.thrift.TScanRangeLocations;
 import org.apache.doris.thrift.TStatusCode;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.thrift.TDeserializer;
 import org.apache.thrift.TException;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -66,17 +77,24 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
+/**
+ * Execute the short circuit point query on the primary keys of a merge-on-write unique key table.
+ *
+ * The query may look up several keys, eg. `where k1 in (?, ?) and k2 = ?`. The keys are grouped by the
+ * tablets they are stored in, the lookups of all the tablets are sent to the backends in parallel, and
+ * the rows are merged in the order of the first key of each tablet.
+ */
 public class PointQueryExecutor implements CoordInterface {
     private static final Logger LOG = LogManager.getLogger(PointQueryExecutor.class);
-    private long tabletID = 0;
     private long timeoutMs = Config.point_query_timeout_ms; // default 10s
 
     private boolean isCancel = false;
-    private List<Backend> candidateBackends;
+    // the available backends of each scanned tablet, in random order
+    private final Map<Long, List<Backend>> tabletToBackends = Maps.newLinkedHashMap();
     private final int maxMsgSizeOfResultReceiver;
 
     // used for snapshot read in cloud mode
-    private List<Long> snapshotVisibleVersions;
+    private Map<Long, Long> tabletToSnapshotVersion;
 
     private final ShortCircuitQueryContext shortCircuitQueryContext;
 
@@ -97,10 +115,15 @@ public class PointQueryExecutor implements CoordInterface {
                 partitions.add((CloudPartition) table.getPartition(id));
             }
         }
-        snapshotVisibleVersions = CloudPartition.getSnapshotVisibleVersion(partitions);
-        // Only support single partition at present
-        Preconditions.checkState(snapshotVisibleVersions.size() == 1);
-        LOG.debug("set cloud version {}", snapshotVisibleVersions.get(0));
+        List<Long> snapshotVisibleVersions = CloudPartition.getSnapshotVisibleVersion(partitions);
+        Preconditions.checkState(snapshotVisibleVersions.size() == partitions.size());
+        tabletToSnapshotVersion = Maps.newHashMap();
+        for (int i = 0; i < partitions.size(); i++) {
+            for (Long tabletId : partitions.get(i).getIndex(scanNode.getSelectedIndexId()).getTabletIdsInOrder()) {
+                tabletToSnapshotVersion.put(tabletId, snapshotVisibleVersions.get(i));
+            }
+        }
+        LOG.debug("set cloud versions {}", snapshotVisibleVersions);
     }
 
     void setScanRangeLocations() throws Exception {
@@ -108,11 +131,10 @@ public class PointQueryExecutor implements CoordInterface {
         // compute scan range
         List<TScanRangeLocations> locations = scanNode.lazyEvaluateRangeLocations();
         Preconditions.checkNotNull(locations);
+        tabletToBackends.clear();
         if (scanNode.getScanTabletIds().isEmpty()) {
             return;
         }
-        Preconditions.checkState(scanNode.getScanTabletIds().size() == 1);
-        this.tabletID = scanNode.getScanTabletIds().get(0);
 
         // update partition version if cloud mode
         if (Config.isCloudMode()
@@ -121,17 +143,20 @@ public class PointQueryExecutor implements CoordInterface {
             updateCloudPartitionVersions();
         }
 
-        candidateBackends = new ArrayList<>();
-        for (Long backendID : scanNode.getScanBackendIds()) {
-            Backend backend = Env.getCurrentSystemInfo().getBackend(backendID);
-            if (SimpleScheduler.isAvailable(backend)) {
-                candidateBackends.add(backend);
+        for (TScanRangeLocations location : locations) {
+            List<Backend> backends = new ArrayList<>();
+            for (TScanRangeLocation replica : location.getLocations()) {
+                Backend backend = Env.getCurrentSystemInfo().getBackend(replica.getBackendId());
+                if (SimpleScheduler.isAvailable(backend)) {
+                    backends.add(backend);
+                }
             }
+            // Random read replicas
+            Collections.shuffle(backends);
+            tabletToBackends.put(location.getScanRange().getPaloScanRange().getTabletId(), backends);
         }
-        // Random read replicas
-        Collections.shuffle(this.candidateBackends);
         if (LOG.isDebugEnabled()) {
-            LOG.debug("set scan locations, backend ids {}, tablet id {}", candidateBackends, tabletID);
+            LOG.debug("set scan locations, tablet id to backends {}", tabletToBackends);
         }
     }
 
@@ -152,47 +177,154 @@ public class PointQueryExecutor implements CoordInterface {
                     + preparedStmtCtx.command.placeholderCount()
                     + ", but meet " + conjunctVals.size());
         }
-        updateScanNodeConjuncts(shortCircuitQueryContext.scanNode, conjunctVals);
+        updateConjuncts(shortCircuitQueryContext.scanNode.getConjuncts(), conjunctVals);
         // short circuit plan and execution
         executor.executeAndSendResult(false, false,
                 shortCircuitQueryContext.analzyedQuery, executor.getContext()
                         .getMysqlChannel(), null, null);
     }
 
-    private static void updateScanNodeConjuncts(OlapScanNode scanNode, List<Expr> conjunctVals) {
-        for (int i = 0; i < conjunctVals.size(); ++i) {
-            BinaryPredicate binaryPredicate = (BinaryPredicate) scanNode.getConjuncts().get(i);
+    /**
+     * Whether the placeholders can be bound to the values of the conjuncts by position in the later executions
+     * of the prepared statement. It is false if the values mix the constants and placeholders, eg. `k in (1, ?)`,
+     * or the optimizer has changed the number of the values, eg. removed the duplicated IN options.
+     */
+    public static boolean canBindPlaceholders(List<Expr> conjuncts, int placeholderCount) {
+        int valueCount = 0;
+        for (Expr conjunct : conjuncts) {
+            if (isDeleteSignConjunct(conjunct)) {
+                continue;
+            }
+            valueCount += conjunct instanceof InPredicate ? conjunct.getChildren().size() - 1 : 1;
+        }
+        return valueCount == placeholderCount;
+    }
+
+    // the placeholders are the literals of the conjuncts in order, eg. `k1 in (?, ?) and k2 = ?`
+    @VisibleForTesting
+    static void updateConjuncts(List<Expr> conjuncts, List<Expr> conjunctVals) {
+        int valueIdx = 0;
+        for (Expr conjunct : conjuncts) {
+            if (valueIdx >= conjunctVals.size()) {
+                break;
+            }
+            if (isDeleteSignConjunct(conjunct)) {
+                // added by the planner, not a placeholder
+                continue;
+            }
+            if (conjunct instanceof InPredicate) {
+                for (int i = 1; i < conjunct.getChildren().size() && valueIdx < conjunctVals.size(); ++i) {
+                    conjunct.setChild(i, conjunctVals.get(valueIdx++));
+                }
+                continue;
+            }
+            BinaryPredicate binaryPredicate = (BinaryPredicate) conjunct;
             if (binaryPredicate.getChild(0) instanceof LiteralExpr) {
-                binaryPredicate.setChild(0, conjunctVals.get(i));
+                binaryPredicate.setChild(0, conjunctVals.get(valueIdx++));
             } else if (binaryPredicate.getChild(1) instanceof LiteralExpr) {
-                binaryPredicate.setChild(1, conjunctVals.get(i));
+                binaryPredicate.setChild(1, conjunctVals.get(valueIdx++));
             } else {
                 Preconditions.checkState(false, "Should contains literal in " + binaryPredicate.toSqlImpl());
             }
         }
     }
 
+    private static boolean isDeleteSignConjunct(Expr conjunct) {
+        SlotRef slotRef = conjunct.getChild(0).unwrapSlotRef();
+        return slotRef != null && Column.DELETE_SIGN.equals(slotRef.getColumnName());
+    }
+
     public void setTimeout(long timeoutMs) {
         this.timeoutMs = timeoutMs;
     }
 
-    void addKeyTuples(
-            InternalService.PTabletKeyLookupRequest.Builder requestBuilder) {
-        // TODO handle IN predicates
-        Map<String, Expr> columnExpr = Maps.newHashMap();
-        KeyTuple.Builder kBuilder = KeyTuple.newBuilder();
-        for (Expr expr : shortCircuitQueryContext.scanNode.getConjuncts()) {
-            BinaryPredicate predicate = (BinaryPredicate) expr;
-            Expr left = predicate.getChild(0);
-            Expr right = predicate.getChild(1);
-            SlotRef columnSlot = left.unwrapSlotRef();
-            columnExpr.put(columnSlot.getColumnName(), right);
+    /**
+     * Expand the conjuncts `key = ?` and `key in (?, ...)` to the distinct keys to look up.
+     * Each key is the literals of the key columns in key column order.
+     */
+    @VisibleForTesting
+    static List<List<Expr>> expandKeys(List<Expr> conjuncts, List<Column> keyColumns) {
+        Map<String, List<Expr>> columnValues = Maps.newHashMap();
+        for (Expr expr : conjuncts) {
+            SlotRef columnSlot = expr.getChild(0).unwrapSlotRef();
+            List<Expr> values;
+            if (expr instanceof InPredicate) {
+                Preconditions.checkState(!((InPredicate) expr).isNotIn(), "Unexpected " + expr.toSql());
+                values = expr.getChildren().subList(1, expr.getChildren().size());
+            } else {
+                values = Lists.newArrayList(expr.getChild(1));
+            }
+            List<Expr> previous = columnValues.get(columnSlot.getColumnName());
+            if (previous != null) {
+                // eg. `k1 in (1, 2) and k1 = 1`, only the values in all the conjuncts are matched
+                Set<String> valueSet = values.stream().map(Expr::getStringValue).collect(Collectors.toSet());
+                values = previous.stream().filter(value -> valueSet.contains(value.getStringValue()))
+                        .collect(Collectors.toList());
+            }
+            columnValues.put(columnSlot.getColumnName(), values);
+        }
+        List<List<Expr>> keyColumnValues = Lists.newArrayList();
+        for (Column column : keyColumns) {
+            keyColumnValues.add(columnValues.get(column.getName()));
+        }
+        // remove the duplicated keys, or the same row is returned more than once
+        Map<List<String>, List<Expr>> keys = Maps.newLinkedHashMap();
+        for (List<Expr> key : Lists.cartesianProduct(keyColumnValues)) {
+            keys.putIfAbsent(key.stream().map(Expr::getStringValue).collect(Collectors.toList()), key);
+        }
+        return Lists.newArrayList(keys.values());
+    }
+
+    // group the keys by the tablets they are stored in, in the order of the first key of each tablet
+    private Map<Long, List<KeyTuple>> groupKeyTuples() {
+        OlapScanNode scanNode = shortCircuitQueryContext.scanNode;
+        List<Column> keyColumns = scanNode.getOlapTable().getBaseSchemaKeyColumns();
+        Map<Long, List<KeyTuple>> tabletToKeyTuples = Maps.newLinkedHashMap();
+        for (List<Expr> key : expandKeys(scanNode.getConjuncts(), keyColumns)) {
+            KeyTuple.Builder kBuilder = KeyTuple.newBuilder();
+            for (Expr value : key) {
+                kBuilder.addKeyColumnRep(value.getStringValue());
+            }
+            KeyTuple keyTuple = kBuilder.build();
+            for (Long tabletId : locateTablets(key, keyColumns)) {
+                tabletToKeyTuples.computeIfAbsent(tabletId, id -> Lists.newArrayList()).add(keyTuple);
+            }
+        }
+        return tabletToKeyTuples;
+    }
+
+    // the key is in the bucket of its distribution columns' hash value in one of the selected partitions
+    private Collection<Long> locateTablets(List<Expr> key, List<Column> keyColumns) {
+        if (tabletToBackends.size() == 1) {
+            return tabletToBackends.keySet();
         }
-        // add key tuple in keys order
-        for (Column column : shortCircuitQueryContext.scanNode.getOlapTable().getBaseSchemaKeyColumns()) {
-            kBuilder.addKeyColumnRep(columnExpr.get(column.getName()).getStringValue());
+        OlapScanNode scanNode = shortCircuitQueryContext.scanNode;
+        OlapTable table = scanNode.getOlapTable();
+        Set<Long> tabletIds = Sets.newLinkedHashSet();
+        for (Long partitionId : scanNode.getSelectedPartitionIds()) {
+            Partition partition = table.getPartition(partitionId);
+            DistributionInfo distributionInfo = partition.getDistributionInfo();
+            List<Long> bucketTabletIds = partition.getIndex(scanNode.getSelectedIndexId()).getTabletIdsInOrder();
+            if (distributionInfo.getType() != DistributionInfoType.HASH) {
+                bucketTabletIds.stream().filter(tabletToBackends::containsKey).forEach(tabletIds::add);
+                continue;
+            }
+            // same as HashDistributionPruner
+            PartitionKey hashKey = new PartitionKey();
+            for (Column column : ((HashDistributionInfo) distributionInfo).getDistributionColumns()) {
+                int keyIdx = 0;
+                while (!keyColumns.get(keyIdx).getName().equals(column.getName())) {
+                    keyIdx++;
+                }
+                hashKey.pushColumn((LiteralExpr) key.get(keyIdx), column.getDataType());
+            }
+            long hashValue = hashKey.getHashValue();
+            Long tabletId = bucketTabletIds.get((int) ((hashValue & 0xffffffff) % distributionInfo.getBucketNum()));
+            if (tabletToBackends.containsKey(tabletId)) {
+                tabletIds.add(tabletId);
+            }
         }
-        requestBuilder.addKeyTuples(kBuilder);
+        return tabletIds;
     }
 
     @Override
@@ -204,154 +336,248 @@ public class PointQueryExecutor implements CoordInterface {
     @Override
     public RowBatch getNext() throws Exception {
         setScanRangeLocations();
+        return lookUp(groupKeyTuples());
+    }
+
+    // look up the keys of all the tablets, the tablets must be in tabletToBackends
+    @VisibleForTesting
+    RowBatch lookUp(Map<Long, List<KeyTuple>> tabletToKeyTuples) throws Exception {
+        List<TabletLookup> lookups = Lists.newArrayList();
+        for (Map.Entry<Long, List<KeyTuple>> entry : tabletToKeyTuples.entrySet()) {
+            List<Backend> backends = tabletToBackends.get(entry.getKey());
+            // the rows of the other tablets are not the complete result
+            if (backends.isEmpty()) {
+                throw new UserException("Failed to execute point query, no queryable replica found in tablet: "
+                        + entry.getKey());
+            }
+            lookups.add(new TabletLookup(entry.getKey(), entry.getValue(), backends));
+        }
         // No partition/tablet found return emtpy row batch
-        if (candidateBackends == null || candidateBackends.isEmpty()) {
+        if (lookups.isEmpty()) {
             return new RowBatch();
         }
-        Iterator<Backend> backendIter = candidateBackends.iterator();
-        RowBatch rowBatch = null;
-        int tryCount = 0;
-        int maxTry = Math.min(Config.max_point_query_retry_time, candidateBackends.size());
-        Status status = new Status();
-        do {
-            Backend backend = backendIter.next();
-            rowBatch = getNextInternal(status, backend);
-            if (rowBatch != null) {
-                break;
-            }
-            if (++tryCount >= maxTry) {
-                break;
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("point query looks up {} tablets", lookups.size());
+        }
+        // send the lookups of all the tablets first, then wait for the results
+        for (TabletLookup lookup : lookups) {
+            lookup.send();
+        }
+        List<RowBatch> rowBatches = Lists.newArrayListWithCapacity(lookups.size());
+        for (int i = 0; i < lookups.size(); i++) {
+            TabletLookup lookup = lookups.get(i);
+            RowBatch rowBatch = lookup.fetch();
+            if (!lookup.status.ok()) {
+                for (int j = i + 1; j < lookups.size(); j++) {
+                    lookups.get(j).cancel();
+                }
+                throwStatus(lookup.status);
             }
-        } while (true);
-        // handle status code
-        if (!status.ok()) {
-            if (Strings.isNullOrEmpty(status.getErrorMsg())) {
-                status.rewriteErrorMsg();
+            rowBatches.add(rowBatch);
+        }
+        return rowBatches.size() == 1 ? rowBatches.get(0) : mergeRowBatches(rowBatches);
+    }
+
+    private static RowBatch mergeRowBatches(List<RowBatch> rowBatches) {
+        RowBatch rowBatch = new RowBatch();
+        for (RowBatch tabletRowBatch : rowBatches) {
+            TResultBatch resultBatch = tabletRowBatch.getBatch();
+            if (resultBatch == null) {
+                continue;
             }
-            String errMsg = status.getErrorMsg();
-            LOG.warn("query failed: {}", errMsg);
-            if (status.isRpcError()) {
-                throw new RpcException(null, errMsg);
+            if (rowBatch.getBatch() == null) {
+                rowBatch.setBatch(resultBatch);
             } else {
-                // hide host info
-                int hostIndex = errMsg.indexOf("host");
-                if (hostIndex != -1) {
-                    errMsg = errMsg.substring(0, hostIndex);
-                }
-                throw new UserException(errMsg);
+                rowBatch.getBatch().getRows().addAll(resultBatch.getRows());
             }
         }
+        rowBatch.setEos(true);
         return rowBatch;
     }
 
+    private void throwStatus(Status status) throws Exception {
+        if (Strings.isNullOrEmpty(status.getErrorMsg())) {
+            status.rewriteErrorMsg();
+        }
+        String errMsg = status.getErrorMsg();
+        LOG.warn("query failed: {}", errMsg);
+        if (status.isRpcError()) {
+            throw new RpcException(null, errMsg);
+        } else {
+            // hide host info
+            int hostIndex = errMsg.indexOf("host");
+            if (hostIndex != -1) {
+                errMsg = errMsg.substring(0, hostIndex);
+            }
+            throw new UserException(errMsg);
+        }
+    }
+
     @Override
     public void exec() throws Exception {
         // Point queries don't need to do anthing in execution phase.
         // only handles in getNext()
     }
 
-    private RowBatch getNextInternal(Status status, Backend backend) throws TException {
-        long timeoutTs = System.currentTimeMillis() + timeoutMs;
-        RowBatch rowBatch = new RowBatch();
-        InternalService.PTabletKeyLookupResponse pResult = null;
-        try {
-            Preconditions.checkNotNull(shortCircuitQueryContext.serializedDescTable);
-
-            InternalService.PTabletKeyLookupRequest.Builder requestBuilder
-                    = InternalService.PTabletKeyLookupRequest.newBuilder()
-                    .setTabletId(tabletID)
-                    .setDescTbl(shortCircuitQueryContext.serializedDescTable)
-                    .setOutputExpr(shortCircuitQueryContext.serializedOutputExpr)
-                    .setQueryOptions(shortCircuitQueryContext.serializedQueryOptions)
-                    .setIsBinaryRow(ConnectContext.get().command == MysqlCommand.COM_STMT_EXECUTE);
-            if (snapshotVisibleVersions != null && !snapshotVisibleVersions.isEmpty()) {
-                requestBuilder.setVersion(snapshotVisibleVersions.get(0));
-            }
-            if (shortCircuitQueryContext.cacheID != null) {
-                InternalService.UUID.Builder uuidBuilder = InternalService.UUID.newBuilder();
-                uuidBuilder.setUuidHigh(shortCircuitQueryContext.cacheID.getMostSignificantBits());
-                uuidBuilder.setUuidLow(shortCircuitQueryContext.cacheID.getLeastSignificantBits());
-                requestBuilder.setUuid(uuidBuilder);
-            }
-            addKeyTuples(requestBuilder);
-
-            InternalService.PTabletKeyLookupRequest request = requestBuilder.build();
-            Future<InternalService.PTabletKeyLookupResponse> futureResponse =
-                    BackendServiceProxy.getInstance().fetchTabletDataAsync(backend.getBrpcAddress(), request);
-            long currentTs = System.currentTimeMillis();
-            if (currentTs >= timeoutTs) {
-                LOG.warn("fetch result timeout {}", backend.getBrpcAddress());
-                status.updateStatus(TStatusCode.INTERNAL_ERROR, "query request timeout");
-                return null;
+    private InternalService.PTabletKeyLookupRequest buildRequest(long tabletId, List<KeyTuple> keyTuples) {
+        Preconditions.checkNotNull(shortCircuitQueryContext.serializedDescTable);
+
+        InternalService.PTabletKeyLookupRequest.Builder requestBuilder
+                = InternalService.PTabletKeyLookupRequest.newBuilder()
+                .setTabletId(tabletId)
+                .setDescTbl(shortCircuitQueryContext.serializedDescTable)
+                .setOutputExpr(shortCircuitQueryContext.serializedOutputExpr)
+                .setQueryOptions(shortCircuitQueryContext.serializedQueryOptions)
+                .setIsBinaryRow(ConnectContext.get().command == MysqlCommand.COM_STMT_EXECUTE);
+        if (tabletToSnapshotVersion != null && tabletToSnapshotVersion.containsKey(tabletId)) {
+            requestBuilder.setVersion(tabletToSnapshotVersion.get(tabletId));
+        }
+        if (shortCircuitQueryContext.cacheID != null) {
+            InternalService.UUID.Builder uuidBuilder = InternalService.UUID.newBuilder();
+            uuidBuilder.setUuidHigh(shortCircuitQueryContext.cacheID.getMostSignificantBits());
+            uuidBuilder.setUuidLow(shortCircuitQueryContext.cacheID.getLeastSignificantBits());
+            requestBuilder.setUuid(uuidBuilder);
+        }
+        requestBuilder.addAllKeyTuples(keyTuples);
+        return requestBuilder.build();
+    }
+
+    // the lookup of the keys in a tablet, retried on the other replicas if failed
+    private class TabletLookup {
+        private final long tabletId;
+        private final List<KeyTuple> keyTuples;
+        private final Iterator<Backend> backendIter;
+        private final int maxTry;
+        private int tryCount = 0;
+        private final Status status = new Status();
+        private Backend backend;
+        private long timeoutTs;
+        private Future<InternalService.PTabletKeyLookupResponse> futureResponse;
+
+        private TabletLookup(long tabletId, List<KeyTuple> keyTuples, List<Backend> backends) {
+            this.tabletId = tabletId;
+            this.keyTuples = keyTuples;
+            this.backendIter = backends.iterator();
+            this.maxTry = Math.min(Config.max_point_query_retry_time, backends.size());
+        }
+
+        // send the request to the next replica, return false if there is no more replica to try
+        private boolean send() {
+            if (tryCount >= Math.max(maxTry, 1) || !backendIter.hasNext()) {
+                return false;
             }
+            tryCount++;
+            backend = backendIter.next();
+            timeoutTs = System.currentTimeMillis() + timeoutMs;
+            futureResponse = null;
             try {
-                pResult = futureResponse.get(timeoutTs - currentTs, TimeUnit.MILLISECONDS);
-            } catch (InterruptedException e) {
-                // continue to get result
-                LOG.warn("future get interrupted Exception");
-                if (isCancel) {
-                    status.updateStatus(TStatusCode.CANCELLED, "cancelled");
-                    return null;
-                }
-            } catch (TimeoutException e) {
-                futureResponse.cancel(true);
-                LOG.warn("fetch result timeout {}, addr {}", timeoutTs - currentTs, backend.getBrpcAddress());
-                status.updateStatus(TStatusCode.INTERNAL_ERROR, "query fetch result timeout");
-                return null;
-            }
-        } catch (RpcException e) {
-            LOG.warn("query fetch rpc exception {}, e {}", backend.getBrpcAddress(), e);
-            status.updateStatus(TStatusCode.THRIFT_RPC_ERROR, e.getMessage());
-            SimpleScheduler.addToBlacklist(backend.getId(), e.getMessage());
-            return null;
-        } catch (ExecutionException e) {
-            LOG.warn("query fetch execution exception {}, addr {}", e, backend.getBrpcAddress());
-            if (e.getMessage().contains("time out")) {
-                // if timeout, we set error code to TIMEOUT, and it will not retry querying.
-                status.updateStatus(TStatusCode.TIMEOUT, e.getMessage());
-            } else {
+                futureResponse = BackendServiceProxy.getInstance().fetchTabletDataAsync(
+                        backend.getBrpcAddress(), buildRequest(tabletId, keyTuples));
+            } catch (RpcException e) {
+                LOG.warn("query fetch rpc exception {}, e {}", backend.getBrpcAddress(), e);
                 status.updateStatus(TStatusCode.THRIFT_RPC_ERROR, e.getMessage());
                 SimpleScheduler.addToBlacklist(backend.getId(), e.getMessage());
             }
-            return null;
+            return true;
         }
-        Status resultStatus = new Status(pResult.getStatus());
-        if (resultStatus.getErrorCode() != TStatusCode.OK) {
-            status.updateStatus(resultStatus.getErrorCode(), resultStatus.getErrorMsg());
+
+        private RowBatch fetch() throws TException {
+            do {
+                if (futureResponse != null) {
+                    RowBatch rowBatch = receive();
+                    if (rowBatch != null) {
+                        return rowBatch;
+                    }
+                }
+            } while (send());
             return null;
         }
 
-        if (pResult.hasEmptyBatch() && pResult.getEmptyBatch()) {
-            LOG.debug("get empty rowbatch");
-            rowBatch.setEos(true);
-            status.updateStatus(TStatusCode.OK, "");
-            return rowBatch;
-        } else if (pResult.hasRowBatch() && pResult.getRowBatch().size() > 0) {
-            byte[] serialResult = pResult.getRowBatch().toByteArray();
-            TResultBatch resultBatch = new TResultBatch();
-            TDeserializer deserializer = new TDeserializer(
-                    new TCustomProtocolFactory(this.maxMsgSizeOfResultReceiver));
+        private void cancel() {
+            if (futureResponse != null) {
+                futureResponse.cancel(true);
+            }
+        }
+
+        private RowBatch receive() throws TException {
+            RowBatch rowBatch = new RowBatch();
+            InternalService.PTabletKeyLookupResponse pResult = null;
             try {
-                deserializer.deserialize(resultBatch, serialResult);
-            } catch (TException e) {
-                if (e.getMessage().contains("MaxMessageSize reached")) {
-                    throw new TException("MaxMessageSize reached, try increase max_msg_size_of_result_receiver");
+                long currentTs = System.currentTimeMillis();
+                if (currentTs >= timeoutTs) {
+                    LOG.warn("fetch result timeout {}", backend.getBrpcAddress());
+                    status.updateStatus(TStatusCode.INTERNAL_ERROR, "query request timeout");
+                    return null;
+                }
+                try {
+                    pResult = futureResponse.get(timeoutTs - currentTs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    // continue to get result
+                    LOG.warn("future get interrupted Exception");
+                    if (isCancel) {
+                        status.updateStatus(TStatusCode.CANCELLED, "cancelled");
+                        return null;
+                    }
+                } catch (TimeoutException e) {
+                    futureResponse.cancel(true);
+                    LOG.warn("fetch result timeout {}, addr {}", timeoutTs - currentTs, backend.getBrpcAddress());
+                    status.updateStatus(TStatusCode.INTERNAL_ERROR, "query fetch result timeout");
+                    return null;
+                }
+            } catch (ExecutionException e) {
+                LOG.warn("query fetch execution exception {}, addr {}", e, backend.getBrpcAddress());
+                if (e.getMessage().contains("time out")) {
+                    // if timeout, we set error code to TIMEOUT, and it will not retry querying.
+                    status.updateStatus(TStatusCode.TIMEOUT, e.getMessage());
                 } else {
-                    throw e;
+                    status.updateStatus(TStatusCode.THRIFT_RPC_ERROR, e.getMessage());
+                    SimpleScheduler.addToBlacklist(backend.getId(), e.getMessage());
                 }
+                return null;
+            }
+            if (pResult == null) {
+                // interrupted but not cancelled
+                status.updateStatus(TStatusCode.INTERNAL_ERROR, "query fetch result interrupted");
+                return null;
+            }
+            Status resultStatus = new Status(pResult.getStatus());
+            if (resultStatus.getErrorCode() != TStatusCode.OK) {
+                status.updateStatus(resultStatus.getErrorCode(), resultStatus.getErrorMsg());
+                return null;
+            }
+
+            if (pResult.hasEmptyBatch() && pResult.getEmptyBatch()) {
+                LOG.debug("get empty rowbatch");
+                rowBatch.setEos(true);
+                status.updateStatus(TStatusCode.OK, "");
+                return rowBatch;
+            } else if (pResult.hasRowBatch() && pResult.getRowBatch().size() > 0) {
+                byte[] serialResult = pResult.getRowBatch().toByteArray();
+                TResultBatch resultBatch = new TResultBatch();
+                TDeserializer deserializer = new TDeserializer(
+                        new TCustomProtocolFactory(maxMsgSizeOfResultReceiver));
+                try {
+                    deserializer.deserialize(resultBatch, serialResult);
+                } catch (TException e) {
+                    if (e.getMessage().contains("MaxMessageSize reached")) {
+                        throw new TException("MaxMessageSize reached, try increase max_msg_size_of_result_receiver");
+                    } else {
+                        throw e;
+                    }
+                }
+                rowBatch.setBatch(resultBatch);
+                rowBatch.setEos(true);
+                status.updateStatus(TStatusCode.OK, "");
+                return rowBatch;
+            } else {
+                Preconditions.checkState(false, "No row batch or empty batch found");
             }
-            rowBatch.setBatch(resultBatch);
-            rowBatch.setEos(true);
-            status.updateStatus(TStatusCode.OK, "");
-            return rowBatch;
-        } else {
-            Preconditions.checkState(false, "No row batch or empty batch found");
-        }
 
-        if (isCancel) {
-            status.updateStatus(TStatusCode.CANCELLED, "cancelled");
+            if (isCancel) {
+                status.updateStatus(TStatusCode.CANCELLED, "cancelled");
+            }
+            return rowBatch;
         }
-        return rowBatch;
     }
 
     public void cancel() {
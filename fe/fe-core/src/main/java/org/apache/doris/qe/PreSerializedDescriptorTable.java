@@ -0,0 +1,61 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+package org.apache.doris.qe;
+
+import org.apache.doris.thrift.TDescriptorTable;
+
+import org.apache.thrift.TException;
+import org.apache.thrift.TSerializer;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.apache.thrift.protocol.TProtocol;
+
+/**
+ * A descriptor table which is serialized only once for all the backends of a query.
+ *
+ * The descriptor table is carried by the fragment params of every backend, so it used to be serialized
+ * again for each backend. This class keeps the bytes of the compact protocol and copies them to the
+ * transport when the fragment params are written by the compact protocol. A nested struct is written
+ * the same as a standalone struct by the compact protocol, so the result is exactly the same.
+ * The descriptor table must not be modified after it is serialized.
+ */
+public class PreSerializedDescriptorTable extends TDescriptorTable {
+    private final byte[] serialized;
+
+    public PreSerializedDescriptorTable(TDescriptorTable descTable) throws TException {
+        super();
+        // shallow copy, the lists are not modified after the query is planned
+        setSlotDescriptors(descTable.getSlotDescriptors());
+        setTupleDescriptors(descTable.getTupleDescriptors());
+        setTableDescriptors(descTable.getTableDescriptors());
+        this.serialized = new TSerializer(new TCompactProtocol.Factory()).serialize(descTable);
+    }
+
+    public int getSerializedSize() {
+        return serialized.length;
+    }
+
+    @Override
+    public void write(TProtocol oprot) throws TException {
+        if (oprot instanceof TCompactProtocol) {
+            oprot.getTransport().write(serialized);
+        } else {
+            super.write(oprot);
+        }
+    }
+}
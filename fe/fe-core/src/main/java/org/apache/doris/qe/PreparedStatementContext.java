@@ -28,6 +28,8 @@ public class PreparedStatementContext {
     StatementContext statementContext;
     public String stmtString;
     public Optional<ShortCircuitQueryContext> shortCircuitQueryContext = Optional.empty();
+    // created at the first execution if enable_prepared_stmt_generic_plan is set
+    public GenericPlanContext genericPlanContext;
 
     // Timestamp in millisecond last command starts at
     protected volatile long startTime;
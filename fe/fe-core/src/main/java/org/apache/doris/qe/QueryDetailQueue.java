@@ -17,53 +17,89 @@
 
 package org.apache.doris.qe;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 // Queue of QueryDetail.
 // It's used to collect queries for monitor.
 // The default copacity is 10000.
+// The query details are indexed by the event time in a lock free skip list, so the query details after an event
+// time are found in O(log n). The oldest query details are evicted when the queue is full.
 public class QueryDetailQueue {
-    private static Map<String, QueryDetail> runningQueries = Maps.newHashMap();
-    private static LinkedList<QueryDetail> totalQueries = new LinkedList<QueryDetail>();
+    private static final Map<String, Entry> runningQueries = new ConcurrentHashMap<>();
+    private static final ConcurrentSkipListMap<Entry, QueryDetail> totalQueries = new ConcurrentSkipListMap<>(
+            Comparator.comparingLong((Entry entry) -> entry.eventTime).thenComparingLong(entry -> entry.seq));
+    private static final AtomicInteger totalQueryNum = new AtomicInteger(0);
+    // to order the query details of the same event time
+    private static final AtomicLong nextSeq = new AtomicLong(0);
     private static int queryCapacity = 10000;
 
-    public static synchronized void addOrUpdateQueryDetail(QueryDetail queryDetail) {
-        if (runningQueries.get(queryDetail.getQueryId()) == null) {
+    public static void addOrUpdateQueryDetail(QueryDetail queryDetail) {
+        Entry running = runningQueries.get(queryDetail.getQueryId());
+        if (running == null) {
+            Entry entry = new Entry(queryDetail.getEventTime(), queryDetail);
             if (queryDetail.getState() == QueryDetail.QueryMemState.RUNNING) {
-                runningQueries.put(queryDetail.getQueryId(), queryDetail);
-                totalQueries.add(queryDetail);
-            } else {
-                totalQueries.add(queryDetail);
+                runningQueries.put(queryDetail.getQueryId(), entry);
             }
-        } else {
-            if (queryDetail.getState() != QueryDetail.QueryMemState.RUNNING) {
-                QueryDetail qDetail = runningQueries.remove(queryDetail.getQueryId());
-                qDetail.setLatency(queryDetail.getLatency());
-                qDetail.setState(queryDetail.getState());
+            totalQueries.put(entry, queryDetail);
+            if (totalQueryNum.incrementAndGet() > queryCapacity) {
+                evictOldest();
+            }
+        } else if (queryDetail.getState() != QueryDetail.QueryMemState.RUNNING
+                && runningQueries.remove(queryDetail.getQueryId(), running)) {
+            QueryDetail qDetail = running.queryDetail;
+            qDetail.setEventTime(queryDetail.getEventTime());
+            qDetail.setEndTime(queryDetail.getEndTime());
+            qDetail.setLatency(queryDetail.getLatency());
+            qDetail.setState(queryDetail.getState());
+            // index the query detail by the event time of the update, skip it if it is evicted
+            if (totalQueries.remove(running) != null) {
+                totalQueries.put(new Entry(queryDetail.getEventTime(), qDetail), qDetail);
             }
-        }
-        if (totalQueries.size() > queryCapacity) {
-            QueryDetail qDetail = totalQueries.remove();
-            runningQueries.remove(qDetail.getQueryId());
         }
     }
 
-    public static synchronized List<QueryDetail> getQueryDetails(long eventTime) {
-        List<QueryDetail> results = Lists.newArrayList();
-        Iterator<QueryDetail> it = totalQueries.iterator();
-        while (it.hasNext()) {
-            QueryDetail queryDetail = it.next();
-            if (queryDetail.getEventTime() > eventTime) {
-                results.add(queryDetail);
-            }
+    private static void evictOldest() {
+        Map.Entry<Entry, QueryDetail> oldest = totalQueries.pollFirstEntry();
+        if (oldest != null) {
+            totalQueryNum.decrementAndGet();
+            runningQueries.remove(oldest.getValue().getQueryId(), oldest.getKey());
         }
-        return results;
     }
 
+    public static List<QueryDetail> getQueryDetails(long eventTime) {
+        // the entries of the event time are before the entry of (eventTime, Long.MAX_VALUE)
+        return Lists.newArrayList(totalQueries.tailMap(new Entry(eventTime, Long.MAX_VALUE, null), false).values());
+    }
+
+    @VisibleForTesting
+    static void clear() {
+        runningQueries.clear();
+        totalQueries.clear();
+        totalQueryNum.set(0);
+    }
+
+    private static class Entry {
+        private final long eventTime;
+        private final long seq;
+        private final QueryDetail queryDetail;
+
+        private Entry(long eventTime, QueryDetail queryDetail) {
+            this(eventTime, nextSeq.getAndIncrement(), queryDetail);
+        }
+
+        private Entry(long eventTime, long seq, QueryDetail queryDetail) {
+            this.eventTime = eventTime;
+            this.seq = seq;
+            this.queryDetail = queryDetail;
+        }
+    }
 }
@@ -17,7 +17,9 @@
 
 package org.apache.doris.qe;
 
+import org.apache.doris.common.Config;
 import org.apache.doris.common.Status;
+import org.apache.doris.common.ThreadPoolManager;
 import org.apache.doris.common.util.DebugUtil;
 import org.apache.doris.proto.InternalService;
 import org.apache.doris.proto.Types;
@@ -29,19 +31,39 @@ import org.apache.doris.thrift.TResultBatch;
 import org.apache.doris.thrift.TStatusCode;
 import org.apache.doris.thrift.TUniqueId;
 
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListenableFuture;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.thrift.TDeserializer;
 import org.apache.thrift.TException;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Receive the result batches of a query from one backend.
+ *
+ * By default, the next batch is fetched only after the previous batch is returned and sent to the client.
+ * With lookahead (see {@link #setLookahead}), up to lookaheadNum fetch_data rpcs are kept in flight while the
+ * current batch is being sent, and the prefetched batches are deserialized in background. The backend assigns
+ * the packet seq by the arriving order of the rpcs, so the responses are reordered by packet seq here.
+ */
 public class ResultReceiver {
     private static final Logger LOG = LogManager.getLogger(ResultReceiver.class);
+    // decode the prefetched result batches, the discarded tasks are decoded by the fetching thread
+    private static final ThreadPoolExecutor DECODE_POOL = ThreadPoolManager.newDaemonFixedThreadPool(
+            Config.fetch_result_decode_thread_num, 1024, "result-receiver-decode-pool", true,
+            new ThreadPoolExecutor.DiscardPolicy());
+
     private boolean isDone = false;
     // runStatus represents the running status of the ResultReceiver.
     // If it is not "OK," it indicates cancel.
@@ -53,9 +75,20 @@ public class ResultReceiver {
     private Types.PUniqueId finstId;
     private Long backendId;
     private Thread currentThread;
-    private Future<InternalService.PFetchDataResult> fetchDataAsyncFuture = null;
     private Boolean enableParallelResultSink = false;
 
+    // the fetch_data rpcs in issuing order, guarded by this
+    private final Deque<FetchTask> inflightFetches = new ArrayDeque<>();
+    // the responses which arrive earlier than the expected packet, keyed by packet seq
+    private final Map<Long, FetchTask> outOfOrderFetches = Maps.newHashMap();
+    // the number of rpcs kept in flight while the current batch is being sent, 0 means no prefetch
+    private int lookaheadNum = 0;
+    // stop prefetching when the received but not consumed batches exceed this size
+    private long lookaheadBytes = 0;
+    private final AtomicLong bufferedBytes = new AtomicLong(0);
+    // the time blocked on waiting the fetch_data rpcs, which is not taken by the coordinator yet
+    private long fetchWaitTimeNs = 0;
+
     int maxMsgSizeOfResultReceiver;
 
     public ResultReceiver(TUniqueId queryId, TUniqueId tid, Long backendId, TNetworkAddress address, long timeoutTs,
@@ -69,6 +102,20 @@ public class ResultReceiver {
         this.enableParallelResultSink = enableParallelResultSink;
     }
 
+    public void setLookahead(int lookaheadNum, long lookaheadBytes) {
+        this.lookaheadNum = Math.max(0, lookaheadNum);
+        this.lookaheadBytes = lookaheadBytes;
+    }
+
+    /**
+     * Return the time blocked on waiting the results since the last call, in nanoseconds.
+     */
+    public long takeFetchWaitTimeNs() {
+        long waitTimeNs = fetchWaitTimeNs;
+        fetchWaitTimeNs = 0;
+        return waitTimeNs;
+    }
+
     Types.PUniqueId getRealFinstId() {
         if (enableParallelResultSink) {
             return queryId;
@@ -83,51 +130,12 @@ public class ResultReceiver {
         final RowBatch rowBatch = new RowBatch();
         try {
             while (!isDone && runStatus.ok()) {
-                InternalService.PFetchDataRequest request = InternalService.PFetchDataRequest.newBuilder()
-                        .setFinstId(getRealFinstId())
-                        .setRespInAttachment(false)
-                        .build();
-
                 currentThread = Thread.currentThread();
-                fetchDataAsyncFuture = BackendServiceProxy.getInstance().fetchDataAsync(address, request);
-                InternalService.PFetchDataResult pResult = null;
-
-                while (pResult == null) {
-                    long currentTs = System.currentTimeMillis();
-                    if (currentTs >= timeoutTs) {
-                        throw new TimeoutException("query timeout, query id = " + DebugUtil.printId(this.queryId));
-                    }
-                    try {
-                        pResult = fetchDataAsyncFuture.get(timeoutTs - currentTs, TimeUnit.MILLISECONDS);
-                    } catch (CancellationException e) {
-                        // When get this exception, it means another thread call cancel, so that the run status
-                        // should be set already.
-                        LOG.warn("Future of ResultReceiver of query {} is cancelled", DebugUtil.printId(this.queryId));
-                        if (runStatus.ok()) {
-                            LOG.warn("ResultReceiver is not set to cancelled state, this should not happen");
-                        } else {
-                            status.updateStatus(runStatus.getErrorCode(), runStatus.getErrorMsg());
-                            return null;
-                        }
-                    } catch (TimeoutException e) {
-                        String timeoutReason = "Query " + DebugUtil.printId(this.queryId) + " get result timeout"
-                                + ", get result duration " + (timeoutTs - currentTs) + " ms";
-                        LOG.warn(timeoutReason);
-                        runStatus.updateStatus(TStatusCode.TIMEOUT, timeoutReason);
-                        status.updateStatus(runStatus.getErrorCode(), runStatus.getErrorMsg());
-                        return null;
-                    } catch (InterruptedException e) {
-                        // continue to get result
-                        LOG.warn("Future of ResultReceiver of query {} got interrupted Exception",
-                                DebugUtil.printId(this.queryId), e);
-                        // If runstatus != ok, then no need to update it, may overwrite the actual cancel reason.
-                        if (runStatus.ok()) {
-                            runStatus.updateStatus(TStatusCode.INTERNAL_ERROR, "got interrupted Exception");
-                        }
-                        status.updateStatus(runStatus.getErrorCode(), runStatus.getErrorMsg());
-                        return null;
-                    }
+                FetchTask fetchTask = nextFetch(status);
+                if (fetchTask == null) {
+                    return null;
                 }
+                InternalService.PFetchDataResult pResult = fetchTask.result;
 
                 Status resultStatus = new Status(pResult.getStatus());
                 if (resultStatus.getErrorCode() != TStatusCode.OK) {
@@ -146,27 +154,18 @@ public class ResultReceiver {
 
                 packetIdx++;
                 isDone = pResult.getEos();
+                TResultBatch resultBatch = fetchTask.takeBatch();
+                if (isDone) {
+                    cancelInflightFetches();
+                } else {
+                    prefetch();
+                }
 
                 if (pResult.hasEmptyBatch() && pResult.getEmptyBatch()) {
                     LOG.info("finistId={}, get first empty rowbatch", DebugUtil.printId(finstId));
                     rowBatch.setEos(false);
                     return rowBatch;
-                } else if (pResult.hasRowBatch() && pResult.getRowBatch().size() > 0) {
-                    byte[] serialResult = pResult.getRowBatch().toByteArray();
-                    TResultBatch resultBatch = new TResultBatch();
-                    TDeserializer deserializer = new TDeserializer(
-                            new TCustomProtocolFactory(this.maxMsgSizeOfResultReceiver));
-                    try {
-                        deserializer.deserialize(resultBatch, serialResult);
-                    } catch (TException e) {
-                        if (e.getMessage().contains("MaxMessageSize reached")) {
-                            throw new TException(
-                                    "MaxMessageSize reached, try increase max_msg_size_of_result_receiver");
-                        } else {
-                            throw e;
-                        }
-                    }
-
+                } else if (resultBatch != null) {
                     rowBatch.setBatch(resultBatch);
                     rowBatch.setEos(pResult.getEos());
                     return rowBatch;
@@ -200,6 +199,125 @@ public class ResultReceiver {
         return rowBatch;
     }
 
+    // Return the fetch of the expected packet, or the fetch which failed or received an unexpected packet.
+    // Return null if the status is updated.
+    private FetchTask nextFetch(Status status) throws RpcException, ExecutionException, TimeoutException {
+        while (true) {
+            FetchTask fetchTask = outOfOrderFetches.remove(packetIdx);
+            if (fetchTask != null) {
+                return fetchTask;
+            }
+            synchronized (this) {
+                if (inflightFetches.isEmpty()) {
+                    issueFetch();
+                }
+                // keep it in inflightFetches while waiting, so it can be cancelled
+                fetchTask = inflightFetches.peekFirst();
+            }
+            if (fetchTask == null) {
+                // cancelled
+                status.updateStatus(runStatus.getErrorCode(), runStatus.getErrorMsg());
+                return null;
+            }
+            InternalService.PFetchDataResult pResult = waitFetchResult(fetchTask.future, status);
+            if (pResult == null) {
+                return null;
+            }
+            fetchTask.result = pResult;
+            boolean hasInflightFetch;
+            synchronized (this) {
+                inflightFetches.remove(fetchTask);
+                hasInflightFetch = !inflightFetches.isEmpty();
+            }
+            if (pResult.getPacketSeq() > packetIdx && new Status(pResult.getStatus()).ok()
+                    && !outOfOrderFetches.containsKey(pResult.getPacketSeq()) && hasInflightFetch) {
+                // the rpc issued later arrived at the backend earlier, the expected packet is still in flight
+                outOfOrderFetches.put(pResult.getPacketSeq(), fetchTask);
+                continue;
+            }
+            return fetchTask;
+        }
+    }
+
+    // Wait the result of the rpc until the query timeout. Return null if the status is updated.
+    private InternalService.PFetchDataResult waitFetchResult(Future<InternalService.PFetchDataResult> future,
+            Status status) throws ExecutionException, TimeoutException {
+        InternalService.PFetchDataResult pResult = null;
+        while (pResult == null) {
+            long currentTs = System.currentTimeMillis();
+            if (currentTs >= timeoutTs) {
+                throw new TimeoutException("query timeout, query id = " + DebugUtil.printId(this.queryId));
+            }
+            long waitStartNs = System.nanoTime();
+            try {
+                pResult = future.get(timeoutTs - currentTs, TimeUnit.MILLISECONDS);
+            } catch (CancellationException e) {
+                // When get this exception, it means another thread call cancel, so that the run status
+                // should be set already.
+                LOG.warn("Future of ResultReceiver of query {} is cancelled", DebugUtil.printId(this.queryId));
+                if (runStatus.ok()) {
+                    LOG.warn("ResultReceiver is not set to cancelled state, this should not happen");
+                } else {
+                    status.updateStatus(runStatus.getErrorCode(), runStatus.getErrorMsg());
+                    return null;
+                }
+            } catch (TimeoutException e) {
+                String timeoutReason = "Query " + DebugUtil.printId(this.queryId) + " get result timeout"
+                        + ", get result duration " + (timeoutTs - currentTs) + " ms";
+                LOG.warn(timeoutReason);
+                runStatus.updateStatus(TStatusCode.TIMEOUT, timeoutReason);
+                status.updateStatus(runStatus.getErrorCode(), runStatus.getErrorMsg());
+                return null;
+            } catch (InterruptedException e) {
+                // continue to get result
+                LOG.warn("Future of ResultReceiver of query {} got interrupted Exception",
+                        DebugUtil.printId(this.queryId), e);
+                // If runstatus != ok, then no need to update it, may overwrite the actual cancel reason.
+                if (runStatus.ok()) {
+                    runStatus.updateStatus(TStatusCode.INTERNAL_ERROR, "got interrupted Exception");
+                }
+                status.updateStatus(runStatus.getErrorCode(), runStatus.getErrorMsg());
+                return null;
+            } finally {
+                fetchWaitTimeNs += System.nanoTime() - waitStartNs;
+            }
+        }
+        return pResult;
+    }
+
+    // Issue a fetch_data rpc, do nothing if cancelled.
+    private synchronized void issueFetch() throws RpcException {
+        if (!runStatus.ok()) {
+            return;
+        }
+        InternalService.PFetchDataRequest request = InternalService.PFetchDataRequest.newBuilder()
+                .setFinstId(getRealFinstId())
+                .setRespInAttachment(false)
+                .build();
+        FetchTask fetchTask = new FetchTask(BackendServiceProxy.getInstance().fetchDataAsync(address, request));
+        if (lookaheadNum > 0) {
+            fetchTask.future.addListener(fetchTask::decode, DECODE_POOL);
+        }
+        inflightFetches.addLast(fetchTask);
+    }
+
+    // Keep lookaheadNum rpcs in flight unless the buffered batches exceed the memory budget.
+    private synchronized void prefetch() throws RpcException {
+        while (runStatus.ok() && inflightFetches.size() + outOfOrderFetches.size() < lookaheadNum
+                && bufferedBytes.get() < lookaheadBytes) {
+            issueFetch();
+        }
+    }
+
+    // The packets after eos are useless, cancel the rpcs of them.
+    private synchronized void cancelInflightFetches() {
+        for (FetchTask fetchTask : inflightFetches) {
+            fetchTask.future.cancel(true);
+        }
+        inflightFetches.clear();
+        outOfOrderFetches.clear();
+    }
+
     public synchronized void cancel(Status reason) {
         if (!runStatus.ok()) {
             LOG.info("ResultReceiver of query {} cancel failed, because its status not ok, "
@@ -215,8 +333,8 @@ public class ResultReceiver {
             // And user will lost connection to Palo
             // currentThread.interrupt();
         }
-        if (fetchDataAsyncFuture != null) {
-            if (fetchDataAsyncFuture.cancel(true)) {
+        for (FetchTask fetchTask : inflightFetches) {
+            if (fetchTask.future.cancel(true)) {
                 LOG.info("ResultReceiver of query {} is cancelled, reason is {}",
                         DebugUtil.printId(queryId), reason.toString());
             } else {
@@ -226,4 +344,66 @@ public class ResultReceiver {
             }
         }
     }
+
+    private class FetchTask {
+        private final ListenableFuture<InternalService.PFetchDataResult> future;
+        // set by the fetching thread after the future is done
+        private InternalService.PFetchDataResult result;
+        private boolean decoded = false;
+        private TResultBatch batch;
+        private TException decodeError;
+        private long bytes = 0;
+
+        private FetchTask(ListenableFuture<InternalService.PFetchDataResult> future) {
+            this.future = future;
+        }
+
+        // called by the decode pool when the rpc is done, or by the fetching thread
+        private synchronized void decode() {
+            if (decoded) {
+                return;
+            }
+            decoded = true;
+            InternalService.PFetchDataResult pResult;
+            try {
+                pResult = future.get();
+            } catch (Exception e) {
+                // the error is handled by the fetching thread
+                return;
+            }
+            if (!new Status(pResult.getStatus()).ok() || (pResult.hasEmptyBatch() && pResult.getEmptyBatch())
+                    || !pResult.hasRowBatch() || pResult.getRowBatch().size() == 0) {
+                return;
+            }
+            bytes = pResult.getRowBatch().size();
+            bufferedBytes.addAndGet(bytes);
+            byte[] serialResult = pResult.getRowBatch().toByteArray();
+            TResultBatch resultBatch = new TResultBatch();
+            TDeserializer deserializer = new TDeserializer(
+                    new TCustomProtocolFactory(maxMsgSizeOfResultReceiver));
+            try {
+                deserializer.deserialize(resultBatch, serialResult);
+                batch = resultBatch;
+            } catch (TException e) {
+                decodeError = e;
+            }
+        }
+
+        private synchronized TResultBatch takeBatch() throws TException {
+            decode();
+            bufferedBytes.addAndGet(-bytes);
+            bytes = 0;
+            if (decodeError != null) {
+                if (decodeError.getMessage() != null && decodeError.getMessage().contains("MaxMessageSize reached")) {
+                    throw new TException(
+                            "MaxMessageSize reached, try increase max_msg_size_of_result_receiver");
+                } else {
+                    throw decodeError;
+                }
+            }
+            TResultBatch resultBatch = batch;
+            batch = null;
+            return resultBatch;
+        }
+    }
 }
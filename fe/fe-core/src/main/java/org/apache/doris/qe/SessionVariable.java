@@ -150,6 +150,7 @@ public class SessionVariable implements Serializable, Writable {
     public static final String ENABLE_REWRITE_ELEMENT_AT_TO_SLOT = "enable_rewrite_element_at_to_slot";
     public static final String ENABLE_ODBC_TRANSCATION = "enable_odbc_transcation";
     public static final String ENABLE_SQL_CACHE = "enable_sql_cache";
+    public static final String ENABLE_PARTITION_CACHE = "enable_partition_cache";
 
     public static final String ENABLE_COST_BASED_JOIN_REORDER = "enable_cost_based_join_reorder";
 
@@ -315,6 +316,7 @@ public class SessionVariable implements Serializable, Writable {
     public static final String ENABLE_FALLBACK_TO_ORIGINAL_PLANNER = "enable_fallback_to_original_planner";
     public static final String ENABLE_NEREIDS_TIMEOUT = "enable_nereids_timeout";
     public static final String NEREIDS_TIMEOUT_SECOND = "nereids_timeout_second";
+    public static final String ENABLE_PARALLEL_DERIVE_STATS = "enable_parallel_derive_stats";
 
     public static final String FORBID_UNKNOWN_COLUMN_STATS = "forbid_unknown_col_stats";
     public static final String BROADCAST_RIGHT_TABLE_SCALE_FACTOR = "broadcast_right_table_scale_factor";
@@ -444,6 +446,8 @@ public class SessionVariable implements Serializable, Writable {
 
     public static final String NUM_PARTITIONS_IN_BATCH_MODE = "num_partitions_in_batch_mode";
 
+    public static final String NUM_FILES_IN_BATCH_MODE = "num_files_in_batch_mode";
+
     public static final String FETCH_SPLITS_MAX_WAIT_TIME = "fetch_splits_max_wait_time_ms";
 
     /**
@@ -477,6 +481,10 @@ public class SessionVariable implements Serializable, Writable {
 
     public static final String ENABLE_PREPARED_STMT_AUDIT_LOG = "enable_prepared_stmt_audit_log";
 
+    public static final String ENABLE_PREPARED_STMT_GENERIC_PLAN = "enable_prepared_stmt_generic_plan";
+
+    public static final String GENERIC_PLAN_MAX_ROWS_DRIFT = "generic_plan_max_rows_drift";
+
     public static final String PARALLEL_SYNC_ANALYZE_TASK_NUM = "parallel_sync_analyze_task_num";
 
     public static final String TRUNCATE_CHAR_OR_VARCHAR_COLUMNS = "truncate_char_or_varchar_columns";
@@ -615,6 +623,10 @@ public class SessionVariable implements Serializable, Writable {
 
     public static final String MAX_MSG_SIZE_OF_RESULT_RECEIVER = "max_msg_size_of_result_receiver";
 
+    public static final String FETCH_RESULT_LOOKAHEAD_NUM = "fetch_result_lookahead_num";
+
+    public static final String FETCH_RESULT_LOOKAHEAD_BYTES = "fetch_result_lookahead_bytes";
+
     public static final String BYPASS_WORKLOAD_GROUP = "bypass_workload_group";
 
     public static final String MAX_COLUMN_READER_NUM = "max_column_reader_num";
@@ -932,6 +944,13 @@ public class SessionVariable implements Serializable, Writable {
     @VariableMgr.VarAttr(name = ENABLE_SQL_CACHE)
     public boolean enableSqlCache = false;
 
+    @VariableMgr.VarAttr(name = ENABLE_PARTITION_CACHE, description = {
+            "是否开启Nereids分区缓存，对按RANGE分区列分组的聚合查询，只重新计算版本变化的分区，其他分区的结果从缓存读取",
+            "Whether to enable the Nereids partition cache. For the aggregation queries grouped by the RANGE "
+                    + "partition column, only the changed partitions are computed, and the results of the other "
+                    + "partitions are read from the cache."})
+    public boolean enablePartitionCache = false;
+
     @VariableMgr.VarAttr(name = FORWARD_TO_MASTER)
     public boolean forwardToMaster = true;
 
@@ -1414,6 +1433,14 @@ public class SessionVariable implements Serializable, Writable {
     @VariableMgr.VarAttr(name = "nereids_timeout_second", needForward = true)
     public int nereidsTimeoutSecond = 30;
 
+    @VariableMgr.VarAttr(name = ENABLE_PARALLEL_DERIVE_STATS, needForward = true, description = {
+            "是否使用多线程推导 Nereids 优化器的统计信息，独立的 Group 会被并行处理，选出的计划与串行调度一致。"
+                    + "探索和代价计算仍然串行执行",
+            "Whether to derive the statistics of Nereids optimizer by multiple threads, the independent groups "
+                    + "are processed in parallel, and the chosen plan is same as the serial scheduler. "
+                    + "The exploration and cost jobs are still executed serially."})
+    public boolean enableParallelDeriveStats = false;
+
     @VariableMgr.VarAttr(name = ENABLE_PUSH_DOWN_NO_GROUP_AGG)
     public boolean enablePushDownNoGroupAgg = true;
 
@@ -1592,6 +1619,14 @@ public class SessionVariable implements Serializable, Writable {
             needForward = true)
     public int numPartitionsInBatchMode = 1024;
 
+    @VariableMgr.VarAttr(
+            name = NUM_FILES_IN_BATCH_MODE,
+            description = {"如果数据文件数量超过阈值，BE将通过batch方式获取scan ranges，目前仅对Iceberg表生效",
+                    "If the number of data files exceeds the threshold, scan ranges will be got through batch mode. "
+                            + "Only works for iceberg table now."},
+            needForward = true)
+    public int numFilesInBatchMode = 1024;
+
     @VariableMgr.VarAttr(
             name = FETCH_SPLITS_MAX_WAIT_TIME,
             description = {"batch方式中BE获取splits的最大等待时间",
@@ -1692,6 +1727,21 @@ public class SessionVariable implements Serializable, Writable {
     @VariableMgr.VarAttr(name = ENABLE_PREPARED_STMT_AUDIT_LOG, needForward = true)
     public boolean enablePreparedStmtAuditLog = false;
 
+    @VariableMgr.VarAttr(name = ENABLE_PREPARED_STMT_GENERIC_PLAN, needForward = true,
+            description = {"是否为 prepared statement 缓存通用的物理计划。两次使用不同参数规划出相同的计划后，"
+                    + "之后的执行只把参数绑定到缓存的计划中并重新裁剪分区和分桶，跳过分析、改写和优化。",
+                    "Whether to cache the generic physical plan of the prepared statement. After two executions "
+                    + "with different parameters get the same plan, the following executions only bind the "
+                    + "parameters into the cached plan and prune the partitions and tablets again, "
+                    + "skip the analysis, rewrite and optimization."})
+    public boolean enablePreparedStmtGenericPlan = false;
+
+    @VariableMgr.VarAttr(name = GENERIC_PLAN_MAX_ROWS_DRIFT, needForward = true,
+            description = {"使用通用计划时，如果某个表裁剪后的行数与通用计划中的行数相差超过该倍数，则重新规划本次执行。",
+                    "When using the generic plan, if the pruned rows of a table differ from the rows in the "
+                    + "generic plan by more than this factor, the execution is planned again with its parameters."})
+    public double genericPlanMaxRowsDrift = 10.0;
+
     @VariableMgr.VarAttr(name = INVERTED_INDEX_CONJUNCTION_OPT_THRESHOLD,
             description = {"在match_all中求取多个倒排索引的交集时,如果最大的倒排索引中的总数是最小倒排索引中的总数的整数倍,"
                     + "则使用跳表来优化交集操作。",
@@ -1986,6 +2036,20 @@ public class SessionVariable implements Serializable, Writable {
                     "用于控制结果反序列化时 thrift 字段的最大值，当遇到类似\"MaxMessageSize reached\"这样的错误时可以考虑修改该参数"})
     public int maxMsgSizeOfResultReceiver = TConfiguration.DEFAULT_MAX_MESSAGE_SIZE;
 
+    @VariableMgr.VarAttr(name = FETCH_RESULT_LOOKAHEAD_NUM, needForward = true,
+            description = {"向 BE 获取查询结果时，在向客户端发送当前批次的同时保持在途的 fetch_data 请求数，"
+                    + "预取的批次会在后台反序列化。0 表示不预取。",
+                    "The number of fetch_data rpcs kept in flight while the current batch of the query result "
+                    + "is being sent to the client, the prefetched batches are deserialized in background. "
+                    + "0 means no prefetch."})
+    public int fetchResultLookaheadNum = 0;
+
+    @VariableMgr.VarAttr(name = FETCH_RESULT_LOOKAHEAD_BYTES, needForward = true,
+            description = {"每个结果接收器中已预取但未发送的查询结果的内存上限，超过后停止预取。",
+                    "The memory budget of the prefetched but not sent query results of each result receiver, "
+                    + "the prefetch stops when the budget is exceeded."})
+    public long fetchResultLookaheadBytes = 64L * 1024 * 1024;
+
 
     // CLOUD_VARIABLES_BEGIN
     @VariableMgr.VarAttr(name = CLOUD_CLUSTER)
@@ -2779,6 +2843,14 @@ public class SessionVariable implements Serializable, Writable {
         this.enableSqlCache = enableSqlCache;
     }
 
+    public boolean isEnablePartitionCache() {
+        return enablePartitionCache;
+    }
+
+    public void setEnablePartitionCache(boolean enablePartitionCache) {
+        this.enablePartitionCache = enablePartitionCache;
+    }
+
     public int getPartitionedHashJoinRowsThreshold() {
         return partitionedHashJoinRowsThreshold;
     }
@@ -3013,6 +3085,14 @@ public class SessionVariable implements Serializable, Writable {
         this.numPartitionsInBatchMode = numPartitionsInBatchMode;
     }
 
+    public int getNumFilesInBatchMode() {
+        return numFilesInBatchMode;
+    }
+
+    public void setNumFilesInBatchMode(int numFilesInBatchMode) {
+        this.numFilesInBatchMode = numFilesInBatchMode;
+    }
+
     public long getFetchSplitsMaxWaitTime() {
         return fetchSplitsMaxWaitTime;
     }
@@ -3350,6 +3430,10 @@ public class SessionVariable implements Serializable, Writable {
         return enableExprTrace;
     }
 
+    public boolean isEnableParallelDeriveStats() {
+        return enableParallelDeriveStats;
+    }
+
 
 
     public boolean isEnableSingleReplicaInsert() {
@@ -4164,6 +4248,14 @@ public class SessionVariable implements Serializable, Writable {
         return enablePreparedStmtAuditLog;
     }
 
+    public boolean isEnablePreparedStmtGenericPlan() {
+        return enablePreparedStmtGenericPlan;
+    }
+
+    public double getGenericPlanMaxRowsDrift() {
+        return genericPlanMaxRowsDrift;
+    }
+
     public boolean isEnableMaterializedViewRewrite() {
         return enableMaterializedViewRewrite;
     }
@@ -4271,6 +4363,14 @@ public class SessionVariable implements Serializable, Writable {
         return this.maxMsgSizeOfResultReceiver;
     }
 
+    public int getFetchResultLookaheadNum() {
+        return fetchResultLookaheadNum;
+    }
+
+    public long getFetchResultLookaheadBytes() {
+        return fetchResultLookaheadBytes;
+    }
+
     public TSerdeDialect getSerdeDialect() {
         switch (serdeDialect) {
             case "doris":
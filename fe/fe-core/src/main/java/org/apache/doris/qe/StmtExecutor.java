@@ -183,6 +183,7 @@ import org.apache.doris.qe.QueryState.MysqlStateType;
 import org.apache.doris.qe.cache.Cache;
 import org.apache.doris.qe.cache.CacheAnalyzer;
 import org.apache.doris.qe.cache.CacheAnalyzer.CacheMode;
+import org.apache.doris.qe.cache.NereidsPartitionCache;
 import org.apache.doris.qe.cache.SqlCache;
 import org.apache.doris.rewrite.ExprRewriter;
 import org.apache.doris.rewrite.mvrewrite.MVSelectFailedException;
@@ -1735,9 +1736,7 @@ public class StmtExecutor {
                         exprToType(selectStmt.getResultExprs()));
                 isSend = true;
             }
-            for (ByteBuffer row : batch.getBatch().getRows()) {
-                channel.sendOnePacket(row);
-            }
+            channel.sendRows(batch.getBatch().getRows());
             context.updateReturnRows(batch.getBatch().getRows().size());
         }
 
@@ -1793,7 +1792,16 @@ public class StmtExecutor {
                 return;
             }
             // rewrite sql
-            if (mode == CacheMode.Partition) {
+            if (mode == CacheMode.Partition && cacheAnalyzer.getCache() instanceof NereidsPartitionCache) {
+                // only compute the partitions missed in the partition cache, the cached rows of the other
+                // partitions are merged into the result in executeAndSendResult
+                NereidsPartitionCache partitionCache = (NereidsPartitionCache) cacheAnalyzer.getCache();
+                OlapScanNode scanNode = (OlapScanNode) planner.getScanNodes().get(0);
+                statementContext.setPartitionCacheMissedPartitions(scanNode.getOlapTable().getId(),
+                        partitionCache.getMissedPartitionIds());
+                planner = new NereidsPlanner(statementContext);
+                planner.plan(parsedStmt, context.getSessionVariable().toThrift());
+            } else if (mode == CacheMode.Partition) {
                 if (cacheAnalyzer.getHitRange() == Cache.HitRange.Left) {
                     isSendFields = sendCachedValues(channel, cacheResult.getValuesList(),
                             queryStmt, isSendFields, false);
@@ -1936,6 +1944,11 @@ public class StmtExecutor {
             coordBase = coord;
         }
 
+        NereidsPartitionCache partitionCache = null;
+        if (cacheAnalyzer != null && cacheResult != null && cacheAnalyzer.getCache() instanceof NereidsPartitionCache) {
+            partitionCache = (NereidsPartitionCache) cacheAnalyzer.getCache();
+        }
+
         try {
             coordBase.exec();
             profile.getSummaryProfile().setQueryScheduleFinishTime();
@@ -1983,11 +1996,13 @@ public class StmtExecutor {
                         }
                         isSendFields = true;
                     }
-                    for (ByteBuffer row : batch.getBatch().getRows()) {
-                        channel.sendOnePacket(row);
+                    List<ByteBuffer> rows = batch.getBatch().getRows();
+                    if (partitionCache != null) {
+                        rows = partitionCache.mergeCachedRows(rows);
                     }
+                    channel.sendRows(rows);
                     profile.getSummaryProfile().freshWriteResultConsumeTime();
-                    context.updateReturnRows(batch.getBatch().getRows().size());
+                    context.updateReturnRows(rows.size());
                     context.setResultAttachedInfo(batch.getBatch().getAttachedInfos());
                 }
                 if (batch.isEos()) {
@@ -2000,6 +2015,18 @@ public class StmtExecutor {
                             sendCachedValues(channel, cacheResult.getValuesList(), queryStmt, isSendFields,
                                     false);
                 }
+                if (partitionCache != null) {
+                    List<ByteBuffer> remainingRows = partitionCache.getRemainingCachedRows();
+                    if (!remainingRows.isEmpty()) {
+                        if (!isSendFields) {
+                            sendFields(queryStmt.getColLabels(), queryStmt.getFieldInfos(),
+                                    exprToType(queryStmt.getResultExprs()));
+                            isSendFields = true;
+                        }
+                        channel.sendRows(remainingRows);
+                        context.updateReturnRows(remainingRows.size());
+                    }
+                }
 
                 cacheAnalyzer.updateCache();
 
@@ -45,6 +45,7 @@ import org.apache.doris.datasource.CatalogIf;
 import org.apache.doris.datasource.hive.HMSExternalTable;
 import org.apache.doris.datasource.hive.source.HiveScanNode;
 import org.apache.doris.metric.MetricRepo;
+import org.apache.doris.mysql.MysqlCommand;
 import org.apache.doris.nereids.NereidsPlanner;
 import org.apache.doris.nereids.SqlCacheContext;
 import org.apache.doris.nereids.SqlCacheContext.FullTableName;
@@ -142,8 +143,10 @@ public class CacheAnalyzer {
                 enableSqlCache = true;
             }
         }
-        // alread remove the entrance of partition cache, so we force set to false
-        enablePartitionCache = false;
+        // alread remove the entrance of partition cache for the legacy planner,
+        // only the nereids partition cache is supported now
+        enablePartitionCache = parsedStmt instanceof LogicalPlanAdapter
+                && context.getSessionVariable().isEnablePartitionCache();
     }
 
     public TUniqueId getQueryId() {
@@ -203,7 +206,8 @@ public class CacheAnalyzer {
     }
 
     public static boolean canUseCache(SessionVariable sessionVariable) {
-        return (sessionVariable.isEnableSqlCache()) && commonCacheCondition(sessionVariable);
+        return (sessionVariable.isEnableSqlCache() || sessionVariable.isEnablePartitionCache())
+                && commonCacheCondition(sessionVariable);
     }
 
     public static boolean canUseSqlCache(SessionVariable sessionVariable) {
@@ -394,10 +398,9 @@ public class CacheAnalyzer {
     }
 
     private CacheMode innerCheckCacheModeForNereids(long now) {
-        // only sql cache
-        if (!enableSqlCache()) {
+        if (!enableCache()) {
             if (LOG.isDebugEnabled()) {
-                LOG.debug("sql cache is disabled. queryid {}", DebugUtil.printId(queryId));
+                LOG.debug("cache is disabled. queryid {}", DebugUtil.printId(queryId));
             }
             return CacheMode.NoNeed;
         }
@@ -463,9 +466,71 @@ public class CacheAnalyzer {
             MetricRepo.COUNTER_CACHE_ADDED_SQL.increase(1L);
             return CacheMode.Sql;
         }
+        if (enablePartitionCache()) {
+            return innerCheckPartitionCacheModeForNereids();
+        }
         return CacheMode.None;
     }
 
+    /**
+     * Check whether the nereids partition cache can be used
+     * 1、Only one olap table, and the result rows are sent in the mysql text protocol
+     * 2、PartitionType is PartitionType.RANGE, and partition key has only one column
+     * 3、Every aggregate is grouped by the partition column, and the partition column is in the result
+     * 4、No limit, window or join, and the query can only be sorted by the partition column first
+     * SELECT event_date, count(*) FROM app_event WHERE event_date >= 20191201 GROUP BY event_date
+     */
+    private CacheMode innerCheckPartitionCacheModeForNereids() {
+        if (!(planner instanceof NereidsPlanner) || scanNodes.size() != 1
+                || !(latestTable.table instanceof OlapTable)
+                || context.getCommand() == MysqlCommand.COM_STMT_EXECUTE) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("only support partition cache for the query of one olap table, queryid {}",
+                        DebugUtil.printId(queryId));
+            }
+            return CacheMode.None;
+        }
+        OlapTable olapTable = (OlapTable) latestTable.table;
+        if (olapTable.getPartitionInfo().getType() != PartitionType.RANGE
+                || olapTable.getPartitionInfo().getPartitionColumns().size() != 1) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("the partition of OlapTable is not RANGE type with one column, queryid {}",
+                        DebugUtil.printId(queryId));
+            }
+            return CacheMode.None;
+        }
+        NereidsPlanner nereidsPlanner = (NereidsPlanner) planner;
+        Optional<SqlCacheContext> sqlCacheContext = nereidsPlanner.getCascadesContext()
+                .getStatementContext()
+                .getSqlCacheContext();
+        if (!sqlCacheContext.isPresent() || sqlCacheContext.get().containsCannotProcessExpression()
+                || sqlCacheContext.get().hasUnsupportedTables()
+                || sqlCacheContext.get().getOrComputeCacheKeyMd5() == null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("can not compute the cache key of the query, queryid {}", DebugUtil.printId(queryId));
+            }
+            return CacheMode.None;
+        }
+        Column partitionColumn = olapTable.getPartitionInfo().getPartitionColumns().get(0);
+        Optional<NereidsPartitionCache.ResultPartitionKey> resultPartitionKey
+                = NereidsPartitionCache.findResultPartitionKey(nereidsPlanner.getPhysicalPlan(), partitionColumn);
+        if (!resultPartitionKey.isPresent()) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("the result rows can not be cached by partition, queryid {}", DebugUtil.printId(queryId));
+            }
+            return CacheMode.None;
+        }
+
+        OlapScanNode scanNode = (OlapScanNode) scanNodes.get(0);
+        String cacheKey = context.getCurrentUserIdentity() + ":"
+                + DebugUtil.printId(sqlCacheContext.get().getOrComputeCacheKeyMd5()) + ":"
+                + olapTable.getId() + ":" + scanNode.getSelectedIndexId();
+        cache = new NereidsPartitionCache(this.queryId, cacheKey, olapTable, scanNode.getSelectedPartitionIds(),
+                partitionColumn, resultPartitionKey.get(), context.getEnv().getPartitionCacheManager());
+        MetricRepo.COUNTER_CACHE_ADDED_PARTITION.increase(1L);
+        return CacheMode.Partition;
+    }
+
     private List<CacheTable> buildCacheTableList() {
         //Check the last version time of the table
         MetricRepo.COUNTER_QUERY_TABLE.increase(1L);
@@ -0,0 +1,460 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.qe.cache;
+
+import org.apache.doris.analysis.PartitionValue;
+import org.apache.doris.analysis.SelectStmt;
+import org.apache.doris.catalog.Column;
+import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.catalog.Partition;
+import org.apache.doris.catalog.PartitionKey;
+import org.apache.doris.common.AnalysisException;
+import org.apache.doris.common.Config;
+import org.apache.doris.common.NereidsPartitionCacheManager;
+import org.apache.doris.common.NereidsPartitionCacheManager.PartitionResult;
+import org.apache.doris.common.Status;
+import org.apache.doris.common.util.DebugUtil;
+import org.apache.doris.metric.MetricRepo;
+import org.apache.doris.mysql.MysqlProto;
+import org.apache.doris.nereids.properties.OrderKey;
+import org.apache.doris.nereids.trees.expressions.Alias;
+import org.apache.doris.nereids.trees.expressions.ExprId;
+import org.apache.doris.nereids.trees.expressions.Expression;
+import org.apache.doris.nereids.trees.expressions.NamedExpression;
+import org.apache.doris.nereids.trees.expressions.Slot;
+import org.apache.doris.nereids.trees.expressions.SlotReference;
+import org.apache.doris.nereids.trees.plans.Plan;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalDistribute;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalFilter;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalHashAggregate;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalOlapScan;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalProject;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalQuickSort;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalResultSink;
+import org.apache.doris.proto.InternalService;
+import org.apache.doris.qe.RowBatch;
+import org.apache.doris.thrift.TUniqueId;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Range;
+import com.google.common.collect.Sets;
+import com.google.protobuf.ByteString;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Partition cache for nereids.
+ *
+ * If every aggregate of a query over a RANGE partitioned olap table is grouped by the partition column,
+ * every result row is computed from only one partition. So the result rows of each partition are cached in fe
+ * with the visible version of the partition, see {@link NereidsPartitionCacheManager}. When the query is
+ * executed again, the rows of the unchanged partitions are read from the cache, only the changed partitions
+ * are computed by BE, and the cached rows are merged into the computed rows in the order of the partitions.
+ *
+ * The query can be sorted by the partition column first, but can not have limit, window, join or set operation.
+ */
+public class NereidsPartitionCache extends Cache {
+    private static final Logger LOG = LogManager.getLogger(NereidsPartitionCache.class);
+
+    // the first byte of a NULL field in the mysql text protocol row
+    private static final int NULL_FIELD = 0xFB;
+
+    private final String cacheKey;
+    private final Column partitionColumn;
+    private final ResultPartitionKey resultPartitionKey;
+    private final Map<Long, Range<PartitionKey>> partitionRanges;
+    private final Map<Long, Long> partitionVersions;
+    private final Map<Long, Long> partitionVersionTimes;
+    private final NereidsPartitionCacheManager cacheManager;
+    // the selected partitions in the order of the result rows
+    private final List<Long> orderedPartitionIds;
+    private final Map<Long, Integer> partitionIdToOrder = Maps.newHashMap();
+    // lower bound of the partition range -> partition id
+    private final TreeMap<PartitionKey, Long> lowerBoundToPartitionId = new TreeMap<>();
+
+    private final Map<Long, PartitionResult> hitResults = Maps.newHashMap();
+    private final Set<Long> missedPartitionIds = Sets.newHashSet();
+    // the cached rows of the partitions before this index in orderedPartitionIds have been merged into the result
+    private int nextMergeIndex = 0;
+
+    /** the index and the sort order of the partition column in the result of the query */
+    public static class ResultPartitionKey {
+        private final int index;
+        private final boolean sorted;
+        private final boolean asc;
+
+        public ResultPartitionKey(int index, boolean sorted, boolean asc) {
+            this.index = index;
+            this.sorted = sorted;
+            this.asc = asc;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public boolean isSorted() {
+            return sorted;
+        }
+
+        public boolean isAsc() {
+            return asc;
+        }
+    }
+
+    public NereidsPartitionCache(TUniqueId queryId, String cacheKey, OlapTable table,
+            Collection<Long> selectedPartitionIds, Column partitionColumn, ResultPartitionKey resultPartitionKey,
+            NereidsPartitionCacheManager cacheManager) {
+        this(queryId, cacheKey, partitionColumn, resultPartitionKey, buildPartitionRanges(table, selectedPartitionIds),
+                Maps.newHashMap(), Maps.newHashMap(), cacheManager);
+        for (Long partitionId : selectedPartitionIds) {
+            Partition partition = table.getPartition(partitionId);
+            partitionVersions.put(partitionId, partition.getVisibleVersion(true));
+            partitionVersionTimes.put(partitionId, partition.getVisibleVersionTime());
+        }
+    }
+
+    // for ut
+    NereidsPartitionCache(TUniqueId queryId, String cacheKey, Column partitionColumn,
+            ResultPartitionKey resultPartitionKey, Map<Long, Range<PartitionKey>> partitionRanges,
+            Map<Long, Long> partitionVersions, Map<Long, Long> partitionVersionTimes,
+            NereidsPartitionCacheManager cacheManager) {
+        super(queryId);
+        this.cacheKey = cacheKey;
+        this.partitionColumn = partitionColumn;
+        this.resultPartitionKey = resultPartitionKey;
+        this.partitionRanges = partitionRanges;
+        this.partitionVersions = partitionVersions;
+        this.partitionVersionTimes = partitionVersionTimes;
+        this.cacheManager = cacheManager;
+
+        for (Entry<Long, Range<PartitionKey>> entry : partitionRanges.entrySet()) {
+            lowerBoundToPartitionId.put(entry.getValue().lowerEndpoint(), entry.getKey());
+        }
+        List<Long> partitionIds = Lists.newArrayList(lowerBoundToPartitionId.values());
+        if (resultPartitionKey.isSorted() && !resultPartitionKey.isAsc()) {
+            Collections.reverse(partitionIds);
+        }
+        this.orderedPartitionIds = partitionIds;
+        for (int i = 0; i < orderedPartitionIds.size(); i++) {
+            partitionIdToOrder.put(orderedPartitionIds.get(i), i);
+        }
+    }
+
+    private static Map<Long, Range<PartitionKey>> buildPartitionRanges(OlapTable table,
+            Collection<Long> selectedPartitionIds) {
+        Map<Long, Range<PartitionKey>> partitionRanges = Maps.newHashMap();
+        for (Long partitionId : selectedPartitionIds) {
+            partitionRanges.put(partitionId, table.getPartitionInfo().getItem(partitionId).getItems());
+        }
+        return partitionRanges;
+    }
+
+    /**
+     * Find the partition column in the result of the query.
+     * Return empty if a result row of the query may be computed from more than one partition, or the result rows
+     * can not be merged by partition, e.g. the query is not an aggregation grouped by the partition column,
+     * the partition column is not in the result, or the query has limit.
+     */
+    public static Optional<ResultPartitionKey> findResultPartitionKey(Plan physicalPlan, Column partitionColumn) {
+        if (!(physicalPlan instanceof PhysicalResultSink)) {
+            return Optional.empty();
+        }
+        PartitionSlotCollector collector = new PartitionSlotCollector(partitionColumn);
+        if (!collector.collect(physicalPlan) || !collector.hasAggregate) {
+            return Optional.empty();
+        }
+        List<NamedExpression> outputExprs = ((PhysicalResultSink<?>) physicalPlan).getOutputExprs();
+        for (int i = 0; i < outputExprs.size(); i++) {
+            if (collector.isPartitionSlot(outputExprs.get(i))) {
+                return Optional.of(new ResultPartitionKey(i, collector.sortAsc != null,
+                        collector.sortAsc == null || collector.sortAsc));
+            }
+        }
+        return Optional.empty();
+    }
+
+    // collect the slots of the partition column from bottom to top, and check whether the plan can be cached
+    private static class PartitionSlotCollector {
+        private final Column partitionColumn;
+        private final Set<ExprId> partitionSlots = Sets.newHashSet();
+        private boolean hasAggregate = false;
+        private Boolean sortAsc = null;
+
+        private PartitionSlotCollector(Column partitionColumn) {
+            this.partitionColumn = partitionColumn;
+        }
+
+        private boolean collect(Plan plan) {
+            for (Plan child : plan.children()) {
+                if (!collect(child)) {
+                    return false;
+                }
+            }
+            if (plan instanceof PhysicalOlapScan) {
+                for (Slot slot : plan.getOutput()) {
+                    if (slot instanceof SlotReference && ((SlotReference) slot).getColumn().isPresent()
+                            && ((SlotReference) slot).getColumn().get().getName()
+                                    .equalsIgnoreCase(partitionColumn.getName())) {
+                        partitionSlots.add(slot.getExprId());
+                    }
+                }
+                return true;
+            } else if (plan instanceof PhysicalProject) {
+                for (NamedExpression project : ((PhysicalProject<?>) plan).getProjects()) {
+                    if (isPartitionSlot(project)) {
+                        partitionSlots.add(project.getExprId());
+                    }
+                }
+                return true;
+            } else if (plan instanceof PhysicalHashAggregate) {
+                // every aggregate must be grouped by the partition column
+                hasAggregate = true;
+                return ((PhysicalHashAggregate<?>) plan).getGroupByExpressions().stream()
+                        .anyMatch(this::isPartitionSlot);
+            } else if (plan instanceof PhysicalQuickSort) {
+                // the rows of a partition are continuous only if sorted by the partition column first,
+                // and the null values are in the first partition
+                List<OrderKey> orderKeys = ((PhysicalQuickSort<?>) plan).getOrderKeys();
+                if (orderKeys.isEmpty() || !isPartitionSlot(orderKeys.get(0).getExpr())) {
+                    return false;
+                }
+                OrderKey orderKey = orderKeys.get(0);
+                if (orderKey.isNullFirst() != orderKey.isAsc()
+                        || (sortAsc != null && sortAsc != orderKey.isAsc())) {
+                    return false;
+                }
+                sortAsc = orderKey.isAsc();
+                return true;
+            } else {
+                return plan instanceof PhysicalFilter || plan instanceof PhysicalDistribute
+                        || plan instanceof PhysicalResultSink;
+            }
+        }
+
+        private boolean isPartitionSlot(Expression expression) {
+            if (expression instanceof Slot) {
+                return partitionSlots.contains(((Slot) expression).getExprId());
+            }
+            return expression instanceof Alias && isPartitionSlot(((Alias) expression).child());
+        }
+    }
+
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public Set<Long> getMissedPartitionIds() {
+        return missedPartitionIds;
+    }
+
+    @Override
+    public InternalService.PFetchCacheResult getCacheData(Status status) {
+        hitResults.clear();
+        missedPartitionIds.clear();
+        InternalService.PFetchCacheResult.Builder cacheResult = InternalService.PFetchCacheResult.newBuilder()
+                .setStatus(InternalService.PCacheStatus.CACHE_OK)
+                .setAllCount(orderedPartitionIds.size());
+        for (Long partitionId : orderedPartitionIds) {
+            PartitionResult result = cacheManager.get(cacheKey, partitionId, partitionVersions.get(partitionId));
+            if (result == null) {
+                missedPartitionIds.add(partitionId);
+                continue;
+            }
+            hitResults.put(partitionId, result);
+            cacheResult.addValues(InternalService.PCacheValue.newBuilder()
+                    .setParam(InternalService.PCacheParam.newBuilder()
+                            .setPartitionKey(partitionId)
+                            .setLastVersion(result.getVersion()))
+                    .setDataSize(result.getDataSize())
+                    .addAllRows(Lists.transform(result.getRows(), ByteString::copyFrom)));
+        }
+        if (hitResults.isEmpty()) {
+            hitRange = HitRange.None;
+            return null;
+        }
+        if (MetricRepo.isInit) {
+            MetricRepo.COUNTER_CACHE_HIT_PARTITION.increase(1L);
+        }
+        hitRange = missedPartitionIds.isEmpty() ? HitRange.Full : HitRange.Middle;
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("partition cache hit {} partitions, miss {} partitions, queryid {}",
+                    hitResults.size(), missedPartitionIds.size(), DebugUtil.printId(queryId));
+        }
+        return cacheResult.build();
+    }
+
+    @Override
+    public SelectStmt getRewriteStmt() {
+        return null;
+    }
+
+    /**
+     * Merge the cached rows into the rows computed by BE.
+     * If the query is sorted, the cached rows of the partitions before the partition of a computed row are put
+     * before the computed row, otherwise all the cached rows are put before the first computed rows.
+     */
+    public List<ByteBuffer> mergeCachedRows(List<ByteBuffer> rows) {
+        if (nextMergeIndex >= orderedPartitionIds.size() || hitResults.isEmpty()) {
+            return rows;
+        }
+        List<ByteBuffer> mergedRows = Lists.newArrayListWithCapacity(rows.size());
+        if (!resultPartitionKey.isSorted()) {
+            addCachedRows(mergedRows, orderedPartitionIds.size());
+            mergedRows.addAll(rows);
+            return mergedRows;
+        }
+        for (ByteBuffer row : rows) {
+            Long partitionId = getPartitionOfRow(Arrays.copyOfRange(row.array(), row.position(), row.limit()));
+            if (partitionId != null) {
+                addCachedRows(mergedRows, partitionIdToOrder.get(partitionId));
+            }
+            mergedRows.add(row);
+        }
+        return mergedRows;
+    }
+
+    /**
+     * Get the cached rows which are not merged into the computed rows, called after all the rows are computed.
+     */
+    public List<ByteBuffer> getRemainingCachedRows() {
+        List<ByteBuffer> rows = Lists.newArrayList();
+        addCachedRows(rows, orderedPartitionIds.size());
+        return rows;
+    }
+
+    private void addCachedRows(List<ByteBuffer> rows, int endIndex) {
+        for (; nextMergeIndex < endIndex; nextMergeIndex++) {
+            PartitionResult result = hitResults.get(orderedPartitionIds.get(nextMergeIndex));
+            if (result != null) {
+                for (byte[] row : result.getRows()) {
+                    rows.add(ByteBuffer.wrap(row));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void copyRowBatch(RowBatch rowBatch) {
+        if (rowBatchBuilder == null) {
+            rowBatchBuilder = new RowBatchBuilder(CacheAnalyzer.CacheMode.Partition);
+        }
+        if (!super.checkRowLimit()) {
+            return;
+        }
+        rowBatchBuilder.copyRowData(rowBatch);
+    }
+
+    @Override
+    public void updateCache() {
+        if (!super.checkRowLimit()) {
+            return;
+        }
+        Map<Long, List<byte[]>> partitionRows = Maps.newHashMap();
+        for (Long partitionId : missedPartitionIds) {
+            partitionRows.put(partitionId, Lists.newArrayList());
+        }
+        for (byte[] row : rowBatchBuilder.getRowList()) {
+            Long partitionId = getPartitionOfRow(row);
+            List<byte[]> rows = partitionId == null ? null : partitionRows.get(partitionId);
+            if (rows == null) {
+                LOG.warn("can not find the partition of the row, skip updating partition cache, queryid {}",
+                        DebugUtil.printId(queryId));
+                return;
+            }
+            rows.add(row);
+        }
+
+        long now = System.currentTimeMillis();
+        int updatedPartitionNum = 0;
+        for (Entry<Long, List<byte[]>> entry : partitionRows.entrySet()) {
+            long partitionId = entry.getKey();
+            // same as sql cache, the recently updated partition is likely to be updated again, don't cache it
+            if (now - partitionVersionTimes.get(partitionId) < Config.cache_last_version_interval_second * 1000L) {
+                continue;
+            }
+            cacheManager.put(cacheKey, partitionId,
+                    new PartitionResult(partitionVersions.get(partitionId), entry.getValue()));
+            updatedPartitionNum++;
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("update partition cache, queryid {}, partition num {}, row count {}, data size {}",
+                    DebugUtil.printId(queryId), updatedPartitionNum, rowBatchBuilder.getRowSize(),
+                    rowBatchBuilder.getDataSize());
+        }
+    }
+
+    // return null if the partition of the row is not found
+    Long getPartitionOfRow(byte[] row) {
+        if (lowerBoundToPartitionId.isEmpty()) {
+            return null;
+        }
+        String value = readField(row, resultPartitionKey.getIndex());
+        if (value == null) {
+            // the null values are in the partition which contains the min value
+            return lowerBoundToPartitionId.firstEntry().getValue();
+        }
+        PartitionKey key;
+        try {
+            key = PartitionKey.createPartitionKey(ImmutableList.of(new PartitionValue(value)),
+                    ImmutableList.of(partitionColumn));
+        } catch (AnalysisException e) {
+            LOG.warn("failed to parse the partition value {} in the result, queryid {}",
+                    value, DebugUtil.printId(queryId), e);
+            return null;
+        }
+        Entry<PartitionKey, Long> entry = lowerBoundToPartitionId.floorEntry(key);
+        if (entry == null || !partitionRanges.get(entry.getValue()).contains(key)) {
+            return null;
+        }
+        return entry.getValue();
+    }
+
+    // read the field at the index of a row in the mysql text protocol, return null if the field is NULL
+    static String readField(byte[] row, int index) {
+        ByteBuffer buffer = ByteBuffer.wrap(row);
+        for (int i = 0; ; i++) {
+            if ((buffer.get(buffer.position()) & 0xFF) == NULL_FIELD) {
+                buffer.get();
+                if (i == index) {
+                    return null;
+                }
+                continue;
+            }
+            int length = (int) MysqlProto.readVInt(buffer);
+            if (i == index) {
+                return new String(row, buffer.position(), length, StandardCharsets.UTF_8);
+            }
+            buffer.position(buffer.position() + length);
+        }
+    }
+}
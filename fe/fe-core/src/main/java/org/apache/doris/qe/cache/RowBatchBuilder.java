@@ -61,6 +61,10 @@ public class RowBatchBuilder {
         return dataSize;
     }
 
+    public List<byte[]> getRowList() {
+        return rowList;
+    }
+
     public RowBatchBuilder(CacheAnalyzer.CacheMode model) {
         cacheMode = model;
         keyIndex = 0;
@@ -281,7 +281,7 @@ public class BackendServiceProxy {
         }
     }
 
-    public Future<InternalService.PFetchDataResult> fetchDataAsync(
+    public ListenableFuture<InternalService.PFetchDataResult> fetchDataAsync(
             TNetworkAddress address, InternalService.PFetchDataRequest request) throws RpcException {
         try {
             final BackendServiceClient client = getProxy(address);
@@ -73,6 +73,7 @@ import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Striped;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.tuple.Triple;
 import org.apache.logging.log4j.LogManager;
@@ -83,6 +84,7 @@ import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -93,6 +95,8 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 
 /**
@@ -120,11 +124,18 @@ public class DatabaseTransactionMgr {
     private final long dbId;
 
     // the lock is used to control the access to transaction states
-    // no other locks should be inside this lock
+    // no other locks should be inside this lock.
+    // the state change of a single transaction (begin/commit/abort/finish) holds the read lock and the stripe lock
+    // of its label or transaction id, so that the unrelated transactions don't contend with each other.
+    // the operations across transactions (eg. remove expired txns, clean label, replay) hold the write lock.
     private final MonitoredReentrantReadWriteLock transactionLock = new MonitoredReentrantReadWriteLock(true);
+    // label -> stripe lock, to make the label check and the begin of transaction atomic
+    private final Striped<Lock> labelLocks = Striped.lock(Config.txn_lock_stripe_num);
+    // transactionId -> stripe lock, to make the state transform of a transaction atomic
+    private final Striped<Lock> transactionIdLocks = Striped.lock(Config.txn_lock_stripe_num);
 
     // transactionId -> running TransactionState
-    private final Map<Long, TransactionState> idToRunningTransactionState = Maps.newHashMap();
+    private final Map<Long, TransactionState> idToRunningTransactionState = new ConcurrentHashMap<>();
 
     /**
      * the multi table ids that are in transaction, used to check whether a table is in transaction
@@ -135,12 +146,14 @@ public class DatabaseTransactionMgr {
             new ConcurrentHashMap<>();
 
     // transactionId -> final status TransactionState
-    private final Map<Long, TransactionState> idToFinalStatusTransactionState = Maps.newHashMap();
+    private final Map<Long, TransactionState> idToFinalStatusTransactionState = new ConcurrentHashMap<>();
     private final Map<Long, Long> subTxnIdToTxnId = new ConcurrentHashMap<>();
 
     // The following 2 queues are to store transactionStates with final status
     // These queues are mainly used to avoid traversing all txns and speed up the cleaning time
     // when cleaning up expired txs.
+    // The txns are added into the queues under the stripe locks, so the add must be synchronized on the queue.
+    // The other accesses to the queues must hold the write lock.
     // The "Short" queue is used to store the txns of the expire time
     // controlled by Config.streaming_label_keep_max_second.
     // The "Long" queue is used to store the txns of the expire time controlled by Config.label_keep_max_second.
@@ -153,10 +166,10 @@ public class DatabaseTransactionMgr {
     // this member should be consistent with idToTransactionState,
     // which means if a txn exist in idToRunningTransactionState or idToFinalStatusTransactionState
     // it must exists in dbIdToTxnLabels, and vice versa
-    private final Map<String, Set<Long>> labelToTxnIds = Maps.newHashMap();
+    private final Map<String, Set<Long>> labelToTxnIds = new ConcurrentHashMap<>();
 
     // count the number of running txns of database
-    private volatile int runningTxnNums = 0;
+    private final AtomicInteger runningTxnNums = new AtomicInteger(0);
 
     private final Env env;
 
@@ -191,6 +204,36 @@ public class DatabaseTransactionMgr {
         this.transactionLock.writeLock().unlock();
     }
 
+    private Lock labelLock(String label) {
+        return stripeLock(labelLocks.get(label));
+    }
+
+    private Lock transactionIdLock(long transactionId) {
+        return stripeLock(transactionIdLocks.get(transactionId));
+    }
+
+    private Lock stripeLock(Lock stripe) {
+        readLock();
+        stripe.lock();
+        return stripe;
+    }
+
+    private void stripeUnlock(Lock stripe) {
+        stripe.unlock();
+        readUnlock();
+    }
+
+    // the stripe lock of a txn is held from its status change until the edit log is written,
+    // so a txn whose stripe lock is busy may have a status which is not persisted yet
+    private boolean isInStateTransform(long transactionId) {
+        Lock stripe = transactionIdLocks.get(transactionId);
+        if (!stripe.tryLock()) {
+            return true;
+        }
+        stripe.unlock();
+        return false;
+    }
+
     public DatabaseTransactionMgr(long dbId, Env env, TransactionIdGenerator idGenerator) {
         this.dbId = dbId;
         this.env = env;
@@ -232,7 +275,7 @@ public class DatabaseTransactionMgr {
     }
 
     protected int getRunningTxnNums() {
-        return runningTxnNums;
+        return runningTxnNums.get();
     }
 
     @VisibleForTesting
@@ -359,7 +402,7 @@ public class DatabaseTransactionMgr {
         FeNameFormat.checkLabel(label);
 
         long tid = 0L;
-        writeLock();
+        Lock stripe = labelLock(label);
         try {
             /*
              * Check if label already used, by following steps
@@ -405,7 +448,7 @@ public class DatabaseTransactionMgr {
                 MetricRepo.COUNTER_TXN_BEGIN.increase(1L);
             }
         } finally {
-            writeUnlock();
+            stripeUnlock(stripe);
         }
         LOG.info("begin transaction: txn id {} with label {} from coordinator {}, listener id: {}",
                     tid, label, coordinator, listenerId);
@@ -794,7 +837,7 @@ public class DatabaseTransactionMgr {
         transactionState.beforeStateTransform(TransactionStatus.COMMITTED);
         // transaction state transform
         boolean txnOperated = false;
-        writeLock();
+        Lock stripe = transactionIdLock(transactionId);
         try {
             if (is2PC) {
                 unprotectedCommitTransaction2PC(transactionState, db);
@@ -804,7 +847,7 @@ public class DatabaseTransactionMgr {
             }
             txnOperated = true;
         } finally {
-            writeUnlock();
+            stripeUnlock(stripe);
             // after state transform
             try {
                 transactionState.afterStateTransform(TransactionStatus.COMMITTED, txnOperated);
@@ -859,13 +902,13 @@ public class DatabaseTransactionMgr {
         transactionState.beforeStateTransform(TransactionStatus.COMMITTED);
         // transaction state transform
         boolean txnOperated = false;
-        writeLock();
+        Lock stripe = transactionIdLock(transactionId);
         try {
             unprotectedCommitTransaction(transactionState, errorReplicaIds, subTxnToPartition, totalInvolvedBackends,
                     subTransactionStates, db);
             txnOperated = true;
         } finally {
-            writeUnlock();
+            stripeUnlock(stripe);
             // after state transform
             try {
                 transactionState.afterStateTransform(TransactionStatus.COMMITTED, txnOperated);
@@ -1059,10 +1102,12 @@ public class DatabaseTransactionMgr {
     protected List<TransactionState> getCommittedTxnList() {
         readLock();
         try {
-            // only send task to committed transaction
+            // only send task to committed transaction, the one still in its state transform is skipped in this
+            // round, since its COMMITTED status may not be persisted yet
             return idToRunningTransactionState.values().stream()
                     .filter(transactionState ->
-                            (transactionState.getTransactionStatus() == TransactionStatus.COMMITTED))
+                            (transactionState.getTransactionStatus() == TransactionStatus.COMMITTED)
+                                    && !isInStateTransform(transactionState.getTransactionId()))
                     .sorted(Comparator.comparing(TransactionState::getCommitTime))
                     .collect(Collectors.toList());
         } finally {
@@ -1112,32 +1157,18 @@ public class DatabaseTransactionMgr {
         try {
             // add all commit errors and publish errors to a single set
             Set<Long> errorReplicaIds = transactionState.getErrorReplicas();
-            if (transactionState.getSubTxnIds() == null) {
-                List<Pair<OlapTable, Partition>> relatedTblPartitions = Lists.newArrayList();
-                if (!finishCheckPartitionVersion(transactionState, db, relatedTblPartitions)) {
-                    return;
-                }
-                publishResult = finishCheckQuorumReplicas(transactionState, relatedTblPartitions, errorReplicaIds);
-                if (publishResult == PublishResult.FAILED) {
-                    return;
-                }
-            } else {
-                if (!finishCheckPartitionVersionWithSubTxns(transactionState, db)) {
-                    return;
-                }
-                publishResult = finishCheckQuorumReplicas(transactionState, errorReplicaIds);
-                if (publishResult == PublishResult.FAILED) {
-                    return;
-                }
+            publishResult = finishCheck(transactionState, db, errorReplicaIds);
+            if (publishResult == PublishResult.FAILED) {
+                return;
             }
             boolean txnOperated = false;
-            writeLock();
+            Lock stripe = transactionIdLock(transactionId);
             try {
                 transactionState.setErrorReplicas(errorReplicaIds);
                 transactionState.setFinishTime(System.currentTimeMillis());
                 transactionState.clearErrorMsg();
-                transactionState.setTransactionStatus(TransactionStatus.VISIBLE);
                 setTableVersion(transactionState, db);
+                transactionState.setTransactionStatus(TransactionStatus.VISIBLE);
                 unprotectUpsertTransactionState(transactionState, false);
                 txnOperated = true;
                 // TODO(cmy): We found a very strange problem. When delete-related transactions are processed here,
@@ -1148,7 +1179,7 @@ public class DatabaseTransactionMgr {
                     LOG.debug("after set transaction {} to visible", transactionState);
                 }
             } finally {
-                writeUnlock();
+                stripeUnlock(stripe);
                 try {
                     transactionState.afterStateTransform(TransactionStatus.VISIBLE, txnOperated);
                 } catch (Throwable e) {
@@ -1179,6 +1210,155 @@ public class DatabaseTransactionMgr {
                 transactionState, transactionState.getPublishCount(), publishResult.name());
     }
 
+    /**
+     * Finish the transactions together, the transactions should be sorted by commit order.
+     * The write locks of all the related tables are held for the whole batch. The VISIBLE states of the
+     * transactions are written in one edit log batch, see flushVisibleTransactions. A transaction on a table
+     * touched by a pending transaction needs the visible version of the former one, so the pending transactions
+     * are flushed before it is checked.
+     * The transactions which can't be finished now are skipped, and will be retried in the next round.
+     */
+    public void finishTransactions(List<Long> transactionIds, Map<Long, Long> partitionVisibleVersions,
+            Map<Long, Set<Long>> backendPartitions) throws UserException {
+        if (DebugPointUtil.isEnable("DatabaseTransactionMgr.stop_finish_transaction")) {
+            return;
+        }
+
+        List<TransactionState> transactionStates = Lists.newArrayList();
+        readLock();
+        try {
+            for (long transactionId : transactionIds) {
+                TransactionState transactionState = unprotectedGetTransactionState(transactionId);
+                if (transactionState != null
+                        && transactionState.getTransactionStatus() == TransactionStatus.COMMITTED) {
+                    transactionStates.add(transactionState);
+                }
+            }
+        } finally {
+            readUnlock();
+        }
+        if (transactionStates.isEmpty()) {
+            return;
+        }
+
+        Database db = env.getInternalCatalog().getDbOrMetaException(dbId);
+        Set<Long> tableIds = Sets.newHashSet();
+        for (TransactionState transactionState : transactionStates) {
+            tableIds.addAll(getCommitTableIds(transactionState));
+        }
+        List<? extends TableIf> tableList = db.getTablesOnIdOrderIfExist(Lists.newArrayList(tableIds));
+        if (!MetaLockUtils.tryWriteLockTablesIfExist(tableList, 10, TimeUnit.SECONDS)) {
+            LOG.warn("finish transactions {} failed, get lock timeout with tables {}", transactionIds, tableIds);
+            return;
+        }
+        List<TransactionState> visibleTransactionStates = Lists.newArrayList();
+        List<PublishResult> publishResults = Lists.newArrayList();
+        List<TransactionState> pendingTransactionStates = Lists.newArrayList();
+        Set<Long> pendingTableIds = Sets.newHashSet();
+        try {
+            for (TransactionState transactionState : transactionStates) {
+                Set<Long> txnTableIds = getCommitTableIds(transactionState);
+                if (!Collections.disjoint(pendingTableIds, txnTableIds)) {
+                    flushVisibleTransactions(pendingTransactionStates, db, partitionVisibleVersions,
+                            backendPartitions);
+                    pendingTableIds.clear();
+                }
+                Set<Long> errorReplicaIds = transactionState.getErrorReplicas();
+                PublishResult publishResult = finishCheck(transactionState, db, errorReplicaIds);
+                if (publishResult == PublishResult.FAILED) {
+                    continue;
+                }
+                // the txn is still COMMITTED, it's made VISIBLE when the pending txns are flushed
+                pendingTransactionStates.add(transactionState);
+                pendingTableIds.addAll(txnTableIds);
+                visibleTransactionStates.add(transactionState);
+                publishResults.add(publishResult);
+            }
+            flushVisibleTransactions(pendingTransactionStates, db, partitionVisibleVersions, backendPartitions);
+            // the callbacks may write their own edit logs, which must be after the VISIBLE state
+            for (TransactionState transactionState : visibleTransactionStates) {
+                try {
+                    transactionState.afterStateTransform(TransactionStatus.VISIBLE, true);
+                } catch (Throwable e) {
+                    LOG.warn("afterStateTransform txn {} failed. exception: ", transactionState, e);
+                }
+            }
+        } finally {
+            MetaLockUtils.writeUnlockTables(tableList);
+        }
+
+        for (int i = 0; i < visibleTransactionStates.size(); i++) {
+            TransactionState transactionState = visibleTransactionStates.get(i);
+            try {
+                produceEvent(transactionState, db);
+            } catch (Throwable t) {
+                LOG.warn("produceEvent failed: ", t);
+            }
+            transactionState.countdownVisibleLatch();
+            LOG.info("finish transaction {} successfully in batch, publish times {}, publish result {}",
+                    transactionState, transactionState.getPublishCount(), publishResults.get(i).name());
+        }
+    }
+
+    /**
+     * Make the pending txns VISIBLE, write them in one edit log batch, then apply the new versions to the catalog.
+     * Same as a single finish, the stripe locks of the txns are held from the status change until the write
+     * returns, and the txns are moved to the final status map only after the write. So the VISIBLE states are
+     * not published to the readers or the image before they are persisted.
+     */
+    private void flushVisibleTransactions(List<TransactionState> transactionStates, Database db,
+            Map<Long, Long> partitionVisibleVersions, Map<Long, Set<Long>> backendPartitions) {
+        if (transactionStates.isEmpty()) {
+            return;
+        }
+        // bulkGet returns the stripes in a fixed order, so the locks of different batches never deadlock
+        Iterable<Lock> stripes = transactionIdLocks.bulkGet(transactionStates.stream()
+                .map(TransactionState::getTransactionId).collect(Collectors.toList()));
+        readLock();
+        stripes.forEach(Lock::lock);
+        try {
+            for (TransactionState transactionState : transactionStates) {
+                transactionState.setFinishTime(System.currentTimeMillis());
+                transactionState.clearErrorMsg();
+                setTableVersion(transactionState, db);
+                transactionState.setTransactionStatus(TransactionStatus.VISIBLE);
+            }
+            editLog.logInsertTransactionStates(transactionStates);
+            transactionStates.forEach(this::unprotectUpsertTransactionStateWithoutLog);
+        } finally {
+            stripes.forEach(Lock::unlock);
+            readUnlock();
+        }
+        for (TransactionState transactionState : transactionStates) {
+            updateCatalogAfterVisible(transactionState, db, partitionVisibleVersions, backendPartitions);
+        }
+        transactionStates.clear();
+    }
+
+    private Set<Long> getCommitTableIds(TransactionState transactionState) {
+        if (transactionState.getSubTxnIds() == null) {
+            return Sets.newHashSet(transactionState.getTableIdList());
+        }
+        return transactionState.getSubTxnTableCommitInfos().stream().map(TableCommitInfo::getTableId)
+                .collect(Collectors.toSet());
+    }
+
+    // check whether the transaction can be finished, return FAILED if not
+    private PublishResult finishCheck(TransactionState transactionState, Database db, Set<Long> errorReplicaIds) {
+        if (transactionState.getSubTxnIds() == null) {
+            List<Pair<OlapTable, Partition>> relatedTblPartitions = Lists.newArrayList();
+            if (!finishCheckPartitionVersion(transactionState, db, relatedTblPartitions)) {
+                return PublishResult.FAILED;
+            }
+            return finishCheckQuorumReplicas(transactionState, relatedTblPartitions, errorReplicaIds);
+        } else {
+            if (!finishCheckPartitionVersionWithSubTxns(transactionState, db)) {
+                return PublishResult.FAILED;
+            }
+            return finishCheckQuorumReplicas(transactionState, errorReplicaIds);
+        }
+    }
+
     private void setTableVersion(TransactionState transactionState, Database db) {
         List<TableCommitInfo> tableCommitInfos;
         if (!transactionState.getSubTxnIdToTableCommitInfo().isEmpty()) {
@@ -1473,7 +1653,6 @@ public class DatabaseTransactionMgr {
         }
         // update transaction state version
         transactionState.setPreCommitTime(System.currentTimeMillis());
-        transactionState.setTransactionStatus(TransactionStatus.PRECOMMITTED);
         transactionState.setErrorReplicas(errorReplicaIds);
         for (long tableId : tableToPartition.keySet()) {
             OlapTable table = (OlapTable) db.getTableNullable(tableId);
@@ -1488,9 +1667,11 @@ public class DatabaseTransactionMgr {
             }
             transactionState.putIdToTableCommitInfo(tableId, tableCommitInfo);
         }
+        transactionState.setInvolvedBackends(totalInvolvedBackends);
+        // the status is the last to change, see unprotectedSetTransactionCommitted
+        transactionState.setTransactionStatus(TransactionStatus.PRECOMMITTED);
         // persist transactionState
         unprotectUpsertTransactionState(transactionState, false);
-        transactionState.setInvolvedBackends(totalInvolvedBackends);
     }
 
     private PartitionCommitInfo generatePartitionCommitInfo(OlapTable table, long partitionId, long partitionVersion) {
@@ -1504,8 +1685,6 @@ public class DatabaseTransactionMgr {
     protected void unprotectedCommitTransaction(TransactionState transactionState, Set<Long> errorReplicaIds,
                                                 Map<Long, Set<Long>> tableToPartition, Set<Long> totalInvolvedBackends,
                                                 Database db) {
-        checkBeforeUnprotectedCommitTransaction(transactionState, errorReplicaIds);
-
         for (long tableId : tableToPartition.keySet()) {
             OlapTable table = (OlapTable) db.getTableNullable(tableId);
             TableCommitInfo tableCommitInfo = new TableCommitInfo(tableId);
@@ -1516,25 +1695,28 @@ public class DatabaseTransactionMgr {
             }
             transactionState.putIdToTableCommitInfo(tableId, tableCommitInfo);
         }
-        // persist transactionState
-        unprotectUpsertTransactionState(transactionState, false);
         transactionState.setInvolvedBackends(totalInvolvedBackends);
+        unprotectedSetTransactionCommitted(transactionState, errorReplicaIds);
     }
 
-    private void checkBeforeUnprotectedCommitTransaction(TransactionState transactionState, Set<Long> errorReplicaIds) {
+    /**
+     * Set the COMMITTED status and persist the transaction state.
+     * The readers only hold the read lock, so the status must be the last to change: the commit infos and the
+     * involved backends are set before it. A reader which acts on the new status, e.g. the publish, also checks
+     * that the stripe lock of the txn is free, since the stripe lock is held until the edit log is written.
+     */
+    private void unprotectedSetTransactionCommitted(TransactionState transactionState, Set<Long> errorReplicaIds) {
         // transaction state is modified during check if the transaction could committed
-        if (transactionState.getTransactionStatus() != TransactionStatus.PREPARE) {
-            return;
-        }
-        // update transaction state version
-        long commitTime = System.currentTimeMillis();
-        transactionState.setCommitTime(commitTime);
-        if (MetricRepo.isInit) {
-            MetricRepo.HISTO_TXN_EXEC_LATENCY.update(commitTime - transactionState.getPrepareTime());
+        if (transactionState.getTransactionStatus() == TransactionStatus.PREPARE) {
+            // update transaction state version
+            long commitTime = System.currentTimeMillis();
+            transactionState.setCommitTime(commitTime);
+            if (MetricRepo.isInit) {
+                MetricRepo.HISTO_TXN_EXEC_LATENCY.update(commitTime - transactionState.getPrepareTime());
+            }
+            transactionState.setErrorReplicas(errorReplicaIds);
+            transactionState.setTransactionStatus(TransactionStatus.COMMITTED);
         }
-        transactionState.setTransactionStatus(TransactionStatus.COMMITTED);
-        transactionState.setErrorReplicas(errorReplicaIds);
-
         // persist transactionState
         unprotectUpsertTransactionState(transactionState, false);
     }
@@ -1542,8 +1724,6 @@ public class DatabaseTransactionMgr {
     protected void unprotectedCommitTransaction(TransactionState transactionState, Set<Long> errorReplicaIds,
             Map<Long, Set<Long>> subTxnToPartition, Set<Long> totalInvolvedBackends,
             List<SubTransactionState> subTransactionStates, Database db) {
-        checkBeforeUnprotectedCommitTransaction(transactionState, errorReplicaIds);
-
         Map<Long, List<SubTransactionState>> tableToSubTransactionState = new HashMap<>();
         for (SubTransactionState subTransactionState : subTransactionStates) {
             long tableId = subTransactionState.getTable().getId();
@@ -1584,9 +1764,8 @@ public class DatabaseTransactionMgr {
                 transactionState.addSubTxnTableCommitInfo(subTransactionState, tableCommitInfo);
             }
         }
-        // persist transactionState
-        unprotectUpsertTransactionState(transactionState, false);
         transactionState.setInvolvedBackends(totalInvolvedBackends);
+        unprotectedSetTransactionCommitted(transactionState, errorReplicaIds);
     }
 
     protected void unprotectedCommitTransaction2PC(TransactionState transactionState, Database db) {
@@ -1598,7 +1777,6 @@ public class DatabaseTransactionMgr {
         }
         // update transaction state version
         transactionState.setCommitTime(System.currentTimeMillis());
-        transactionState.setTransactionStatus(TransactionStatus.COMMITTED);
 
         Iterator<TableCommitInfo> tableCommitInfoIterator
                 = transactionState.getIdToTableCommitInfos().values().iterator();
@@ -1632,6 +1810,8 @@ public class DatabaseTransactionMgr {
                 partitionCommitInfo.setVersionTime(System.currentTimeMillis());
             }
         }
+        // the status is the last to change, see unprotectedSetTransactionCommitted
+        transactionState.setTransactionStatus(TransactionStatus.COMMITTED);
         // persist transactionState
         editLog.logInsertTransactionState(transactionState);
     }
@@ -1649,19 +1829,26 @@ public class DatabaseTransactionMgr {
                 editLog.logInsertTransactionState(transactionState);
             }
         }
+        unprotectUpsertTransactionStateWithoutLog(transactionState);
+    }
+
+    // the caller is responsible for persisting the transaction state
+    private void unprotectUpsertTransactionStateWithoutLog(TransactionState transactionState) {
         if (!transactionState.getTransactionStatus().isFinalStatus()) {
             if (idToRunningTransactionState.put(transactionState.getTransactionId(), transactionState) == null) {
-                runningTxnNums++;
+                runningTxnNums.incrementAndGet();
             }
         } else {
+            // put into the final status map before removing from the running map,
+            // so the readers holding the read lock can always find the txn
+            idToFinalStatusTransactionState.put(transactionState.getTransactionId(), transactionState);
             if (idToRunningTransactionState.remove(transactionState.getTransactionId()) != null) {
-                runningTxnNums--;
+                runningTxnNums.decrementAndGet();
             }
-            idToFinalStatusTransactionState.put(transactionState.getTransactionId(), transactionState);
-            if (transactionState.isShortTxn()) {
-                finalStatusTransactionStateDequeShort.add(transactionState);
-            } else {
-                finalStatusTransactionStateDequeLong.add(transactionState);
+            ArrayDeque<TransactionState> finalStatusTransactionStateDeque = transactionState.isShortTxn()
+                    ? finalStatusTransactionStateDequeShort : finalStatusTransactionStateDequeLong;
+            synchronized (finalStatusTransactionStateDeque) {
+                finalStatusTransactionStateDeque.add(transactionState);
             }
         }
         updateTxnLabels(transactionState);
@@ -1670,14 +1857,15 @@ public class DatabaseTransactionMgr {
     public int getRunningTxnNumsWithLock() {
         readLock();
         try {
-            return runningTxnNums;
+            return runningTxnNums.get();
         } finally {
             readUnlock();
         }
     }
 
     private void updateTxnLabels(TransactionState transactionState) {
-        Set<Long> txnIds = labelToTxnIds.computeIfAbsent(transactionState.getLabel(), k -> Sets.newHashSet());
+        Set<Long> txnIds = labelToTxnIds.computeIfAbsent(transactionState.getLabel(),
+                k -> ConcurrentHashMap.newKeySet());
         txnIds.add(transactionState.getTransactionId());
     }
 
@@ -1715,11 +1903,11 @@ public class DatabaseTransactionMgr {
         // before state transform
         transactionState.beforeStateTransform(TransactionStatus.ABORTED);
         boolean txnOperated = false;
-        writeLock();
+        Lock stripe = transactionIdLock(transactionId);
         try {
             txnOperated = unprotectAbortTransaction(transactionId, reason);
         } finally {
-            writeUnlock();
+            stripeUnlock(stripe);
             transactionState.afterStateTransform(TransactionStatus.ABORTED, txnOperated, reason);
         }
 
@@ -1757,11 +1945,11 @@ public class DatabaseTransactionMgr {
         // before state transform
         transactionState.beforeStateTransform(TransactionStatus.ABORTED);
         boolean txnOperated = false;
-        writeLock();
+        Lock stripe = transactionIdLock(transactionId);
         try {
             txnOperated = unprotectAbortTransaction(transactionId, "User Abort");
         } finally {
-            writeUnlock();
+            stripeUnlock(stripe);
             transactionState.afterStateTransform(TransactionStatus.ABORTED, txnOperated, "User Abort");
         }
 
@@ -2072,9 +2260,11 @@ public class DatabaseTransactionMgr {
     protected void checkRunningTxnExceedLimit()
             throws BeginTransactionException, MetaNotFoundException {
         long txnQuota = env.getInternalCatalog().getDbOrMetaException(dbId).getTransactionQuotaSize();
-        if (runningTxnNums >= txnQuota) {
+        // the running txn num may be changed by the concurrent txns of other labels, so this is a soft limit
+        int runningTxnNum = runningTxnNums.get();
+        if (runningTxnNum >= txnQuota) {
             throw new BeginTransactionException("current running txns on db " + dbId + " is "
-                    + runningTxnNums + ", larger than limit " + txnQuota);
+                    + runningTxnNum + ", larger than limit " + txnQuota);
         }
     }
 
@@ -2471,7 +2661,7 @@ public class DatabaseTransactionMgr {
         readLock();
         try {
             infos.add(Lists.newArrayList("running", String.valueOf(
-                    runningTxnNums)));
+                    runningTxnNums.get())));
             long finishedNum = getFinishedTxnNums();
             infos.add(Lists.newArrayList("finished", String.valueOf(finishedNum)));
         } finally {
@@ -2480,18 +2670,34 @@ public class DatabaseTransactionMgr {
         return infos;
     }
 
-    public void unprotectWriteAllTransactionStates(DataOutput out) throws IOException {
-        for (Map.Entry<Long, TransactionState> entry : idToRunningTransactionState.entrySet()) {
-            entry.getValue().write(out);
-        }
-
-        // Use 2 queues instead of idToFinalStatusTransactionState to keep the order in queues.
-        for (TransactionState transactionState : finalStatusTransactionStateDequeShort) {
-            transactionState.write(out);
+    /**
+     * Get the txns to save into the image. The write lock excludes the state transforms, which add the txns into
+     * the final status queues under the read lock, so the running txns and the queues are a consistent snapshot.
+     */
+    public List<TransactionState> getTransactionStatesToWrite() {
+        writeLock();
+        try {
+            List<TransactionState> transactionStates = Lists.newArrayListWithCapacity(getTransactionNum());
+            transactionStates.addAll(idToRunningTransactionState.values());
+            // Use 2 queues instead of idToFinalStatusTransactionState to keep the order in queues.
+            transactionStates.addAll(finalStatusTransactionStateDequeShort);
+            transactionStates.addAll(finalStatusTransactionStateDequeLong);
+            return transactionStates;
+        } finally {
+            writeUnlock();
         }
+    }
 
-        for (TransactionState transactionState : finalStatusTransactionStateDequeLong) {
-            transactionState.write(out);
+    public void writeTransactionStates(List<TransactionState> transactionStates, DataOutput out)
+            throws IOException {
+        for (TransactionState transactionState : transactionStates) {
+            // the txn is not transformed while it is written
+            Lock stripe = transactionIdLock(transactionState.getTransactionId());
+            try {
+                transactionState.write(out);
+            } finally {
+                stripeUnlock(stripe);
+            }
         }
     }
 
@@ -513,6 +513,13 @@ public class GlobalTransactionMgr implements GlobalTransactionMgrIface {
         dbTransactionMgr.finishTransaction(transactionId, partitionVisibleVersions, backendPartitions);
     }
 
+    @Override
+    public void finishTransactions(long dbId, List<Long> transactionIds, Map<Long, Long> partitionVisibleVersions,
+            Map<Long, Set<Long>> backendPartitions) throws UserException {
+        DatabaseTransactionMgr dbTransactionMgr = getDatabaseTransactionMgr(dbId);
+        dbTransactionMgr.finishTransactions(transactionIds, partitionVisibleVersions, backendPartitions);
+    }
+
     /**
      * Check whether a load job already exists before
      * checking all `TransactionId` related with this load job have finished.
@@ -889,10 +896,17 @@ public class GlobalTransactionMgr implements GlobalTransactionMgrIface {
 
     @Override
     public void write(DataOutput out) throws IOException {
-        int numTransactions = getTransactionNum();
-        out.writeInt(numTransactions);
+        // take the snapshots first, the number of txns must match the txns written
+        List<Pair<DatabaseTransactionMgr, List<TransactionState>>> snapshots = Lists.newArrayList();
+        int numTransactions = 0;
         for (DatabaseTransactionMgr dbTransactionMgr : dbIdToDatabaseTransactionMgrs.values()) {
-            dbTransactionMgr.unprotectWriteAllTransactionStates(out);
+            List<TransactionState> transactionStates = dbTransactionMgr.getTransactionStatesToWrite();
+            snapshots.add(Pair.of(dbTransactionMgr, transactionStates));
+            numTransactions += transactionStates.size();
+        }
+        out.writeInt(numTransactions);
+        for (Pair<DatabaseTransactionMgr, List<TransactionState>> snapshot : snapshots) {
+            snapshot.first.writeTransactionStates(snapshot.second, out);
         }
         idGenerator.write(out);
     }
@@ -913,6 +927,46 @@ public class GlobalTransactionMgr implements GlobalTransactionMgrIface {
         idGenerator.readFields(in);
     }
 
+    public List<Long> getDatabaseTransactionMgrDbIds() {
+        return Lists.newArrayList(dbIdToDatabaseTransactionMgrs.keySet());
+    }
+
+    /**
+     * Write the transaction states of one database, used by the sectioned image which saves the
+     * transaction states of each database as a separate section.
+     */
+    public void writeDbTransactionStates(long dbId, DataOutput out) throws IOException {
+        DatabaseTransactionMgr dbTransactionMgr = dbIdToDatabaseTransactionMgrs.get(dbId);
+        if (dbTransactionMgr == null) {
+            out.writeInt(0);
+            return;
+        }
+        List<TransactionState> transactionStates = dbTransactionMgr.getTransactionStatesToWrite();
+        out.writeInt(transactionStates.size());
+        dbTransactionMgr.writeTransactionStates(transactionStates, out);
+    }
+
+    public static List<TransactionState> readDbTransactionStates(DataInput in) throws IOException {
+        int numTransactions = in.readInt();
+        List<TransactionState> transactionStates = Lists.newArrayListWithCapacity(numTransactions);
+        for (int i = 0; i < numTransactions; ++i) {
+            transactionStates.add(TransactionState.read(in));
+        }
+        return transactionStates;
+    }
+
+    public void loadTransactionStates(List<TransactionState> transactionStates) throws IOException {
+        for (TransactionState transactionState : transactionStates) {
+            try {
+                DatabaseTransactionMgr dbTransactionMgr = getDatabaseTransactionMgr(transactionState.getDbId());
+                dbTransactionMgr.unprotectUpsertTransactionState(transactionState, true);
+            } catch (AnalysisException e) {
+                LOG.warn("failed to get db transaction manager for txn: {}", transactionState);
+                throw new IOException("Read transaction states failed", e);
+            }
+        }
+    }
+
     // for replay idToTransactionState
     // check point also run transaction cleaner, the cleaner maybe concurrently modify id to
     @Override
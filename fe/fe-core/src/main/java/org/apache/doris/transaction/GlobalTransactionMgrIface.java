@@ -116,6 +116,15 @@ public interface GlobalTransactionMgrIface extends Writable {
     public void finishTransaction(long dbId, long transactionId, Map<Long, Long> partitionVisibleVersions,
             Map<Long, Set<Long>> backendPartitions) throws UserException;
 
+    // finish the transactions of a db together, the transactions should be in commit order.
+    // the transactions which can't be finished now are left to the next round.
+    default void finishTransactions(long dbId, List<Long> transactionIds, Map<Long, Long> partitionVisibleVersions,
+            Map<Long, Set<Long>> backendPartitions) throws UserException {
+        for (long transactionId : transactionIds) {
+            finishTransaction(dbId, transactionId, partitionVisibleVersions, backendPartitions);
+        }
+    }
+
     public boolean isPreviousTransactionsFinished(long endTransactionId, long dbId, List<Long> tableIdList)
             throws AnalysisException;
 
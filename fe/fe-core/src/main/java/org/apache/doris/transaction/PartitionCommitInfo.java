@@ -19,6 +19,7 @@ package org.apache.doris.transaction;
 
 import org.apache.doris.common.io.Text;
 import org.apache.doris.common.io.Writable;
+import org.apache.doris.persist.BinaryJournalCodec;
 import org.apache.doris.persist.gson.GsonUtils;
 
 import com.google.gson.annotations.SerializedName;
@@ -65,6 +66,25 @@ public class PartitionCommitInfo implements Writable {
         return GsonUtils.GSON.fromJson(json, PartitionCommitInfo.class);
     }
 
+    // the binary layout is a part of the binary layout of TransactionState
+    public void writeBinary(DataOutput out) throws IOException {
+        out.writeLong(partitionId);
+        BinaryJournalCodec.writeNullableString(out, range);
+        out.writeLong(version);
+        out.writeLong(versionTime);
+        out.writeBoolean(isTempPartition);
+    }
+
+    public static PartitionCommitInfo readBinary(DataInput in) throws IOException {
+        PartitionCommitInfo info = new PartitionCommitInfo();
+        info.partitionId = in.readLong();
+        info.range = BinaryJournalCodec.readNullableString(in);
+        info.version = in.readLong();
+        info.versionTime = in.readLong();
+        info.isTempPartition = in.readBoolean();
+        return info;
+    }
+
     public long getPartitionId() {
         return partitionId;
     }
@@ -37,6 +37,7 @@ import org.apache.doris.task.UpdateVisibleVersionTask;
 import org.apache.doris.thrift.TPartitionVersionInfo;
 import org.apache.doris.thrift.TTaskType;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.apache.commons.collections.CollectionUtils;
@@ -161,6 +162,11 @@ public class PublishVersionDaemon extends MasterDaemon {
     private void tryFinishTxn(List<TransactionState> readyTransactionStates,
                                      SystemInfoService infoService, GlobalTransactionMgrIface globalTransactionMgr,
                                      Map<Long, Long> partitionVisibleVersions, Map<Long, Set<Long>> backendPartitions) {
+        if (Config.enable_batch_publish_version) {
+            tryFinishTxnInBatch(readyTransactionStates, infoService, globalTransactionMgr, partitionVisibleVersions,
+                    backendPartitions);
+            return;
+        }
         for (TransactionState transactionState : readyTransactionStates) {
             try {
                 // try to finish the transaction, if failed just retry in next loop
@@ -173,9 +179,68 @@ public class PublishVersionDaemon extends MasterDaemon {
         } // end for readyTransactionStates
     }
 
+    // finish the transactions of a db together, so they are persisted in one edit log batch.
+    // the ready transactions are in commit order, and the order is kept in the batch.
+    private void tryFinishTxnInBatch(List<TransactionState> readyTransactionStates,
+            SystemInfoService infoService, GlobalTransactionMgrIface globalTransactionMgr,
+            Map<Long, Long> partitionVisibleVersions, Map<Long, Set<Long>> backendPartitions) {
+        Map<Long, List<TransactionState>> dbIdToTransactionStates = Maps.newLinkedHashMap();
+        for (TransactionState transactionState : readyTransactionStates) {
+            try {
+                if (shouldFinishTxn(transactionState, infoService)) {
+                    dbIdToTransactionStates.computeIfAbsent(transactionState.getDbId(), k -> Lists.newArrayList())
+                            .add(transactionState);
+                } else {
+                    cleanVisibleTxn(transactionState);
+                }
+            } catch (Throwable t) {
+                LOG.error("errors while check finish transaction: {}, publish tasks: {}", transactionState,
+                        transactionState.getPublishVersionTasks(), t);
+            }
+        }
+
+        int batchSize = Math.max(1, Config.batch_publish_version_max_txn_num);
+        dbIdToTransactionStates.forEach((dbId, transactionStates) -> {
+            for (List<TransactionState> batch : Lists.partition(transactionStates, batchSize)) {
+                List<Long> transactionIds = batch.stream().map(TransactionState::getTransactionId)
+                        .collect(Collectors.toList());
+                try {
+                    globalTransactionMgr.finishTransactions(dbId, transactionIds, partitionVisibleVersions,
+                            backendPartitions);
+                } catch (Throwable t) {
+                    LOG.warn("error happens when finish transactions {}", transactionIds, t);
+                }
+                for (TransactionState transactionState : batch) {
+                    try {
+                        checkTxnFinished(transactionState);
+                        cleanVisibleTxn(transactionState);
+                    } catch (Throwable t) {
+                        LOG.error("errors while finish transaction: {}", transactionState, t);
+                    }
+                }
+            }
+        });
+    }
+
     private void tryFinishOneTxn(TransactionState transactionState, SystemInfoService infoService,
             GlobalTransactionMgrIface globalTransactionMgr,
             Map<Long, Long> partitionVisibleVersions, Map<Long, Set<Long>> backendPartitions) {
+        if (shouldFinishTxn(transactionState, infoService)) {
+            try {
+                // one transaction exception should not affect other transaction
+                globalTransactionMgr.finishTransaction(transactionState.getDbId(),
+                        transactionState.getTransactionId(), partitionVisibleVersions, backendPartitions);
+            } catch (Exception e) {
+                LOG.warn("error happens when finish transaction {}", transactionState.getTransactionId(), e);
+            }
+            checkTxnFinished(transactionState);
+        }
+
+        cleanVisibleTxn(transactionState);
+    }
+
+    // collect the delta rows of the finished publish tasks, and check whether the transaction should be finished
+    private boolean shouldFinishTxn(TransactionState transactionState, SystemInfoService infoService) {
         Map<Long, Map<Long, Long>> tableIdToTabletDeltaRows = Maps.newHashMap();
         AtomicBoolean hasBackendAliveAndUnfinishedTask = new AtomicBoolean(false);
         Set<Long> notFinishTaskBe = Sets.newHashSet();
@@ -215,27 +280,23 @@ public class PublishVersionDaemon extends MasterDaemon {
             isPublishSlow = true;
         }
 
-        boolean shouldFinishTxn = !hasBackendAliveAndUnfinishedTask.get() || transactionState.isPublishTimeout()
+        return !hasBackendAliveAndUnfinishedTask.get() || transactionState.isPublishTimeout()
                 || isPublishSlow
                 || DebugPointUtil.isEnable("PublishVersionDaemon.not_wait_unfinished_tasks");
-        if (shouldFinishTxn) {
-            try {
-                // one transaction exception should not affect other transaction
-                globalTransactionMgr.finishTransaction(transactionState.getDbId(),
-                        transactionState.getTransactionId(), partitionVisibleVersions, backendPartitions);
-            } catch (Exception e) {
-                LOG.warn("error happens when finish transaction {}", transactionState.getTransactionId(), e);
-            }
-            if (transactionState.getTransactionStatus() != TransactionStatus.VISIBLE) {
-                // if finish transaction state failed, then update publish version time, should check
-                // to finish after some interval
-                transactionState.updateSendTaskTime();
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug("publish version for transaction {} failed", transactionState);
-                }
+    }
+
+    private void checkTxnFinished(TransactionState transactionState) {
+        if (transactionState.getTransactionStatus() != TransactionStatus.VISIBLE) {
+            // if finish transaction state failed, then update publish version time, should check
+            // to finish after some interval
+            transactionState.updateSendTaskTime();
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("publish version for transaction {} failed", transactionState);
             }
         }
+    }
 
+    private void cleanVisibleTxn(TransactionState transactionState) {
         if (transactionState.getTransactionStatus() == TransactionStatus.VISIBLE) {
             transactionState.getPublishVersionTasks().values().forEach(tasks -> {
                 for (PublishVersionTask task : tasks) {
@@ -74,6 +74,59 @@ public class TableCommitInfo implements Writable {
         }
     }
 
+    // the binary layout is a part of the binary layout of TransactionState
+    public void writeBinary(DataOutput out) throws IOException {
+        out.writeLong(tableId);
+        if (idToPartitionCommitInfo == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(idToPartitionCommitInfo.size());
+            for (PartitionCommitInfo info : idToPartitionCommitInfo.values()) {
+                info.writeBinary(out);
+            }
+        }
+        out.writeLong(version);
+        out.writeLong(versionTime);
+    }
+
+    public static TableCommitInfo readBinary(DataInput in) throws IOException {
+        TableCommitInfo info = new TableCommitInfo();
+        info.tableId = in.readLong();
+        int size = in.readInt();
+        if (size >= 0) {
+            info.idToPartitionCommitInfo = Maps.newHashMap();
+            for (int i = 0; i < size; i++) {
+                PartitionCommitInfo partitionCommitInfo = PartitionCommitInfo.readBinary(in);
+                info.idToPartitionCommitInfo.put(partitionCommitInfo.getPartitionId(), partitionCommitInfo);
+            }
+        }
+        info.version = in.readLong();
+        info.versionTime = in.readLong();
+        return info;
+    }
+
+    // the key of the map is the table id or the sub transaction id
+    public static void writeBinaryMap(DataOutput out, Map<Long, TableCommitInfo> infos) throws IOException {
+        if (infos == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(infos.size());
+        for (Map.Entry<Long, TableCommitInfo> entry : infos.entrySet()) {
+            out.writeLong(entry.getKey());
+            entry.getValue().writeBinary(out);
+        }
+    }
+
+    // read the map written by writeBinaryMap into infos, infos is unchanged if the written map is null
+    public static void readBinaryMap(DataInput in, Map<Long, TableCommitInfo> infos) throws IOException {
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            long key = in.readLong();
+            infos.put(key, readBinary(in));
+        }
+    }
+
     @Deprecated
     public void readFields(DataInput in) throws IOException {
         tableId = in.readLong();
@@ -25,8 +25,9 @@ import org.apache.doris.common.Config;
 import org.apache.doris.common.FeMetaVersion;
 import org.apache.doris.common.UserException;
 import org.apache.doris.common.io.Text;
-import org.apache.doris.common.io.Writable;
 import org.apache.doris.metric.MetricRepo;
+import org.apache.doris.persist.BinaryJournalCodec;
+import org.apache.doris.persist.gson.GsonPostProcessable;
 import org.apache.doris.persist.gson.GsonUtils;
 import org.apache.doris.task.PublishVersionTask;
 import org.apache.doris.thrift.TUniqueId;
@@ -55,12 +56,15 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
-public class TransactionState implements Writable {
+public class TransactionState implements BinaryJournalCodec.BinaryWritable, GsonPostProcessable {
     private static final Logger LOG = LogManager.getLogger(TransactionState.class);
 
+    private static final int BINARY_SCHEMA_VERSION = 1;
+
     // compare the TransactionState by txn id, desc
     public static class TxnStateComparator implements Comparator<TransactionState> {
         @Override
@@ -207,13 +211,15 @@ public class TransactionState implements Writable {
     // requestId is used to judge whether a begin request is a internal retry request.
     // no need to persist it.
     private TUniqueId requestId;
+    // concurrent, the commit infos may be read by the readers which only hold the read lock of the txn manager
     @SerializedName(value = "idToTableCommitInfos")
     private Map<Long, TableCommitInfo> idToTableCommitInfos;
     // coordinator is show who begin this txn (FE, or one of BE, etc...)
     @SerializedName(value = "txnCoordinator")
     private TxnCoordinator txnCoordinator;
+    // volatile, the status is changed after the other fields of the state transform and read without lock
     @SerializedName(value = "txnStatus")
-    private TransactionStatus transactionStatus;
+    private volatile TransactionStatus transactionStatus;
     @SerializedName(value = "sourceType")
     private LoadJobSourceType sourceType;
     @SerializedName(value = "prepareTime")
@@ -324,7 +330,7 @@ public class TransactionState implements Writable {
         this.tableIdList = Lists.newArrayList();
         this.transactionId = -1;
         this.label = "";
-        this.idToTableCommitInfos = Maps.newHashMap();
+        this.idToTableCommitInfos = new ConcurrentHashMap<>();
         // mocked, to avoid NPE
         this.txnCoordinator = new TxnCoordinator(TxnSourceType.FE, 0, "127.0.0.1", System.currentTimeMillis());
         this.transactionStatus = TransactionStatus.PREPARE;
@@ -347,7 +353,7 @@ public class TransactionState implements Writable {
         this.transactionId = transactionId;
         this.label = label;
         this.requestId = requestId;
-        this.idToTableCommitInfos = Maps.newHashMap();
+        this.idToTableCommitInfos = new ConcurrentHashMap<>();
         this.txnCoordinator = txnCoordinator;
         this.transactionStatus = TransactionStatus.PREPARE;
         this.sourceType = sourceType;
@@ -756,11 +762,96 @@ public class TransactionState implements Writable {
             transactionState.readFields(in);
             return transactionState;
         } else {
-            String json = Text.readString(in);
-            return GsonUtils.GSON.fromJson(json, TransactionState.class);
+            return BinaryJournalCodec.read(in, TransactionState.class, TransactionState::readBinary);
+        }
+    }
+
+    @Override
+    public void gsonPostProcess() throws IOException {
+        if (idToTableCommitInfos != null) {
+            idToTableCommitInfos = new ConcurrentHashMap<>(idToTableCommitInfos);
         }
     }
 
+    @Override
+    public int getBinarySchemaVersion() {
+        return BINARY_SCHEMA_VERSION;
+    }
+
+    // the enums are written as their int values, the absent value is written as -1 and read as null
+    @Override
+    public void writeBinary(DataOutput out) throws IOException {
+        out.writeLong(dbId);
+        BinaryJournalCodec.writeLongs(out, tableIdList);
+        out.writeLong(transactionId);
+        BinaryJournalCodec.writeNullableString(out, label);
+        TableCommitInfo.writeBinaryMap(out, idToTableCommitInfos);
+        out.writeBoolean(txnCoordinator != null);
+        if (txnCoordinator != null) {
+            out.writeInt(txnCoordinator.sourceType == null ? -1 : txnCoordinator.sourceType.value());
+            out.writeLong(txnCoordinator.id);
+            BinaryJournalCodec.writeNullableString(out, txnCoordinator.ip);
+            out.writeLong(txnCoordinator.startTime);
+            out.writeBoolean(txnCoordinator.isFromInternal);
+        }
+        out.writeInt(transactionStatus == null ? -1 : transactionStatus.value());
+        out.writeInt(sourceType == null ? -1 : sourceType.value());
+        out.writeLong(prepareTime);
+        out.writeLong(preCommitTime);
+        out.writeLong(commitTime);
+        out.writeLong(finishTime);
+        BinaryJournalCodec.writeNullableString(out, reason);
+        BinaryJournalCodec.writeLongs(out, errorReplicas);
+        out.writeLong(callbackId);
+        out.writeLong(timeoutMs);
+        // the attachments are polymorphic and not in the hot path of most loads, keep them as json
+        BinaryJournalCodec.writeNullableString(out, txnCommitAttachment == null ? null
+                : GsonUtils.GSON.toJson(txnCommitAttachment, TxnCommitAttachment.class));
+        BinaryJournalCodec.writeLongs(out, subTxnIds);
+        TableCommitInfo.writeBinaryMap(out, subTxnIdToTableCommitInfo);
+    }
+
+    // same as gson, the absent fields keep the default values of the constructor
+    private static TransactionState readBinary(DataInput in, int schemaVersion) throws IOException {
+        BinaryJournalCodec.checkSchemaVersion(TransactionState.class, schemaVersion, BINARY_SCHEMA_VERSION);
+        TransactionState state = new TransactionState();
+        state.dbId = in.readLong();
+        state.tableIdList = Optional.ofNullable(BinaryJournalCodec.readLongList(in)).orElse(state.tableIdList);
+        state.transactionId = in.readLong();
+        state.label = Optional.ofNullable(BinaryJournalCodec.readNullableString(in)).orElse(state.label);
+        TableCommitInfo.readBinaryMap(in, state.idToTableCommitInfos);
+        if (in.readBoolean()) {
+            TxnCoordinator coordinator = new TxnCoordinator();
+            coordinator.sourceType = TxnSourceType.valueOf(in.readInt());
+            coordinator.id = in.readLong();
+            coordinator.ip = BinaryJournalCodec.readNullableString(in);
+            coordinator.startTime = in.readLong();
+            coordinator.isFromInternal = in.readBoolean();
+            state.txnCoordinator = coordinator;
+        }
+        state.transactionStatus = Optional.ofNullable(TransactionStatus.valueOf(in.readInt()))
+                .orElse(state.transactionStatus);
+        state.sourceType = Optional.ofNullable(LoadJobSourceType.valueOf(in.readInt())).orElse(state.sourceType);
+        state.prepareTime = in.readLong();
+        state.preCommitTime = in.readLong();
+        state.commitTime = in.readLong();
+        state.finishTime = in.readLong();
+        state.reason = Optional.ofNullable(BinaryJournalCodec.readNullableString(in)).orElse(state.reason);
+        List<Long> errorReplicas = BinaryJournalCodec.readLongList(in);
+        if (errorReplicas != null) {
+            state.errorReplicas.addAll(errorReplicas);
+        }
+        state.callbackId = in.readLong();
+        state.timeoutMs = in.readLong();
+        String attachment = BinaryJournalCodec.readNullableString(in);
+        if (attachment != null) {
+            state.txnCommitAttachment = GsonUtils.GSON.fromJson(attachment, TxnCommitAttachment.class);
+        }
+        state.subTxnIds = BinaryJournalCodec.readLongList(in);
+        TableCommitInfo.readBinaryMap(in, state.subTxnIdToTableCommitInfo);
+        return state;
+    }
+
     @Deprecated
     public void readFields(DataInput in) throws IOException {
         transactionId = in.readLong();
@@ -31,12 +31,16 @@ import org.apache.doris.transaction.TransactionState;
 import mockit.Mock;
 import mockit.MockUp;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class FakeEditLog extends MockUp<EditLog> {
 
-    private Map<Long, TransactionState> allTransactionState = new HashMap<>();
+    // concurrent, the transaction states may be logged by many threads
+    private Map<Long, TransactionState> allTransactionState = new ConcurrentHashMap<>();
+    private List<Integer> transactionStateBatchSizes = new CopyOnWriteArrayList<>();
 
     @Mock
     public void $init(String nodeName) { // CHECKSTYLE IGNORE THIS LINE
@@ -50,6 +54,12 @@ public class FakeEditLog extends MockUp<EditLog> {
         allTransactionState.put(transactionState.getTransactionId(), transactionState);
     }
 
+    @Mock
+    public void logInsertTransactionStates(List<TransactionState> transactionStates) {
+        transactionStateBatchSizes.add(transactionStates.size());
+        transactionStates.forEach(this::logInsertTransactionState);
+    }
+
     @Mock
     public void logDeleteTransactionState(TransactionState transactionState) {
         // do nothing
@@ -103,4 +113,8 @@ public class FakeEditLog extends MockUp<EditLog> {
     public TransactionState getTransaction(long transactionId) {
         return allTransactionState.get(transactionId);
     }
+
+    public List<Integer> getTransactionStateBatchSizes() {
+        return transactionStateBatchSizes;
+    }
 }
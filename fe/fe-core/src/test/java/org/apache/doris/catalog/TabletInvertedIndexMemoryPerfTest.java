@@ -0,0 +1,91 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.catalog;
+
+import org.apache.doris.catalog.Replica.ReplicaState;
+import org.apache.doris.thrift.TStorageMedium;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measure the heap used by TabletInvertedIndex with 1M / 5M / 10M tablets of 3 replicas.
+ * It needs a large heap (eg. -Xmx16g), so it is disabled by default, run it manually.
+ */
+public class TabletInvertedIndexMemoryPerfTest {
+    private static final int REPLICA_NUM = 3;
+    private static final int BACKEND_NUM = 100;
+    private static final int TABLETS_PER_INDEX = 16;
+
+    @Disabled
+    @Test
+    public void testMemoryFootprint() {
+        for (int tabletNum : new int[] {1_000_000, 5_000_000, 10_000_000}) {
+            measure(tabletNum);
+        }
+    }
+
+    private void measure(int tabletNum) {
+        // the replicas and tablet metas are also referenced by the catalog,
+        // so create them before measuring and only count the index itself.
+        TabletMeta[] tabletMetas = new TabletMeta[tabletNum / TABLETS_PER_INDEX + 1];
+        for (int i = 0; i < tabletMetas.length; i++) {
+            tabletMetas[i] = new TabletMeta(1, 2, i, 3, 4, TStorageMedium.HDD);
+        }
+        Replica[] replicas = new Replica[tabletNum * REPLICA_NUM];
+        for (int i = 0; i < replicas.length; i++) {
+            replicas[i] = new Replica(i, (i / REPLICA_NUM + i % REPLICA_NUM) % BACKEND_NUM, 1L, 0, 0L, 0L, 0L,
+                    ReplicaState.NORMAL, 0, 0);
+        }
+
+        long before = usedHeap();
+        long start = System.currentTimeMillis();
+        TabletInvertedIndex invertedIndex = new TabletInvertedIndex();
+        for (int i = 0; i < tabletNum; i++) {
+            long tabletId = tabletNum + i;
+            invertedIndex.addTablet(tabletId, tabletMetas[i / TABLETS_PER_INDEX]);
+            for (int j = 0; j < REPLICA_NUM; j++) {
+                invertedIndex.addReplica(tabletId, replicas[i * REPLICA_NUM + j]);
+            }
+        }
+        long buildMs = System.currentTimeMillis() - start;
+        long after = usedHeap();
+
+        start = System.currentTimeMillis();
+        int found = 0;
+        for (int i = 0; i < tabletNum; i++) {
+            if (invertedIndex.getTabletMeta(tabletNum + i) != null) {
+                found++;
+            }
+        }
+        long lookupMs = System.currentTimeMillis() - start;
+        Assertions.assertEquals(tabletNum, found);
+
+        System.out.printf("tablets: %d, index heap: %d MB (%.1f bytes/replica), build: %d ms, lookup: %d ms%n",
+                tabletNum, (after - before) >> 20, (after - before) / (double) replicas.length, buildMs, lookupMs);
+        Assertions.assertEquals(REPLICA_NUM, invertedIndex.getReplicasByTabletId(tabletNum).size());
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
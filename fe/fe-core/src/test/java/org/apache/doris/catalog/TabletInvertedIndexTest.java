@@ -0,0 +1,186 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.catalog;
+
+import org.apache.doris.catalog.Replica.ReplicaState;
+import org.apache.doris.common.Config;
+import org.apache.doris.cooldown.CooldownConf;
+import org.apache.doris.thrift.TPartitionVersionInfo;
+import org.apache.doris.thrift.TStorageMedium;
+import org.apache.doris.thrift.TTablet;
+import org.apache.doris.thrift.TTabletInfo;
+import org.apache.doris.thrift.TTabletMetaInfo;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TabletInvertedIndexTest {
+    private static final long BACKEND_ID = 10001L;
+
+    private final int originShardTabletNum = Config.tablet_report_shard_tablet_num;
+
+    @AfterEach
+    public void tearDown() {
+        Config.tablet_report_shard_tablet_num = originShardTabletNum;
+    }
+
+    @Test
+    public void testShardedTabletReport() {
+        // make many small shards
+        Config.tablet_report_shard_tablet_num = 7;
+        TabletInvertedIndex invertedIndex = new TabletInvertedIndex();
+        TabletMeta tabletMeta = new TabletMeta(1, 2, 3, 4, 5, TStorageMedium.HDD);
+        Map<Long, TTablet> backendTablets = Maps.newHashMap();
+        int tabletNum = 100;
+        for (long tabletId = 1; tabletId <= tabletNum; tabletId++) {
+            invertedIndex.addTablet(tabletId, tabletMeta);
+            invertedIndex.addReplica(tabletId, new Replica(tabletId * 10, BACKEND_ID, 1L, 5, 0L, 0L, 0L,
+                    ReplicaState.NORMAL, -1, 1L));
+            // the backend doesn't report the tablets which ids are multiple of 5
+            if (tabletId % 5 != 0) {
+                // the tablets which ids are multiple of 3 has newer version in backend
+                backendTablets.put(tabletId, newTablet(tabletId, tabletId % 3 == 0 ? 2L : 1L));
+            }
+        }
+        // the tablet doesn't exist in meta
+        backendTablets.put(1000L, newTablet(1000L, 1L));
+
+        ListMultimap<Long, Long> tabletSyncMap = ArrayListMultimap.create();
+        ListMultimap<Long, Long> tabletDeleteFromMeta = ArrayListMultimap.create();
+        Set<Long> tabletFoundInMeta = Sets.newConcurrentHashSet();
+        Map<Long, ListMultimap<Long, TPartitionVersionInfo>> transactionsToPublish = Maps.newHashMap();
+        List<TTabletMetaInfo> tabletToUpdate = Lists.newArrayList();
+        List<CooldownConf> cooldownConfToPush = Lists.newArrayList();
+        invertedIndex.tabletReport(BACKEND_ID, backendTablets, null, Maps.newHashMap(), Maps.newHashMap(),
+                tabletSyncMap, tabletDeleteFromMeta, tabletFoundInMeta, ArrayListMultimap.create(),
+                Maps.newConcurrentMap(), transactionsToPublish, ArrayListMultimap.create(),
+                ArrayListMultimap.create(), tabletToUpdate, cooldownConfToPush, Lists.newArrayList());
+
+        Set<Long> expectedFound = new HashSet<>();
+        Set<Long> expectedSync = new HashSet<>();
+        Set<Long> expectedDelete = new HashSet<>();
+        for (long tabletId = 1; tabletId <= tabletNum; tabletId++) {
+            if (tabletId % 5 == 0) {
+                expectedDelete.add(tabletId);
+            } else {
+                expectedFound.add(tabletId);
+                if (tabletId % 3 == 0) {
+                    expectedSync.add(tabletId);
+                }
+            }
+        }
+        Assertions.assertEquals(expectedFound, tabletFoundInMeta);
+        Assertions.assertEquals(expectedSync, new HashSet<>(tabletSyncMap.get(1L)));
+        Assertions.assertEquals(expectedDelete, new HashSet<>(tabletDeleteFromMeta.get(1L)));
+        Assertions.assertTrue(tabletToUpdate.isEmpty());
+    }
+
+    @Test
+    public void testDiffWithoutLock() throws Exception {
+        TabletInvertedIndex invertedIndex = new TabletInvertedIndex();
+        TabletMeta tabletMeta = new TabletMeta(1, 2, 3, 4, 5, TStorageMedium.HDD);
+        Map<Long, TTablet> backendTablets = Maps.newHashMap();
+        for (long tabletId = 1; tabletId <= 10; tabletId++) {
+            invertedIndex.addTablet(tabletId, tabletMeta);
+            invertedIndex.addReplica(tabletId, new Replica(tabletId * 10, BACKEND_ID, 1L, 5, 0L, 0L, 0L,
+                    ReplicaState.NORMAL, -1, 1L));
+            backendTablets.put(tabletId, newTablet(tabletId, 1L));
+        }
+
+        // the storage medium of each reported tablet is looked up during the diff,
+        // a tablet is added by another thread at the same time, which needs the write lock of the index
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        AtomicInteger addedTabletNum = new AtomicInteger();
+        HashMap<Long, TStorageMedium> storageMediumMap = new HashMap<Long, TStorageMedium>() {
+            @Override
+            public TStorageMedium get(Object key) {
+                long tabletId = 100 + addedTabletNum.incrementAndGet();
+                try {
+                    writer.submit(() -> invertedIndex.addTablet(tabletId, tabletMeta)).get(10, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+                return super.get(key);
+            }
+        };
+        try {
+            ListMultimap<Long, Long> tabletSyncMap = ArrayListMultimap.create();
+            Set<Long> tabletFoundInMeta = Sets.newConcurrentHashSet();
+            invertedIndex.tabletReport(BACKEND_ID, backendTablets, null, Maps.newHashMap(), storageMediumMap,
+                    tabletSyncMap, ArrayListMultimap.create(), tabletFoundInMeta, ArrayListMultimap.create(),
+                    Maps.newConcurrentMap(), Maps.newHashMap(), ArrayListMultimap.create(),
+                    ArrayListMultimap.create(), Lists.newArrayList(), Lists.newArrayList(), Lists.newArrayList());
+            Assertions.assertEquals(backendTablets.keySet(), tabletFoundInMeta);
+            Assertions.assertTrue(tabletSyncMap.isEmpty());
+            Assertions.assertEquals(10, addedTabletNum.get());
+            for (long tabletId = 101; tabletId <= 110; tabletId++) {
+                Assertions.assertNotNull(invertedIndex.getTabletMeta(tabletId));
+            }
+        } finally {
+            writer.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testReplicaToTabletMap() {
+        TabletInvertedIndex invertedIndex = new TabletInvertedIndex();
+        TabletMeta tabletMeta = new TabletMeta(1, 2, 3, 4, 5, TStorageMedium.HDD);
+        Map<Long, Long> expected = Maps.newHashMap();
+        for (long tabletId = 1; tabletId <= 10; tabletId++) {
+            invertedIndex.addTablet(tabletId, tabletMeta);
+            for (long backendId = BACKEND_ID; backendId < BACKEND_ID + 3; backendId++) {
+                long replicaId = tabletId * 10 + backendId - BACKEND_ID;
+                invertedIndex.addReplica(tabletId, new Replica(replicaId, backendId, 1L, 5, 0L, 0L, 0L,
+                        ReplicaState.NORMAL, -1, 1L));
+                expected.put(replicaId, tabletId);
+            }
+        }
+        invertedIndex.deleteTablet(10);
+        for (long replicaId = 100; replicaId < 103; replicaId++) {
+            expected.remove(replicaId);
+        }
+        Assertions.assertEquals(expected, invertedIndex.getReplicaToTabletMap());
+    }
+
+    private static TTablet newTablet(long tabletId, long version) {
+        TTabletInfo tabletInfo = new TTabletInfo();
+        tabletInfo.setTabletId(tabletId);
+        tabletInfo.setSchemaHash(5);
+        tabletInfo.setVersion(version);
+        tabletInfo.setPartitionId(3);
+        tabletInfo.setReplicaId(tabletId * 10);
+        TTablet tablet = new TTablet();
+        tablet.addToTabletInfos(tabletInfo);
+        return tablet;
+    }
+}
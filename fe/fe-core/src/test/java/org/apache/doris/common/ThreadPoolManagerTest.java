@@ -20,7 +20,14 @@ package org.apache.doris.common;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ThreadPoolManagerTest {
 
@@ -77,4 +84,64 @@ public class ThreadPoolManagerTest {
         Assert.assertEquals(0, testFixedThreaddPool.getQueue().size());
         Assert.assertEquals(4, testFixedThreaddPool.getCompletedTaskCount());
     }
+
+    @Test
+    public void testVirtualCacheThreadPool() throws Exception {
+        ThreadPoolExecutor pool = ThreadPoolManager.newDaemonVirtualCacheThreadPoolThrowException(2,
+                "test_virtual_cache_pool", false);
+        // Thread.isVirtual is only in JDK 21 or later
+        Method isVirtual = null;
+        try {
+            isVirtual = Thread.class.getMethod("isVirtual");
+        } catch (NoSuchMethodException e) {
+            // the virtual thread is not supported
+        }
+        Method isVirtualMethod = isVirtual;
+        Set<Thread> taskThreads = ConcurrentHashMap.newKeySet();
+        AtomicInteger virtualTaskNum = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch finish = new CountDownLatch(1);
+        Runnable task = () -> {
+            taskThreads.add(Thread.currentThread());
+            try {
+                if (isVirtualMethod != null && (boolean) isVirtualMethod.invoke(Thread.currentThread())) {
+                    virtualTaskNum.incrementAndGet();
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+            started.countDown();
+            try {
+                finish.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        pool.execute(task);
+        pool.execute(task);
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+        // the number of concurrent tasks is limited as the platform thread pool
+        try {
+            pool.execute(task);
+            Assert.fail("the task should be rejected");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+        finish.countDown();
+        pool.shutdown();
+        Assert.assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        Assert.assertEquals(2, pool.getCompletedTaskCount());
+
+        Assert.assertEquals(2, taskThreads.size());
+        if (ThreadPoolManager.virtualThreadFactory("test_virtual_cache_pool") != null) {
+            Assert.assertEquals(2, virtualTaskNum.get());
+        } else {
+            // fall back to the daemon platform threads
+            Assert.assertEquals(0, virtualTaskNum.get());
+            for (Thread thread : taskThreads) {
+                Assert.assertTrue(thread.isDaemon());
+                Assert.assertTrue(thread.getName().startsWith("test_virtual_cache_pool-"));
+            }
+        }
+    }
 }
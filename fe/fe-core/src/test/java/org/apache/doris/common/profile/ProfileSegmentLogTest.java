@@ -0,0 +1,141 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+package org.apache.doris.common.profile;
+
+import org.apache.doris.common.profile.ProfileSegmentLog.Location;
+import org.apache.doris.common.profile.ProfileSegmentLog.Record;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class ProfileSegmentLogTest {
+    private File dir;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("profile-segment-log").toFile();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(dir);
+    }
+
+    private static Record createRecord(int i) throws IOException {
+        Map<String, String> infoStrings = Maps.newHashMap();
+        infoStrings.put(SummaryProfile.PROFILE_ID, "profile-" + i);
+        infoStrings.put(SummaryProfile.USER, "user-" + i);
+        return new Record("profile-" + i, 1000L + i, infoStrings,
+                Profile.compressExecutionProfile("content of profile " + i),
+                Profile.compressExecutionProfile("brief of profile " + i));
+    }
+
+    @Test
+    public void testAppendAndRecover() throws IOException {
+        ProfileSegmentLog log = new ProfileSegmentLog(dir.getAbsolutePath(), 256);
+        log.recover((record, location) -> Assertions.fail());
+        List<Location> locations = Lists.newArrayList();
+        for (int i = 0; i < 10; i++) {
+            locations.add(log.append(createRecord(i)));
+        }
+        Assertions.assertTrue(log.getSegmentNum() > 1);
+        for (int i = 0; i < 10; i++) {
+            Record record = log.read(locations.get(i));
+            Assertions.assertEquals("profile-" + i, record.profileId);
+            Assertions.assertEquals(1000L + i, record.queryFinishTimestamp);
+            Assertions.assertEquals("user-" + i, record.infoStrings.get(SummaryProfile.USER));
+            Assertions.assertEquals("content of profile " + i,
+                    Profile.decompressExecutionProfile(record.compressedProfile));
+            Assertions.assertEquals("brief of profile " + i,
+                    Profile.decompressExecutionProfile(record.compressedBrief));
+        }
+        long totalSize = log.getTotalSize();
+        log.close();
+
+        // the torn record at the tail is truncated
+        File lastSegment = new File(dir, "profile_segment_" + locations.get(9).segmentId);
+        try (RandomAccessFile file = new RandomAccessFile(lastSegment, "rw")) {
+            file.setLength(file.length() - 3);
+        }
+        ProfileSegmentLog recovered = new ProfileSegmentLog(dir.getAbsolutePath(), 256);
+        List<String> profileIds = Lists.newArrayList();
+        recovered.recover((record, location) -> {
+            profileIds.add(record.profileId);
+            Assertions.assertEquals(locations.get(profileIds.size() - 1).offset, location.offset);
+        });
+        Assertions.assertEquals(9, profileIds.size());
+        Assertions.assertEquals("profile-8", profileIds.get(8));
+        Assertions.assertEquals(totalSize - locations.get(9).length, recovered.getTotalSize());
+
+        // appending after recovery overwrites the truncated tail
+        Location location = recovered.append(createRecord(10));
+        Assertions.assertEquals("profile-10", recovered.read(location).profileId);
+        recovered.close();
+    }
+
+    @Test
+    public void testReleaseAndRetain() throws IOException {
+        ProfileSegmentLog log = new ProfileSegmentLog(dir.getAbsolutePath(), 1);
+        log.recover((record, location) -> Assertions.fail());
+        // every record is in its own segment
+        List<Location> locations = Lists.newArrayList();
+        for (int i = 0; i < 5; i++) {
+            locations.add(log.append(createRecord(i)));
+        }
+        Assertions.assertEquals(5, log.getSegmentNum());
+
+        // the sealed segment is deleted when its records are released
+        log.release(locations.get(1));
+        Assertions.assertEquals(4, log.getSegmentNum());
+        Assertions.assertThrows(IOException.class, () -> log.read(locations.get(1)));
+        // the active segment is kept
+        log.release(locations.get(4));
+        Assertions.assertEquals(4, log.getSegmentNum());
+        Assertions.assertEquals("profile-4", log.read(locations.get(4)).profileId);
+
+        long limit = locations.get(3).length + locations.get(4).length;
+        Set<Long> deletedSegmentIds = log.retain(limit);
+        Assertions.assertEquals(2, deletedSegmentIds.size());
+        Assertions.assertTrue(deletedSegmentIds.contains(locations.get(0).segmentId));
+        Assertions.assertTrue(deletedSegmentIds.contains(locations.get(2).segmentId));
+        Assertions.assertEquals(limit, log.getTotalSize());
+        Assertions.assertEquals("profile-3", log.read(locations.get(3)).profileId);
+
+        Assertions.assertEquals(2, log.retain(0).size());
+        Assertions.assertEquals(0, log.getSegmentNum());
+        Assertions.assertEquals(0, log.getTotalSize());
+        // the segment id is not reused
+        Location location = log.append(createRecord(5));
+        Assertions.assertTrue(location.segmentId > locations.get(4).segmentId);
+        log.close();
+    }
+}
@@ -0,0 +1,106 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+package org.apache.doris.common.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class LongLongHashMapTest {
+
+    @Test
+    public void testBasic() {
+        LongLongHashMap map = new LongLongHashMap();
+        Assertions.assertTrue(map.isEmpty());
+        map.put(1L, 10L);
+        map.put(-1L, -10L);
+        map.put(0L, 0L);
+        map.put(1L, 11L);
+        Assertions.assertEquals(3, map.size());
+        Assertions.assertEquals(11L, map.get(1L, -1L));
+        Assertions.assertEquals(-10L, map.get(-1L, -1L));
+        Assertions.assertEquals(0L, map.get(0L, -1L));
+
+        // missing keys
+        Assertions.assertEquals(-1L, map.get(2L, -1L));
+        Assertions.assertFalse(map.containsKey(2L));
+        Assertions.assertFalse(map.remove(2L));
+
+        Assertions.assertTrue(map.remove(-1L));
+        Assertions.assertFalse(map.remove(-1L));
+        Assertions.assertFalse(map.containsKey(-1L));
+        Assertions.assertEquals(-1L, map.get(-1L, -1L));
+        Assertions.assertEquals(2, map.size());
+
+        map.clear();
+        Assertions.assertTrue(map.isEmpty());
+        Assertions.assertEquals(-1L, map.get(1L, -1L));
+    }
+
+    @Test
+    public void testResize() {
+        LongLongHashMap map = new LongLongHashMap();
+        int num = 10000;
+        for (long i = 0; i < num; i++) {
+            map.put(i * 1024, i);
+        }
+        Assertions.assertEquals(num, map.size());
+        for (long i = 0; i < num; i++) {
+            Assertions.assertEquals(i, map.get(i * 1024, -1L));
+        }
+        for (long i = 0; i < num; i += 2) {
+            Assertions.assertTrue(map.remove(i * 1024));
+        }
+        Assertions.assertEquals(num / 2, map.size());
+        for (long i = 0; i < num; i++) {
+            Assertions.assertEquals(i % 2 == 0 ? -1L : i, map.get(i * 1024, -1L));
+        }
+    }
+
+    @Test
+    public void testRandomOperations() {
+        LongLongHashMap map = new LongLongHashMap();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 100000; i++) {
+            // a small key range to make many collisions and removals
+            long key = random.nextInt(3000);
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                long value = random.nextLong();
+                expected.put(key, value);
+                map.put(key, value);
+            }
+            Assertions.assertEquals(expected.size(), map.size());
+        }
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            Assertions.assertTrue(map.containsKey(entry.getKey()));
+            Assertions.assertEquals(entry.getValue(), map.get(entry.getKey(), -1L));
+        }
+        Assertions.assertEquals(-1L, map.get(3001L, -1L));
+
+        Map<Long, Long> visited = new HashMap<>();
+        map.forEach(visited::put);
+        Assertions.assertEquals(expected, visited);
+    }
+}
@@ -0,0 +1,95 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.common.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class LongObjectHashMapTest {
+
+    @Test
+    public void testBasic() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        Assertions.assertTrue(map.isEmpty());
+        Assertions.assertNull(map.put(1L, "a"));
+        Assertions.assertNull(map.put(-1L, "b"));
+        Assertions.assertNull(map.put(0L, "c"));
+        Assertions.assertEquals("a", map.put(1L, "d"));
+        Assertions.assertEquals(3, map.size());
+        Assertions.assertEquals("d", map.get(1L));
+        Assertions.assertEquals("b", map.get(-1L));
+        Assertions.assertEquals("c", map.get(0L));
+        Assertions.assertNull(map.get(2L));
+        Assertions.assertEquals("e", map.getOrDefault(2L, "e"));
+        Assertions.assertThrows(NullPointerException.class, () -> map.put(2L, null));
+
+        Assertions.assertEquals("b", map.remove(-1L));
+        Assertions.assertNull(map.remove(-1L));
+        Assertions.assertFalse(map.containsKey(-1L));
+        Assertions.assertEquals(2, map.size());
+
+        map.clear();
+        Assertions.assertTrue(map.isEmpty());
+        Assertions.assertNull(map.get(1L));
+    }
+
+    @Test
+    public void testResize() {
+        LongObjectHashMap<Long> map = new LongObjectHashMap<>();
+        int num = 10000;
+        for (long i = 0; i < num; i++) {
+            map.put(i * 1024, i);
+        }
+        Assertions.assertEquals(num, map.size());
+        Assertions.assertTrue(map.capacity() >= num / 0.75);
+        for (long i = 0; i < num; i++) {
+            Assertions.assertEquals(i, map.get(i * 1024));
+        }
+        Assertions.assertEquals(num, map.keys().length);
+        Assertions.assertEquals(num, map.values().size());
+        Assertions.assertEquals(16, LongObjectHashMap.tableSizeFor(10));
+    }
+
+    @Test
+    public void testRandomOperations() {
+        LongObjectHashMap<Long> map = new LongObjectHashMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200000; i++) {
+            // a small key range to make many collisions and removals
+            long key = random.nextInt(5000);
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                long value = random.nextLong();
+                Assertions.assertEquals(expected.put(key, value), map.put(key, value));
+            }
+            Assertions.assertEquals(expected.size(), map.size());
+        }
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            Assertions.assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+
+        Map<Long, Long> visited = new HashMap<>();
+        map.forEach(visited::put);
+        Assertions.assertEquals(expected, visited);
+    }
+}
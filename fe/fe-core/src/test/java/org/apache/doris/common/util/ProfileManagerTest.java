@@ -0,0 +1,158 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+package org.apache.doris.common.util;
+
+import org.apache.doris.common.Config;
+import org.apache.doris.common.jmockit.Deencapsulation;
+import org.apache.doris.common.profile.Profile;
+import org.apache.doris.common.util.ProfileManager.ProfileElement;
+
+import com.google.common.collect.Lists;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+public class ProfileManagerTest {
+    private File profileDir;
+    private long maxInMemoryCompressedProfileBytes;
+    private int maxSpilledProfileNum;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        profileDir = Files.createTempDirectory("profile-manager").toFile();
+        maxInMemoryCompressedProfileBytes = Config.max_in_memory_compressed_profile_bytes;
+        maxSpilledProfileNum = Config.max_spilled_profile_num;
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Config.max_in_memory_compressed_profile_bytes = maxInMemoryCompressedProfileBytes;
+        Config.max_spilled_profile_num = maxSpilledProfileNum;
+        FileUtils.deleteDirectory(profileDir);
+    }
+
+    // a finished profile to be archived, the older one has the less query finish timestamp
+    private static Profile createFinishedProfile(long queryFinishTimestamp) {
+        Profile profile = ProfilePersistentTest.constructRandomProfile(0);
+        profile.markQueryFinished(queryFinishTimestamp);
+        Deencapsulation.setField(profile, "queryFinishTimestamp", queryFinishTimestamp);
+        return profile;
+    }
+
+    @Test
+    public void testArchiveSpillAndExpire() {
+        ProfileManager profileManager = new ProfileManager(profileDir.getAbsolutePath());
+        profileManager.loadProfilesFromStorageIfFirstTime();
+        List<String> ids = Lists.newArrayList();
+        List<String> contents = Lists.newArrayList();
+        List<String> briefs = Lists.newArrayList();
+        for (int i = 0; i < 5; i++) {
+            Profile profile = createFinishedProfile(1000L + i);
+            profileManager.pushProfile(profile);
+            ids.add(profile.getSummaryProfile().getProfileId());
+            contents.add(profile.getProfileByLevel());
+            briefs.add(profile.getProfileBrief());
+        }
+
+        // compressed in memory, the live profiles are released
+        profileManager.archiveFinishedProfiles();
+        for (int i = 0; i < 5; i++) {
+            ProfileElement element = profileManager.findProfileElementObject(ids.get(i));
+            Assertions.assertNull(Deencapsulation.getField(element, "profile"));
+            Assertions.assertNotNull(Deencapsulation.getField(element, "archived"));
+            Assertions.assertEquals(1000L + i, element.getQueryFinishTimestamp());
+            Assertions.assertEquals(contents.get(i), element.getProfileContent());
+            Assertions.assertEquals(briefs.get(i), profileManager.getProfileBrief(ids.get(i)));
+        }
+
+        // all the compressed profiles are over the limit, they are appended to the segment log
+        Config.max_in_memory_compressed_profile_bytes = 0;
+        profileManager.spillArchivedProfilesIfNecessary();
+        for (int i = 0; i < 5; i++) {
+            ProfileElement element = profileManager.findProfileElementObject(ids.get(i));
+            Assertions.assertNull(Deencapsulation.getField(element, "archived"));
+            Assertions.assertNotNull(Deencapsulation.getField(element, "location"));
+            Assertions.assertEquals(contents.get(i), element.getProfileContent());
+            Assertions.assertEquals(briefs.get(i), profileManager.getProfileBrief(ids.get(i)));
+        }
+
+        // the oldest spilled profiles are removed
+        Config.max_spilled_profile_num = 2;
+        profileManager.deleteOutdatedProfilesFromStorage();
+        for (int i = 0; i < 5; i++) {
+            if (i < 3) {
+                Assertions.assertNull(profileManager.findProfileElementObject(ids.get(i)));
+            } else {
+                Assertions.assertEquals(contents.get(i),
+                        profileManager.findProfileElementObject(ids.get(i)).getProfileContent());
+            }
+        }
+        Assertions.assertEquals(2, profileManager.getAllQueries().size());
+
+        // the released records are still in the active segment, they are expired again after restart
+        ProfileManager restarted = new ProfileManager(profileDir.getAbsolutePath());
+        restarted.loadProfilesFromStorageIfFirstTime();
+        restarted.deleteOutdatedProfilesFromStorage();
+        Assertions.assertEquals(2, restarted.getAllQueries().size());
+        for (int i = 3; i < 5; i++) {
+            ProfileElement element = restarted.findProfileElementObject(ids.get(i));
+            Assertions.assertEquals(1000L + i, element.getQueryFinishTimestamp());
+            Assertions.assertEquals(contents.get(i), element.getProfileContent());
+            Assertions.assertEquals(briefs.get(i), restarted.getProfileBrief(ids.get(i)));
+        }
+    }
+
+    @Test
+    public void testMigrateProfileFiles() throws IOException {
+        Profile profile = ProfilePersistentTest.constructRandomProfile(2);
+        String profileId = profile.getSummaryProfile().getProfileId();
+        String profileFilePath = ProfilePersistentTest.writeProfileFile(profile, profileDir.getAbsolutePath(), 1000L);
+        // the profile file only has the summary profile, the same as older versions read it
+        Profile storedProfile = Profile.read(profileFilePath);
+        String content = storedProfile.getProfileByLevel() + Profile.readExecutionProfileContent(profileFilePath);
+        String brief = storedProfile.getProfileBrief();
+        File brokenFile = new File(profileDir, "2000_broken");
+        FileUtils.writeStringToFile(brokenFile, "broken", "UTF-8");
+
+        ProfileManager profileManager = new ProfileManager(profileDir.getAbsolutePath());
+        profileManager.loadProfilesFromStorageIfFirstTime();
+        // the profile files are deleted after migrated
+        Assertions.assertFalse(new File(profileFilePath).exists());
+        Assertions.assertFalse(brokenFile.exists());
+        ProfileElement element = profileManager.findProfileElementObject(profileId);
+        Assertions.assertNotNull(Deencapsulation.getField(element, "location"));
+        Assertions.assertEquals(1000L, element.getQueryFinishTimestamp());
+        Assertions.assertEquals(content, element.getProfileContent());
+        Assertions.assertEquals(brief, profileManager.getProfileBrief(profileId));
+        Assertions.assertEquals(1, profileManager.getAllQueries().size());
+
+        // the migrated profile is recovered from the segment log after restart
+        ProfileManager restarted = new ProfileManager(profileDir.getAbsolutePath());
+        restarted.loadProfilesFromStorageIfFirstTime();
+        Assertions.assertEquals(content, restarted.findProfileElementObject(profileId).getProfileContent());
+        Assertions.assertEquals(brief, restarted.getProfileBrief(profileId));
+    }
+}
@@ -25,7 +25,6 @@ import org.apache.doris.thrift.QueryState;
 import org.apache.doris.thrift.TUniqueId;
 import org.apache.doris.thrift.TUnit;
 
-import com.google.common.base.Strings;
 import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -39,7 +38,9 @@ import java.io.DataInputStream;
 import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map.Entry;
@@ -264,51 +265,43 @@ public class ProfilePersistentTest {
         }
     }
 
+    // write the profile file in the format of older versions, one file per profile
+    public static String writeProfileFile(Profile profile, String profileStoragePath, long queryFinishTimestamp)
+            throws IOException {
+        String profileFilePath = profileStoragePath + File.separator + queryFinishTimestamp + "_"
+                + profile.getSummaryProfile().getProfileId();
+        try (DataOutputStream dataOutputStream = new DataOutputStream(new FileOutputStream(profileFilePath))) {
+            profile.getSummaryProfile().write(dataOutputStream);
+            StringBuilder builder = new StringBuilder();
+            profile.getExecutionProfileContent(builder);
+            byte[] buf = Profile.compressExecutionProfile(builder.toString());
+            dataOutputStream.writeInt(buf.length);
+            dataOutputStream.write(buf);
+        }
+        return profileFilePath;
+    }
+
     @Test
-    public void profileBasicTest() {
+    public void profileBasicTest() throws IOException {
         final int executionProfileNum = 5;
         Profile profile = constructRandomProfile(executionProfileNum);
+        StringBuilder executionProfileContent = new StringBuilder();
+        profile.getExecutionProfileContent(executionProfileContent);
 
-        // after profile is stored to disk, futher read will be from disk
-        // so we store the original answer to a string
-        String profileContentString = profile.getProfileByLevel();
-        String currentBinaryWorkingDir = System.getProperty("user.dir");
-        String profileStoragePath = currentBinaryWorkingDir + File.separator + "doris-feut-profile";
-        File profileDir = new File(profileStoragePath);
-        if (!profileDir.exists()) {
-            // create query_id directory
-            if (!profileDir.mkdir()) {
-                LOG.warn("create profile directory {} failed", profileDir.getAbsolutePath());
-                Assert.fail();
-                return;
-            }
-        }
-
+        File profileDir = Files.createTempDirectory("doris-feut-profile").toFile();
         try {
-            profile.writeToStorage(profileStoragePath);
-
-            String profileStoragePathTmp = profile.getProfileStoragePath();
-            Assert.assertFalse(Strings.isNullOrEmpty(profileStoragePathTmp));
+            String profileFilePath = writeProfileFile(profile, profileDir.getAbsolutePath(), 1000L);
+            LOG.info("Profile storage path: {}", profileFilePath);
 
-            LOG.info("Profile storage path: {}", profileStoragePathTmp);
-
-            Profile deserializedProfile = Profile.read(profileStoragePathTmp);
+            Profile deserializedProfile = Profile.read(profileFilePath);
             Assert.assertNotNull(deserializedProfile);
-            Assert.assertEquals(profileContentString, profile.getProfileByLevel());
-            Assert.assertEquals(profile.getProfileByLevel(), deserializedProfile.getProfileByLevel());
-
-            // make sure file is removed
-            profile.deleteFromStorage();
-            File tmpFile = new File(profileStoragePathTmp);
-            Assert.assertFalse(tmpFile.exists());
-            FileUtils.deleteQuietly(profileDir);
+            Assert.assertEquals(profile.getSummaryProfile().getProfileId(),
+                    deserializedProfile.getSummaryProfile().getProfileId());
+            Assert.assertEquals(1000L, deserializedProfile.getQueryFinishTimestamp());
+            Assert.assertEquals(executionProfileContent.toString(),
+                    Profile.readExecutionProfileContent(profileFilePath));
         } finally {
-            try {
-                FileUtils.deleteDirectory(profileDir);
-            } catch (Exception e) {
-                LOG.warn("delete profile directory {} failed", profileDir.getAbsolutePath());
-                Assert.fail();
-            }
+            FileUtils.deleteDirectory(profileDir);
         }
     }
 }
@@ -0,0 +1,129 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.datasource;
+
+import org.apache.doris.catalog.Database;
+import org.apache.doris.common.io.CountingDataOutputStream;
+import org.apache.doris.common.jmockit.Deencapsulation;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LazyDbLoaderTest {
+    private static final int DB_NUM = 20;
+    private static final long DB_ID_BASE = 10000;
+
+    @Test
+    public void testLoadOnDemandAndInBackground() {
+        InternalCatalog catalog = new InternalCatalog();
+        int initDbNum = catalog.getDbIds().size();
+        AtomicInteger readNum = new AtomicInteger();
+        LazyDbLoader loader = createLoader(catalog, readNum);
+
+        // the background tasks are run by the test
+        List<Runnable> backgroundTasks = Lists.newArrayList();
+        catalog.startLazyLoadDbs(loader, backgroundTasks::add);
+        Assertions.assertEquals(DB_NUM, backgroundTasks.size());
+
+        // the ids and names are known without loading the databases
+        Assertions.assertEquals(initDbNum + DB_NUM, catalog.getDbIds().size());
+        Assertions.assertTrue(catalog.getDbNames().contains("lazy_db7"));
+        Assertions.assertEquals(0, readNum.get());
+
+        // loaded on the first access
+        Assertions.assertEquals(DB_ID_BASE + 3, catalog.getDbNullable(DB_ID_BASE + 3).getId());
+        Assertions.assertEquals(DB_ID_BASE + 5, catalog.getDbNullable("lazy_db5").getId());
+        Assertions.assertNull(catalog.getDbNullable(DB_ID_BASE + DB_NUM));
+        Assertions.assertNull(catalog.getDbNullable("not_exist_db"));
+        Assertions.assertEquals(2, readNum.get());
+        Assertions.assertEquals(DB_NUM - 2, loader.getDbNum());
+        Assertions.assertNotNull(Deencapsulation.getField(catalog, "lazyDbLoader"));
+
+        backgroundTasks.forEach(Runnable::run);
+
+        // each database is deserialized only once, and the loader is detached after all are loaded
+        Assertions.assertEquals(DB_NUM, readNum.get());
+        Assertions.assertEquals(0, loader.getDbNum());
+        Assertions.assertNull(Deencapsulation.getField(catalog, "lazyDbLoader"));
+        Assertions.assertEquals(initDbNum + DB_NUM, catalog.getDbIds().size());
+        Assertions.assertEquals(initDbNum + DB_NUM, catalog.getDbs().size());
+        for (int i = 0; i < DB_NUM; i++) {
+            Assertions.assertSame(catalog.getDbNullable(DB_ID_BASE + i), catalog.getDbNullable("lazy_db" + i));
+        }
+    }
+
+    @Test
+    public void testWaitLazyLoadDbs() {
+        InternalCatalog catalog = new InternalCatalog();
+        AtomicInteger readNum = new AtomicInteger();
+        LazyDbLoader loader = createLoader(catalog, readNum);
+        // the background tasks are never run, the databases are loaded by the waiting thread
+        catalog.startLazyLoadDbs(loader, task -> { });
+        Assertions.assertEquals(0, readNum.get());
+
+        catalog.waitLazyLoadDbs();
+        Assertions.assertEquals(DB_NUM, readNum.get());
+        Assertions.assertNull(Deencapsulation.getField(catalog, "lazyDbLoader"));
+    }
+
+    @Test
+    public void testSaveDbsNotLoaded() throws IOException {
+        InternalCatalog catalog = new InternalCatalog();
+        AtomicInteger readNum = new AtomicInteger();
+        catalog.startLazyLoadDbs(createLoader(catalog, readNum), task -> { });
+        Assertions.assertEquals(DB_ID_BASE + 1, catalog.getDbNullable("lazy_db1").getId());
+
+        // the databases not loaded yet are loaded before the image is saved
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        catalog.saveDb(new CountingDataOutputStream(bytes), 0);
+        Assertions.assertEquals(DB_NUM, readNum.get());
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        Assertions.assertEquals(DB_NUM, in.readInt());
+    }
+
+    @Test
+    public void testMismatchedDb() {
+        InternalCatalog catalog = new InternalCatalog();
+        LazyDbLoader loader = new LazyDbLoader(catalog);
+        loader.addDb(DB_ID_BASE, "lazy_db", () -> new Database(DB_ID_BASE + 1, "lazy_db"));
+        // the failure of background load is only logged
+        catalog.startLazyLoadDbs(loader, Runnable::run);
+        Assertions.assertThrows(IllegalStateException.class, () -> catalog.getDbNullable(DB_ID_BASE));
+        Assertions.assertThrows(IllegalStateException.class, catalog::waitLazyLoadDbs);
+    }
+
+    private LazyDbLoader createLoader(InternalCatalog catalog, AtomicInteger readNum) {
+        LazyDbLoader loader = new LazyDbLoader(catalog);
+        for (int i = 0; i < DB_NUM; i++) {
+            long dbId = DB_ID_BASE + i;
+            String dbName = "lazy_db" + i;
+            loader.addDb(dbId, dbName, () -> {
+                readNum.incrementAndGet();
+                return new Database(dbId, dbName);
+            });
+        }
+        return loader;
+    }
+}
@@ -0,0 +1,116 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.datasource;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ManifestDiskCacheTest {
+    @TempDir
+    Path cacheDir;
+
+    private final AtomicInteger remoteReadNum = new AtomicInteger();
+
+    private File get(ManifestDiskCache cache, String path, int length) throws IOException {
+        return cache.get(path, length, () -> {
+            remoteReadNum.incrementAndGet();
+            return new ByteArrayInputStream(new byte[length]);
+        });
+    }
+
+    @Test
+    public void testHitAndMiss() throws IOException {
+        ManifestDiskCache cache = new ManifestDiskCache(cacheDir.toString(), 1024);
+        File file = get(cache, "s3://bucket/tbl/metadata/a-m0.avro", 100);
+        Assertions.assertEquals(100, file.length());
+        Assertions.assertEquals(file, get(cache, "s3://bucket/tbl/metadata/a-m0.avro", 100));
+        Assertions.assertEquals(1, remoteReadNum.get());
+        Assertions.assertEquals(1, cache.getHitNum());
+        Assertions.assertEquals(1, cache.getMissNum());
+        Assertions.assertEquals(100, cache.getCachedLength("s3://bucket/tbl/metadata/a-m0.avro"));
+        Assertions.assertEquals(-1, cache.getCachedLength("s3://bucket/tbl/metadata/b-m0.avro"));
+
+        // a different length means the cached file is broken, read it again
+        Assertions.assertEquals(50, get(cache, "s3://bucket/tbl/metadata/a-m0.avro", 50).length());
+        Assertions.assertEquals(2, remoteReadNum.get());
+        Assertions.assertEquals(50, cache.getTotalBytes());
+    }
+
+    @Test
+    public void testLruEviction() throws IOException {
+        ManifestDiskCache cache = new ManifestDiskCache(cacheDir.toString(), 300);
+        File a = get(cache, "a.avro", 100);
+        get(cache, "b.avro", 100);
+        get(cache, "c.avro", 100);
+        // make b the least recently used one
+        get(cache, "a.avro", 100);
+        get(cache, "d.avro", 100);
+        Assertions.assertEquals(3, cache.size());
+        Assertions.assertEquals(300, cache.getTotalBytes());
+        Assertions.assertTrue(a.exists());
+        Assertions.assertEquals(-1, cache.getCachedLength("b.avro"));
+        Assertions.assertEquals(4, remoteReadNum.get());
+
+        // the single file larger than the limit is still cached
+        get(cache, "e.avro", 500);
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertFalse(a.exists());
+    }
+
+    @Test
+    public void testReloadAfterRestart() throws IOException {
+        // the access order is kept by the modification times, which are set explicitly
+        // since the file system may only keep them in seconds
+        long base = System.currentTimeMillis() - 10000;
+        ManifestDiskCache cache = new ManifestDiskCache(cacheDir.toString(), 200);
+        File a = get(cache, "a.avro", 100);
+        File b = get(cache, "b.avro", 100);
+        // a becomes the most recently used one
+        get(cache, "a.avro", 100);
+        Assertions.assertTrue(b.setLastModified(base + 1000));
+        Assertions.assertTrue(a.setLastModified(base + 2000));
+        // left by a crash
+        Path tmpFile = cacheDir.resolve("00").resolve("left.tmp");
+        Files.createDirectories(tmpFile.getParent());
+        Files.write(tmpFile, new byte[10]);
+
+        ManifestDiskCache restarted = new ManifestDiskCache(cacheDir.toString(), 200);
+        Assertions.assertEquals(2, restarted.size());
+        Assertions.assertEquals(200, restarted.getTotalBytes());
+        Assertions.assertFalse(Files.exists(tmpFile));
+        get(restarted, "a.avro", 100);
+        get(restarted, "b.avro", 100);
+        Assertions.assertTrue(a.setLastModified(base + 3000));
+        Assertions.assertTrue(b.setLastModified(base + 4000));
+        Assertions.assertEquals(2, remoteReadNum.get());
+        Assertions.assertEquals(2, restarted.getHitNum());
+
+        // a is evicted since b is the most recently used one before the restart
+        restarted = new ManifestDiskCache(cacheDir.toString(), 100);
+        Assertions.assertEquals(1, restarted.size());
+        Assertions.assertEquals(100, restarted.getCachedLength("b.avro"));
+    }
+}
@@ -0,0 +1,136 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+package org.apache.doris.datasource.hive;
+
+import org.apache.doris.datasource.hive.HiveMetaStoreCache.PartitionCacheKey;
+
+import com.google.common.collect.Lists;
+import org.apache.hadoop.hive.metastore.api.Partition;
+import org.apache.hadoop.hive.metastore.api.StorageDescriptor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measure the cold loading time of the partitions of a table with PARTITION_NUM partitions from an in-process fake
+ * metastore, by one getPartitionsByNames rpc as before and by the HivePartitionLoader, and the loading time of
+ * CALLER_NUM concurrent queries which miss the same partitions.
+ * The fake metastore has a fixed latency for each rpc and a latency for each returned partition, and serves
+ * at most METASTORE_HANDLER_NUM rpcs at the same time. It is disabled by default, run it manually.
+ */
+public class HivePartitionLoaderPerfTest {
+    private static final int PARTITION_NUM = 200000;
+    private static final long RPC_LATENCY_MS = 20;
+    private static final long PARTITION_LATENCY_MICROS = 50;
+    private static final int METASTORE_HANDLER_NUM = 16;
+    private static final int LOADER_CONCURRENCY = 8;
+    private static final int CALLER_NUM = 8;
+
+    @Disabled
+    @Test
+    public void testLoadPartitions() throws Exception {
+        List<PartitionCacheKey> keys = new ArrayList<>(PARTITION_NUM);
+        List<String> names = new ArrayList<>(PARTITION_NUM);
+        for (int i = 0; i < PARTITION_NUM; i++) {
+            keys.add(new PartitionCacheKey("db", "tbl", Lists.newArrayList(String.valueOf(i))));
+            names.add("p=" + i);
+        }
+
+        FakeMetastore serialMetastore = new FakeMetastore();
+        long start = System.currentTimeMillis();
+        Assertions.assertEquals(PARTITION_NUM, serialMetastore.fetch("db", "tbl", names).size());
+        System.out.printf("one rpc: %d ms, %d rpcs%n", System.currentTimeMillis() - start,
+                serialMetastore.rpcNum.get());
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        ExecutorService callers = Executors.newFixedThreadPool(CALLER_NUM);
+        try {
+            FakeMetastore parallelMetastore = new FakeMetastore();
+            HivePartitionLoader loader = new HivePartitionLoader("perf", parallelMetastore, executor,
+                    LOADER_CONCURRENCY);
+            start = System.currentTimeMillis();
+            Assertions.assertEquals(PARTITION_NUM, loader.load("db", "tbl", keys, names).size());
+            System.out.printf("parallel loader: %d ms, %d rpcs, final batch size %d%n",
+                    System.currentTimeMillis() - start, parallelMetastore.rpcNum.get(), loader.getBatchSize());
+
+            FakeMetastore coalescedMetastore = new FakeMetastore();
+            HivePartitionLoader coalescedLoader = new HivePartitionLoader("perf", coalescedMetastore, executor,
+                    LOADER_CONCURRENCY);
+            start = System.currentTimeMillis();
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLER_NUM; i++) {
+                futures.add(callers.submit(() -> coalescedLoader.load("db", "tbl", keys, names).size()));
+            }
+            for (Future<Integer> future : futures) {
+                Assertions.assertEquals(PARTITION_NUM, future.get(10, TimeUnit.MINUTES));
+            }
+            System.out.printf("%d concurrent callers: %d ms, %d rpcs, %d partitions fetched%n", CALLER_NUM,
+                    System.currentTimeMillis() - start, coalescedMetastore.rpcNum.get(),
+                    coalescedMetastore.partitionNum.get());
+        } finally {
+            executor.shutdownNow();
+            callers.shutdownNow();
+        }
+    }
+
+    private static class FakeMetastore implements HivePartitionLoader.PartitionFetcher {
+        private final Semaphore handlers = new Semaphore(METASTORE_HANDLER_NUM);
+        private final AtomicLong rpcNum = new AtomicLong();
+        private final AtomicLong partitionNum = new AtomicLong();
+
+        @Override
+        public List<Partition> fetch(String dbName, String tblName, List<String> partitionNames) {
+            handlers.acquireUninterruptibly();
+            try {
+                rpcNum.incrementAndGet();
+                partitionNum.addAndGet(partitionNames.size());
+                Thread.sleep(RPC_LATENCY_MS + partitionNames.size() * PARTITION_LATENCY_MICROS / 1000);
+                List<Partition> partitions = new ArrayList<>(partitionNames.size());
+                for (String name : partitionNames) {
+                    String value = name.substring("p=".length());
+                    StorageDescriptor sd = new StorageDescriptor();
+                    sd.setInputFormat("org.apache.hadoop.hive.ql.io.orc.OrcInputFormat");
+                    sd.setLocation("hdfs://warehouse/" + tblName + "/" + name);
+                    Partition partition = new Partition();
+                    partition.setDbName(dbName);
+                    partition.setTableName(tblName);
+                    partition.setValues(Lists.newArrayList(value));
+                    partition.setSd(sd);
+                    partition.setParameters(Collections.emptyMap());
+                    partitions.add(partition);
+                }
+                return partitions;
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            } finally {
+                handlers.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,237 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+package org.apache.doris.datasource.hive;
+
+import org.apache.doris.common.jmockit.Deencapsulation;
+import org.apache.doris.datasource.CacheException;
+import org.apache.doris.datasource.hive.HiveMetaStoreCache.PartitionCacheKey;
+
+import com.google.common.collect.Lists;
+import org.apache.hadoop.hive.metastore.api.Partition;
+import org.apache.hadoop.hive.metastore.api.StorageDescriptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HivePartitionLoaderTest {
+    private static final String DB = "db";
+    private static final String TBL = "tbl";
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testLoadInParallelBatches() {
+        AtomicInteger fetchedNum = new AtomicInteger();
+        AtomicInteger concurrentRpcs = new AtomicInteger();
+        AtomicInteger maxConcurrentRpcs = new AtomicInteger();
+        HivePartitionLoader loader = new HivePartitionLoader("catalog", (dbName, tblName, names) -> {
+            int rpcs = concurrentRpcs.incrementAndGet();
+            maxConcurrentRpcs.accumulateAndGet(rpcs, Math::max);
+            try {
+                fetchedNum.addAndGet(names.size());
+                // the partitions whose value is not less than 1000 do not exist
+                List<Partition> partitions = new ArrayList<>();
+                for (String name : names) {
+                    int value = Integer.parseInt(name.substring("p=".length()));
+                    if (value < 1000) {
+                        partitions.add(partition(value));
+                    }
+                }
+                return partitions;
+            } finally {
+                concurrentRpcs.decrementAndGet();
+            }
+        }, executor, 2);
+
+        Map<PartitionCacheKey, HivePartition> partitions = load(loader, 0, 1010);
+        Assertions.assertEquals(1000, partitions.size());
+        for (int i = 0; i < 1000; i++) {
+            HivePartition partition = partitions.get(key(i));
+            Assertions.assertNotNull(partition);
+            Assertions.assertEquals("hdfs://warehouse/tbl/p=" + i, partition.getPath());
+        }
+        Assertions.assertEquals(1010, fetchedNum.get());
+        Assertions.assertTrue(maxConcurrentRpcs.get() <= 2);
+    }
+
+    @Test
+    public void testCoalesceConcurrentLoads() throws Exception {
+        List<List<String>> fetchedNames = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch firstFetchStarted = new CountDownLatch(1);
+        CountDownLatch secondFetchDone = new CountDownLatch(1);
+        HivePartitionLoader loader = new HivePartitionLoader("catalog", (dbName, tblName, names) -> {
+            fetchedNames.add(new ArrayList<>(names));
+            if (names.contains("p=0")) {
+                // block the first load until the second one has found the partitions being loaded
+                firstFetchStarted.countDown();
+                try {
+                    Assertions.assertTrue(secondFetchDone.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            List<Partition> partitions = new ArrayList<>();
+            for (String name : names) {
+                partitions.add(partition(Integer.parseInt(name.substring("p=".length()))));
+            }
+            if (!names.contains("p=0")) {
+                secondFetchDone.countDown();
+            }
+            return partitions;
+        }, executor, 4);
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<Map<PartitionCacheKey, HivePartition>> first = callers.submit(() -> load(loader, 0, 10));
+            Assertions.assertTrue(firstFetchStarted.await(10, TimeUnit.SECONDS));
+            // the second load waits for the 10 partitions being loaded, and only fetches the new one,
+            // which unblocks the first load
+            Future<Map<PartitionCacheKey, HivePartition>> second = callers.submit(() -> load(loader, 0, 11));
+            Assertions.assertEquals(10, first.get(10, TimeUnit.SECONDS).size());
+            Map<PartitionCacheKey, HivePartition> secondPartitions = second.get(10, TimeUnit.SECONDS);
+            Assertions.assertEquals(11, secondPartitions.size());
+            Assertions.assertTrue(secondPartitions.entrySet().containsAll(first.get().entrySet()));
+            Assertions.assertEquals(2, fetchedNames.size());
+            Assertions.assertEquals(Collections.singletonList("p=10"), fetchedNames.get(1));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testShrinkBatchSizeOnFailure() {
+        AtomicInteger failedRpcNum = new AtomicInteger();
+        HivePartitionLoader loader = new HivePartitionLoader("catalog", (dbName, tblName, names) -> {
+            // the metastore can not return more than 100 partitions in one response
+            if (names.size() > 100) {
+                failedRpcNum.incrementAndGet();
+                throw new HMSClientException("response is too large");
+            }
+            List<Partition> partitions = new ArrayList<>();
+            for (String name : names) {
+                partitions.add(partition(Integer.parseInt(name.substring("p=".length()))));
+            }
+            return partitions;
+        }, executor, 4);
+
+        Assertions.assertEquals(2000, load(loader, 0, 2000).size());
+        Assertions.assertTrue(failedRpcNum.get() > 0);
+        Assertions.assertTrue(loader.getBatchSize() <= 100);
+
+        // the later loads use the smaller batch size directly
+        int failedRpcNumBefore = failedRpcNum.get();
+        Assertions.assertEquals(2000, load(loader, 2000, 4000).size());
+        Assertions.assertEquals(failedRpcNumBefore, failedRpcNum.get());
+    }
+
+    @Test
+    public void testGrowBatchSizeAfterFailureExpired() {
+        AtomicInteger maxResponseSize = new AtomicInteger(100);
+        AtomicInteger failedRpcNum = new AtomicInteger();
+        HivePartitionLoader loader = new HivePartitionLoader("catalog", (dbName, tblName, names) -> {
+            if (names.size() > maxResponseSize.get()) {
+                failedRpcNum.incrementAndGet();
+                throw new HMSClientException("response is too large");
+            }
+            List<Partition> partitions = new ArrayList<>();
+            for (String name : names) {
+                partitions.add(partition(Integer.parseInt(name.substring("p=".length()))));
+            }
+            return partitions;
+        }, executor, 4);
+
+        Assertions.assertEquals(2000, load(loader, 0, 2000).size());
+        Assertions.assertTrue(loader.getBatchSize() <= 100);
+
+        // the metastore recovers, but the batch size is still limited by the failed batches
+        maxResponseSize.set(Integer.MAX_VALUE);
+        Assertions.assertEquals(2000, load(loader, 2000, 4000).size());
+        Assertions.assertTrue(loader.getBatchSize() <= 100);
+
+        // the failed batch size is forgotten once the last failure is long ago
+        Deencapsulation.setField(loader, "lastFailureTimeMs", 0L);
+        Assertions.assertEquals(4000, load(loader, 4000, 8000).size());
+        Assertions.assertTrue(loader.getBatchSize() > 100);
+    }
+
+    @Test
+    public void testLoadFailed() {
+        AtomicInteger rpcNum = new AtomicInteger();
+        HivePartitionLoader loader = new HivePartitionLoader("catalog", (dbName, tblName, names) -> {
+            if (rpcNum.incrementAndGet() == 1) {
+                throw new HMSClientException("metastore is down");
+            }
+            return Collections.singletonList(partition(0));
+        }, executor, 4);
+
+        Assertions.assertThrows(CacheException.class, () -> load(loader, 0, 1));
+        // the failed load is not shared by the later loads
+        Assertions.assertEquals(1, load(loader, 0, 1).size());
+        Assertions.assertEquals(2, rpcNum.get());
+    }
+
+    private static Map<PartitionCacheKey, HivePartition> load(HivePartitionLoader loader, int from, int to) {
+        List<PartitionCacheKey> keys = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            keys.add(key(i));
+            names.add("p=" + i);
+        }
+        return loader.load(DB, TBL, keys, names);
+    }
+
+    private static PartitionCacheKey key(int value) {
+        return new PartitionCacheKey(DB, TBL, Lists.newArrayList(String.valueOf(value)));
+    }
+
+    private static Partition partition(int value) {
+        StorageDescriptor sd = new StorageDescriptor();
+        sd.setInputFormat("org.apache.hadoop.hive.ql.io.orc.OrcInputFormat");
+        sd.setLocation("hdfs://warehouse/tbl/p=" + value);
+        Partition partition = new Partition();
+        partition.setDbName(DB);
+        partition.setTableName(TBL);
+        partition.setValues(Lists.newArrayList(String.valueOf(value)));
+        partition.setSd(sd);
+        partition.setParameters(Collections.emptyMap());
+        return partition;
+    }
+}
@@ -0,0 +1,124 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.datasource.iceberg;
+
+import org.apache.doris.datasource.ManifestDiskCache;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.iceberg.AppendFiles;
+import org.apache.iceberg.CatalogProperties;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DataFiles;
+import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.catalog.Namespace;
+import org.apache.iceberg.catalog.TableIdentifier;
+import org.apache.iceberg.hadoop.HadoopCatalog;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.types.Types;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Measure the file planning time of an iceberg table in a local filesystem warehouse, without the manifest disk
+ * cache, with a cold cache and with a warm cache loaded again as after FE restarts.
+ * Every commit adds a manifest, so the planning reads COMMIT_NUM manifests. It is disabled by default, run it manually.
+ */
+public class IcebergManifestDiskCachePerfTest {
+    private static final int COMMIT_NUM = 500;
+    private static final int FILES_PER_COMMIT = 20;
+    private static final int ROUNDS = 5;
+
+    @TempDir
+    Path warehouse;
+    @TempDir
+    Path cacheDir;
+
+    @Disabled
+    @Test
+    public void testPlanFiles() throws IOException {
+        HadoopCatalog catalog = new HadoopCatalog();
+        Map<String, String> props = new HashMap<>();
+        props.put(CatalogProperties.WAREHOUSE_LOCATION, "file://" + warehouse.toAbsolutePath() + "/");
+        catalog.setConf(new Configuration());
+        catalog.initialize("perf", props);
+        catalog.createNamespace(Namespace.of("db"));
+        Schema schema = new Schema(
+                Types.NestedField.required(1, "id", Types.LongType.get()),
+                Types.NestedField.required(2, "dt", Types.StringType.get()));
+        PartitionSpec spec = PartitionSpec.builderFor(schema).identity("dt").build();
+        TableIdentifier identifier = TableIdentifier.of("db", "tbl");
+        Table table = catalog.createTable(identifier, schema, spec);
+        for (int i = 0; i < COMMIT_NUM; i++) {
+            AppendFiles append = table.newFastAppend();
+            for (int j = 0; j < FILES_PER_COMMIT; j++) {
+                DataFile file = DataFiles.builder(spec)
+                        .withPath(warehouse + "/data/" + i + "_" + j + ".parquet")
+                        .withPartitionPath("dt=2024-01-" + (i % 28 + 1))
+                        .withFileSizeInBytes(1024 * 1024)
+                        .withRecordCount(1000)
+                        .build();
+                append.appendFile(file);
+            }
+            append.commit();
+        }
+
+        long noCacheMs = measure(() -> catalog.loadTable(identifier));
+        ManifestDiskCache cache = new ManifestDiskCache(cacheDir.toString(), Long.MAX_VALUE);
+        long coldMs = measureOnce(IcebergManifestCachingFileIO.wrap(catalog.loadTable(identifier), cache));
+        ManifestDiskCache restarted = new ManifestDiskCache(cacheDir.toString(), Long.MAX_VALUE);
+        long warmMs = measure(() -> IcebergManifestCachingFileIO.wrap(catalog.loadTable(identifier), restarted));
+        Assertions.assertEquals(0, restarted.getMissNum());
+
+        System.out.println("manifests: " + COMMIT_NUM + ", data files: " + COMMIT_NUM * FILES_PER_COMMIT
+                + ", cached bytes: " + restarted.getTotalBytes());
+        System.out.println("no cache: " + noCacheMs + " ms, cold cache: " + coldMs + " ms, warm cache: "
+                + warmMs + " ms");
+    }
+
+    // the average time of planning files, a new table is loaded for each round to skip the in memory caches
+    private long measure(Supplier<Table> tableLoader) throws IOException {
+        long totalMs = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            totalMs += measureOnce(tableLoader.get());
+        }
+        return totalMs / ROUNDS;
+    }
+
+    private long measureOnce(Table table) throws IOException {
+        long start = System.nanoTime();
+        int fileNum = 0;
+        try (CloseableIterable<FileScanTask> tasks = table.newScan().planFiles()) {
+            for (FileScanTask ignored : tasks) {
+                fileNum++;
+            }
+        }
+        Assertions.assertEquals(COMMIT_NUM * FILES_PER_COMMIT, fileNum);
+        return (System.nanoTime() - start) / 1000000;
+    }
+}
@@ -0,0 +1,175 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.datasource.iceberg;
+
+import com.google.common.collect.ImmutableMap;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.iceberg.AppendFiles;
+import org.apache.iceberg.CatalogProperties;
+import org.apache.iceberg.DataFiles;
+import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.Metrics;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.TableScan;
+import org.apache.iceberg.catalog.Namespace;
+import org.apache.iceberg.catalog.TableIdentifier;
+import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.expressions.Expressions;
+import org.apache.iceberg.hadoop.HadoopCatalog;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.types.Conversions;
+import org.apache.iceberg.types.Types;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+public class IcebergManifestPruningIndexTest {
+    private static final int COMMIT_NUM = 10;
+
+    @TempDir
+    Path warehouse;
+
+    private Table table;
+
+    @BeforeEach
+    public void setUp() {
+        HadoopCatalog catalog = new HadoopCatalog();
+        Map<String, String> props = new HashMap<>();
+        props.put(CatalogProperties.WAREHOUSE_LOCATION, "file://" + warehouse.toAbsolutePath() + "/");
+        catalog.setConf(new Configuration());
+        catalog.initialize("test", props);
+        catalog.createNamespace(Namespace.of("db"));
+        Schema schema = new Schema(
+                Types.NestedField.optional(1, "id", Types.LongType.get()),
+                Types.NestedField.optional(2, "score", Types.DoubleType.get()),
+                Types.NestedField.optional(3, "name", Types.StringType.get()));
+        table = catalog.createTable(TableIdentifier.of("db", "tbl"), schema, PartitionSpec.unpartitioned());
+        for (int i = 0; i < COMMIT_NUM; i++) {
+            append(i);
+        }
+    }
+
+    // every commit adds a manifest with 2 files, the ids of commit i are in [i * 100, i * 100 + 99]
+    private void append(int i) {
+        AppendFiles append = table.newFastAppend();
+        for (int j = 0; j < 2; j++) {
+            long min = i * 100L + j * 50;
+            Metrics metrics = new Metrics(100L, null,
+                    ImmutableMap.of(1, 100L, 2, 100L),
+                    ImmutableMap.of(1, 0L, 2, 0L),
+                    null,
+                    ImmutableMap.of(1, Conversions.toByteBuffer(Types.LongType.get(), min),
+                            2, Conversions.toByteBuffer(Types.DoubleType.get(), -1.0 * i)),
+                    ImmutableMap.of(1, Conversions.toByteBuffer(Types.LongType.get(), min + 49),
+                            2, Conversions.toByteBuffer(Types.DoubleType.get(), 1.0 * i)));
+            append.appendFile(DataFiles.builder(PartitionSpec.unpartitioned())
+                    .withPath(warehouse + "/data/" + i + "_" + j + ".parquet")
+                    .withFormat("parquet")
+                    .withFileSizeInBytes(1024)
+                    .withMetrics(metrics)
+                    .build());
+        }
+        append.commit();
+    }
+
+    @Test
+    public void testSkipManifests() throws IOException {
+        IcebergManifestPruningIndex index = new IcebergManifestPruningIndex(1024 * 1024);
+        Expression filter = Expressions.greaterThanOrEqual("id", 850L);
+
+        // the index is built by the first scan
+        Assertions.assertEquals(expectedFiles(filter), planFiles(index, filter));
+        Assertions.assertEquals(0, index.getSkippedManifestNum());
+        Assertions.assertEquals(expectedFiles(filter), planFiles(index, filter));
+        Assertions.assertEquals(COMMIT_NUM - 2, index.getSkippedManifestNum());
+
+        // only the manifest of the new snapshot is not indexed
+        append(COMMIT_NUM);
+        table.refresh();
+        Assertions.assertEquals(expectedFiles(filter), planFiles(index, filter));
+        Assertions.assertEquals((COMMIT_NUM - 2) * 2, index.getSkippedManifestNum());
+
+        // all the predicates must be matched by the same file
+        filter = Expressions.and(Expressions.lessThan("id", 120L), Expressions.greaterThan("score", 1.5));
+        Assertions.assertEquals(expectedFiles(filter), planFiles(index, filter));
+        Assertions.assertEquals(expectedFiles(filter), planFiles(index, filter));
+        Assertions.assertTrue(expectedFiles(filter).isEmpty());
+
+        filter = Expressions.isNull("id");
+        planFiles(index, filter);
+        long skipped = index.getSkippedManifestNum();
+        Assertions.assertTrue(planFiles(index, filter).isEmpty());
+        Assertions.assertEquals(skipped + COMMIT_NUM + 1, index.getSkippedManifestNum());
+    }
+
+    @Test
+    public void testNotApplicable() {
+        IcebergManifestPruningIndex index = new IcebergManifestPruningIndex(1024 * 1024);
+        Assertions.assertNull(index.planFiles(table, table.newScan(), null));
+        Assertions.assertNull(index.planFiles(table, table.newScan().filter(Expressions.equal("name", "a")), null));
+        Assertions.assertNull(index.planFiles(table, table.newScan().filter(
+                Expressions.or(Expressions.lessThan("id", 1L), Expressions.greaterThan("id", 900L))), null));
+    }
+
+    @Test
+    public void testEncodeDouble() {
+        Types.DoubleType type = Types.DoubleType.get();
+        Assertions.assertTrue(IcebergManifestPruningIndex.encode(type, Double.NEGATIVE_INFINITY)
+                < IcebergManifestPruningIndex.encode(type, -1.5));
+        Assertions.assertTrue(IcebergManifestPruningIndex.encode(type, -1.5)
+                < IcebergManifestPruningIndex.encode(type, -0.5));
+        Assertions.assertEquals(IcebergManifestPruningIndex.encode(type, -0.0),
+                IcebergManifestPruningIndex.encode(type, 0.0));
+        Assertions.assertTrue(IcebergManifestPruningIndex.encode(type, 0.0)
+                < IcebergManifestPruningIndex.encode(type, Double.MIN_VALUE));
+        Assertions.assertTrue(IcebergManifestPruningIndex.encode(type, 2.0)
+                < IcebergManifestPruningIndex.encode(type, Double.POSITIVE_INFINITY));
+        Assertions.assertNull(IcebergManifestPruningIndex.encode(type, Double.NaN));
+    }
+
+    private Set<String> planFiles(IcebergManifestPruningIndex index, Expression filter) throws IOException {
+        TableScan scan = table.newScan().filter(filter);
+        CloseableIterable<FileScanTask> tasks = index.planFiles(table, scan, null);
+        Assertions.assertNotNull(tasks);
+        return toPaths(tasks);
+    }
+
+    private Set<String> expectedFiles(Expression filter) throws IOException {
+        return toPaths(table.newScan().filter(filter).planFiles());
+    }
+
+    private Set<String> toPaths(CloseableIterable<FileScanTask> tasks) throws IOException {
+        Set<String> paths = new HashSet<>();
+        try (CloseableIterable<FileScanTask> closeable = tasks) {
+            for (FileScanTask task : closeable) {
+                paths.add(task.file().path().toString());
+            }
+        }
+        return paths;
+    }
+}
@@ -0,0 +1,234 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.datasource.iceberg.source;
+
+import org.apache.doris.analysis.TableName;
+import org.apache.doris.analysis.TableRef;
+import org.apache.doris.analysis.TupleDescriptor;
+import org.apache.doris.analysis.TupleId;
+import org.apache.doris.common.jmockit.Deencapsulation;
+import org.apache.doris.datasource.ExternalCatalog;
+import org.apache.doris.datasource.SplitAssignment;
+import org.apache.doris.datasource.iceberg.IcebergExternalCatalog;
+import org.apache.doris.datasource.iceberg.IcebergExternalTable;
+import org.apache.doris.planner.PlanNodeId;
+import org.apache.doris.qe.ConnectContext;
+import org.apache.doris.spi.Split;
+
+import mockit.Expectations;
+import mockit.Mock;
+import mockit.MockUp;
+import mockit.Mocked;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.iceberg.AppendFiles;
+import org.apache.iceberg.CatalogProperties;
+import org.apache.iceberg.DataFiles;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.catalog.Namespace;
+import org.apache.iceberg.catalog.TableIdentifier;
+import org.apache.iceberg.hadoop.HadoopCatalog;
+import org.apache.iceberg.types.Types;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class IcebergScanNodeTest {
+    private static final int PARTITION_NUM = 3;
+    private static final int FILES_PER_PARTITION = 4;
+    private static final int FILE_NUM = PARTITION_NUM * FILES_PER_PARTITION;
+
+    @TempDir
+    Path warehouse;
+
+    @Mocked
+    private IcebergExternalTable externalTable;
+    @Mocked
+    private IcebergApiSource source;
+    @Mocked
+    private ExternalCatalog catalog;
+
+    private Table table;
+    private ConnectContext ctx;
+
+    @BeforeEach
+    public void setUp() {
+        HadoopCatalog hadoopCatalog = new HadoopCatalog();
+        Map<String, String> props = new HashMap<>();
+        props.put(CatalogProperties.WAREHOUSE_LOCATION, "file://" + warehouse.toAbsolutePath() + "/");
+        hadoopCatalog.setConf(new Configuration());
+        hadoopCatalog.initialize("test", props);
+        hadoopCatalog.createNamespace(Namespace.of("db"));
+        Schema schema = new Schema(
+                Types.NestedField.optional(1, "id", Types.LongType.get()),
+                Types.NestedField.optional(2, "part", Types.IntegerType.get()));
+        PartitionSpec spec = PartitionSpec.builderFor(schema).identity("part").build();
+        table = hadoopCatalog.createTable(TableIdentifier.of("db", "tbl"), schema, spec);
+        // every partition is added by its own commit
+        for (int i = 0; i < PARTITION_NUM; i++) {
+            AppendFiles append = table.newFastAppend();
+            for (int j = 0; j < FILES_PER_PARTITION; j++) {
+                append.appendFile(DataFiles.builder(spec)
+                        .withPath(warehouse + "/data/part=" + i + "/" + j + ".parquet")
+                        .withPartitionPath("part=" + i)
+                        .withFormat("parquet")
+                        .withFileSizeInBytes(1024)
+                        .withRecordCount(10)
+                        .build());
+            }
+            append.commit();
+        }
+
+        new Expectations() {
+            {
+                externalTable.getIcebergCatalogType();
+                minTimes = 0;
+                result = IcebergExternalCatalog.ICEBERG_HADOOP;
+
+                source.getCatalog();
+                minTimes = 0;
+                result = catalog;
+
+                catalog.getConfiguration();
+                minTimes = 0;
+                result = new Configuration();
+
+                catalog.getProperties();
+                minTimes = 0;
+                result = new HashMap<>();
+            }
+        };
+
+        ctx = new ConnectContext();
+        ctx.setThreadLocalInfo();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ConnectContext.remove();
+    }
+
+    private IcebergScanNode createScanNode() {
+        TupleDescriptor desc = new TupleDescriptor(new TupleId(0));
+        desc.setTable(externalTable);
+        desc.setRef(new TableRef(new TableName("ctl", "db", "tbl"), null));
+        IcebergScanNode scanNode = new IcebergScanNode(new PlanNodeId(0), desc, false);
+        Deencapsulation.setField(scanNode, "icebergTable", table);
+        Deencapsulation.setField(scanNode, "fileSplitSize", 64L * 1024 * 1024);
+        return scanNode;
+    }
+
+    @Test
+    public void testBatchModeThreshold() {
+        ctx.getSessionVariable().setNumFilesInBatchMode(FILE_NUM + 1);
+        IcebergScanNode scanNode = createScanNode();
+        Assertions.assertFalse(scanNode.isBatchMode());
+        Assertions.assertEquals(0, scanNode.getSelectedPartitionNum());
+
+        ctx.getSessionVariable().setNumFilesInBatchMode(-1);
+        Assertions.assertFalse(createScanNode().isBatchMode());
+
+        ctx.getSessionVariable().setNumFilesInBatchMode(FILE_NUM);
+        scanNode = createScanNode();
+        Assertions.assertTrue(scanNode.isBatchMode());
+        Assertions.assertEquals(FILE_NUM, scanNode.numApproximateSplits());
+        // each manifest holds one partition, so the partitions are counted by the manifest list exactly
+        Assertions.assertEquals(PARTITION_NUM, scanNode.getSelectedPartitionNum());
+    }
+
+    @Test
+    public void testEstimateSelectedPartitions() throws InterruptedException {
+        // one manifest holds the files of two existing partitions
+        AppendFiles append = table.newFastAppend();
+        for (int i = 0; i < 2; i++) {
+            append.appendFile(DataFiles.builder(table.spec())
+                    .withPath(warehouse + "/data/part=" + i + "/mixed.parquet")
+                    .withPartitionPath("part=" + i)
+                    .withFormat("parquet")
+                    .withFileSizeInBytes(1024)
+                    .withRecordCount(10)
+                    .build());
+        }
+        append.commit();
+        CountDownLatch finished = new CountDownLatch(1);
+        new MockUp<SplitAssignment>() {
+            @Mock
+            public void addToQueue(List<Split> splits) {
+            }
+
+            @Mock
+            public void finishSchedule() {
+                finished.countDown();
+            }
+        };
+
+        ctx.getSessionVariable().setNumFilesInBatchMode(FILE_NUM);
+        IcebergScanNode scanNode = createScanNode();
+        Assertions.assertTrue(scanNode.isBatchMode());
+        // the mixed manifest is bounded by its file number
+        Assertions.assertEquals(PARTITION_NUM + 2, scanNode.getSelectedPartitionNum());
+        Deencapsulation.setField(scanNode, "splitAssignment", new SplitAssignment(null, scanNode, null, null, null));
+        scanNode.startSplit();
+        Assertions.assertTrue(finished.await(30, TimeUnit.SECONDS));
+        // the exact number is set after all the splits are generated
+        Assertions.assertEquals(PARTITION_NUM, scanNode.getSelectedPartitionNum());
+    }
+
+    @Test
+    public void testStartSplit() throws InterruptedException {
+        List<Integer> batchSizes = new ArrayList<>();
+        CountDownLatch finished = new CountDownLatch(1);
+        new MockUp<SplitAssignment>() {
+            @Mock
+            public void addToQueue(List<Split> splits) {
+                synchronized (batchSizes) {
+                    batchSizes.add(splits.size());
+                }
+            }
+
+            @Mock
+            public void finishSchedule() {
+                finished.countDown();
+            }
+        };
+
+        ctx.getSessionVariable().setNumFilesInBatchMode(FILE_NUM);
+        IcebergScanNode scanNode = createScanNode();
+        Assertions.assertTrue(scanNode.isBatchMode());
+        Deencapsulation.setField(scanNode, "splitAssignment", new SplitAssignment(null, scanNode, null, null, null));
+        scanNode.startSplit();
+        Assertions.assertTrue(finished.await(30, TimeUnit.SECONDS));
+        // the first split is sent alone, the others are sent in one batch
+        synchronized (batchSizes) {
+            Assertions.assertEquals(Arrays.asList(1, FILE_NUM - 1), batchSizes);
+        }
+        Assertions.assertEquals(PARTITION_NUM, scanNode.getSelectedPartitionNum());
+    }
+}
@@ -0,0 +1,204 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.journal;
+
+import org.apache.doris.common.Config;
+import org.apache.doris.common.io.Text;
+import org.apache.doris.common.io.Writable;
+import org.apache.doris.common.jmockit.Deencapsulation;
+import org.apache.doris.persist.EditLog;
+import org.apache.doris.persist.OperationType;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class JournalBatchWriterTest {
+
+    @Test
+    public void testConcurrentWrite() throws Exception {
+        MemoryJournal journal = new MemoryJournal();
+        AtomicInteger writtenNum = new AtomicInteger();
+        AtomicLong totalCostMs = new AtomicLong();
+        JournalBatchWriter writer = new JournalBatchWriter(journal, (batchSize, costMs) -> {
+            writtenNum.addAndGet(batchSize);
+            totalCostMs.addAndGet(costMs);
+        });
+        writer.start();
+
+        int threadNum = 8;
+        int writeNum = 200;
+        Set<Long> journalIds = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threadNum);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threadNum; i++) {
+            int threadId = i;
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < writeNum; j++) {
+                    long journalId = writer.write(OperationType.OP_SAVE_NEXTID, new Text(threadId + "-" + j));
+                    // the journal must be durable when write returns
+                    Assertions.assertTrue(journal.isWritten(journalId));
+                    journalIds.add(journalId);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Assertions.assertEquals(threadNum * writeNum, journalIds.size());
+        Assertions.assertEquals(0L, Collections.min(journalIds));
+        Assertions.assertEquals(threadNum * writeNum - 1L, Collections.max(journalIds));
+        Assertions.assertEquals(threadNum * writeNum, writtenNum.get());
+        Assertions.assertTrue(journal.batchNum <= threadNum * writeNum);
+        Assertions.assertEquals(0, writer.getQueueSize());
+        Assertions.assertTrue(totalCostMs.get() >= 0);
+        writer.stop();
+    }
+
+    @Test
+    public void testStop() throws Exception {
+        MemoryJournal journal = new MemoryJournal();
+        JournalBatchWriter writer = new JournalBatchWriter(journal, (batchSize, costMs) -> { });
+        writer.start();
+        Assertions.assertEquals(0L, writer.write(OperationType.OP_SAVE_NEXTID, new Text("before stop")));
+
+        writer.stop();
+        Assertions.assertThrows(IOException.class,
+                () -> writer.write(OperationType.OP_SAVE_NEXTID, new Text("after stop")));
+        Assertions.assertEquals(0, writer.getQueueSize());
+        Assertions.assertEquals(0L, journal.getMaxJournalId());
+    }
+
+    @Test
+    public void testStartForMasterOnly() {
+        boolean enableBatchEditLog = Config.enable_batch_editlog;
+        Config.enable_batch_editlog = true;
+        EditLog editLog = new EditLog("name");
+        try {
+            MemoryJournal journal = new MemoryJournal();
+            Deencapsulation.setField(editLog, "journal", journal);
+            // the edit log which only replays journals, e.g. of a follower, has no writer thread
+            Assertions.assertNull(Deencapsulation.getField(editLog, "batchWriter"));
+
+            editLog.startBatchWriter();
+            JournalBatchWriter writer = Deencapsulation.getField(editLog, "batchWriter");
+            Assertions.assertNotNull(writer);
+            editLog.startBatchWriter();
+            Assertions.assertSame(writer, Deencapsulation.getField(editLog, "batchWriter"));
+            editLog.logSaveNextId(100);
+            Assertions.assertEquals(0L, journal.getMaxJournalId());
+            Assertions.assertEquals(1, journal.batchNum);
+        } finally {
+            editLog.stopBatchWriter();
+            Config.enable_batch_editlog = enableBatchEditLog;
+        }
+    }
+
+    private static class MemoryJournal implements Journal {
+        private long nextJournalId = 0;
+        private int batchNum = 0;
+
+        private synchronized boolean isWritten(long journalId) {
+            return journalId < nextJournalId;
+        }
+
+        @Override
+        public synchronized long write(JournalBatch batch) {
+            long firstId = nextJournalId;
+            nextJournalId += batch.getJournalEntities().size();
+            batchNum++;
+            return firstId;
+        }
+
+        @Override
+        public long write(short op, Writable writable) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void open() {
+        }
+
+        @Override
+        public void rollJournal() {
+        }
+
+        @Override
+        public long getMaxJournalId() {
+            return nextJournalId - 1;
+        }
+
+        @Override
+        public long getMinJournalId() {
+            return 0;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public JournalEntity read(long journalId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public JournalCursor read(long fromKey, long toKey) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getJournalNum() {
+            return nextJournalId;
+        }
+
+        @Override
+        public void deleteJournals(long deleteJournalToId) {
+        }
+
+        @Override
+        public long getFinalizedJournalId() {
+            return 0;
+        }
+
+        @Override
+        public List<Long> getDatabaseNames() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean exceedMaxJournalSize(short op, Writable writable) {
+            return false;
+        }
+    }
+}
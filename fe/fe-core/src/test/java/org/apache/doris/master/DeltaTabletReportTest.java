@@ -0,0 +1,192 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.master;
+
+import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.Replica;
+import org.apache.doris.catalog.TabletInvertedIndex;
+import org.apache.doris.common.Config;
+import org.apache.doris.system.Backend;
+import org.apache.doris.thrift.TBackend;
+import org.apache.doris.thrift.TMasterResult;
+import org.apache.doris.thrift.TPartitionVersionInfo;
+import org.apache.doris.thrift.TReportRequest;
+import org.apache.doris.thrift.TTablet;
+import org.apache.doris.thrift.TTabletInfo;
+import org.apache.doris.utframe.TestWithFeService;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class DeltaTabletReportTest extends TestWithFeService {
+
+    @Override
+    protected void runBeforeAll() throws Exception {
+        createDatabase("test");
+        createTable("CREATE TABLE test.tbl (k INT) DISTRIBUTED BY HASH(k) BUCKETS 4"
+                + " PROPERTIES ( \"replication_num\" = \"1\" )");
+    }
+
+    @Test
+    public void testReportGeneration() throws Exception {
+        ReportHandler reportHandler = new ReportHandler();
+        StandInBackend backend = new StandInBackend(Env.getCurrentSystemInfo().getAllBackendsByAllCluster()
+                .values().iterator().next());
+
+        // no full report accepted yet
+        Assertions.assertTrue(backend.send(reportHandler, backend.deltaReport()));
+        Assertions.assertFalse(backend.send(reportHandler, backend.fullReport()));
+
+        long tabletId = backend.tablets.keySet().iterator().next();
+        backend.updateVersion(tabletId, 100L);
+        Assertions.assertFalse(backend.send(reportHandler, backend.deltaReport()));
+        // nothing changed
+        Assertions.assertFalse(backend.send(reportHandler, backend.deltaReport()));
+
+        // the response of a delta report is lost, the backend sends the next delta report on the old base
+        TReportRequest lostReport = backend.deltaReport();
+        Assertions.assertFalse(reportHandler.handleReport(lostReport).isNeedFullTabletReport());
+        Assertions.assertTrue(backend.send(reportHandler, backend.deltaReport()));
+        Assertions.assertFalse(backend.send(reportHandler, backend.fullReport()));
+
+        Config.enable_delta_tablet_report = false;
+        try {
+            Assertions.assertTrue(backend.send(reportHandler, backend.deltaReport()));
+        } finally {
+            Config.enable_delta_tablet_report = true;
+        }
+    }
+
+    @Test
+    public void testDeltaDiff() throws Exception {
+        StandInBackend backend = new StandInBackend(Env.getCurrentSystemInfo().getAllBackendsByAllCluster()
+                .values().iterator().next());
+        List<Long> tabletIds = Lists.newArrayList(backend.tablets.keySet());
+        Assertions.assertEquals(4, tabletIds.size());
+        long changedTabletId = tabletIds.get(0);
+        long deletedTabletId = tabletIds.get(1);
+        backend.updateVersion(changedTabletId, 100L);
+        backend.dropTablet(deletedTabletId);
+        TReportRequest request = backend.deltaReport();
+        Assertions.assertEquals(1, request.getTabletsSize());
+
+        ListMultimap<Long, Long> tabletSyncMap = ArrayListMultimap.create();
+        ListMultimap<Long, Long> tabletDeleteFromMeta = ArrayListMultimap.create();
+        Set<Long> tabletFoundInMeta = Sets.newConcurrentHashSet();
+        Map<Long, ListMultimap<Long, TPartitionVersionInfo>> transactionsToPublish = Maps.newHashMap();
+        Env.getCurrentInvertedIndex().tabletReport(backend.backend.getId(), request.getTablets(),
+                request.getDeletedTabletIds(), Maps.newHashMap(), Maps.newHashMap(), tabletSyncMap,
+                tabletDeleteFromMeta, tabletFoundInMeta, ArrayListMultimap.create(), Maps.newConcurrentMap(),
+                transactionsToPublish, ArrayListMultimap.create(), ArrayListMultimap.create(),
+                Lists.newArrayList(), Lists.newArrayList(), Lists.newArrayList());
+
+        // the unchanged tablets are not diffed, so they are not deleted from meta
+        Assertions.assertEquals(Sets.newHashSet(changedTabletId), tabletFoundInMeta);
+        Assertions.assertEquals(Lists.newArrayList(changedTabletId), Lists.newArrayList(tabletSyncMap.values()));
+        Assertions.assertEquals(Lists.newArrayList(deletedTabletId),
+                Lists.newArrayList(tabletDeleteFromMeta.values()));
+    }
+
+    /**
+     * A stand-in of the backend, which keeps its tablets and sends full and delta tablet reports
+     * like a real backend.
+     */
+    private static class StandInBackend {
+        private final Backend backend;
+        private final Map<Long, TTablet> tablets = Maps.newHashMap();
+        private final Set<Long> changedTabletIds = Sets.newHashSet();
+        private final List<Long> deletedTabletIds = Lists.newArrayList();
+        private long generation = 0;
+        // the generation of the last report accepted by the frontend
+        private long baseGeneration = -1;
+
+        private StandInBackend(Backend backend) {
+            this.backend = backend;
+            TabletInvertedIndex invertedIndex = Env.getCurrentInvertedIndex();
+            for (long tabletId : invertedIndex.getTabletIdsByBackendId(backend.getId())) {
+                Replica replica = invertedIndex.getReplica(tabletId, backend.getId());
+                TTabletInfo tabletInfo = new TTabletInfo();
+                tabletInfo.setTabletId(tabletId);
+                tabletInfo.setSchemaHash(replica.getSchemaHash());
+                tabletInfo.setVersion(replica.getVersion());
+                tabletInfo.setPathHash(replica.getPathHash());
+                tabletInfo.setPartitionId(invertedIndex.getTabletMeta(tabletId).getPartitionId());
+                tabletInfo.setReplicaId(replica.getId());
+                TTablet tablet = new TTablet();
+                tablet.addToTabletInfos(tabletInfo);
+                tablets.put(tabletId, tablet);
+            }
+        }
+
+        private void updateVersion(long tabletId, long version) {
+            tablets.get(tabletId).getTabletInfos().get(0).setVersion(version);
+            changedTabletIds.add(tabletId);
+        }
+
+        private void dropTablet(long tabletId) {
+            tablets.remove(tabletId);
+            changedTabletIds.remove(tabletId);
+            deletedTabletIds.add(tabletId);
+        }
+
+        private TReportRequest newRequest() {
+            TReportRequest request = new TReportRequest();
+            request.setBackend(new TBackend(backend.getHost(), backend.getBePort(), backend.getHttpPort()));
+            request.setReportVersion(Env.getCurrentSystemInfo().getBackendReportVersion(backend.getId()));
+            request.setTabletReportGeneration(++generation);
+            return request;
+        }
+
+        private TReportRequest fullReport() {
+            TReportRequest request = newRequest();
+            request.setTablets(Maps.newHashMap(tablets));
+            return request;
+        }
+
+        private TReportRequest deltaReport() {
+            TReportRequest request = newRequest();
+            request.setIsDeltaTabletReport(true);
+            request.setTabletReportBaseGeneration(baseGeneration);
+            Map<Long, TTablet> changedTablets = Maps.newHashMap();
+            changedTabletIds.forEach(tabletId -> changedTablets.put(tabletId, tablets.get(tabletId)));
+            request.setTablets(changedTablets);
+            request.setDeletedTabletIds(Lists.newArrayList(deletedTabletIds));
+            return request;
+        }
+
+        // send the report, return whether the frontend asks for a full report
+        private boolean send(ReportHandler reportHandler, TReportRequest request) throws Exception {
+            TMasterResult result = reportHandler.handleReport(request);
+            if (result.isNeedFullTabletReport()) {
+                return true;
+            }
+            baseGeneration = request.getTabletReportGeneration();
+            changedTabletIds.clear();
+            deletedTabletIds.clear();
+            return false;
+        }
+    }
+}
@@ -18,6 +18,7 @@
 package org.apache.doris.mysql;
 
 
+import org.apache.doris.common.Config;
 import org.apache.doris.common.jmockit.Deencapsulation;
 import org.apache.doris.qe.ConnectContext;
 
@@ -25,11 +26,26 @@ import mockit.Delegate;
 import mockit.Expectations;
 import mockit.Mocked;
 import org.junit.Assert;
+import org.junit.Ignore;
 import org.junit.Test;
 import org.xnio.StreamConnection;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
 
 public class MysqlChannelTest {
 
@@ -89,4 +105,227 @@ public class MysqlChannelTest {
         buf.flip();
         mysqlChannel.sendOnePacket(buf);
     }
+
+    // record the bytes written to the mocked connection
+    private ByteArrayOutputStream mockWrite() throws IOException {
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        new Expectations() {
+            {
+                streamConnection.getSinkChannel().write((ByteBuffer) any);
+                minTimes = 0;
+                result = new Delegate() {
+                    int write(ByteBuffer buffer) {
+                        return drain(buffer, written);
+                    }
+                };
+
+                streamConnection.getSinkChannel().write((ByteBuffer[]) any, anyInt, anyInt);
+                minTimes = 0;
+                result = new Delegate() {
+                    long write(ByteBuffer[] buffers, int offset, int length) {
+                        long writeLen = 0;
+                        for (int i = offset; i < offset + length; i++) {
+                            writeLen += drain(buffers[i], written);
+                        }
+                        return writeLen;
+                    }
+                };
+
+                streamConnection.getSinkChannel().flush();
+                minTimes = 0;
+                result = true;
+            }
+        };
+        return written;
+    }
+
+    private static int drain(ByteBuffer buffer, ByteArrayOutputStream written) {
+        int writeLen = buffer.remaining();
+        byte[] bytes = new byte[writeLen];
+        buffer.get(bytes);
+        written.write(bytes, 0, writeLen);
+        return writeLen;
+    }
+
+    private byte[] sendRows(ByteArrayOutputStream written, List<ByteBuffer> rows, boolean batchSend)
+            throws IOException {
+        boolean origin = Config.enable_mysql_batch_send_rows;
+        Config.enable_mysql_batch_send_rows = batchSend;
+        try {
+            written.reset();
+            MysqlChannel mysqlChannel = new MysqlChannel(streamConnection, new ConnectContext(streamConnection));
+            // the buffered packet should be sent before the rows
+            mysqlChannel.sendOnePacket(ByteBuffer.wrap(new byte[] {1, 2, 3}));
+            mysqlChannel.sendRows(rows);
+            mysqlChannel.sendOnePacket(ByteBuffer.wrap(new byte[] {4, 5, 6}));
+            mysqlChannel.flush();
+            return written.toByteArray();
+        } finally {
+            Config.enable_mysql_batch_send_rows = origin;
+        }
+    }
+
+    private static List<ByteBuffer> createRows(int rowNum, int smallRowLen, int largeRowLen) {
+        Random random = new Random(rowNum);
+        List<ByteBuffer> rows = new ArrayList<>(rowNum);
+        for (int i = 0; i < rowNum; i++) {
+            byte[] row = new byte[i % 10 == 0 ? largeRowLen : smallRowLen];
+            random.nextBytes(row);
+            rows.add(ByteBuffer.wrap(row));
+        }
+        return rows;
+    }
+
+    @Test
+    public void testSendRows() throws IOException {
+        ByteArrayOutputStream written = mockWrite();
+        // larger than the send buffer, sent by gathering writes
+        byte[] expected = sendRows(written, createRows(20000, 100, 10000), false);
+        List<ByteBuffer> rows = createRows(20000, 100, 10000);
+        Assert.assertArrayEquals(expected, sendRows(written, rows, true));
+        // the rows are not consumed
+        Assert.assertEquals(100, rows.get(1).remaining());
+
+        // can be buffered in the send buffer
+        expected = sendRows(written, createRows(100, 20, 200), false);
+        Assert.assertArrayEquals(expected, sendRows(written, createRows(100, 20, 200), true));
+    }
+
+    @Test
+    public void testSendObjectRow() throws IOException {
+        ByteArrayOutputStream written = mockWrite();
+        MysqlChannel mysqlChannel = new MysqlChannel(streamConnection, new ConnectContext(streamConnection));
+        StringBuilder longValue = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            longValue.append('a');
+        }
+        Object[] row = new Object[] {"abc", 1, null, longValue.toString()};
+        mysqlChannel.sendOnePacket(row);
+        mysqlChannel.sendOnePacket(row);
+        mysqlChannel.flush();
+
+        MysqlSerializer serializer = MysqlSerializer.newInstance();
+        for (Object value : row) {
+            byte[] bytes = String.valueOf(value).getBytes();
+            serializer.writeVInt(bytes.length);
+            serializer.writeBytes(bytes);
+        }
+        byte[] payload = serializer.toArray();
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        for (int sequenceId = 0; sequenceId < 2; sequenceId++) {
+            expected.write(payload.length & 0xFF);
+            expected.write((payload.length >> 8) & 0xFF);
+            expected.write((payload.length >> 16) & 0xFF);
+            expected.write(sequenceId);
+            expected.write(payload, 0, payload.length);
+        }
+        Assert.assertArrayEquals(expected.toByteArray(), written.toByteArray());
+    }
+
+    // rows/sec of sending the narrow and wide rows one by one and in batch,
+    // the ssl path is measured if -Dmysql.bench.keystore=<pkcs12 file> is set, the password is doris
+    @Ignore
+    @Test
+    public void testSendRowsPerf() throws Exception {
+        String keystore = System.getProperty("mysql.bench.keystore");
+        ByteArrayOutputStream written = mockWrite();
+        for (boolean ssl : new boolean[] {false, true}) {
+            if (ssl && keystore == null) {
+                continue;
+            }
+            for (int rowLen : new int[] {16, 2048}) {
+                List<ByteBuffer> rows = createRows(4096, rowLen, rowLen);
+                for (boolean batchSend : new boolean[] {false, true}) {
+                    boolean origin = Config.enable_mysql_batch_send_rows;
+                    Config.enable_mysql_batch_send_rows = batchSend;
+                    MysqlChannel mysqlChannel = new MysqlChannel(streamConnection,
+                            new ConnectContext(streamConnection));
+                    if (ssl) {
+                        mysqlChannel.initSslBuffer();
+                        mysqlChannel.setSslEngine(createHandshakedEngine(keystore, "doris".toCharArray()));
+                        mysqlChannel.setSslMode(true);
+                    }
+                    int batchNum = 500;
+                    long start = System.nanoTime();
+                    for (int i = 0; i < batchNum; i++) {
+                        mysqlChannel.sendRows(rows);
+                        // only keep the recent written bytes
+                        written.reset();
+                    }
+                    mysqlChannel.flush();
+                    long costNs = System.nanoTime() - start;
+                    Config.enable_mysql_batch_send_rows = origin;
+                    System.out.println((ssl ? "ssl, " : "") + "row length " + rowLen + ", batch send " + batchSend
+                            + ": " + (long) (batchNum * rows.size() * 1e9 / costNs) + " rows/sec");
+                }
+            }
+        }
+    }
+
+    // create a server ssl engine which has finished the handshake with a client engine in memory
+    private static SSLEngine createHandshakedEngine(String keystore, char[] password) throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = new FileInputStream(keystore)) {
+            keyStore.load(in, password);
+        }
+        KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagerFactory.init(keyStore, password);
+        SSLContext serverContext = SSLContext.getInstance("TLSv1.2");
+        serverContext.init(keyManagerFactory.getKeyManagers(), null, null);
+        TrustManager[] trustAll = new TrustManager[] {new X509TrustManager() {
+            @Override
+            public void checkClientTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            @Override
+            public void checkServerTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            @Override
+            public X509Certificate[] getAcceptedIssuers() {
+                return new X509Certificate[0];
+            }
+        }};
+        SSLContext clientContext = SSLContext.getInstance("TLSv1.2");
+        clientContext.init(null, trustAll, null);
+
+        SSLEngine server = serverContext.createSSLEngine();
+        server.setUseClientMode(false);
+        SSLEngine client = clientContext.createSSLEngine();
+        client.setUseClientMode(true);
+        ByteBuffer clientToServer = ByteBuffer.allocate(server.getSession().getPacketBufferSize() * 4);
+        ByteBuffer serverToClient = ByteBuffer.allocate(client.getSession().getPacketBufferSize() * 4);
+        ByteBuffer appData = ByteBuffer.allocate(server.getSession().getApplicationBufferSize() * 4);
+        client.beginHandshake();
+        server.beginHandshake();
+        while (client.getHandshakeStatus() != HandshakeStatus.NOT_HANDSHAKING
+                || server.getHandshakeStatus() != HandshakeStatus.NOT_HANDSHAKING) {
+            handshakeStep(client, clientToServer, serverToClient, appData);
+            handshakeStep(server, serverToClient, clientToServer, appData);
+        }
+        return server;
+    }
+
+    private static void handshakeStep(SSLEngine engine, ByteBuffer out, ByteBuffer in, ByteBuffer appData)
+            throws IOException {
+        switch (engine.getHandshakeStatus()) {
+            case NEED_WRAP:
+                engine.wrap(ByteBuffer.allocate(0), out);
+                break;
+            case NEED_UNWRAP:
+                in.flip();
+                appData.clear();
+                engine.unwrap(in, appData);
+                in.compact();
+                break;
+            case NEED_TASK:
+                Runnable task;
+                while ((task = engine.getDelegatedTask()) != null) {
+                    task.run();
+                }
+                break;
+            default:
+                break;
+        }
+    }
 }
@@ -21,6 +21,7 @@ import org.apache.doris.analysis.StatementBase;
 import org.apache.doris.analysis.StmtType;
 import org.apache.doris.common.Config;
 import org.apache.doris.common.Pair;
+import org.apache.doris.nereids.DorisParser;
 import org.apache.doris.nereids.StatementContext;
 import org.apache.doris.nereids.exceptions.AnalysisException;
 import org.apache.doris.nereids.exceptions.ParseException;
@@ -43,6 +44,7 @@ import org.apache.doris.nereids.types.DateType;
 import org.apache.doris.nereids.types.DecimalV2Type;
 import org.apache.doris.nereids.types.DecimalV3Type;
 
+import com.google.common.collect.Lists;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -67,6 +69,54 @@ public class NereidsParserTest extends ParserTestBase {
         Assertions.assertThrowsExactly(ParseException.class, () -> nereidsParser.parseMultiple(sql));
     }
 
+    @Test
+    public void testParseWithCache() {
+        NereidsParser nereidsParser = new NereidsParser();
+        String sql = "SELECT a FROM test WHERE b = 'parse_with_cache';SELECT b FROM test";
+        List<StatementBase> statements = nereidsParser.parseSQLWithCache(sql);
+        Assertions.assertEquals(0, ((LogicalPlanAdapter) statements.get(0)).getStatementContext()
+                .getParseSqlSavedTime());
+        Assertions.assertNotNull(ParsedStatementCache.getInstance().get(sql + "  \n"));
+
+        // the plans are built from the cached syntax tree
+        List<StatementBase> cachedStatements = nereidsParser.parseSQLWithCache(sql + "\n");
+        Assertions.assertEquals(2, cachedStatements.size());
+        for (int i = 0; i < statements.size(); i++) {
+            LogicalPlanAdapter statement = (LogicalPlanAdapter) statements.get(i);
+            LogicalPlanAdapter cachedStatement = (LogicalPlanAdapter) cachedStatements.get(i);
+            Assertions.assertNotSame(statement.getLogicalPlan(), cachedStatement.getLogicalPlan());
+            Assertions.assertEquals(describe(statement.getLogicalPlan()), describe(cachedStatement.getLogicalPlan()));
+            Assertions.assertNotSame(statement.getStatementContext(), cachedStatement.getStatementContext());
+            Assertions.assertTrue(cachedStatement.getStatementContext().getParseSqlSavedTime() > 0);
+        }
+
+        // the invalid sql is not cached
+        String invalidSql = "SELECT a FROM test WHERE";
+        Assertions.assertThrowsExactly(ParseException.class, () -> nereidsParser.parseSQLWithCache(invalidSql));
+        Assertions.assertNull(ParsedStatementCache.getInstance().get(invalidSql));
+    }
+
+    @Test
+    public void testParsedStatementCacheEviction() {
+        ParsedStatementCache cache = new ParsedStatementCache(1024 * 1024);
+        for (int i = 0; i < 1000; i++) {
+            String sql = "SELECT a FROM test WHERE b = " + i;
+            cache.put(sql, NereidsParser.toAst(sql, DorisParser::multiStatements), 10, 1);
+        }
+        Assertions.assertTrue(cache.size() < 1000);
+        ParsedStatementCache disabledCache = new ParsedStatementCache(0);
+        Assertions.assertFalse(disabledCache.isCacheable("SELECT 1"));
+        Assertions.assertNull(disabledCache.get("SELECT 1"));
+    }
+
+    private static List<String> describe(Plan plan) {
+        List<String> nodes = Lists.newArrayList();
+        plan.foreach(p -> {
+            nodes.add(p.getClass().getSimpleName() + ((Plan) p).getExpressions());
+        });
+        return nodes;
+    }
+
     @Test
     public void testSingle() {
         NereidsParser nereidsParser = new NereidsParser();
@@ -0,0 +1,118 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.nereids.sqltest;
+
+import org.apache.doris.nereids.CascadesContext;
+import org.apache.doris.nereids.jobs.Job;
+import org.apache.doris.nereids.jobs.cascades.DeriveStatsJob;
+import org.apache.doris.nereids.jobs.scheduler.JobScheduler;
+import org.apache.doris.nereids.jobs.scheduler.ParallelJobScheduler;
+import org.apache.doris.nereids.memo.Group;
+import org.apache.doris.nereids.properties.PhysicalProperties;
+import org.apache.doris.nereids.util.PlanChecker;
+import org.apache.doris.statistics.Statistics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public class ParallelJobSchedulerTest extends SqlTestBase {
+    private static final String SQL = "select * from T1, T2, T3, T4 "
+            + "where "
+            + "T1.id = T2.id and "
+            + "T2.score = T3.score and "
+            + "T3.id = T4.id";
+
+    @Test
+    void testDeriveStatsConcurrently() {
+        CascadesContext serial = deriveStats(context -> context.getJobScheduler());
+
+        // a job on a worker returns from the hook only when another worker runs a job at the same time,
+        // it times out if the jobs are executed serially.
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        AtomicBoolean concurrent = new AtomicBoolean(false);
+        Consumer<Job> hook = job -> {
+            if (concurrent.get() || barrier.isBroken()
+                    || !Thread.currentThread().getName().startsWith("nereids-derive-stats")) {
+                return;
+            }
+            try {
+                barrier.await(10, TimeUnit.SECONDS);
+                concurrent.set(true);
+            } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+                // leave concurrent as false
+            }
+        };
+        CascadesContext parallel = deriveStats(context -> new ParallelJobScheduler(context.getMemo(), hook));
+        Assertions.assertTrue(concurrent.get());
+
+        List<Group> serialGroups = serial.getMemo().getGroups();
+        List<Group> parallelGroups = parallel.getMemo().getGroups();
+        Assertions.assertEquals(serialGroups.size(), parallelGroups.size());
+        for (int i = 0; i < serialGroups.size(); i++) {
+            Statistics serialStats = serialGroups.get(i).getStatistics();
+            Statistics parallelStats = parallelGroups.get(i).getStatistics();
+            Assertions.assertNotNull(serialStats);
+            Assertions.assertNotNull(parallelStats);
+            Assertions.assertEquals(serialStats.getRowCount(), parallelStats.getRowCount());
+            Assertions.assertEquals(serialStats.columnStatistics().size(), parallelStats.columnStatistics().size());
+        }
+    }
+
+    @Test
+    void testSameCostAsSerialScheduler() {
+        CascadesContext serial = optimize(false);
+        CascadesContext parallel = optimize(true);
+        Assertions.assertEquals(
+                serial.getMemo().getRoot().getLowestCostPlan(PhysicalProperties.GATHER).get().first.getValue(),
+                parallel.getMemo().getRoot().getLowestCostPlan(PhysicalProperties.GATHER).get().first.getValue());
+    }
+
+    private CascadesContext deriveStats(Function<CascadesContext, JobScheduler> schedulerFactory) {
+        CascadesContext context = PlanChecker.from(connectContext)
+                .analyze(SQL)
+                .rewrite()
+                .getCascadesContext();
+        context.toMemo();
+        context.pushJob(new DeriveStatsJob(context.getMemo().getRoot().getLogicalExpression(),
+                context.getCurrentJobContext()));
+        schedulerFactory.apply(context).executeJobPool(context);
+        return context;
+    }
+
+    private CascadesContext optimize(boolean enableParallelDeriveStats) {
+        connectContext.getSessionVariable().enableParallelDeriveStats = enableParallelDeriveStats;
+        try {
+            return PlanChecker.from(connectContext)
+                    .analyze(SQL)
+                    .rewrite()
+                    .optimize()
+                    .getCascadesContext();
+        } finally {
+            connectContext.getSessionVariable().enableParallelDeriveStats = false;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.persist;
+
+import org.apache.doris.common.Config;
+import org.apache.doris.common.FeMetaVersion;
+import org.apache.doris.common.io.Writable;
+import org.apache.doris.common.jmockit.Deencapsulation;
+import org.apache.doris.journal.JournalEntity;
+import org.apache.doris.load.routineload.KafkaProgress;
+import org.apache.doris.load.routineload.RLTaskTxnCommitAttachment;
+import org.apache.doris.meta.MetaContext;
+import org.apache.doris.persist.gson.GsonUtils;
+import org.apache.doris.thrift.TKafkaRLTaskProgress;
+import org.apache.doris.thrift.TUniqueId;
+import org.apache.doris.transaction.PartitionCommitInfo;
+import org.apache.doris.transaction.TableCommitInfo;
+import org.apache.doris.transaction.TransactionState;
+import org.apache.doris.transaction.TransactionState.LoadJobSourceType;
+import org.apache.doris.transaction.TransactionState.TxnCoordinator;
+import org.apache.doris.transaction.TransactionState.TxnSourceType;
+import org.apache.doris.transaction.TransactionStatus;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class BinaryJournalCodecTest {
+    private String[] originOpTypes;
+
+    @BeforeEach
+    public void setUp() {
+        originOpTypes = Config.binary_journal_op_types;
+        MetaContext metaContext = new MetaContext();
+        metaContext.setMetaVersion(FeMetaVersion.VERSION_CURRENT);
+        metaContext.setThreadLocalInfo();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Config.binary_journal_op_types = originOpTypes;
+        MetaContext.remove();
+    }
+
+    @Test
+    public void testTransactionStateRoundTrip() throws IOException {
+        TransactionState state = createTransactionState(1);
+        checkRoundTrip(OperationType.OP_UPSERT_TRANSACTION_STATE, state);
+        checkRoundTrip(OperationType.OP_DELETE_TRANSACTION_STATE, state);
+
+        // the attachment is kept as json in the binary format
+        TransactionState readState = (TransactionState) writeAndRead(OperationType.OP_UPSERT_TRANSACTION_STATE,
+                state, true);
+        Assertions.assertTrue(readState.getTxnCommitAttachment() instanceof RLTaskTxnCommitAttachment);
+        Assertions.assertEquals(2, readState.getIdToTableCommitInfos().get(10001L).getIdToPartitionCommitInfo().size());
+    }
+
+    @Test
+    public void testReplicaPersistInfoRoundTrip() throws IOException {
+        ReplicaPersistInfo info = ReplicaPersistInfo.createForAdd(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14);
+        checkRoundTrip(OperationType.OP_ADD_REPLICA, info);
+        checkRoundTrip(OperationType.OP_UPDATE_REPLICA, info);
+        checkRoundTrip(OperationType.OP_DELETE_REPLICA, ReplicaPersistInfo.createForDelete(1, 2, 3, 4, 5, 6));
+        checkRoundTrip(OperationType.OP_CLEAR_ROLLUP_INFO, ReplicaPersistInfo.createForClearRollupInfo(1, 2, 3, 4));
+    }
+
+    @Test
+    public void testBatchRemoveTransactionsRoundTrip() throws IOException {
+        Map<Long, List<Long>> dbTxnIds = Maps.newHashMap();
+        dbTxnIds.put(1L, Lists.newArrayList(100L, 101L, 102L));
+        dbTxnIds.put(2L, Lists.newArrayList(200L));
+        checkRoundTrip(OperationType.OP_BATCH_REMOVE_TXNS, new BatchRemoveTransactionsOperation(dbTxnIds));
+        checkRoundTrip(OperationType.OP_BATCH_REMOVE_TXNS_V2, new BatchRemoveTransactionsOperationV2(1, 100, 200));
+    }
+
+    @Test
+    public void testEnabledOpTypes() {
+        Config.binary_journal_op_types = new String[] {"op_upsert_transaction_state", " OP_ADD_REPLICA ",
+                "OP_CREATE_DB", "NOT_EXIST"};
+        Assertions.assertTrue(BinaryJournalCodec.isBinaryEnabled(OperationType.OP_UPSERT_TRANSACTION_STATE));
+        Assertions.assertTrue(BinaryJournalCodec.isBinaryEnabled(OperationType.OP_ADD_REPLICA));
+        // no binary codec for the op
+        Assertions.assertFalse(BinaryJournalCodec.isBinaryEnabled(OperationType.OP_CREATE_DB));
+        Assertions.assertFalse(BinaryJournalCodec.isBinaryEnabled(OperationType.OP_DELETE_TRANSACTION_STATE));
+
+        Config.binary_journal_op_types = new String[0];
+        Assertions.assertFalse(BinaryJournalCodec.isBinaryEnabled(OperationType.OP_UPSERT_TRANSACTION_STATE));
+    }
+
+    @Test
+    public void testUnsupportedSchemaVersion() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(BinaryJournalCodec.BINARY_MARKER);
+        out.writeByte(100);
+        new BatchRemoveTransactionsOperationV2(1, 100, 200).writeBinary(out);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        Assertions.assertThrows(IOException.class, () -> BatchRemoveTransactionsOperationV2.read(in));
+    }
+
+    // the read data of both formats should be the same as the origin data
+    private void checkRoundTrip(short opCode, Writable data) throws IOException {
+        String expected = GsonUtils.GSON.toJson(data);
+        Assertions.assertEquals(expected, GsonUtils.GSON.toJson(writeAndRead(opCode, data, false)));
+        Assertions.assertEquals(expected, GsonUtils.GSON.toJson(writeAndRead(opCode, data, true)));
+    }
+
+    private Writable writeAndRead(short opCode, Writable data, boolean binary) throws IOException {
+        byte[] bytes = write(opCode, data, binary);
+        JournalEntity entity = new JournalEntity();
+        entity.readFields(new DataInputStream(new ByteArrayInputStream(bytes)));
+        Assertions.assertEquals(opCode, entity.getOpCode());
+        return entity.getData();
+    }
+
+    private byte[] write(short opCode, Writable data, boolean binary) throws IOException {
+        Config.binary_journal_op_types = binary ? new String[] {OperationType.getOpName(opCode)} : new String[0];
+        JournalEntity entity = new JournalEntity();
+        entity.setOpCode(opCode);
+        entity.setData(data);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        entity.write(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static TransactionState createTransactionState(long txnId) {
+        TransactionState state = new TransactionState(10000L, Lists.newArrayList(10001L, 10002L), txnId,
+                "label_" + txnId, new TUniqueId(txnId, txnId), LoadJobSourceType.ROUTINE_LOAD_TASK,
+                new TxnCoordinator(TxnSourceType.BE, 10003L, "192.168.0.1", 1000L), -1, 60000L);
+        for (long tableId = 10001L; tableId <= 10002L; tableId++) {
+            TableCommitInfo tableCommitInfo = new TableCommitInfo(tableId);
+            tableCommitInfo.addPartitionCommitInfo(new PartitionCommitInfo(tableId + 10, null, 5, 1000L, false));
+            tableCommitInfo.addPartitionCommitInfo(new PartitionCommitInfo(tableId + 20, "[1, 2)", 6, 1000L, true));
+            state.putIdToTableCommitInfo(tableId, tableCommitInfo);
+        }
+        state.setTransactionStatus(TransactionStatus.VISIBLE);
+        state.setCommitTime(2000L);
+        state.setFinishTime(3000L);
+        state.setErrorReplicas(Sets.newHashSet(10004L, 10005L));
+        RLTaskTxnCommitAttachment attachment = new RLTaskTxnCommitAttachment();
+        TKafkaRLTaskProgress progress = new TKafkaRLTaskProgress();
+        progress.partitionCmtOffset = Maps.newHashMap();
+        progress.partitionCmtOffset.put(1, 100L);
+        Deencapsulation.setField(attachment, "progress", new KafkaProgress(progress));
+        state.setTxnCommitAttachment(attachment);
+        return state;
+    }
+
+    // compare the replay throughput of the json and binary edit logs of the transaction states
+    @Disabled
+    @Test
+    public void testReplayThroughputPerf() throws IOException {
+        int logNum = 200000;
+        List<byte[]> jsonLogs = new ArrayList<>(logNum);
+        List<byte[]> binaryLogs = new ArrayList<>(logNum);
+        long jsonBytes = 0;
+        long binaryBytes = 0;
+        for (int i = 0; i < logNum; i++) {
+            TransactionState state = createTransactionState(i);
+            byte[] jsonLog = write(OperationType.OP_UPSERT_TRANSACTION_STATE, state, false);
+            byte[] binaryLog = write(OperationType.OP_UPSERT_TRANSACTION_STATE, state, true);
+            jsonLogs.add(jsonLog);
+            binaryLogs.add(binaryLog);
+            jsonBytes += jsonLog.length;
+            binaryBytes += binaryLog.length;
+        }
+        // warm up
+        replay(jsonLogs);
+        replay(binaryLogs);
+        long jsonMs = replay(jsonLogs);
+        long binaryMs = replay(binaryLogs);
+        System.out.println("replay " + logNum + " transaction state logs, json: " + jsonMs + "ms, "
+                + jsonBytes + " bytes; binary: " + binaryMs + "ms, " + binaryBytes + " bytes");
+    }
+
+    private static long replay(List<byte[]> logs) throws IOException {
+        long start = System.currentTimeMillis();
+        for (byte[] log : logs) {
+            JournalEntity entity = new JournalEntity();
+            entity.readFields(new DataInputStream(new ByteArrayInputStream(log)));
+        }
+        return System.currentTimeMillis() - start;
+    }
+}
@@ -0,0 +1,147 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.persist.meta;
+
+import org.apache.doris.catalog.Database;
+import org.apache.doris.catalog.Env;
+import org.apache.doris.common.Config;
+import org.apache.doris.common.FeConstants;
+import org.apache.doris.common.jmockit.Deencapsulation;
+import org.apache.doris.meta.MetaContext;
+import org.apache.doris.qe.VariableMgr;
+import org.apache.doris.utframe.TestWithFeService;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class SectionedImageTest extends TestWithFeService {
+    private static final int DB_NUM = 3;
+
+    @Override
+    protected void runBeforeAll() throws Exception {
+        createDatabases("image_db", DB_NUM, 2);
+    }
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        File sequentialImage = saveImage(false);
+        File sectionedImage = saveImage(true);
+        try {
+            Assertions.assertFalse(MetaHeader.read(sequentialImage).isSectioned());
+            Assertions.assertTrue(MetaHeader.read(sectionedImage).isSectioned());
+
+            // the checksum is the xor of all the saved values, so it is same for both formats
+            MetaFooter sequentialFooter = MetaFooter.read(sequentialImage);
+            MetaFooter sectionedFooter = MetaFooter.read(sectionedImage);
+            Assertions.assertEquals(sequentialFooter.checksum, sectionedFooter.checksum);
+
+            Set<String> sectionNames = sectionedFooter.metaIndices.stream()
+                    .map(index -> index.name).collect(Collectors.toSet());
+            Assertions.assertTrue(sectionNames.contains("db/head"));
+            Assertions.assertTrue(sectionNames.contains("transactionState/head"));
+            for (int i = 0; i < DB_NUM; i++) {
+                Database db = Env.getCurrentInternalCatalog().getDbOrAnalysisException("image_db" + i);
+                Assertions.assertTrue(sectionNames.contains("db/" + db.getId()));
+            }
+
+            Env env = loadImageAsCheckpoint(sectionedImage);
+            List<Long> expectedDbIds = Env.getCurrentInternalCatalog().getPersistentDbIds();
+            Assertions.assertEquals(expectedDbIds.size(), env.getInternalCatalog().getPersistentDbIds().size());
+            for (int i = 0; i < DB_NUM; i++) {
+                Database expected = Env.getCurrentInternalCatalog().getDbOrAnalysisException("image_db" + i);
+                Database actual = env.getInternalCatalog().getDbOrAnalysisException("image_db" + i);
+                Assertions.assertEquals(expected.getId(), actual.getId());
+                Assertions.assertEquals(expected.getTableNamesWithLock(), actual.getTableNamesWithLock());
+            }
+        } finally {
+            Env.destroyCheckpoint();
+            sequentialImage.delete();
+            sectionedImage.delete();
+        }
+    }
+
+    // Compare the time of saving and loading (the FE startup) the image in the sequential and sectioned format.
+    @Disabled
+    @Test
+    public void testStartupTimePerf() throws Exception {
+        createDatabases("perf_db", 200, 20);
+        for (int round = 0; round < 3; round++) {
+            for (boolean sectioned : new boolean[] {false, true}) {
+                long startNs = System.nanoTime();
+                File image = saveImage(sectioned);
+                long saveMs = (System.nanoTime() - startNs) / 1000000;
+                startNs = System.nanoTime();
+                loadImageAsCheckpoint(image);
+                long loadMs = (System.nanoTime() - startNs) / 1000000;
+                Env.destroyCheckpoint();
+                System.out.printf("round %d, sectioned %b, image size %d, save %d ms, load %d ms%n",
+                        round, sectioned, image.length(), saveMs, loadMs);
+                image.delete();
+            }
+        }
+    }
+
+    private void createDatabases(String prefix, int dbNum, int tableNum) throws Exception {
+        for (int i = 0; i < dbNum; i++) {
+            String dbName = prefix + i;
+            createDatabase(dbName);
+            for (int j = 0; j < tableNum; j++) {
+                createTable("create table " + dbName + ".tbl" + j + " (k1 int, v1 int) "
+                        + "distributed by hash(k1) buckets 3 properties('replication_num' = '1')");
+            }
+        }
+    }
+
+    private File saveImage(boolean sectioned) throws Exception {
+        File image = Files.createTempFile("image", sectioned ? ".sectioned" : ".sequential").toFile();
+        boolean origin = Config.enable_sectioned_image;
+        Config.enable_sectioned_image = sectioned;
+        try {
+            MetaWriter.write(image, Env.getServingEnv());
+        } finally {
+            Config.enable_sectioned_image = origin;
+        }
+        return image;
+    }
+
+    // load the image into a new env as the checkpoint thread, like Checkpoint.doCheckpoint
+    private Env loadImageAsCheckpoint(File image) throws Exception {
+        long ckptThreadId = Env.getServingEnv().getCheckpointer().getId();
+        Deencapsulation.setField(Env.class, "checkpointThreadId", Thread.currentThread().getId());
+        MetaContext metaContext = new MetaContext();
+        metaContext.setMetaVersion(FeConstants.meta_version);
+        metaContext.setThreadLocalInfo();
+        try {
+            Env.destroyCheckpoint();
+            Env env = Env.getCurrentEnv();
+            VariableMgr.createDefaultSessionVariableForCkpt();
+            MetaReader.read(image, env);
+            return env;
+        } finally {
+            VariableMgr.destroyDefaultSessionVariableForCkpt();
+            MetaContext.remove();
+            Deencapsulation.setField(Env.class, "checkpointThreadId", ckptThreadId);
+        }
+    }
+}
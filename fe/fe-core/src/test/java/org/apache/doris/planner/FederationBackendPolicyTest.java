@@ -23,6 +23,7 @@ import org.apache.doris.common.UserException;
 import org.apache.doris.datasource.FederationBackendPolicy;
 import org.apache.doris.datasource.FileSplit;
 import org.apache.doris.datasource.NodeSelectionStrategy;
+import org.apache.doris.datasource.SplitWeight;
 import org.apache.doris.spi.Split;
 import org.apache.doris.system.Backend;
 import org.apache.doris.system.SystemInfoService;
@@ -733,6 +734,55 @@ public class FederationBackendPolicyTest {
             }
     }
 
+    @Test
+    public void testWeightedRoundRobin() throws UserException {
+        SystemInfoService service = new SystemInfoService();
+        for (int i = 0; i < 3; i++) {
+            Backend backend = new Backend(10002L + i, "172.30.0." + (100 + i), 9050);
+            backend.setAlive(true);
+            service.addBackend(backend);
+        }
+
+        new MockUp<Env>() {
+            @Mock
+            public SystemInfoService getCurrentSystemInfo() {
+                return service;
+            }
+        };
+
+        long standardSplitBytes = 64 * 1024 * 1024;
+        List<Split> splits = new ArrayList<>();
+        // a split with large delete files or log files, which is as heavy as 20 standard splits
+        FileSplit heavySplit = new FileSplit(new Path("hdfs://HDFS8000871/usr/hive/warehouse/test.db/t/heavy.orc"),
+                0, standardSplitBytes, standardSplitBytes, 0, null, Collections.emptyList());
+        heavySplit.setSplitWeight(SplitWeight.fromScanBytes(20 * standardSplitBytes, standardSplitBytes));
+        splits.add(heavySplit);
+        for (int i = 0; i < 40; i++) {
+            FileSplit split = new FileSplit(new Path("hdfs://HDFS8000871/usr/hive/warehouse/test.db/t/" + i + ".orc"),
+                    0, standardSplitBytes, standardSplitBytes, 0, null, Collections.emptyList());
+            split.setSplitWeight(SplitWeight.fromScanBytes(standardSplitBytes, standardSplitBytes));
+            splits.add(split);
+        }
+
+        FederationBackendPolicy policy = new FederationBackendPolicy();
+        policy.init();
+        Multimap<Backend, Split> assignment = policy.computeScanRangeAssignment(splits);
+
+        // the backend of the heavy split gets no other split, and the others share the standard splits
+        for (Backend backend : assignment.keySet()) {
+            Collection<Split> assignedSplits = assignment.get(backend);
+            if (assignedSplits.contains(heavySplit)) {
+                Assertions.assertEquals(1, assignedSplits.size());
+            } else {
+                Assertions.assertEquals(20, assignedSplits.size());
+            }
+        }
+        Map<Backend, Long> stats = policy.getAssignedWeightPerBackend();
+        long maxWeight = Collections.max(stats.values());
+        long minWeight = Collections.min(stats.values());
+        Assertions.assertTrue(maxWeight - minWeight <= SplitWeight.standard().getRawValue());
+    }
+
     private static <K, V> boolean areMultimapsEqualIgnoringOrder(
             Multimap<K, V> multimap1, Multimap<K, V> multimap2) {
         Collection<Map.Entry<K, V>> entries1 = multimap1.entries();
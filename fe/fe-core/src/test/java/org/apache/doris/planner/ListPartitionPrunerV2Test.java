@@ -93,7 +93,8 @@ public class ListPartitionPrunerV2Test {
         ThreadPoolExecutor listExecutor = ThreadPoolManager.newDaemonFixedThreadPool(
                 10, 10, "mgr", 120, false);
         HiveMetaStoreCache cache = new HiveMetaStoreCache(
-                new HMSExternalCatalog(1L, "catalog", null, new HashMap<>(), null), executor, listExecutor);
+                new HMSExternalCatalog(1L, "catalog", null, new HashMap<>(), null), executor, listExecutor,
+                listExecutor);
         ArrayList<Type> types = new ArrayList<>();
         types.add(ScalarType.DOUBLE);
 
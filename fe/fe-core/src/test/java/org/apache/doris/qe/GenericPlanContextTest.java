@@ -0,0 +1,111 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.qe;
+
+import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.nereids.NereidsPlanner;
+import org.apache.doris.nereids.StatementContext;
+import org.apache.doris.nereids.glue.LogicalPlanAdapter;
+import org.apache.doris.nereids.parser.NereidsParser;
+import org.apache.doris.nereids.trees.expressions.Expression;
+import org.apache.doris.nereids.trees.expressions.Placeholder;
+import org.apache.doris.nereids.trees.expressions.literal.IntegerLiteral;
+import org.apache.doris.nereids.trees.plans.Plan;
+import org.apache.doris.nereids.trees.plans.logical.LogicalPlan;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalFilter;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalOlapScan;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalPlan;
+import org.apache.doris.utframe.TestWithFeService;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class GenericPlanContextTest extends TestWithFeService {
+
+    @Override
+    protected void runBeforeAll() throws Exception {
+        createDatabase("test");
+        useDatabase("test");
+        createTable("create table t1 (k1 int, v1 int) duplicate key(k1)\n"
+                + "partition by range(k1) (partition p1 values less than (\"10\"),\n"
+                + "partition p2 values less than (\"20\"), partition p3 values less than (\"30\"))\n"
+                + "distributed by hash(k1) buckets 3 properties(\"replication_num\" = \"1\");");
+    }
+
+    @Test
+    public void testBindGenericPlan() throws Exception {
+        String sql = "select v1 from t1 where k1 = ?";
+        StatementContext statementContext = createStatementCtx(sql);
+        LogicalPlan parsedPlan = new NereidsParser().parseSingle(sql);
+        GenericPlanContext genericPlanContext = new GenericPlanContext(parsedPlan);
+        OlapTable table = (OlapTable) Env.getCurrentInternalCatalog().getDbOrMetaException("test")
+                .getTableOrMetaException("t1");
+
+        // the first two executions are planned with the values, and verify the generic plan
+        plan(parsedPlan, statementContext, genericPlanContext, 1);
+        Assertions.assertFalse(genericPlanContext.hasGenericPlan());
+        plan(parsedPlan, statementContext, genericPlanContext, 15);
+        Assertions.assertTrue(genericPlanContext.hasGenericPlan());
+
+        PhysicalPlan plan = plan(parsedPlan, statementContext, genericPlanContext, 25);
+        Assertions.assertTrue(genericPlanContext.hasGenericPlan());
+        PhysicalOlapScan scan = (PhysicalOlapScan) plan.collectToList(PhysicalOlapScan.class::isInstance).get(0);
+        Assertions.assertEquals(ImmutableList.of(table.getPartition("p3").getId()),
+                scan.getSelectedPartitionIds());
+        Assertions.assertEquals(1, scan.getSelectedTabletIds().size());
+        PhysicalFilter<?> filter = (PhysicalFilter<?>) plan.collectToList(PhysicalFilter.class::isInstance).get(0);
+        Assertions.assertTrue(filter.getConjuncts().toString().contains("25"), filter.getConjuncts().toString());
+
+        // the values which prune all partitions can't use the generic plan
+        plan = plan(parsedPlan, statementContext, genericPlanContext, 100);
+        Assertions.assertTrue(plan.collectToList(PhysicalOlapScan.class::isInstance).isEmpty());
+    }
+
+    @Test
+    public void testNondeterministicPlan() {
+        String sql = "select v1 from t1 where k1 = ? and random() > 0.5";
+        StatementContext statementContext = createStatementCtx(sql);
+        LogicalPlan parsedPlan = new NereidsParser().parseSingle(sql);
+        GenericPlanContext genericPlanContext = new GenericPlanContext(parsedPlan);
+        for (int i = 0; i < 3; i++) {
+            plan(parsedPlan, statementContext, genericPlanContext, i);
+            Assertions.assertFalse(genericPlanContext.hasGenericPlan());
+        }
+    }
+
+    private PhysicalPlan plan(LogicalPlan parsedPlan, StatementContext statementContext,
+            GenericPlanContext genericPlanContext, int value) {
+        List<Placeholder> placeholders = Lists.newArrayList();
+        parsedPlan.foreach(p -> {
+            for (Expression expression : ((Plan) p).getExpressions()) {
+                placeholders.addAll(expression.collectToList(Placeholder.class::isInstance));
+            }
+        });
+        Assertions.assertEquals(1, placeholders.size());
+        statementContext.getIdToPlaceholderRealExpr().put(placeholders.get(0).getPlaceholderId(),
+                new IntegerLiteral(value));
+        statementContext.setGenericPlanContext(genericPlanContext);
+        NereidsPlanner planner = new NereidsPlanner(statementContext);
+        planner.planWithLock(new LogicalPlanAdapter(parsedPlan, statementContext));
+        return planner.getPhysicalPlan();
+    }
+}
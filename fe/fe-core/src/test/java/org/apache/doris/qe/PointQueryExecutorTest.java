@@ -0,0 +1,220 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+package org.apache.doris.qe;
+
+import org.apache.doris.analysis.BinaryPredicate;
+import org.apache.doris.analysis.Expr;
+import org.apache.doris.analysis.InPredicate;
+import org.apache.doris.analysis.IntLiteral;
+import org.apache.doris.analysis.SlotRef;
+import org.apache.doris.analysis.StringLiteral;
+import org.apache.doris.catalog.Column;
+import org.apache.doris.catalog.PrimitiveType;
+import org.apache.doris.common.UserException;
+import org.apache.doris.common.jmockit.Deencapsulation;
+import org.apache.doris.proto.InternalService;
+import org.apache.doris.proto.InternalService.KeyTuple;
+import org.apache.doris.proto.Types;
+import org.apache.doris.rpc.BackendServiceProxy;
+import org.apache.doris.system.Backend;
+import org.apache.doris.thrift.TNetworkAddress;
+import org.apache.doris.thrift.TResultBatch;
+import org.apache.doris.thrift.TStatusCode;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.protobuf.ByteString;
+import mockit.Mock;
+import mockit.MockUp;
+import mockit.Mocked;
+import org.apache.thrift.TException;
+import org.apache.thrift.TSerializer;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+public class PointQueryExecutorTest {
+    private static final long FAILED_BACKEND_ID = 1;
+
+    private final List<Column> keyColumns = Lists.newArrayList(
+            new Column("k1", PrimitiveType.INT), new Column("k2", PrimitiveType.VARCHAR));
+
+    @Test
+    public void testExpandSingleKey() {
+        List<Expr> conjuncts = Lists.newArrayList(
+                new BinaryPredicate(BinaryPredicate.Operator.EQ, new SlotRef(null, "k2"), new StringLiteral("a")),
+                new BinaryPredicate(BinaryPredicate.Operator.EQ, new SlotRef(null, "k1"), new IntLiteral(1)));
+        Assertions.assertEquals(Lists.newArrayList("1,a"),
+                describe(PointQueryExecutor.expandKeys(conjuncts, keyColumns)));
+    }
+
+    @Test
+    public void testExpandInList() {
+        List<Expr> conjuncts = Lists.newArrayList(
+                new InPredicate(new SlotRef(null, "k1"),
+                        Lists.newArrayList(new IntLiteral(3), new IntLiteral(1), new IntLiteral(3)), false),
+                new InPredicate(new SlotRef(null, "k2"),
+                        Lists.newArrayList(new StringLiteral("b"), new StringLiteral("a")), false));
+        // in the order of the IN lists, without the duplicated keys
+        Assertions.assertEquals(Lists.newArrayList("3,b", "3,a", "1,b", "1,a"),
+                describe(PointQueryExecutor.expandKeys(conjuncts, keyColumns)));
+
+        // only the values in all the conjuncts of the same column are matched
+        conjuncts.add(new BinaryPredicate(BinaryPredicate.Operator.EQ, new SlotRef(null, "k1"), new IntLiteral(1)));
+        Assertions.assertEquals(Lists.newArrayList("1,b", "1,a"),
+                describe(PointQueryExecutor.expandKeys(conjuncts, keyColumns)));
+        conjuncts.add(new BinaryPredicate(BinaryPredicate.Operator.EQ, new SlotRef(null, "k1"), new IntLiteral(2)));
+        Assertions.assertTrue(PointQueryExecutor.expandKeys(conjuncts, keyColumns).isEmpty());
+    }
+
+    @Test
+    public void testBindPlaceholders() {
+        // `k1 in (?, ?) and k2 = ?`, the delete sign conjunct is added by the planner
+        List<Expr> conjuncts = Lists.newArrayList(
+                new BinaryPredicate(BinaryPredicate.Operator.EQ, new SlotRef(null, Column.DELETE_SIGN),
+                        new IntLiteral(0)),
+                new InPredicate(new SlotRef(null, "k1"),
+                        Lists.newArrayList(new IntLiteral(0), new IntLiteral(0)), false),
+                new BinaryPredicate(BinaryPredicate.Operator.EQ, new SlotRef(null, "k2"), new StringLiteral("")));
+        Assertions.assertTrue(PointQueryExecutor.canBindPlaceholders(conjuncts, 3));
+        PointQueryExecutor.updateConjuncts(conjuncts,
+                Lists.newArrayList(new IntLiteral(1), new IntLiteral(2), new StringLiteral("a")));
+        Assertions.assertEquals("0", conjuncts.get(0).getChild(1).getStringValue());
+        Assertions.assertEquals("1", conjuncts.get(1).getChild(1).getStringValue());
+        Assertions.assertEquals("2", conjuncts.get(1).getChild(2).getStringValue());
+        Assertions.assertEquals("a", conjuncts.get(2).getChild(1).getStringValue());
+
+        // `k1 in (1, ?)` mixes the constant and the placeholder, the values can't be bound by position
+        List<Expr> mixed = Lists.newArrayList(new InPredicate(new SlotRef(null, "k1"),
+                Lists.newArrayList(new IntLiteral(1), new IntLiteral(2)), false));
+        Assertions.assertFalse(PointQueryExecutor.canBindPlaceholders(mixed, 1));
+    }
+
+    @Test
+    public void testLookUpTablets(@Mocked ShortCircuitQueryContext context) throws Exception {
+        List<InternalService.PTabletKeyLookupRequest> requests = mockLookUp();
+        PointQueryExecutor executor = createExecutor(context);
+        Map<Long, List<Backend>> tabletToBackends = Deencapsulation.getField(executor, "tabletToBackends");
+        // the first replica of tablet 10 fails, the lookup is retried on the other one
+        tabletToBackends.put(10L, Lists.newArrayList(createBackend(FAILED_BACKEND_ID), createBackend(2)));
+        tabletToBackends.put(11L, Lists.newArrayList(createBackend(3)));
+        tabletToBackends.put(12L, Lists.newArrayList(createBackend(4)));
+
+        Map<Long, List<KeyTuple>> tabletToKeyTuples = Maps.newLinkedHashMap();
+        tabletToKeyTuples.put(12L, Lists.newArrayList(keyTuple("3")));
+        tabletToKeyTuples.put(10L, Lists.newArrayList(keyTuple("1"), keyTuple("4")));
+        tabletToKeyTuples.put(11L, Lists.newArrayList(keyTuple("2")));
+        RowBatch rowBatch = executor.lookUp(tabletToKeyTuples);
+
+        // the rows of all the tablets in the order of the tablets
+        Assertions.assertTrue(rowBatch.isEos());
+        Assertions.assertEquals(Lists.newArrayList("12:3", "10:1", "10:4", "11:2"),
+                rowBatch.getBatch().getRows().stream()
+                        .map(row -> StandardCharsets.UTF_8.decode(row).toString()).collect(Collectors.toList()));
+        Assertions.assertEquals(Lists.newArrayList("12:3", "10:1,4", "11:2", "10:1,4"),
+                requests.stream().map(PointQueryExecutorTest::describeRequest).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testNoQueryableReplica(@Mocked ShortCircuitQueryContext context) throws Exception {
+        List<InternalService.PTabletKeyLookupRequest> requests = mockLookUp();
+        PointQueryExecutor executor = createExecutor(context);
+        Map<Long, List<Backend>> tabletToBackends = Deencapsulation.getField(executor, "tabletToBackends");
+        tabletToBackends.put(10L, Lists.newArrayList(createBackend(2)));
+        tabletToBackends.put(11L, Lists.newArrayList());
+
+        Map<Long, List<KeyTuple>> tabletToKeyTuples = Maps.newLinkedHashMap();
+        tabletToKeyTuples.put(10L, Lists.newArrayList(keyTuple("1")));
+        tabletToKeyTuples.put(11L, Lists.newArrayList(keyTuple("2")));
+        // fails instead of returning the rows of tablet 10 only
+        UserException e = Assertions.assertThrows(UserException.class,
+                () -> executor.lookUp(tabletToKeyTuples));
+        Assertions.assertTrue(e.getMessage().contains("no queryable replica found in tablet: 11"), e.getMessage());
+        Assertions.assertTrue(requests.isEmpty());
+    }
+
+    // every key is returned as the row `<tablet id>:<key>`, the lookups on FAILED_BACKEND_ID fail
+    private static List<InternalService.PTabletKeyLookupRequest> mockLookUp() {
+        List<InternalService.PTabletKeyLookupRequest> requests = Lists.newArrayList();
+        new MockUp<BackendServiceProxy>() {
+            @Mock
+            public Future<InternalService.PTabletKeyLookupResponse> fetchTabletDataAsync(
+                    TNetworkAddress address, InternalService.PTabletKeyLookupRequest request) throws TException {
+                requests.add(request);
+                InternalService.PTabletKeyLookupResponse.Builder builder
+                        = InternalService.PTabletKeyLookupResponse.newBuilder();
+                if (address.getPort() == FAILED_BACKEND_ID) {
+                    builder.setStatus(Types.PStatus.newBuilder()
+                            .setStatusCode(TStatusCode.INTERNAL_ERROR.getValue()).addErrorMsgs("failed"));
+                    return CompletableFuture.completedFuture(builder.build());
+                }
+                TResultBatch batch = new TResultBatch();
+                batch.setIsCompressed(false);
+                batch.setPacketSeq(0);
+                batch.setRows(request.getKeyTuplesList().stream()
+                        .map(key -> ByteBuffer.wrap((request.getTabletId() + ":" + key.getKeyColumnRep(0))
+                                .getBytes(StandardCharsets.UTF_8)))
+                        .collect(Collectors.toList()));
+                builder.setStatus(Types.PStatus.newBuilder().setStatusCode(0));
+                byte[] rowBatch = new TSerializer(new TBinaryProtocol.Factory()).serialize(batch);
+                builder.setRowBatch(ByteString.copyFrom(rowBatch));
+                return CompletableFuture.completedFuture(builder.build());
+            }
+        };
+        return requests;
+    }
+
+    private static PointQueryExecutor createExecutor(ShortCircuitQueryContext context) {
+        Deencapsulation.setField(context, "serializedDescTable", ByteString.EMPTY);
+        Deencapsulation.setField(context, "serializedOutputExpr", ByteString.EMPTY);
+        Deencapsulation.setField(context, "serializedQueryOptions", ByteString.EMPTY);
+        new ConnectContext().setThreadLocalInfo();
+        return new PointQueryExecutor(context, Integer.MAX_VALUE);
+    }
+
+    // the brpc port is the backend id to tell the backends apart in the mocked rpc
+    private static Backend createBackend(long id) {
+        Backend backend = new Backend(id, "127.0.0.1", 9050);
+        backend.setBrpcPort((int) id);
+        return backend;
+    }
+
+    private static KeyTuple keyTuple(String key) {
+        return KeyTuple.newBuilder().addKeyColumnRep(key).build();
+    }
+
+    private static String describeRequest(InternalService.PTabletKeyLookupRequest request) {
+        return request.getTabletId() + ":" + request.getKeyTuplesList().stream()
+                .map(key -> key.getKeyColumnRep(0)).collect(Collectors.joining(","));
+    }
+
+    private static List<String> describe(List<List<Expr>> keys) {
+        return keys.stream()
+                .map(key -> key.stream().map(Expr::getStringValue).collect(Collectors.joining(",")))
+                .collect(Collectors.toList());
+    }
+}
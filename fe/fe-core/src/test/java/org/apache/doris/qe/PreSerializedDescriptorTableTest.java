@@ -0,0 +1,101 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+package org.apache.doris.qe;
+
+import org.apache.doris.catalog.Type;
+import org.apache.doris.thrift.PaloInternalServiceVersion;
+import org.apache.doris.thrift.TDescriptorTable;
+import org.apache.doris.thrift.TPipelineFragmentParams;
+import org.apache.doris.thrift.TPipelineFragmentParamsList;
+import org.apache.doris.thrift.TSlotDescriptor;
+import org.apache.doris.thrift.TTupleDescriptor;
+import org.apache.doris.thrift.TUniqueId;
+
+import com.google.common.collect.Maps;
+import org.apache.thrift.TDeserializer;
+import org.apache.thrift.TSerializer;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PreSerializedDescriptorTableTest {
+
+    @Test
+    public void testSameAsSerializedAgain() throws Exception {
+        TDescriptorTable descTable = createDescTable(100);
+        PreSerializedDescriptorTable serializedDescTable = new PreSerializedDescriptorTable(descTable);
+        Assertions.assertEquals(descTable, serializedDescTable);
+
+        for (TSerializer serializer : new TSerializer[] {
+                new TSerializer(new TCompactProtocol.Factory()), new TSerializer(new TBinaryProtocol.Factory())}) {
+            byte[] expected = serializer.serialize(createParamsList(descTable, 3));
+            byte[] actual = serializer.serialize(createParamsList(serializedDescTable, 3));
+            Assertions.assertArrayEquals(expected, actual);
+        }
+
+        TPipelineFragmentParamsList paramsList = new TPipelineFragmentParamsList();
+        new TDeserializer(new TCompactProtocol.Factory()).deserialize(paramsList,
+                new TSerializer(new TCompactProtocol.Factory()).serialize(
+                        createParamsList(serializedDescTable, 3)));
+        Assertions.assertEquals(descTable, paramsList.getParamsList().get(0).getDescTbl());
+        Assertions.assertFalse(paramsList.getParamsList().get(1).isSetDescTbl());
+    }
+
+    private static TPipelineFragmentParamsList createParamsList(TDescriptorTable descTable, int fragmentNum) {
+        TPipelineFragmentParamsList paramsList = new TPipelineFragmentParamsList();
+        for (int i = 0; i < fragmentNum; i++) {
+            TPipelineFragmentParams params = new TPipelineFragmentParams();
+            params.setProtocolVersion(PaloInternalServiceVersion.V1);
+            params.setQueryId(new TUniqueId(1, 2));
+            params.setPerExchNumSenders(Maps.newHashMap());
+            params.setFragmentId(i);
+            // only the first fragment of a backend carries the descriptor table
+            if (i == 0) {
+                params.setDescTbl(descTable);
+            }
+            paramsList.addToParamsList(params);
+        }
+        return paramsList;
+    }
+
+    private static TDescriptorTable createDescTable(int slotNum) {
+        TDescriptorTable descTable = new TDescriptorTable();
+        TTupleDescriptor tuple = new TTupleDescriptor();
+        tuple.setId(0);
+        tuple.setByteSize(0);
+        tuple.setNumNullBytes(0);
+        descTable.addToTupleDescriptors(tuple);
+        for (int i = 0; i < slotNum; i++) {
+            TSlotDescriptor slot = new TSlotDescriptor();
+            slot.setId(i);
+            slot.setParent(0);
+            slot.setSlotType(Type.BIGINT.toThrift());
+            slot.setColumnPos(i);
+            slot.setByteOffset(0);
+            slot.setNullIndicatorByte(0);
+            slot.setNullIndicatorBit(-1);
+            slot.setColName("c" + i);
+            slot.setSlotIdx(i);
+            slot.setIsMaterialized(true);
+            descTable.addToSlotDescriptors(slot);
+        }
+        return descTable;
+    }
+}
@@ -19,11 +19,18 @@ package org.apache.doris.qe;
 
 import com.google.gson.Gson;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 
 import java.util.List;
 
 public class QueryDetailQueueTest {
+    @Before
+    public void setUp() {
+        // the queue is static, start each test with an empty queue
+        QueryDetailQueue.clear();
+    }
+
     @Test
     public void testQueryDetailQueue() {
         long eventTime = 1592208814796L;
@@ -64,4 +71,36 @@ public class QueryDetailQueueTest {
                               + "\"sql\":\"select * from table1 limit 1\"}]";
         Assert.assertEquals(jsonString, queryDetailString);
     }
+
+    @Test
+    public void testQueryDetailQueueEviction() {
+        long eventTime = 1692208814796L;
+        int queryNum = 10100;
+        for (int i = 0; i < queryNum; i++) {
+            QueryDetail queryDetail = new QueryDetail(eventTime + i, "query-" + i, eventTime + i, -1, -1,
+                    QueryDetail.QueryMemState.RUNNING, "testDb", "select " + i);
+            QueryDetailQueue.addOrUpdateQueryDetail(queryDetail);
+        }
+        // the oldest query details are evicted
+        List<QueryDetail> queryDetails = QueryDetailQueue.getQueryDetails(0);
+        Assert.assertEquals(10000, queryDetails.size());
+        Assert.assertEquals("query-100", queryDetails.get(0).getQueryId());
+        Assert.assertEquals("query-" + (queryNum - 1), queryDetails.get(queryDetails.size() - 1).getQueryId());
+
+        // the finished query is moved to the event time of the update
+        QueryDetail finished = new QueryDetail(eventTime + queryNum, "query-200", eventTime + 200, eventTime + queryNum,
+                queryNum - 200, QueryDetail.QueryMemState.FINISHED, "testDb", "select 200");
+        QueryDetailQueue.addOrUpdateQueryDetail(finished);
+        queryDetails = QueryDetailQueue.getQueryDetails(eventTime + queryNum - 1);
+        Assert.assertEquals(1, queryDetails.size());
+        Assert.assertEquals("query-200", queryDetails.get(0).getQueryId());
+        Assert.assertEquals(QueryDetail.QueryMemState.FINISHED, queryDetails.get(0).getState());
+        Assert.assertEquals("select 200", queryDetails.get(0).getSql());
+        Assert.assertEquals(10000, QueryDetailQueue.getQueryDetails(0).size());
+
+        // the evicted running query is added again as a new query detail
+        QueryDetailQueue.addOrUpdateQueryDetail(new QueryDetail(eventTime + queryNum + 1, "query-0", eventTime,
+                eventTime + queryNum + 1, queryNum + 1, QueryDetail.QueryMemState.FINISHED, "testDb", "select 0"));
+        Assert.assertEquals(10000, QueryDetailQueue.getQueryDetails(0).size());
+    }
 }
@@ -0,0 +1,155 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.qe;
+
+import org.apache.doris.common.Status;
+import org.apache.doris.proto.InternalService;
+import org.apache.doris.proto.Types;
+import org.apache.doris.rpc.BackendServiceProxy;
+import org.apache.doris.thrift.TNetworkAddress;
+import org.apache.doris.thrift.TResultBatch;
+import org.apache.doris.thrift.TStatusCode;
+import org.apache.doris.thrift.TUniqueId;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.protobuf.ByteString;
+import mockit.Mock;
+import mockit.MockUp;
+import org.apache.thrift.TSerializer;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class ResultReceiverTest {
+    private final List<SettableFuture<InternalService.PFetchDataResult>> futures = new ArrayList<>();
+
+    private void mockFetchData(List<InternalService.PFetchDataResult> responses) {
+        new MockUp<BackendServiceProxy>() {
+            @Mock
+            public ListenableFuture<InternalService.PFetchDataResult> fetchDataAsync(
+                    TNetworkAddress address, InternalService.PFetchDataRequest request) {
+                SettableFuture<InternalService.PFetchDataResult> future = SettableFuture.create();
+                // the i-th rpc gets the i-th response, or never returns if there is no response for it
+                if (futures.size() < responses.size()) {
+                    future.set(responses.get(futures.size()));
+                }
+                futures.add(future);
+                return future;
+            }
+        };
+    }
+
+    private static InternalService.PFetchDataResult response(long packetSeq, boolean eos, String row)
+            throws Exception {
+        InternalService.PFetchDataResult.Builder builder = InternalService.PFetchDataResult.newBuilder()
+                .setStatus(Types.PStatus.newBuilder().setStatusCode(0))
+                .setPacketSeq(packetSeq)
+                .setEos(eos);
+        if (row != null) {
+            TResultBatch batch = new TResultBatch();
+            batch.setRows(Arrays.asList(ByteBuffer.wrap(row.getBytes(StandardCharsets.UTF_8))));
+            batch.setIsCompressed(false);
+            batch.setPacketSeq(packetSeq);
+            builder.setRowBatch(ByteString.copyFrom(new TSerializer(new TBinaryProtocol.Factory()).serialize(batch)));
+        }
+        return builder.build();
+    }
+
+    private static ResultReceiver newReceiver(int lookaheadNum) {
+        ResultReceiver receiver = new ResultReceiver(new TUniqueId(1, 2), new TUniqueId(1, 3), 10001L,
+                new TNetworkAddress("127.0.0.1", 8060), System.currentTimeMillis() + 60000,
+                Integer.MAX_VALUE, false);
+        receiver.setLookahead(lookaheadNum, 64L * 1024 * 1024);
+        return receiver;
+    }
+
+    private static String getRow(RowBatch rowBatch) {
+        return StandardCharsets.UTF_8.decode(rowBatch.getBatch().getRows().get(0)).toString();
+    }
+
+    @Test
+    public void testNoLookahead() throws Exception {
+        mockFetchData(Arrays.asList(response(0, false, "a"), response(1, false, "b"), response(2, true, null)));
+        ResultReceiver receiver = newReceiver(0);
+        Status status = new Status();
+        Assertions.assertEquals("a", getRow(receiver.getNext(status)));
+        // the next batch is not fetched until getNext is called
+        Assertions.assertEquals(1, futures.size());
+        Assertions.assertEquals("b", getRow(receiver.getNext(status)));
+        Assertions.assertTrue(receiver.getNext(status).isEos());
+        Assertions.assertNull(receiver.getNext(status));
+        Assertions.assertTrue(status.ok());
+        Assertions.assertEquals(3, futures.size());
+    }
+
+    @Test
+    public void testLookaheadReorderPackets() throws Exception {
+        // the backend assigns the packet seq by the arriving order, so the second and third rpc are swapped
+        mockFetchData(Arrays.asList(response(0, false, "a"), response(2, false, "c"), response(1, false, "b"),
+                response(3, true, null)));
+        ResultReceiver receiver = newReceiver(2);
+        Status status = new Status();
+        Assertions.assertEquals("a", getRow(receiver.getNext(status)));
+        // two rpcs are in flight while the first batch is being sent
+        Assertions.assertEquals(3, futures.size());
+        Assertions.assertEquals("b", getRow(receiver.getNext(status)));
+        Assertions.assertEquals("c", getRow(receiver.getNext(status)));
+        Assertions.assertTrue(receiver.getNext(status).isEos());
+        Assertions.assertTrue(status.ok());
+        Assertions.assertTrue(receiver.takeFetchWaitTimeNs() >= 0);
+        Assertions.assertEquals(0, receiver.takeFetchWaitTimeNs());
+        // the rpcs after eos are cancelled
+        for (int i = 4; i < futures.size(); i++) {
+            Assertions.assertTrue(futures.get(i).isCancelled());
+        }
+    }
+
+    @Test
+    public void testCancelInflightFetches() throws Exception {
+        mockFetchData(Arrays.asList(response(0, false, "a")));
+        ResultReceiver receiver = newReceiver(3);
+        Status status = new Status();
+        Assertions.assertEquals("a", getRow(receiver.getNext(status)));
+        Assertions.assertEquals(4, futures.size());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Status nextStatus = new Status();
+            Future<RowBatch> next = executor.submit(() -> receiver.getNext(nextStatus));
+            Thread.sleep(100);
+            receiver.cancel(new Status(TStatusCode.CANCELLED, "cancelled by test"));
+            Assertions.assertNull(next.get(10, TimeUnit.SECONDS));
+            Assertions.assertEquals(TStatusCode.CANCELLED, nextStatus.getErrorCode());
+        } finally {
+            executor.shutdown();
+        }
+        for (int i = 1; i < futures.size(); i++) {
+            Assertions.assertTrue(futures.get(i).isCancelled());
+        }
+    }
+}
@@ -0,0 +1,181 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.qe.cache;
+
+import org.apache.doris.analysis.PartitionValue;
+import org.apache.doris.catalog.Column;
+import org.apache.doris.catalog.PartitionKey;
+import org.apache.doris.catalog.PrimitiveType;
+import org.apache.doris.common.NereidsPartitionCacheManager;
+import org.apache.doris.common.NereidsPartitionCacheManager.PartitionResult;
+import org.apache.doris.common.Status;
+import org.apache.doris.qe.RowBatch;
+import org.apache.doris.thrift.TResultBatch;
+import org.apache.doris.thrift.TUniqueId;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Range;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class NereidsPartitionCacheTest {
+    private static final String CACHE_KEY = "root:test_query";
+
+    private final Column partitionColumn = new Column("k1", PrimitiveType.INT);
+    private Map<Long, Range<PartitionKey>> partitionRanges;
+    private final Map<Long, Long> partitionVersions = ImmutableMap.of(1L, 2L, 2L, 3L, 3L, 4L);
+    private final Map<Long, Long> partitionVersionTimes = ImmutableMap.of(1L, 0L, 2L, 0L, 3L, 0L);
+    private NereidsPartitionCacheManager cacheManager;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        // p1: [MIN, 10), p2: [10, 20), p3: [20, 30)
+        partitionRanges = ImmutableMap.of(
+                1L, Range.closedOpen(PartitionKey.createInfinityPartitionKey(
+                        ImmutableList.of(partitionColumn), false), key("10")),
+                2L, Range.closedOpen(key("10"), key("20")),
+                3L, Range.closedOpen(key("20"), key("30")));
+        cacheManager = new NereidsPartitionCacheManager(1024 * 1024, 0);
+    }
+
+    @Test
+    public void testReadField() {
+        byte[] row = row("15", null, "abc");
+        Assertions.assertEquals("15", NereidsPartitionCache.readField(row, 0));
+        Assertions.assertNull(NereidsPartitionCache.readField(row, 1));
+        Assertions.assertEquals("abc", NereidsPartitionCache.readField(row, 2));
+    }
+
+    @Test
+    public void testPartitionOfRow() {
+        NereidsPartitionCache cache = newCache(1, true, true);
+        Assertions.assertEquals(1L, cache.getPartitionOfRow(row("a", "5")));
+        Assertions.assertEquals(2L, cache.getPartitionOfRow(row("a", "10")));
+        Assertions.assertEquals(3L, cache.getPartitionOfRow(row("a", "29")));
+        // the null values are in the first partition
+        Assertions.assertEquals(1L, cache.getPartitionOfRow(row("a", null)));
+        Assertions.assertNull(cache.getPartitionOfRow(row("a", "30")));
+    }
+
+    @Test
+    public void testMergeSortedRows() {
+        cacheManager.put(CACHE_KEY, 1L, new PartitionResult(2L, ImmutableList.of(row("1", "a"), row("2", "b"))));
+        cacheManager.put(CACHE_KEY, 3L, new PartitionResult(4L, ImmutableList.of(row("25", "c"))));
+        // the version of partition 2 is changed
+        cacheManager.put(CACHE_KEY, 2L, new PartitionResult(2L, ImmutableList.of(row("11", "x"))));
+
+        NereidsPartitionCache cache = newCache(0, true, true);
+        Assertions.assertNotNull(cache.getCacheData(new Status()));
+        Assertions.assertEquals(Cache.HitRange.Middle, cache.getHitRange());
+        Assertions.assertEquals(ImmutableList.of(2L), Lists.newArrayList(cache.getMissedPartitionIds()));
+
+        List<ByteBuffer> rows = cache.mergeCachedRows(ImmutableList.of(ByteBuffer.wrap(row("12", "d"))));
+        rows.addAll(cache.mergeCachedRows(ImmutableList.of(ByteBuffer.wrap(row("13", "e")))));
+        rows.addAll(cache.getRemainingCachedRows());
+        Assertions.assertEquals(ImmutableList.of("a", "b", "d", "e", "c"), secondFields(rows));
+
+        NereidsPartitionCache descCache = newCache(0, true, false);
+        descCache.getCacheData(new Status());
+        rows = descCache.mergeCachedRows(ImmutableList.of(ByteBuffer.wrap(row("12", "d"))));
+        rows.addAll(descCache.getRemainingCachedRows());
+        Assertions.assertEquals(ImmutableList.of("c", "d", "a", "b"), secondFields(rows));
+    }
+
+    @Test
+    public void testMergeUnsortedRows() {
+        cacheManager.put(CACHE_KEY, 2L, new PartitionResult(3L, ImmutableList.of(row("11", "a"))));
+        NereidsPartitionCache cache = newCache(0, false, true);
+        cache.getCacheData(new Status());
+        List<ByteBuffer> rows = cache.mergeCachedRows(ImmutableList.of(ByteBuffer.wrap(row("25", "b"))));
+        rows.addAll(cache.mergeCachedRows(ImmutableList.of(ByteBuffer.wrap(row("1", "c")))));
+        rows.addAll(cache.getRemainingCachedRows());
+        Assertions.assertEquals(ImmutableList.of("a", "b", "c"), secondFields(rows));
+    }
+
+    @Test
+    public void testUpdateCache() {
+        NereidsPartitionCache cache = newCache(0, true, true);
+        Assertions.assertNull(cache.getCacheData(new Status()));
+        Assertions.assertEquals(Cache.HitRange.None, cache.getHitRange());
+        cache.copyRowBatch(rowBatch(row("1", "a"), row("21", "b"), row("22", "c")));
+        cache.copyRowBatch(rowBatch());
+        cache.updateCache();
+
+        Assertions.assertEquals(2, cacheManager.get(CACHE_KEY, 3L, 4L).getRows().size());
+        // the partition without result rows is cached too
+        Assertions.assertTrue(cacheManager.get(CACHE_KEY, 2L, 3L).getRows().isEmpty());
+        Assertions.assertNull(cacheManager.get(CACHE_KEY, 1L, 3L));
+
+        NereidsPartitionCache hitCache = newCache(0, true, true);
+        Assertions.assertEquals(3, hitCache.getCacheData(new Status()).getValuesCount());
+        Assertions.assertEquals(Cache.HitRange.Full, hitCache.getHitRange());
+    }
+
+    private NereidsPartitionCache newCache(int keyIndex, boolean sorted, boolean asc) {
+        return new NereidsPartitionCache(new TUniqueId(1, 2), CACHE_KEY, partitionColumn,
+                new NereidsPartitionCache.ResultPartitionKey(keyIndex, sorted, asc), partitionRanges,
+                partitionVersions, partitionVersionTimes, cacheManager);
+    }
+
+    private PartitionKey key(String value) throws Exception {
+        return PartitionKey.createPartitionKey(ImmutableList.of(new PartitionValue(value)),
+                ImmutableList.of(partitionColumn));
+    }
+
+    private static RowBatch rowBatch(byte[]... rows) {
+        TResultBatch resultBatch = new TResultBatch();
+        resultBatch.setRows(Lists.newArrayList());
+        for (byte[] row : rows) {
+            resultBatch.addToRows(ByteBuffer.wrap(row));
+        }
+        RowBatch batch = new RowBatch();
+        batch.setBatch(resultBatch);
+        return batch;
+    }
+
+    // build a row in the mysql text protocol
+    private static byte[] row(String... fields) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (String field : fields) {
+            if (field == null) {
+                out.write(0xFB);
+            } else {
+                byte[] bytes = field.getBytes(StandardCharsets.UTF_8);
+                out.write(bytes.length);
+                out.write(bytes, 0, bytes.length);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static List<String> secondFields(List<ByteBuffer> rows) {
+        return rows.stream()
+                .map(row -> NereidsPartitionCache.readField(row.array(), 1))
+                .collect(Collectors.toList());
+    }
+}
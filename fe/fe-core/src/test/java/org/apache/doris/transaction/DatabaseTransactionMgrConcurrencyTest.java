@@ -0,0 +1,183 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+package org.apache.doris.transaction;
+
+import org.apache.doris.catalog.CatalogTestUtil;
+import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.FakeEnv;
+import org.apache.doris.catalog.Table;
+import org.apache.doris.common.Config;
+import org.apache.doris.common.FeMetaVersion;
+import org.apache.doris.meta.MetaContext;
+import org.apache.doris.persist.EditLog;
+import org.apache.doris.transaction.TransactionState.LoadJobSourceType;
+import org.apache.doris.transaction.TransactionState.TxnCoordinator;
+import org.apache.doris.transaction.TransactionState.TxnSourceType;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Commit, publish and image writing run together. The state transforms of the txns only hold the read lock of
+ * the txn manager and the stripe locks, so the readers must not see a half done transform.
+ */
+public class DatabaseTransactionMgrConcurrencyTest {
+    private static final int TXN_NUM = 200;
+
+    // txn id -> the status written into the edit log, put after the write is done
+    private final Map<Long, TransactionStatus> loggedStatus = new ConcurrentHashMap<>();
+    private final TxnCoordinator coordinator = new TxnCoordinator(TxnSourceType.FE, 0, "localfe",
+            System.currentTimeMillis());
+    private Env env;
+    private GlobalTransactionMgr transactionMgr;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        new MockUp<EditLog>() {
+            @Mock
+            public void $init(String nodeName) { // CHECKSTYLE IGNORE THIS LINE
+            }
+
+            @Mock
+            public void logInsertTransactionState(TransactionState transactionState) {
+                TransactionStatus status = transactionState.getTransactionStatus();
+                try {
+                    // widen the window between the status change and the end of the write
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                loggedStatus.put(transactionState.getTransactionId(), status);
+            }
+
+            @Mock
+            public void logSaveNextId(long nextId) {
+            }
+        };
+        new FakeEnv();
+        FakeEnv.setMetaVersion(FeMetaVersion.VERSION_CURRENT);
+        env = CatalogTestUtil.createTestCatalog();
+        setMetaContext();
+        transactionMgr = (GlobalTransactionMgr) env.getGlobalTransactionMgr();
+        transactionMgr.setEditLog(env.getEditLog());
+    }
+
+    private static void setMetaContext() {
+        MetaContext metaContext = new MetaContext();
+        metaContext.setMetaVersion(FeMetaVersion.VERSION_CURRENT);
+        metaContext.setThreadLocalInfo();
+    }
+
+    @Test
+    public void testCommitPublishAndWriteImage() throws Exception {
+        DatabaseTransactionMgr dbTransactionMgr = transactionMgr.getDatabaseTransactionMgr(CatalogTestUtil.testDbId1);
+        Table table = env.getInternalCatalog().getDbOrMetaException(CatalogTestUtil.testDbId1)
+                .getTableOrMetaException(CatalogTestUtil.testTableId1);
+        List<TabletCommitInfo> tabletCommitInfos = GlobalTransactionMgrTest.generateTabletCommitInfos(
+                CatalogTestUtil.testTabletId1, GlobalTransactionMgrTest.allBackends);
+        AtomicBoolean done = new AtomicBoolean(false);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            // every 4th txn is aborted, the others are committed
+            Future<Integer> committer = executor.submit(() -> {
+                setMetaContext();
+                int committedNum = 0;
+                try {
+                    for (int i = 0; i < TXN_NUM; i++) {
+                        long txnId = transactionMgr.beginTransaction(CatalogTestUtil.testDbId1,
+                                Lists.newArrayList(CatalogTestUtil.testTableId1), "label_" + i, coordinator,
+                                LoadJobSourceType.FRONTEND, Config.stream_load_default_timeout_second);
+                        if (i % 4 == 3) {
+                            transactionMgr.abortTransaction(CatalogTestUtil.testDbId1, txnId, "test abort");
+                            continue;
+                        }
+                        table.writeLock();
+                        try {
+                            transactionMgr.commitTransaction(CatalogTestUtil.testDbId1, Lists.newArrayList(table),
+                                    txnId, tabletCommitInfos);
+                        } finally {
+                            table.writeUnlock();
+                        }
+                        committedNum++;
+                    }
+                } finally {
+                    done.set(true);
+                }
+                return committedNum;
+            });
+            // the publish only sends the committed txns whose commit infos are set and whose state is persisted
+            Future<?> publisher = executor.submit(() -> {
+                setMetaContext();
+                while (!done.get()) {
+                    for (TransactionState transactionState : dbTransactionMgr.getCommittedTxnList()) {
+                        Assertions.assertEquals(TransactionStatus.COMMITTED,
+                                loggedStatus.get(transactionState.getTransactionId()));
+                        Assertions.assertFalse(transactionState.getIdToTableCommitInfos().isEmpty());
+                        Assertions.assertFalse(transactionState.getInvolvedBackends().isEmpty());
+                    }
+                }
+                return null;
+            });
+            // the image has as many txns as its header says, and each txn once
+            Future<?> imageWriter = executor.submit(() -> {
+                setMetaContext();
+                while (!done.get()) {
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    transactionMgr.write(new DataOutputStream(bytes));
+                    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+                    int num = in.readInt();
+                    Set<Long> txnIds = Sets.newHashSet();
+                    for (int i = 0; i < num; i++) {
+                        txnIds.add(TransactionState.read(in).getTransactionId());
+                    }
+                    Assertions.assertEquals(num, txnIds.size());
+                }
+                return null;
+            });
+
+            int committedNum = committer.get(60, TimeUnit.SECONDS);
+            publisher.get(60, TimeUnit.SECONDS);
+            imageWriter.get(60, TimeUnit.SECONDS);
+            // no txn is left in its state transform
+            Assertions.assertEquals(committedNum, dbTransactionMgr.getCommittedTxnList().size());
+            Assertions.assertEquals(TXN_NUM, dbTransactionMgr.getTransactionNum());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
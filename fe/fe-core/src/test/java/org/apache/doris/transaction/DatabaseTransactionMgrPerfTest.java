@@ -0,0 +1,130 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.transaction;
+
+import org.apache.doris.catalog.CatalogTestUtil;
+import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.FakeEditLog;
+import org.apache.doris.catalog.FakeEnv;
+import org.apache.doris.catalog.Table;
+import org.apache.doris.common.Config;
+import org.apache.doris.common.FeMetaVersion;
+import org.apache.doris.meta.MetaContext;
+import org.apache.doris.transaction.TransactionState.LoadJobSourceType;
+import org.apache.doris.transaction.TransactionState.TxnCoordinator;
+import org.apache.doris.transaction.TransactionState.TxnSourceType;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the begin/commit/abort throughput of the transaction manager of a single db with 1 ~ 64 threads.
+ * Every thread begins transactions with its own labels, commits half of them and aborts the others.
+ * It is disabled by default, run it manually.
+ */
+public class DatabaseTransactionMgrPerfTest {
+    private static final int[] THREAD_NUMS = {1, 2, 4, 8, 16, 32, 64};
+    private static final int TXN_NUM_PER_THREAD = 2000;
+
+    private final TxnCoordinator coordinator = new TxnCoordinator(TxnSourceType.BE, 0, "be1",
+            System.currentTimeMillis());
+
+    @Disabled
+    @Test
+    public void testThroughput() throws Exception {
+        int oldMaxRunningTxnNum = Config.max_running_txn_num_per_db;
+        // the committed txns are still running, don't let the quota reject the begin
+        Config.max_running_txn_num_per_db = Integer.MAX_VALUE;
+        try {
+            new FakeEditLog();
+            new FakeEnv();
+            MetaContext metaContext = new MetaContext();
+            metaContext.setMetaVersion(FeMetaVersion.VERSION_CURRENT);
+            metaContext.setThreadLocalInfo();
+            for (int threadNum : THREAD_NUMS) {
+                measure(threadNum);
+            }
+        } finally {
+            Config.max_running_txn_num_per_db = oldMaxRunningTxnNum;
+        }
+    }
+
+    private void measure(int threadNum) throws Exception {
+        Env env = CatalogTestUtil.createTestCatalog();
+        FakeEnv.setEnv(env);
+        GlobalTransactionMgr transactionMgr = (GlobalTransactionMgr) env.getGlobalTransactionMgr();
+        transactionMgr.setEditLog(env.getEditLog());
+        Table table = env.getInternalCatalog().getDbOrMetaException(CatalogTestUtil.testDbId1)
+                .getTableOrMetaException(CatalogTestUtil.testTableId1);
+        List<TabletCommitInfo> tabletCommitInfos = GlobalTransactionMgrTest.generateTabletCommitInfos(
+                CatalogTestUtil.testTabletId1, GlobalTransactionMgrTest.allBackends);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadNum);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threadNum; i++) {
+            int threadId = i;
+            futures.add(executor.submit(() -> {
+                startLatch.await();
+                for (int j = 0; j < TXN_NUM_PER_THREAD; j++) {
+                    long transactionId = transactionMgr.beginTransaction(CatalogTestUtil.testDbId1,
+                            Lists.newArrayList(CatalogTestUtil.testTableId1), "perf_" + threadId + "_" + j,
+                            coordinator, LoadJobSourceType.BACKEND_STREAMING,
+                            Config.stream_load_default_timeout_second);
+                    if (j % 2 == 0) {
+                        // the caller of commit holds the write lock of the tables
+                        table.writeLock();
+                        try {
+                            transactionMgr.commitTransaction(CatalogTestUtil.testDbId1, Lists.newArrayList(table),
+                                    transactionId, tabletCommitInfos);
+                        } finally {
+                            table.writeUnlock();
+                        }
+                    } else {
+                        transactionMgr.abortTransaction(CatalogTestUtil.testDbId1, transactionId, "perf");
+                    }
+                }
+                return null;
+            }));
+        }
+        long start = System.nanoTime();
+        startLatch.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.MINUTES);
+        }
+        long costMs = Math.max(1, (System.nanoTime() - start) / 1000000);
+        executor.shutdown();
+
+        DatabaseTransactionMgr dbTransactionMgr = transactionMgr.getDatabaseTransactionMgr(
+                CatalogTestUtil.testDbId1);
+        int txnNum = threadNum * TXN_NUM_PER_THREAD;
+        Assertions.assertEquals(txnNum / 2, dbTransactionMgr.getRunningTxnNums());
+        Assertions.assertEquals(txnNum - txnNum / 2, dbTransactionMgr.getFinishedTxnNums());
+        System.out.printf("threads: %d, txns: %d, cost: %d ms, throughput: %d txn/s%n",
+                threadNum, txnNum, costMs, txnNum * 1000L / costMs);
+    }
+}
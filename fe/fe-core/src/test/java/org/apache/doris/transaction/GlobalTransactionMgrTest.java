@@ -70,6 +70,11 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -475,6 +480,95 @@ public class GlobalTransactionMgrTest {
         Assert.assertTrue(CatalogTestUtil.compareCatalog(masterEnv, slaveEnv));
     }
 
+    /**
+     * txn1 on table1, txn2 on table2 and txn3 on table1 are finished in a batch.
+     * txn3 needs the visible version of txn1, so txn1 and txn2 are written in a log batch before txn3 is checked.
+     */
+    @Test
+    public void testFinishTransactionsInBatch() throws Exception {
+        FakeEnv.setMetaVersion(FeMetaVersion.VERSION_CURRENT);
+        FakeEnv.setEnv(masterEnv);
+        OlapTable table1 = (OlapTable) (masterEnv.getInternalCatalog().getDbOrMetaException(CatalogTestUtil.testDbId1)
+                .getTableOrMetaException(CatalogTestUtil.testTableId1));
+        OlapTable table2 = (OlapTable) (masterEnv.getInternalCatalog().getDbOrMetaException(CatalogTestUtil.testDbId1)
+                .getTableOrMetaException(CatalogTestUtil.testTableId2));
+        List<OlapTable> tables = Lists.newArrayList(table1, table2, table1);
+        List<Long> tabletIds = Lists.newArrayList(CatalogTestUtil.testTabletId1, CatalogTestUtil.testTabletId2,
+                CatalogTestUtil.testTabletId1);
+        List<String> labels = Lists.newArrayList(CatalogTestUtil.testTxnLabel1, CatalogTestUtil.testTxnLabel2,
+                CatalogTestUtil.testTxnLabel3);
+        List<Long> transactionIds = Lists.newArrayList();
+        List<TransactionState> committedStates = Lists.newArrayList();
+        for (int i = 0; i < tables.size(); i++) {
+            long transactionId = masterTransMgr.beginTransaction(CatalogTestUtil.testDbId1,
+                    Lists.newArrayList(tables.get(i).getId()), labels.get(i), transactionSource,
+                    LoadJobSourceType.FRONTEND, Config.stream_load_default_timeout_second);
+            masterTransMgr.commitTransaction(CatalogTestUtil.testDbId1, Lists.newArrayList(tables.get(i)),
+                    transactionId, generateTabletCommitInfos(tabletIds.get(i), allBackends));
+            transactionIds.add(transactionId);
+            // the journal of the commit
+            committedStates.add(copyByJournal(fakeEditLog.getTransaction(transactionId)));
+        }
+        Map<String, Map<Long, Long>> keyToSuccessTablets = new HashMap<>();
+        DatabaseTransactionMgrTest.setSuccessTablet(keyToSuccessTablets, allBackends, transactionIds.get(0),
+                CatalogTestUtil.testTabletId1, CatalogTestUtil.testStartVersion + 2);
+        DatabaseTransactionMgrTest.setSuccessTablet(keyToSuccessTablets, allBackends, transactionIds.get(1),
+                CatalogTestUtil.testTabletId2, CatalogTestUtil.testStartVersion + 1);
+        DatabaseTransactionMgrTest.setSuccessTablet(keyToSuccessTablets, allBackends, transactionIds.get(2),
+                CatalogTestUtil.testTabletId1, CatalogTestUtil.testStartVersion + 2);
+        for (long transactionId : transactionIds) {
+            DatabaseTransactionMgrTest.setTransactionFinishPublish(fakeEditLog.getTransaction(transactionId),
+                    allBackends, keyToSuccessTablets);
+        }
+
+        Map<Long, Long> partitionVisibleVersions = Maps.newHashMap();
+        Map<Long, Set<Long>> backendPartitions = Maps.newHashMap();
+        masterTransMgr.finishTransactions(CatalogTestUtil.testDbId1, transactionIds, partitionVisibleVersions,
+                backendPartitions);
+        List<TransactionState> visibleStates = Lists.newArrayList();
+        for (long transactionId : transactionIds) {
+            TransactionState transactionState = fakeEditLog.getTransaction(transactionId);
+            Assert.assertEquals(TransactionStatus.VISIBLE, transactionState.getTransactionStatus());
+            // the journal of the batch finish
+            visibleStates.add(copyByJournal(transactionState));
+        }
+        Assert.assertEquals(Lists.newArrayList(2, 1), fakeEditLog.getTransactionStateBatchSizes());
+        DatabaseTransactionMgr masterDbTransMgr = masterTransMgr.getDatabaseTransactionMgr(CatalogTestUtil.testDbId1);
+        Assert.assertEquals(0, masterDbTransMgr.getRunningTxnNums());
+        Assert.assertEquals(3, masterDbTransMgr.getFinishedTxnNums());
+        checkPartitionVersion(table1.getPartition(CatalogTestUtil.testPartition1),
+                CatalogTestUtil.testStartVersion + 2, CatalogTestUtil.testStartVersion + 3);
+        checkPartitionVersion(table2.getPartition(CatalogTestUtil.testPartition2),
+                CatalogTestUtil.testStartVersion + 1, CatalogTestUtil.testStartVersion + 2);
+        checkTableVersion(table1, 3, 4);
+        checkTableVersion(table2, 2, 3);
+        Assert.assertEquals(ImmutableMap.of(CatalogTestUtil.testPartitionId1, CatalogTestUtil.testStartVersion + 2,
+                CatalogTestUtil.testPartitionId2, CatalogTestUtil.testStartVersion + 1), partitionVisibleVersions);
+
+        // slave replays the journals in order and gets the same catalog
+        FakeEnv.setEnv(slaveEnv);
+        for (TransactionState transactionState : committedStates) {
+            slaveTransMgr.replayUpsertTransactionState(transactionState);
+        }
+        for (TransactionState transactionState : visibleStates) {
+            slaveTransMgr.replayUpsertTransactionState(transactionState);
+        }
+        Assert.assertTrue(CatalogTestUtil.compareCatalog(masterEnv, slaveEnv));
+        DatabaseTransactionMgr slaveDbTransMgr = slaveTransMgr.getDatabaseTransactionMgr(CatalogTestUtil.testDbId1);
+        for (long transactionId : transactionIds) {
+            Assert.assertEquals(TransactionStatus.VISIBLE,
+                    slaveDbTransMgr.getTransactionState(transactionId).getTransactionStatus());
+        }
+        Assert.assertEquals(3, slaveDbTransMgr.getFinishedTxnNums());
+    }
+
+    // serialize and deserialize the state as the edit log does
+    private static TransactionState copyByJournal(TransactionState transactionState) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transactionState.write(new DataOutputStream(out));
+        return TransactionState.read(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+    }
+
     @Test
     public void testFinishTransactionWithOneFailed() throws UserException {
         Table testTable1 = masterEnv.getInternalCatalog().getDbOrMetaException(CatalogTestUtil.testDbId1)
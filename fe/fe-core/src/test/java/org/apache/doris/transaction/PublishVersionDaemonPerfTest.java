@@ -0,0 +1,182 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.transaction;
+
+import org.apache.doris.catalog.CatalogTestUtil;
+import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.FakeEnv;
+import org.apache.doris.catalog.Table;
+import org.apache.doris.common.Config;
+import org.apache.doris.common.FeMetaVersion;
+import org.apache.doris.meta.MetaContext;
+import org.apache.doris.persist.EditLog;
+import org.apache.doris.system.Backend;
+import org.apache.doris.task.AgentBatchTask;
+import org.apache.doris.task.AgentTask;
+import org.apache.doris.task.AgentTaskExecutor;
+import org.apache.doris.task.PublishVersionTask;
+import org.apache.doris.thrift.TPartitionVersionInfo;
+import org.apache.doris.transaction.TransactionState.LoadJobSourceType;
+import org.apache.doris.transaction.TransactionState.TxnCoordinator;
+import org.apache.doris.transaction.TransactionState.TxnSourceType;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measure the publish throughput of PublishVersionDaemon with and without batch publish.
+ * The agent task client is mocked to finish the publish tasks at once, and every edit log write sleeps
+ * JOURNAL_SYNC_MS to simulate a durable journal commit. It is disabled by default, run it manually.
+ */
+public class PublishVersionDaemonPerfTest {
+    private static final int[] TXN_NUMS = {100, 500, 2000};
+    private static final long JOURNAL_SYNC_MS = 1;
+
+    private static final AtomicInteger RPC_NUM = new AtomicInteger();
+    private static final AtomicInteger JOURNAL_WRITE_NUM = new AtomicInteger();
+
+    private final TxnCoordinator coordinator = new TxnCoordinator(TxnSourceType.BE, 0, "be1",
+            System.currentTimeMillis());
+
+    @Disabled
+    @Test
+    public void testThroughput() throws Exception {
+        int oldMaxRunningTxnNum = Config.max_running_txn_num_per_db;
+        boolean oldEnableBatchPublish = Config.enable_batch_publish_version;
+        Config.max_running_txn_num_per_db = Integer.MAX_VALUE;
+        try {
+            new JournalSyncEditLog();
+            new MockedAgentTaskExecutor();
+            new FakeEnv();
+            MetaContext metaContext = new MetaContext();
+            metaContext.setMetaVersion(FeMetaVersion.VERSION_CURRENT);
+            metaContext.setThreadLocalInfo();
+            for (int txnNum : TXN_NUMS) {
+                for (boolean enableBatchPublish : new boolean[] {false, true}) {
+                    Config.enable_batch_publish_version = enableBatchPublish;
+                    measure(txnNum);
+                }
+            }
+        } finally {
+            Config.max_running_txn_num_per_db = oldMaxRunningTxnNum;
+            Config.enable_batch_publish_version = oldEnableBatchPublish;
+        }
+    }
+
+    private void measure(int txnNum) throws Exception {
+        Env env = CatalogTestUtil.createTestCatalog();
+        FakeEnv.setEnv(env);
+        GlobalTransactionMgr transactionMgr = (GlobalTransactionMgr) env.getGlobalTransactionMgr();
+        transactionMgr.setEditLog(env.getEditLog());
+        Table table = env.getInternalCatalog().getDbOrMetaException(CatalogTestUtil.testDbId1)
+                .getTableOrMetaException(CatalogTestUtil.testTableId1);
+        List<TabletCommitInfo> tabletCommitInfos = GlobalTransactionMgrTest.generateTabletCommitInfos(
+                CatalogTestUtil.testTabletId1, GlobalTransactionMgrTest.allBackends);
+        for (int i = 0; i < txnNum; i++) {
+            long transactionId = transactionMgr.beginTransaction(CatalogTestUtil.testDbId1,
+                    Lists.newArrayList(CatalogTestUtil.testTableId1), "publish_perf_" + i, coordinator,
+                    LoadJobSourceType.BACKEND_STREAMING, Config.stream_load_default_timeout_second);
+            transactionMgr.commitTransaction(CatalogTestUtil.testDbId1, Lists.newArrayList(table), transactionId,
+                    tabletCommitInfos);
+        }
+
+        RPC_NUM.set(0);
+        JOURNAL_WRITE_NUM.set(0);
+        PublishVersionDaemon daemon = new PublishVersionDaemon();
+        DatabaseTransactionMgr dbTransactionMgr = transactionMgr.getDatabaseTransactionMgr(
+                CatalogTestUtil.testDbId1);
+        int rounds = 0;
+        long start = System.nanoTime();
+        // the first round only sends the publish tasks
+        while (dbTransactionMgr.getRunningTxnNums() > 0 && rounds <= txnNum + 1) {
+            daemon.runAfterCatalogReady();
+            rounds++;
+        }
+        long costMs = Math.max(1, (System.nanoTime() - start) / 1000000);
+        Assertions.assertEquals(0, dbTransactionMgr.getRunningTxnNums());
+
+        System.out.printf("batch publish: %s, txns: %d, rounds: %d, rpcs: %d, journal writes: %d, cost: %d ms,"
+                        + " throughput: %d txn/s%n", Config.enable_batch_publish_version, txnNum, rounds,
+                RPC_NUM.get(), JOURNAL_WRITE_NUM.get(), costMs, txnNum * 1000L / costMs);
+    }
+
+    private static void syncJournal() {
+        JOURNAL_WRITE_NUM.incrementAndGet();
+        try {
+            Thread.sleep(JOURNAL_SYNC_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class JournalSyncEditLog extends MockUp<EditLog> {
+        @Mock
+        public void $init(String nodeName) { // CHECKSTYLE IGNORE THIS LINE
+        }
+
+        @Mock
+        public void logInsertTransactionState(TransactionState transactionState) {
+            syncJournal();
+        }
+
+        @Mock
+        public void logInsertTransactionStates(List<TransactionState> transactionStates) {
+            syncJournal();
+        }
+
+        @Mock
+        public void logSaveNextId(long nextId) {
+        }
+
+        @Mock
+        public void logBackendStateChange(Backend be) {
+        }
+    }
+
+    // finish the publish tasks at once, as if all the backends published the version successfully
+    private static class MockedAgentTaskExecutor extends MockUp<AgentTaskExecutor> {
+        @Mock
+        public static void submit(AgentBatchTask batchTask) {
+            Set<Long> backendIds = Sets.newHashSet();
+            for (AgentTask task : batchTask.getAllTasks()) {
+                backendIds.add(task.getBackendId());
+                if (task instanceof PublishVersionTask) {
+                    PublishVersionTask publishVersionTask = (PublishVersionTask) task;
+                    Map<Long, Long> succTablets = Maps.newHashMap();
+                    for (TPartitionVersionInfo info : publishVersionTask.getPartitionVersionInfos()) {
+                        succTablets.put(CatalogTestUtil.testTabletId1, info.getVersion());
+                    }
+                    publishVersionTask.setSuccTablets(succTablets);
+                    publishVersionTask.setFinished(true);
+                }
+            }
+            // one submitTasks rpc for each backend
+            RPC_NUM.addAndGet(backendIds.size());
+        }
+    }
+}
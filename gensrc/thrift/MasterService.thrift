@@ -114,11 +114,20 @@ struct TReportRequest {
     11: i32 num_cores
     12: i32 pipeline_executor_size
     13: optional map<Types.TPartitionId, Types.TVersion> partitions_version
+    // Delta tablet report: the tablets only contain the tablets changed since the report of
+    // tablet_report_base_generation, and deleted_tablet_ids are the tablets dropped since then.
+    // A full tablet report sets tablet_report_generation only, and starts a new base for delta reports.
+    14: optional bool is_delta_tablet_report
+    15: optional i64 tablet_report_generation
+    16: optional i64 tablet_report_base_generation
+    17: optional list<Types.TTabletId> deleted_tablet_ids
 }
 
 struct TMasterResult {
     // required in V1
     1: required Status.TStatus status
+    // the delta tablet report is rejected, backend should send a full tablet report
+    2: optional bool need_full_tablet_report
 }
 
 // Deprecated